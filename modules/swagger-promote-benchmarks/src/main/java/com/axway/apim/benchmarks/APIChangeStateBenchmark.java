@@ -0,0 +1,59 @@
+package com.axway.apim.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.TestIndicator;
+import com.axway.apim.swagger.APIChangeState;
+import com.axway.apim.swagger.api.state.IAPI;
+
+/**
+ * Computes the change state of an API, which is done for every API of a batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class APIChangeStateBenchmark {
+
+	@Param({"10", "200", "1000"})
+	public int operations;
+
+	private IAPI actualAPI;
+
+	private IAPI desiredAPI;
+
+	private IAPI unchangedAPI;
+
+	@Setup
+	public void setup() throws AppException {
+		TestIndicator.getInstance().setTestRunning(true);
+		actualAPI = BenchmarkData.createAPI(operations, "published");
+		desiredAPI = BenchmarkData.createAPI(operations, "unpublished");
+		unchangedAPI = BenchmarkData.createAPI(operations, "published");
+	}
+
+	@Benchmark
+	public APIChangeState changedState() throws AppException {
+		return new APIChangeState(actualAPI, desiredAPI);
+	}
+
+	@Benchmark
+	public APIChangeState unchangedState() throws AppException {
+		return new APIChangeState(actualAPI, unchangedAPI);
+	}
+}
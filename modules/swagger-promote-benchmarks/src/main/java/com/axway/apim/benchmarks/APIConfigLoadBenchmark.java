@@ -0,0 +1,113 @@
+package com.axway.apim.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axway.apim.lib.CommandParameters;
+import com.axway.apim.lib.EnvironmentProperties;
+import com.axway.apim.swagger.APIImportConfigAdapter;
+import com.axway.apim.swagger.api.state.IAPI;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Reads the API-Config of an API, which includes the substitution of the environment variables and 
+ * merging the stage API-Config into it.<br>
+ * The completion of the API-Config done by getDesiredAPI isn't measured, as it requires the API-Manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class APIConfigLoadBenchmark {
+
+	@Param({"10", "200"})
+	public int operations;
+
+	@Param({"10", "100"})
+	public int variables;
+
+	private File configDir;
+
+	private String apiConfig;
+
+	@Setup
+	public void setup() throws Exception {
+		// Variables are resolved using system properties, if not given in the env.properties
+		for(int i=0; i<variables; i++) {
+			System.setProperty("benchmarkVariable" + i, "value-" + i);
+		}
+		// Required parameters, the API-Manager isn't used
+		System.setProperty("host", "localhost");
+		System.setProperty("username", "benchmark");
+		System.setProperty("password", "benchmark");
+		CommandLine cmd = new DefaultParser().parse(new Options(), new String[]{});
+		new CommandParameters(cmd, null, new EnvironmentProperties(null));
+		configDir = Files.createTempDirectory("api-config-benchmark").toFile();
+		apiConfig = writeConfig(createConfig(operations, variables, false), "api-config.json");
+		writeConfig(createConfig(operations, variables, true), "api-config.benchmark.json");
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory(configDir);
+	}
+
+	@Benchmark
+	public IAPI withoutStage() throws Exception {
+		return new APIImportConfigAdapter(apiConfig, null, "not-used.json", false).getApiConfig();
+	}
+
+	@Benchmark
+	public IAPI withStage() throws Exception {
+		return new APIImportConfigAdapter(apiConfig, "benchmark", "not-used.json", false).getApiConfig();
+	}
+
+	private static ObjectNode createConfig(int operations, int variables, boolean stage) {
+		ObjectNode config = new ObjectMapper().createObjectNode();
+		config.put("name", "Benchmark API");
+		config.put("path", "/benchmark");
+		config.put("state", stage ? "published" : "unpublished");
+		config.put("version", "1.0.0");
+		config.put("organization", "API Development");
+		config.put("backendBasepath", stage ? "https://prod.example.com" : "https://test.example.com");
+		ObjectNode tags = config.putObject("tags");
+		for(int i=0; i<variables; i++) {
+			tags.putArray("tag" + i).add("${benchmarkVariable" + i + "}");
+		}
+		ObjectNode inboundProfiles = config.putObject("inboundProfiles");
+		for(int i=0; i<operations; i++) {
+			inboundProfiles.putObject("operation" + i)
+				.put("securityProfile", "_default").put("corsProfile", "_default").put("monitorAPI", !stage);
+		}
+		return config;
+	}
+
+	private String writeConfig(ObjectNode config, String name) throws IOException {
+		File configFile = new File(configDir, name);
+		FileUtils.writeStringToFile(configFile, new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(config), StandardCharsets.UTF_8);
+		return configFile.getAbsolutePath();
+	}
+}
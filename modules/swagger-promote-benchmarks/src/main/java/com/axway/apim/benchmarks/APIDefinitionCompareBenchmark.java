@@ -0,0 +1,71 @@
+package com.axway.apim.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axway.apim.lib.APIDefinitionComparison;
+import com.axway.apim.lib.TestIndicator;
+import com.axway.apim.swagger.api.properties.APIDefintion;
+
+/**
+ * Compares the API-Definition stored in the API-Manager with the desired one. The desired API-Definition 
+ * is formatted differently, as it's the case for a Swagger-File maintained by hand.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class APIDefinitionCompareBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int operations;
+
+	private APIDefintion actual;
+
+	private APIDefintion desired;
+
+	private APIDefintion changed;
+
+	private byte[] actualBytes;
+
+	private byte[] sameBytes;
+
+	@Setup
+	public void setup() throws IOException {
+		TestIndicator.getInstance().setTestRunning(true);
+		actualBytes = BenchmarkData.toBytes(BenchmarkData.createSwagger(operations, -1), false);
+		sameBytes = BenchmarkData.toBytes(BenchmarkData.createSwagger(operations, -1), false);
+		actual = new APIDefintion(actualBytes);
+		desired = new APIDefintion(BenchmarkData.toBytes(BenchmarkData.createSwagger(operations, -1), true));
+		changed = new APIDefintion(BenchmarkData.toBytes(BenchmarkData.createSwagger(operations, operations/2), true));
+	}
+
+	@Benchmark
+	public boolean equalDefinition() {
+		return actual.equals(desired);
+	}
+
+	@Benchmark
+	public boolean changedDefinition() {
+		return actual.equals(changed);
+	}
+
+	@Benchmark
+	public boolean compareBytes() {
+		return APIDefinitionComparison.compareBytes(actualBytes, sameBytes).isEqual();
+	}
+}
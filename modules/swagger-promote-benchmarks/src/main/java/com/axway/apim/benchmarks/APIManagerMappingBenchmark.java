@@ -0,0 +1,78 @@
+package com.axway.apim.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axway.apim.lib.JsonArrayReader;
+import com.axway.apim.swagger.api.properties.applications.ClientApplication;
+import com.axway.apim.swagger.api.state.ActualAPI;
+import com.axway.apim.swagger.api.state.IAPI;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Maps the applications and APIs returned by the API-Manager the same way as the APIManagerAdapter does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class APIManagerMappingBenchmark {
+
+	private static final Set<String> APP_FIELDS = JsonArrayReader.getProperties(ClientApplication.class);
+
+	private static final Set<String> API_FIELDS = JsonArrayReader.getProperties(ActualAPI.class);
+
+	@Param({"100", "1000", "10000"})
+	public int count;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private byte[] applications;
+
+	private byte[] proxies;
+
+	@Setup
+	public void setup() throws IOException {
+		applications = BenchmarkData.createApplications(count);
+		proxies = BenchmarkData.createProxies(count, 10);
+	}
+
+	@Benchmark
+	public List<ClientApplication> applications() throws IOException {
+		String response = mapper.writeValueAsString(JsonArrayReader.read(new ByteArrayInputStream(applications), APP_FIELDS));
+		return mapper.readValue(response, new TypeReference<List<ClientApplication>>(){});
+	}
+
+	@Benchmark
+	public List<IAPI> proxies() throws IOException {
+		final List<IAPI> apis = new ArrayList<IAPI>();
+		JsonArrayReader.read(new ByteArrayInputStream(proxies), API_FIELDS, new JsonArrayReader.ElementHandler() {
+			@Override
+			public boolean handle(JsonNode api) throws IOException {
+				apis.add(mapper.treeToValue(api, ActualAPI.class));
+				return true;
+			}
+		});
+		return apis;
+	}
+}
@@ -0,0 +1,71 @@
+package com.axway.apim.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares JMH results (-rf json) with the checked-in baseline and fails, if a benchmark got slower
+ * than the allowed threshold. A difference within the error of both measurements is not reported as regression.<br>
+ * Usage: java -cp benchmarks.jar com.axway.apim.benchmarks.BaselineComparison baseline.json results.json [thresholdPercent]
+ */
+public class BaselineComparison {
+
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2) {
+			System.err.println("Usage: BaselineComparison <baseline.json> <results.json> [thresholdPercent, defaults to 10]");
+			System.exit(99);
+		}
+		double threshold = (args.length > 2) ? Double.parseDouble(args[2]) : 10;
+		Map<String, JsonNode> baseline = read(new File(args[0]));
+		Map<String, JsonNode> results = read(new File(args[1]));
+		int regressions = 0;
+		for(Map.Entry<String, JsonNode> result : results.entrySet()) {
+			JsonNode base = baseline.get(result.getKey());
+			if(base==null) {
+				System.out.println(String.format("%-100s %12s", result.getKey(), "NEW"));
+				continue;
+			}
+			double baseScore = base.get("score").asDouble();
+			double score = result.getValue().get("score").asDouble();
+			double change = (baseScore==0) ? 0 : (score - baseScore) * 100 / baseScore;
+			// All benchmarks measure the average time, hence a higher score is worse
+			boolean withinError = Math.abs(score - baseScore) <= error(base) + error(result.getValue());
+			boolean regression = change > threshold && !withinError;
+			if(regression) regressions++;
+			System.out.println(String.format("%-100s %+11.1f%% %s", result.getKey(), change, regression ? "REGRESSION" : ""));
+		}
+		System.out.println(regressions + " regression(s) above " + threshold + "% compared to: " + args[0]);
+		System.exit(regressions > 0 ? 1 : 0);
+	}
+
+	private static double error(JsonNode metric) {
+		double error = metric.path("scoreError").asDouble(0);
+		return Double.isNaN(error) ? 0 : error;
+	}
+
+	/**
+	 * @return the primary metric of each benchmark addressed by its name and parameters
+	 */
+	private static Map<String, JsonNode> read(File resultFile) throws IOException {
+		Map<String, JsonNode> metrics = new LinkedHashMap<String, JsonNode>();
+		for(JsonNode result : new ObjectMapper().readTree(resultFile)) {
+			StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+			Map<String, String> params = new TreeMap<String, String>();
+			Iterator<Map.Entry<String, JsonNode>> it = result.path("params").fields();
+			while(it.hasNext()) {
+				Map.Entry<String, JsonNode> param = it.next();
+				params.put(param.getKey(), param.getValue().asText());
+			}
+			if(!params.isEmpty()) key.append(" ").append(params);
+			metrics.put(key.toString(), result.get("primaryMetric"));
+		}
+		return metrics;
+	}
+}
@@ -0,0 +1,169 @@
+package com.axway.apim.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.swagger.api.properties.inboundprofiles.InboundProfile;
+import com.axway.apim.swagger.api.state.ActualAPI;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Generates the test data used by the benchmarks. The data is generated instead of checked in,
+ * as the benchmarks are parameterized by its size.
+ */
+public class BenchmarkData {
+
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	/**
+	 * @param operations number of operations (a GET and a PUT for every second path)
+	 * @param changedOperation number of the operation with a changed description or -1
+	 * @return a Swagger 2.0 API-Definition
+	 */
+	public static ObjectNode createSwagger(int operations, int changedOperation) {
+		ObjectNode swagger = mapper.createObjectNode();
+		swagger.put("swagger", "2.0");
+		swagger.putObject("info").put("title", "Benchmark API").put("version", "1.0.0");
+		swagger.put("host", "backend.example.com");
+		swagger.put("basePath", "/v1");
+		swagger.putArray("schemes").add("https");
+		ObjectNode paths = swagger.putObject("paths");
+		for(int i=0; i<operations; i++) {
+			ObjectNode path = (ObjectNode)paths.get("/resource" + (i/2) + "/{id}");
+			if(path==null) path = paths.putObject("/resource" + (i/2) + "/{id}");
+			ObjectNode operation = path.putObject((i%2==0) ? "get" : "put");
+			operation.put("operationId", "operation" + i);
+			operation.put("summary", "Operation " + i);
+			operation.put("description", (i==changedOperation) ? "Changed description" : "Description of operation " + i);
+			ArrayNode parameters = operation.putArray("parameters");
+			parameters.addObject().put("name", "id").put("in", "path").put("required", true).put("type", "integer").put("format", "int64");
+			parameters.addObject().put("name", "filter").put("in", "query").put("required", false).put("type", "string");
+			ObjectNode responses = operation.putObject("responses");
+			responses.putObject("200").put("description", "OK").putObject("schema").put("$ref", "#/definitions/Resource");
+			responses.putObject("404").put("description", "Not found");
+		}
+		ObjectNode resource = swagger.putObject("definitions").putObject("Resource");
+		resource.put("type", "object");
+		ObjectNode properties = resource.putObject("properties");
+		properties.putObject("id").put("type", "integer").put("format", "int64");
+		properties.putObject("name").put("type", "string");
+		properties.putObject("price").put("type", "number").put("example", 1.50);
+		return swagger;
+	}
+
+	public static byte[] toBytes(ObjectNode json, boolean pretty) throws IOException {
+		if(pretty) return mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(json);
+		return mapper.writeValueAsBytes(json);
+	}
+
+	/**
+	 * @param size width and height of the image
+	 * @param changedPixels number of pixels changed, to create a slightly different image
+	 * @return the image encoded as PNG
+	 */
+	public static byte[] createImage(int size, int changedPixels) throws IOException {
+		BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = image.createGraphics();
+		for(int y=0; y<size; y+=8) {
+			graphics.setColor(new Color((y * 255) / size, 128, 255 - (y * 255) / size));
+			graphics.fillRect(0, y, size, 8);
+		}
+		graphics.setColor(Color.WHITE);
+		graphics.fillOval(size/4, size/4, size/2, size/2);
+		graphics.dispose();
+		for(int i=0; i<changedPixels; i++) {
+			image.setRGB((i * 7) % size, (i * 13) % size, 0x000000);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * @param operations number of operations having an Inbound-Profile
+	 * @param state of the API
+	 * @return an API as loaded from the API-Manager
+	 */
+	public static ActualAPI createAPI(int operations, String state) throws AppException {
+		ActualAPI api = new ActualAPI();
+		api.setValid(true);
+		api.setState(state);
+		api.setName("Benchmark API");
+		Map<String, InboundProfile> inboundProfiles = new LinkedHashMap<String, InboundProfile>();
+		for(int i=0; i<operations; i++) {
+			InboundProfile profile = new InboundProfile();
+			profile.setSecurityProfile("_default");
+			profile.setCorsProfile("_default");
+			profile.setMonitorAPI("true");
+			inboundProfiles.put("operation-" + i, profile);
+		}
+		api.setInboundProfiles(inboundProfiles);
+		return api;
+	}
+
+	/**
+	 * @param count number of applications
+	 * @return the applications as returned by the API-Manager (/applications), including properties not mapped by the tool
+	 */
+	public static byte[] createApplications(int count) throws IOException {
+		ArrayNode apps = mapper.createArrayNode();
+		for(int i=0; i<count; i++) {
+			ObjectNode app = apps.addObject();
+			app.put("id", "app-" + i);
+			app.put("name", "Application " + i);
+			app.put("description", "Application number " + i + " used to run the benchmark");
+			app.put("organizationId", "org-" + (i % 50));
+			app.put("phone", "+49 000 " + i);
+			app.put("email", "app" + i + "@example.com");
+			app.put("createdBy", "user-" + (i % 10));
+			app.set("managedBy", mapper.createArrayNode().add("user-" + (i % 10)));
+			app.put("createdOn", 1565000000000L + i);
+			app.put("enabled", true);
+			app.put("image", "/api/portal/v1.3/applications/app-" + i + "/image");
+			app.put("state", "approved");
+		}
+		return mapper.writeValueAsBytes(apps);
+	}
+
+	/**
+	 * @param count number of APIs
+	 * @param operations number of Inbound-Profiles of each API
+	 * @return the APIs as returned by the API-Manager (/proxies), including properties not mapped by the tool
+	 */
+	public static byte[] createProxies(int count, int operations) throws IOException {
+		ArrayNode apis = mapper.createArrayNode();
+		for(int i=0; i<count; i++) {
+			ObjectNode api = apis.addObject();
+			api.put("id", "api-" + i);
+			api.put("organizationId", "org-" + (i % 50));
+			api.put("apiId", "backend-" + i);
+			api.put("name", "API " + i);
+			api.put("version", "1.0." + i);
+			api.put("apiRoutingKey", (String)null);
+			api.put("vhost", (String)null);
+			api.put("path", "/api/" + i);
+			api.put("descriptionType", "original");
+			api.put("summary", "Summary of API " + i);
+			api.put("state", (i%3==0) ? "unpublished" : "published");
+			api.put("createdOn", 1565000000000L + i);
+			api.put("createdBy", "user-" + (i % 10));
+			ObjectNode inboundProfiles = api.putObject("inboundProfiles");
+			for(int o=0; o<operations; o++) {
+				inboundProfiles.putObject((o==0) ? "_default" : "operation-" + o)
+					.put("securityProfile", "_default").put("corsProfile", "_default").put("monitorAPI", true).put("monitorSubject", "authentication.subject.id");
+			}
+			api.putObject("tags").putArray("stage").add("prod");
+		}
+		return mapper.writeValueAsBytes(apis);
+	}
+}
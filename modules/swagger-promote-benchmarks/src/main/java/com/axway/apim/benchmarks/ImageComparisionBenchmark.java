@@ -0,0 +1,56 @@
+package com.axway.apim.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axway.apim.lib.ImageComparision;
+
+/**
+ * Compares the image of an API with the image stored in the API-Manager, which differs slightly as 
+ * it has been processed by the API-Manager.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImageComparisionBenchmark {
+
+	@Param({"64", "256", "1024"})
+	public int size;
+
+	private byte[] image;
+
+	private byte[] processedImage;
+
+	@Setup
+	public void setup() throws IOException {
+		image = BenchmarkData.createImage(size, 0);
+		processedImage = BenchmarkData.createImage(size, 10);
+	}
+
+	@Benchmark
+	public boolean compare() {
+		// Without cached signatures and results, as for the first API of a batch
+		ImageComparision.clearCache();
+		return ImageComparision.compare(image, processedImage);
+	}
+
+	@Benchmark
+	public boolean compareCached() {
+		return ImageComparision.compare(image, processedImage);
+	}
+}
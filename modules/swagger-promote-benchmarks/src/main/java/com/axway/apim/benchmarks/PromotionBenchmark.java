@@ -0,0 +1,116 @@
+package com.axway.apim.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.axway.apim.App;
+import com.axway.apim.benchmarks.simulator.APIManagerSimulator;
+import com.axway.apim.benchmarks.simulator.SimulatorDataset;
+import com.axway.apim.lib.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Promotes an API end to end using the command line against the API-Manager simulator, which contains
+ * a dataset of the given number of applications (and a fifth organizations, half APIs).
+ * The latency is added to each request to the simulator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PromotionBenchmark {
+
+	@Param({"1000", "10000"})
+	public int applications;
+
+	@Param({"0", "5"})
+	public int latency;
+
+	private APIManagerSimulator simulator;
+
+	private File configDir;
+
+	private String[] args;
+
+	private int createdAPIs = 0;
+
+	@Setup
+	public void setup() throws Exception {
+		SimulatorDataset dataset = new SimulatorDataset(applications / 5, applications, applications / 2);
+		simulator = new APIManagerSimulator(dataset.create(), 0);
+		simulator.setLatency(latency, 0);
+		simulator.start();
+		configDir = Files.createTempDirectory("promotion-benchmark").toFile();
+		File apiDefinition = new File(configDir, "swagger.json");
+		FileUtils.writeByteArrayToFile(apiDefinition, BenchmarkData.toBytes(BenchmarkData.createSwagger(20, -1), true));
+		File config = new File(configDir, "api-config.json");
+		FileUtils.writeStringToFile(config, new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(createConfig()), StandardCharsets.UTF_8);
+		args = new String[] {"-c", config.getAbsolutePath(), "-a", apiDefinition.getAbsolutePath(),
+				"-h", "localhost", "-port", Integer.toString(simulator.getPort()),
+				"-u", SimulatorDataset.ADMIN_USER, "-p", SimulatorDataset.PASSWORD, "-f", "true"};
+		// The path is resolved using a system property, to promote a new API on each invocation
+		System.setProperty("benchmarkPath", "/benchmark/unchanged");
+		promote(0);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		simulator.stop();
+		FileUtils.deleteDirectory(configDir);
+	}
+
+	@Benchmark
+	public int promoteUnchanged() {
+		System.setProperty("benchmarkPath", "/benchmark/unchanged");
+		return promote(ErrorCode.NO_CHANGE.getCode());
+	}
+
+	@Benchmark
+	public int promoteNew() {
+		System.setProperty("benchmarkPath", "/benchmark/new/" + (++createdAPIs));
+		return promote(0);
+	}
+
+	private int promote(int expectedRc) {
+		int rc = App.run(args);
+		if(rc!=expectedRc) throw new IllegalStateException("Promotion failed with rc: " + rc + ", expected: " + expectedRc);
+		return rc;
+	}
+
+	private static ObjectNode createConfig() {
+		ObjectNode config = new ObjectMapper().createObjectNode();
+		config.put("name", "Benchmark API");
+		config.put("path", "${benchmarkPath}");
+		config.put("state", "published");
+		config.put("version", "1.0.0");
+		config.put("organization", SimulatorDataset.DEVELOPMENT_ORG);
+		config.putArray("clientOrganizations").add("Organization 1").add("Organization 2");
+		config.putArray("applications").addObject().put("name", "Application 1");
+		ObjectNode inboundProfiles = config.putObject("inboundProfiles");
+		for(int i=0; i<20; i+=5) {
+			inboundProfiles.putObject("operation" + i)
+				.put("securityProfile", "_default").put("corsProfile", "_default").put("monitorAPI", false);
+		}
+		return config;
+	}
+}
@@ -0,0 +1,562 @@
+package com.axway.apim.benchmarks.simulator;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.axway.apim.actions.rest.RestAPICall;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsServer;
+
+/**
+ * In-process stand-in for the API-Manager implementing the REST-API endpoints (/api/portal/v1.3) used by the tool.
+ * It allows to run promotions and benchmarks against large datasets (see {@link SimulatorDataset}) without an
+ * API-Manager. The state is kept in memory ({@link SimulatorState}) and each request can be delayed to simulate the latency
+ * of a remote API-Manager.<br>
+ * As the tool always uses HTTPS, a self-signed certificate is created on start using the keytool of the running JVM.<br>
+ * Usage: java -cp benchmarks.jar com.axway.apim.benchmarks.simulator.APIManagerSimulator -port 8075 -apps 10000
+ */
+public class APIManagerSimulator {
+
+	private static Logger LOG = LoggerFactory.getLogger(APIManagerSimulator.class);
+
+	static final String API_VERSION = RestAPICall.API_VERSION;
+
+	private static final String SESSION_COOKIE = "APIMANAGERSESSION";
+
+	private static final char[] KEYSTORE_PASSWORD = "simulator".toCharArray();
+
+	static {
+		// Otherwise small responses are delayed by Nagle's algorithm, which is read once by the JDK HTTP-Server
+		if(System.getProperty("sun.net.httpserver.nodelay")==null) System.setProperty("sun.net.httpserver.nodelay", "true");
+	}
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private SimulatorState state;
+
+	private int port;
+
+	private int latency = 0;
+
+	private int latencyJitter = 0;
+
+	private Random random = new Random();
+
+	private Map<String, Session> sessions = new ConcurrentHashMap<String, Session>();
+
+	private AtomicLong requestCount = new AtomicLong();
+
+	private HttpsServer server;
+
+	private ExecutorService executor;
+
+	/**
+	 * @param state the state of the simulated API-Manager, e.g. populated using the {@link SimulatorDataset}
+	 * @param port the port to listen on or 0 to use any free port
+	 */
+	public APIManagerSimulator(SimulatorState state, int port) {
+		super();
+		this.state = state;
+		this.port = port;
+	}
+
+	/**
+	 * @param latency milliseconds each request is delayed
+	 * @param latencyJitter additional random delay in milliseconds up to the given value
+	 */
+	public void setLatency(int latency, int latencyJitter) {
+		this.latency = latency;
+		this.latencyJitter = latencyJitter;
+	}
+
+	public SimulatorState getState() {
+		return state;
+	}
+
+	/**
+	 * @return the port the simulator is listening on, which is known after start
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	public void start() throws IOException {
+		server = HttpsServer.create(new InetSocketAddress("localhost", port), 100);
+		server.setHttpsConfigurator(new HttpsConfigurator(createSSLContext()));
+		// Requests are delayed by sleeping, hence the number of threads must not limit the parallelism of the tool
+		executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			private AtomicInteger count = new AtomicInteger();
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "apim-simulator-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		server.setExecutor(executor);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				handleExchange(exchange);
+			}
+		});
+		server.start();
+		port = server.getAddress().getPort();
+		LOG.info("API-Manager simulator listening on: https://localhost:" + port);
+	}
+
+	public void stop() {
+		if(server!=null) server.stop(0);
+		if(executor!=null) executor.shutdownNow();
+		sessions.clear();
+	}
+
+	private void handleExchange(HttpExchange exchange) {
+		SimulatorResponse response;
+		try {
+			requestCount.incrementAndGet();
+			simulateLatency();
+			SimulatorRequest request = new SimulatorRequest(exchange);
+			response = dispatch(request);
+			if(request.getMethod().equals("GET") && response.status==200) {
+				response = withETag(request, response);
+			}
+			LOG.debug(request.getMethod() + " " + request.getPath() + " -> " + response.status);
+		} catch (Exception e) {
+			LOG.error("Error handling request: " + exchange.getRequestMethod() + " " + exchange.getRequestURI(), e);
+			response = SimulatorResponse.error(500, e.getMessage());
+		}
+		try {
+			send(exchange, response);
+		} catch (IOException e) {
+			LOG.debug("Can't send response: " + e.getMessage());
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void simulateLatency() throws InterruptedException {
+		int delay = latency + ((latencyJitter > 0) ? random.nextInt(latencyJitter + 1) : 0);
+		if(delay > 0) Thread.sleep(delay);
+	}
+
+	private SimulatorResponse dispatch(SimulatorRequest request) throws IOException {
+		if(request.getPath().equals("/vordel/apiportal/app/app.config")) {
+			return new SimulatorResponse(200, state.getAppConfig().getBytes(StandardCharsets.UTF_8), "application/javascript");
+		}
+		if(!request.getPath().startsWith(API_VERSION)) return SimulatorResponse.notFound();
+		String resource = request.getSegment(0);
+		if("login".equals(resource) && request.getMethod().equals("POST")) {
+			return login(request);
+		}
+		Session session = getSession(request);
+		if(session==null) return SimulatorResponse.error(401, "Not logged in");
+		if(!request.getMethod().equals("GET") && !session.csrfToken.equals(request.getHeader("CSRF-Token"))) {
+			return SimulatorResponse.error(403, "Invalid CSRF-Token");
+		}
+		String userId = session.user.get("id").asText();
+		if(resource==null) return SimulatorResponse.notFound();
+		switch (resource) {
+		case "currentuser":
+			SimulatorResponse currentUser = json(200, session.user);
+			currentUser.headers.put("CSRF-Token", session.csrfToken);
+			return currentUser;
+		case "config":
+			return json(200, state.getConfig());
+		case "proxies":
+			return proxies(request, userId);
+		case "apirepo":
+			return apirepo(request, session);
+		case "organizations":
+			return organizations(request);
+		case "applications":
+			return applications(request, userId);
+		case "quotas":
+			return quotas(request);
+		case "policies":
+			return json(200, state.getPolicies(request.getQueryParameter("type")));
+		case "tokenstores":
+			return json(200, state.getPolicies("tokenstores"));
+		case "certinfo":
+			return certInfo(request);
+		case "filedata":
+			ObjectNode fileData = mapper.createObjectNode();
+			fileData.put("data", "data:application/x-pkcs12;base64," + Base64.getEncoder().encodeToString(request.getFormFile("file")));
+			return json(200, fileData);
+		default:
+			return SimulatorResponse.notFound();
+		}
+	}
+
+	private SimulatorResponse login(SimulatorRequest request) throws IOException {
+		ObjectNode user = state.login(request.getFormValue("username"), request.getFormValue("password"));
+		if(user==null) return SimulatorResponse.error(401, "Invalid username or password");
+		String sessionId = UUID.randomUUID().toString();
+		sessions.put(sessionId, new Session(user, UUID.randomUUID().toString()));
+		SimulatorResponse response = SimulatorResponse.noContent();
+		response.headers.put("Set-Cookie", SESSION_COOKIE + "=" + sessionId + "; Path=/; Secure; HttpOnly");
+		return response;
+	}
+
+	private Session getSession(SimulatorRequest request) {
+		String cookies = request.getHeader("Cookie");
+		if(cookies==null) return null;
+		for(String cookie : cookies.split(";")) {
+			String[] nameValue = cookie.trim().split("=", 2);
+			if(nameValue.length==2 && nameValue[0].equals(SESSION_COOKIE)) {
+				return sessions.get(nameValue[1]);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * /proxies including: operations, image, applications, state changes, grantaccess and upgrade
+	 */
+	private SimulatorResponse proxies(SimulatorRequest request, String userId) throws IOException {
+		String method = request.getMethod();
+		String id = request.getSegment(1);
+		String sub = request.getSegment(2);
+		if(id==null) {
+			if(method.equals("GET")) return json(200, state.getProxies(request.getFilters()));
+			if(method.equals("POST")) {
+				JsonNode create = mapper.readTree(request.getBody());
+				return json(201, state.createProxy(create.path("apiId").asText(), create.path("organizationId").asText(), userId));
+			}
+		} else if(id.equals("grantaccess") && method.equals("POST")) {
+			if(!"orgs".equals(request.getFormValue("action"))) return SimulatorResponse.error(400, "Only action=orgs is supported");
+			boolean granted = state.grantAccess(request.getFormValue("apiId"), request.getFormValues("grantOrgId"), userId);
+			return granted ? SimulatorResponse.noContent() : SimulatorResponse.error(400, "Unknown API or organization");
+		} else if(id.equals("upgrade") && sub!=null && method.equals("POST")) {
+			boolean upgraded = state.upgradeAccess(sub, request.getFormValue("upgradeApiId"), userId);
+			return upgraded ? SimulatorResponse.noContent() : SimulatorResponse.error(400, "Unknown API");
+		} else if(sub==null) {
+			if(method.equals("GET")) return json(200, state.getProxy(id));
+			if(method.equals("PUT")) return json(200, state.updateProxy(id, (ObjectNode)mapper.readTree(request.getBody())));
+			if(method.equals("DELETE")) return state.deleteProxy(id) ? SimulatorResponse.noContent() : SimulatorResponse.notFound();
+		} else if(sub.equals("operations") && method.equals("GET")) {
+			String operationId = request.getSegment(3);
+			return json(200, (operationId==null) ? state.getOperations(id) : state.getOperation(id, operationId));
+		} else if(sub.equals("image")) {
+			if(method.equals("GET")) {
+				byte[] image = state.getImage(id);
+				return (image==null) ? SimulatorResponse.notFound() : new SimulatorResponse(200, image, "image/jpeg");
+			}
+			if(method.equals("POST")) return json(200, state.setImage(id, request.getFormFile("file")));
+		} else if(sub.equals("applications") && method.equals("GET")) {
+			return json(200, state.getSubscribedApps(id));
+		} else if(method.equals("POST")) {
+			if(state.getProxy(id)==null) return SimulatorResponse.notFound();
+			ObjectNode changed = state.changeState(id, sub, request.getFormValue("vhost"));
+			return (changed==null) ? SimulatorResponse.error(400, "Can't " + sub + " API in current state") : json(201, changed);
+		}
+		return SimulatorResponse.notFound();
+	}
+
+	private SimulatorResponse apirepo(SimulatorRequest request, Session session) throws IOException {
+		String method = request.getMethod();
+		String id = request.getSegment(1);
+		if(id==null && method.equals("GET")) {
+			return json(200, state.getBackendAPIs(request.getFilters()));
+		} else if("import".equals(id) && method.equals("POST")) {
+			String orgId = request.getFormValue("organizationId");
+			if(orgId==null) orgId = session.user.get("organizationId").asText();
+			return json(201, state.importBackendAPI(request.getFormValue("name"), orgId, request.getFormFile("file"), session.user.get("id").asText()));
+		} else if("importFromUrl".equals(id)) {
+			return SimulatorResponse.error(501, "Import from URL (WSDL) is not supported by the simulator");
+		} else if(id!=null && "download".equals(request.getSegment(2)) && method.equals("GET")) {
+			byte[] definition = state.getDefinition(id);
+			return (definition==null) ? SimulatorResponse.notFound() : new SimulatorResponse(200, definition, "application/json");
+		} else if(id!=null && method.equals("DELETE")) {
+			return state.deleteBackendAPI(id) ? SimulatorResponse.noContent() : SimulatorResponse.notFound();
+		}
+		return SimulatorResponse.notFound();
+	}
+
+	private SimulatorResponse organizations(SimulatorRequest request) throws IOException {
+		String method = request.getMethod();
+		String id = request.getSegment(1);
+		if(id==null && method.equals("GET")) {
+			return json(200, state.getOrganizations());
+		} else if(id!=null && "apis".equals(request.getSegment(2))) {
+			String accessId = request.getSegment(3);
+			if(accessId==null && method.equals("GET")) return json(200, state.getOrgAccess(id));
+			if(accessId!=null && method.equals("DELETE")) {
+				return state.removeOrgAccess(id, accessId) ? SimulatorResponse.noContent() : SimulatorResponse.notFound();
+			}
+		}
+		return SimulatorResponse.notFound();
+	}
+
+	private SimulatorResponse applications(SimulatorRequest request, String userId) throws IOException {
+		String method = request.getMethod();
+		String id = request.getSegment(1);
+		String sub = request.getSegment(2);
+		if(id==null) {
+			if(method.equals("GET")) return json(200, state.getApplications());
+		} else if("apis".equals(sub)) {
+			String apiId = request.getSegment(3);
+			if(apiId==null && method.equals("GET")) return json(200, state.getSubscriptions(id));
+			if(apiId==null && method.equals("POST")) {
+				return json(201, state.subscribe(id, mapper.readTree(request.getBody()).path("apiId").asText(), userId));
+			}
+			if(apiId!=null && method.equals("DELETE")) {
+				return state.unsubscribe(id, apiId) ? SimulatorResponse.noContent() : SimulatorResponse.notFound();
+			}
+		} else if("quota".equals(sub)) {
+			if(method.equals("GET")) return json(200, state.getAppQuota(id));
+			if(method.equals("PUT") || method.equals("POST")) {
+				if(!state.updateAppQuota(id, (ObjectNode)mapper.readTree(request.getBody()))) return SimulatorResponse.notFound();
+				return json(200, state.getAppQuota(id));
+			}
+		} else if(sub!=null && method.equals("GET")) {
+			return json(200, state.getCredentials(id, sub));
+		}
+		return SimulatorResponse.notFound();
+	}
+
+	private SimulatorResponse quotas(SimulatorRequest request) throws IOException {
+		String id = request.getSegment(1);
+		if(id==null) return SimulatorResponse.notFound();
+		if(request.getMethod().equals("GET")) return json(200, state.getQuota(id));
+		if(request.getMethod().equals("PUT")) {
+			if(!state.updateQuota(id, (ObjectNode)mapper.readTree(request.getBody()))) return SimulatorResponse.notFound();
+			return json(200, state.getQuota(id));
+		}
+		return SimulatorResponse.notFound();
+	}
+
+	/**
+	 * Returns the information of the uploaded certificate as the API-Manager does.
+	 */
+	private SimulatorResponse certInfo(SimulatorRequest request) throws IOException {
+		byte[] certFile = request.getFormFile("file");
+		if(certFile==null) return SimulatorResponse.error(400, "No certificate given");
+		try {
+			X509Certificate cert = (X509Certificate)CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(certFile));
+			String subject = cert.getSubjectX500Principal().getName();
+			ArrayNode certInfo = mapper.createArrayNode();
+			ObjectNode info = certInfo.addObject();
+			info.put("certBlob", "-----BEGIN CERTIFICATE-----\n" + Base64.getMimeEncoder().encodeToString(cert.getEncoded()) + "\n-----END CERTIFICATE-----");
+			info.put("name", subject);
+			info.put("alias", subject);
+			info.put("subject", subject);
+			info.put("issuer", cert.getIssuerX500Principal().getName());
+			info.put("version", Integer.toString(cert.getVersion()));
+			info.put("notValidBefore", Long.toString(cert.getNotBefore().getTime()));
+			info.put("notValidAfter", Long.toString(cert.getNotAfter().getTime()));
+			info.put("signatureAlgorithm", cert.getSigAlgName());
+			info.put("sha1Fingerprint", fingerprint("SHA-1", cert.getEncoded()));
+			info.put("md5Fingerprint", fingerprint("MD5", cert.getEncoded()));
+			info.put("expired", Boolean.toString(cert.getNotAfter().getTime() < System.currentTimeMillis()));
+			info.put("notYetValid", Boolean.toString(cert.getNotBefore().getTime() > System.currentTimeMillis()));
+			info.put("inbound", request.getFormValue("inbound"));
+			info.put("outbound", request.getFormValue("outbound"));
+			return json(200, certInfo);
+		} catch (Exception e) {
+			return SimulatorResponse.error(400, "Can't read certificate: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Adds an ETag to the response and answers with 304, if the client has the same version already.
+	 */
+	private SimulatorResponse withETag(SimulatorRequest request, SimulatorResponse response) throws Exception {
+		String etag = "\"" + fingerprint("MD5", response.body).replace(":", "") + "\"";
+		if(etag.equals(request.getHeader("If-None-Match"))) {
+			response = new SimulatorResponse(304, new byte[0], null);
+		}
+		response.headers.put("ETag", etag);
+		return response;
+	}
+
+	private SimulatorResponse json(int status, JsonNode body) throws IOException {
+		if(body==null) return SimulatorResponse.notFound();
+		return new SimulatorResponse(status, mapper.writeValueAsBytes(body), "application/json");
+	}
+
+	private static void send(HttpExchange exchange, SimulatorResponse response) throws IOException {
+		if(response.contentType!=null) exchange.getResponseHeaders().set("Content-Type", response.contentType);
+		for(Map.Entry<String, String> header : response.headers.entrySet()) {
+			exchange.getResponseHeaders().set(header.getKey(), header.getValue());
+		}
+		boolean noBody = response.body.length==0;
+		exchange.sendResponseHeaders(response.status, noBody ? -1 : response.body.length);
+		if(!noBody) {
+			OutputStream out = exchange.getResponseBody();
+			out.write(response.body);
+			out.close();
+		}
+	}
+
+	private static String fingerprint(String algorithm, byte[] data) throws Exception {
+		byte[] digest = MessageDigest.getInstance(algorithm).digest(data);
+		StringBuilder result = new StringBuilder();
+		for(byte b : digest) {
+			if(result.length() > 0) result.append(':');
+			result.append(String.format("%02X", b));
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Creates a key-store with a self-signed certificate for localhost, to avoid shipping a key-store.
+	 */
+	private static SSLContext createSSLContext() throws IOException {
+		File keyStoreFile = File.createTempFile("apim-simulator", ".p12");
+		FileUtils.deleteQuietly(keyStoreFile);
+		String keytool = System.getProperty("java.home") + File.separator + "bin" + File.separator + "keytool";
+		String password = new String(KEYSTORE_PASSWORD);
+		try {
+			Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "simulator", "-keyalg", "RSA", "-keysize", "2048",
+					"-validity", "3650", "-dname", "CN=localhost", "-storetype", "PKCS12", "-keystore", keyStoreFile.getAbsolutePath(),
+					"-storepass", password, "-keypass", password).redirectErrorStream(true).start();
+			String output = IOUtils.toString(process.getInputStream(), StandardCharsets.UTF_8);
+			if(process.waitFor()!=0) throw new IOException("Can't create key-store using: " + keytool + ": " + output);
+			KeyStore keyStore = KeyStore.getInstance("PKCS12");
+			InputStream in = new FileInputStream(keyStoreFile);
+			try {
+				keyStore.load(in, KEYSTORE_PASSWORD);
+			} finally {
+				in.close();
+			}
+			KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+			keyManagers.init(keyStore, KEYSTORE_PASSWORD);
+			SSLContext sslContext = SSLContext.getInstance("TLS");
+			sslContext.init(keyManagers.getKeyManagers(), null, null);
+			return sslContext;
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException("Can't create SSL-Context for the simulator", e);
+		} finally {
+			FileUtils.deleteQuietly(keyStoreFile);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options options = new Options();
+		options.addOption(new Option("port", true, "Port to listen on. Defaults to 8075."));
+		options.addOption(new Option("latency", true, "Milliseconds each request is delayed. Defaults to 0."));
+		options.addOption(new Option("latencyJitter", true, "Additional random delay of each request up to the given milliseconds. Defaults to 0."));
+		options.addOption(new Option("orgs", true, "Number of generated organizations. Defaults to " + SimulatorDataset.DEFAULT_ORGANIZATIONS + "."));
+		options.addOption(new Option("apps", true, "Number of generated applications. Defaults to " + SimulatorDataset.DEFAULT_APPLICATIONS + "."));
+		options.addOption(new Option("proxies", true, "Number of generated APIs. Defaults to " + SimulatorDataset.DEFAULT_PROXIES + "."));
+		options.addOption(new Option("version", true, "The API-Manager version returned by the simulator. Defaults to 7.7.0."));
+		options.addOption(new Option("help", "Print the usage information"));
+		CommandLine cmd;
+		try {
+			cmd = new DefaultParser().parse(options, args);
+		} catch (ParseException e) {
+			new HelpFormatter().printHelp("APIManagerSimulator", options);
+			System.exit(99);
+			return;
+		}
+		if(cmd.hasOption("help")) {
+			new HelpFormatter().printHelp("APIManagerSimulator", options);
+			return;
+		}
+		SimulatorDataset dataset = new SimulatorDataset(
+				Integer.parseInt(cmd.getOptionValue("orgs", Integer.toString(SimulatorDataset.DEFAULT_ORGANIZATIONS))),
+				Integer.parseInt(cmd.getOptionValue("apps", Integer.toString(SimulatorDataset.DEFAULT_APPLICATIONS))),
+				Integer.parseInt(cmd.getOptionValue("proxies", Integer.toString(SimulatorDataset.DEFAULT_PROXIES))));
+		SimulatorState state = dataset.create();
+		state.setVersion(cmd.getOptionValue("version", "7.7.0"));
+		APIManagerSimulator simulator = new APIManagerSimulator(state, Integer.parseInt(cmd.getOptionValue("port", "8075")));
+		simulator.setLatency(Integer.parseInt(cmd.getOptionValue("latency", "0")), Integer.parseInt(cmd.getOptionValue("latencyJitter", "0")));
+		simulator.start();
+		System.out.println("API-Manager simulator started on port: " + simulator.getPort() + " (" + dataset + "). "
+				+ "Login with: " + SimulatorDataset.ADMIN_USER + "/" + SimulatorDataset.PASSWORD + " or " + SimulatorDataset.ORG_ADMIN_USER + "/" + SimulatorDataset.PASSWORD);
+		// Runs until the JVM is stopped, as all threads of the server are daemons
+		Thread.currentThread().join();
+	}
+
+	private static class Session {
+
+		private ObjectNode user;
+
+		private String csrfToken;
+
+		private Session(ObjectNode user, String csrfToken) {
+			this.user = user;
+			this.csrfToken = csrfToken;
+		}
+	}
+
+	private static class SimulatorResponse {
+
+		private int status;
+
+		private byte[] body;
+
+		private String contentType;
+
+		private Map<String, String> headers = new LinkedHashMap<String, String>();
+
+		private SimulatorResponse(int status, byte[] body, String contentType) {
+			this.status = status;
+			this.body = body;
+			this.contentType = contentType;
+		}
+
+		private static SimulatorResponse error(int status, String message) {
+			ObjectNode error = JsonNodeFactory.instance.objectNode();
+			error.putArray("errors").addObject().put("code", status).put("message", message);
+			return new SimulatorResponse(status, error.toString().getBytes(StandardCharsets.UTF_8), "application/json");
+		}
+
+		private static SimulatorResponse notFound() {
+			return error(404, "Not found");
+		}
+
+		private static SimulatorResponse noContent() {
+			return new SimulatorResponse(204, new byte[0], null);
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.axway.apim.benchmarks.simulator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.axway.apim.benchmarks.BenchmarkData;
+import com.axway.apim.swagger.APIManagerAdapter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Generates a synthetic API-Manager dataset. The dataset is the same for the same sizes, as it's generated
+ * without randomness:
+ * <ul>
+ * <li>Organizations: API Development (used by the users) and Organization 1..n</li>
+ * <li>Applications: Application 0..n, assigned to the organizations round robin. Each has an API-Key, every second
+ * an OAuth-Client and every fifth an External Client-ID (apikey-n, client-n, extclient-n)</li>
+ * <li>APIs: API 0..n exposed on /api/n, every third unpublished. Published APIs are granted to two organizations and
+ * applications of these organizations are subscribed to up to two APIs</li>
+ * </ul>
+ */
+public class SimulatorDataset {
+
+	public static final int DEFAULT_ORGANIZATIONS = 2000;
+
+	public static final int DEFAULT_APPLICATIONS = 10000;
+
+	public static final int DEFAULT_PROXIES = 5000;
+
+	public static final String DEVELOPMENT_ORG = "API Development";
+
+	public static final String ADMIN_USER = "apiadmin";
+
+	public static final String ORG_ADMIN_USER = "orgadmin";
+
+	public static final String PASSWORD = "changeme";
+
+	private int organizations;
+
+	private int applications;
+
+	private int proxies;
+
+	private int operations = 5;
+
+	public SimulatorDataset(int organizations, int applications, int proxies) {
+		super();
+		this.organizations = Math.max(1, organizations);
+		this.applications = applications;
+		this.proxies = proxies;
+	}
+
+	/**
+	 * @param operations number of operations of each generated API, defaults to 5
+	 */
+	public void setOperations(int operations) {
+		this.operations = operations;
+	}
+
+	public SimulatorState create() throws IOException {
+		SimulatorState state = new SimulatorState();
+		List<String> orgIds = new ArrayList<String>();
+		String developmentOrgId = state.addOrganization(DEVELOPMENT_ORG).get("id").asText();
+		orgIds.add(developmentOrgId);
+		for(int i=1; i<organizations; i++) {
+			orgIds.add(state.addOrganization("Organization " + i).get("id").asText());
+		}
+		String adminId = state.addUser(ADMIN_USER, PASSWORD, "admin", developmentOrgId).get("id").asText();
+		state.addUser(ORG_ADMIN_USER, PASSWORD, "oadmin", developmentOrgId);
+		for(String type : new String[] {"request", "response", "routing", "faulthandler"}) {
+			state.addPolicy(type, "Simulated " + type + " policy");
+		}
+		state.addPolicy("tokenstores", "OAuth Access Token Store");
+		state.addCustomProperty("customProperty1", "custom");
+		state.addCustomProperty("customProperty2", "select", "value1", "value2", "value3");
+
+		List<String> publishedIds = new ArrayList<String>();
+		byte[] definition = BenchmarkData.toBytes(BenchmarkData.createSwagger(operations, -1), false);
+		for(int i=0; i<proxies; i++) {
+			String orgId = orgIds.get(i % orgIds.size());
+			String backendAPIId = state.importBackendAPI("API " + i, orgId, definition, adminId).get("id").asText();
+			ObjectNode proxy = state.createProxy(backendAPIId, orgId, adminId);
+			String proxyId = proxy.get("id").asText();
+			proxy.put("name", "API " + i);
+			proxy.put("path", "/api/" + i);
+			proxy.putObject("tags").putArray("stage").add("simulated");
+			state.updateProxy(proxyId, proxy);
+			if(i % 3 == 0) {
+				publishedIds.add(null);
+				continue;
+			}
+			state.changeState(proxyId, "publish", null);
+			List<String> grantedOrgs = new ArrayList<String>();
+			grantedOrgs.add(orgId);
+			if(orgIds.size() > 1) grantedOrgs.add(orgIds.get((i + 1) % orgIds.size()));
+			state.grantAccess(proxyId, grantedOrgs, adminId);
+			publishedIds.add(proxyId);
+		}
+		for(int i=0; i<applications; i++) {
+			int org = i % orgIds.size();
+			String appId = state.addApplication("Application " + i, orgIds.get(org), adminId).get("id").asText();
+			state.addCredential(appId, APIManagerAdapter.CREDENTIAL_TYPE_API_KEY, "apikey-" + i);
+			if(i % 2 == 0) state.addCredential(appId, APIManagerAdapter.CREDENTIAL_TYPE_OAUTH, "client-" + i);
+			if(i % 5 == 0) state.addCredential(appId, APIManagerAdapter.CREDENTIAL_TYPE_EXT_CLIENTID, "extclient-" + i);
+			for(String apiId : getGrantedAPIs(publishedIds, org, orgIds.size())) {
+				state.subscribe(appId, apiId, adminId);
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * @return up to two published APIs, the organization has been granted access to
+	 */
+	private static List<String> getGrantedAPIs(List<String> publishedIds, int org, int orgCount) {
+		if(publishedIds.isEmpty()) return Collections.emptyList();
+		List<String> granted = new ArrayList<String>();
+		// API i is granted to the organizations i and i+1
+		for(int i = org; i < publishedIds.size() && granted.size() < 2; i += orgCount) {
+			if(publishedIds.get(i)!=null) granted.add(publishedIds.get(i));
+		}
+		return granted;
+	}
+
+	@Override
+	public String toString() {
+		return "organizations: " + organizations + ", applications: " + applications + ", APIs: " + proxies;
+	}
+}
@@ -0,0 +1,196 @@
+package com.axway.apim.benchmarks.simulator;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+
+/**
+ * A request received by the simulator including the parsed query-string and form (URL-Encoded or Multipart).
+ */
+class SimulatorRequest {
+
+	private String method;
+
+	private String path;
+
+	private String[] segments;
+
+	private List<String[]> query;
+
+	private Map<String, List<byte[]>> form;
+
+	private byte[] body;
+
+	private HttpExchange exchange;
+
+	SimulatorRequest(HttpExchange exchange) throws IOException {
+		this.exchange = exchange;
+		this.method = exchange.getRequestMethod();
+		this.path = exchange.getRequestURI().getPath();
+		this.body = IOUtils.toByteArray(exchange.getRequestBody());
+		this.query = parseParameters(exchange.getRequestURI().getRawQuery());
+		String relative = path.startsWith(APIManagerSimulator.API_VERSION) ? path.substring(APIManagerSimulator.API_VERSION.length()) : path;
+		List<String> parts = new ArrayList<String>();
+		for(String segment : relative.split("/")) {
+			if(!segment.isEmpty()) parts.add(segment);
+		}
+		this.segments = parts.toArray(new String[parts.size()]);
+	}
+
+	String getMethod() {
+		return method;
+	}
+
+	String getPath() {
+		return path;
+	}
+
+	/**
+	 * @return the path segment at the given index relative to the API version (e.g. proxies for /api/portal/v1.3/proxies) or null
+	 */
+	String getSegment(int index) {
+		return (index < segments.length) ? segments[index] : null;
+	}
+
+	int getSegmentCount() {
+		return segments.length;
+	}
+
+	byte[] getBody() {
+		return body;
+	}
+
+	String getHeader(String name) {
+		return exchange.getRequestHeaders().getFirst(name);
+	}
+
+	String getQueryParameter(String name) {
+		for(String[] param : query) {
+			if(param[0].equals(name)) return param[1];
+		}
+		return null;
+	}
+
+	/**
+	 * @return the filters given as field, op and value in the query-string
+	 */
+	List<String[]> getFilters() {
+		List<String[]> filters = new ArrayList<String[]>();
+		String[] filter = null;
+		for(String[] param : query) {
+			if(param[0].equals("field")) {
+				filter = new String[] {param[1], "eq", null};
+			} else if(filter!=null && param[0].equals("op")) {
+				filter[1] = param[1];
+			} else if(filter!=null && param[0].equals("value")) {
+				filter[2] = param[1];
+				filters.add(filter);
+				filter = null;
+			}
+		}
+		return filters;
+	}
+
+	/**
+	 * @return the first value of the form field or null, if not given
+	 */
+	String getFormValue(String name) {
+		List<byte[]> values = getForm().get(name);
+		return (values==null) ? null : new String(values.get(0), StandardCharsets.UTF_8);
+	}
+
+	List<String> getFormValues(String name) {
+		List<String> result = new ArrayList<String>();
+		List<byte[]> values = getForm().get(name);
+		if(values!=null) {
+			for(byte[] value : values) result.add(new String(value, StandardCharsets.UTF_8));
+		}
+		return result;
+	}
+
+	byte[] getFormFile(String name) {
+		List<byte[]> values = getForm().get(name);
+		return (values==null) ? null : values.get(0);
+	}
+
+	private Map<String, List<byte[]>> getForm() {
+		if(form!=null) return form;
+		form = new LinkedHashMap<String, List<byte[]>>();
+		String contentType = getHeader("Content-Type");
+		if(contentType!=null && contentType.startsWith("multipart/form-data")) {
+			parseMultipart(contentType.substring(contentType.indexOf("boundary=") + 9));
+		} else {
+			for(String[] param : parseParameters(new String(body, StandardCharsets.UTF_8))) {
+				addFormValue(param[0], param[1].getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		return form;
+	}
+
+	private void parseMultipart(String boundary) {
+		byte[] delimiter = ("--" + boundary.replace("\"", "")).getBytes(StandardCharsets.ISO_8859_1);
+		byte[] headerEnd = "\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+		int start = indexOf(body, delimiter, 0);
+		while(start >= 0) {
+			int partStart = start + delimiter.length + 2; // Skip the line break
+			int next = indexOf(body, delimiter, partStart);
+			if(next < 0) break;
+			int contentStart = indexOf(body, headerEnd, partStart);
+			if(contentStart < 0 || contentStart > next) break;
+			String headers = new String(body, partStart, contentStart - partStart, StandardCharsets.ISO_8859_1);
+			int nameStart = headers.indexOf("name=\"") + 6;
+			String name = headers.substring(nameStart, headers.indexOf('"', nameStart));
+			// The content ends with a line break before the next delimiter
+			addFormValue(name, Arrays.copyOfRange(body, contentStart + headerEnd.length, next - 2));
+			start = next;
+		}
+	}
+
+	private void addFormValue(String name, byte[] value) {
+		List<byte[]> values = form.get(name);
+		if(values==null) {
+			values = new ArrayList<byte[]>();
+			form.put(name, values);
+		}
+		values.add(value);
+	}
+
+	private static int indexOf(byte[] data, byte[] pattern, int from) {
+		outer:
+		for(int i=from; i <= data.length - pattern.length; i++) {
+			for(int j=0; j<pattern.length; j++) {
+				if(data[i+j]!=pattern[j]) continue outer;
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	private static List<String[]> parseParameters(String encoded) {
+		List<String[]> params = new ArrayList<String[]>();
+		if(encoded==null || encoded.isEmpty()) return params;
+		try {
+			for(String param : encoded.split("&")) {
+				int separator = param.indexOf('=');
+				if(separator < 0) {
+					params.add(new String[] {URLDecoder.decode(param, "UTF-8"), ""});
+				} else {
+					params.add(new String[] {URLDecoder.decode(param.substring(0, separator), "UTF-8"), URLDecoder.decode(param.substring(separator + 1), "UTF-8")});
+				}
+			}
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+		return params;
+	}
+}
@@ -0,0 +1,693 @@
+package com.axway.apim.benchmarks.simulator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.axway.apim.swagger.APIManagerAdapter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * In-memory state of the simulated API-Manager. All entities are kept as JSON as they are returned
+ * by the API-Manager REST-API. Returned entities are copies, hence they can be serialized while other
+ * requests change the state.
+ */
+public class SimulatorState {
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private long idCounter = 0;
+
+	private Map<String, ObjectNode> users = new HashMap<String, ObjectNode>();
+
+	private Map<String, String> passwords = new HashMap<String, String>();
+
+	private Map<String, ObjectNode> organizations = new LinkedHashMap<String, ObjectNode>();
+
+	private Map<String, List<ObjectNode>> orgAccess = new HashMap<String, List<ObjectNode>>();
+
+	private Map<String, ObjectNode> applications = new LinkedHashMap<String, ObjectNode>();
+
+	private Map<String, List<ObjectNode>> subscriptions = new HashMap<String, List<ObjectNode>>();
+
+	private Map<String, ArrayNode> credentials = new HashMap<String, ArrayNode>();
+
+	private Map<String, ObjectNode> appQuotas = new HashMap<String, ObjectNode>();
+
+	private Map<String, ObjectNode> quotas = new HashMap<String, ObjectNode>();
+
+	private Map<String, ObjectNode> backendAPIs = new LinkedHashMap<String, ObjectNode>();
+
+	private Map<String, byte[]> definitions = new HashMap<String, byte[]>();
+
+	private Map<String, ObjectNode> proxies = new LinkedHashMap<String, ObjectNode>();
+
+	private Map<String, ArrayNode> operations = new HashMap<String, ArrayNode>();
+
+	private Map<String, byte[]> images = new HashMap<String, byte[]>();
+
+	private Map<String, ArrayNode> policies = new HashMap<String, ArrayNode>();
+
+	private ObjectNode customProperties = mapper.createObjectNode();
+
+	private String version = "7.7.0";
+
+	public SimulatorState() {
+		super();
+		quotas.put(APIManagerAdapter.SYSTEM_API_QUOTA, createQuota(APIManagerAdapter.SYSTEM_API_QUOTA, "API", "System", "Maximum message rates aggregated across all client applications"));
+		quotas.put(APIManagerAdapter.APPLICATION_DEFAULT_QUOTA, createQuota(APIManagerAdapter.APPLICATION_DEFAULT_QUOTA, "APPLICATION", "Application Default", "Maximum message rates per client application"));
+		for(String type : new String[] {"request", "response", "routing", "faulthandler"}) {
+			policies.put(type, mapper.createArrayNode());
+		}
+		policies.put("tokenstores", mapper.createArrayNode());
+	}
+
+	/**
+	 * IDs are derived from a counter, hence the same dataset always gets the same IDs.
+	 */
+	private String newId(String kind) {
+		return UUID.nameUUIDFromBytes((kind + "-" + (++idCounter)).getBytes(StandardCharsets.UTF_8)).toString();
+	}
+
+	public synchronized void setVersion(String version) {
+		this.version = version;
+	}
+
+	public synchronized ObjectNode getConfig() {
+		ObjectNode config = mapper.createObjectNode();
+		config.put("productVersion", version);
+		config.put("apiRoutingKeyEnabled", false);
+		config.put("apiRoutingKeyLocation", "ql");
+		config.put("portalName", "API Manager Simulator");
+		return config;
+	}
+
+	public synchronized ObjectNode addUser(String loginName, String password, String role, String orgId) {
+		ObjectNode user = mapper.createObjectNode();
+		user.put("id", newId("user"));
+		user.put("organizationId", orgId);
+		user.put("name", loginName);
+		user.put("loginName", loginName);
+		user.put("email", loginName + "@simulator.local");
+		user.put("role", role);
+		user.put("enabled", true);
+		user.put("state", "approved");
+		users.put(loginName, user);
+		passwords.put(loginName, password);
+		return user.deepCopy();
+	}
+
+	/**
+	 * @return the user or null, if the credentials are invalid
+	 */
+	public synchronized ObjectNode login(String loginName, String password) {
+		if(loginName==null || password==null || !password.equals(passwords.get(loginName))) return null;
+		return users.get(loginName).deepCopy();
+	}
+
+	public synchronized ObjectNode addOrganization(String name) {
+		ObjectNode org = mapper.createObjectNode();
+		org.put("id", newId("org"));
+		org.put("name", name);
+		org.put("description", "Organization " + name);
+		org.put("email", "contact@simulator.local");
+		org.put("restricted", false);
+		org.putNull("virtualHost");
+		org.put("phone", "+1 000 000");
+		org.put("enabled", true);
+		org.put("development", true);
+		org.put("dn", "o=" + name + ",ou=organizations,ou=APIPortal");
+		org.put("createdOn", System.currentTimeMillis());
+		organizations.put(org.get("id").asText(), org);
+		return org.deepCopy();
+	}
+
+	public synchronized ArrayNode getOrganizations() {
+		return copyAll(organizations.values());
+	}
+
+	public synchronized ArrayNode getOrgAccess(String orgId) {
+		if(!organizations.containsKey(orgId)) return null;
+		return copyAll(getList(orgAccess, orgId));
+	}
+
+	/**
+	 * Grants access to the API for the given organizations. Organizations having access already are ignored.
+	 * @return false, if the API or one of the organizations doesn't exist
+	 */
+	public synchronized boolean grantAccess(String apiId, List<String> orgIds, String userId) {
+		if(!proxies.containsKey(apiId)) return false;
+		for(String orgId : orgIds) {
+			if(!organizations.containsKey(orgId)) return false;
+		}
+		for(String orgId : orgIds) {
+			List<ObjectNode> access = getList(orgAccess, orgId);
+			if(findByApiId(access, apiId)==null) {
+				access.add(createAccess(apiId, userId));
+			}
+		}
+		return true;
+	}
+
+	public synchronized boolean removeOrgAccess(String orgId, String accessId) {
+		return removeById(getList(orgAccess, orgId), accessId);
+	}
+
+	public synchronized ObjectNode addApplication(String name, String orgId, String userId) {
+		ObjectNode app = mapper.createObjectNode();
+		String id = newId("app");
+		app.put("id", id);
+		app.put("name", name);
+		app.put("description", "Application " + name);
+		app.put("organizationId", orgId);
+		app.put("phone", "+1 000 000");
+		app.put("email", "app@simulator.local");
+		app.put("createdBy", userId);
+		app.putArray("managedBy").add(userId);
+		app.put("createdOn", System.currentTimeMillis());
+		app.put("enabled", true);
+		app.putNull("image");
+		app.put("state", "approved");
+		applications.put(id, app);
+		return app.deepCopy();
+	}
+
+	public synchronized ArrayNode getApplications() {
+		return copyAll(applications.values());
+	}
+
+	/**
+	 * @param type one of the credential types: apikeys, oauth or extclients
+	 * @return the created credential
+	 */
+	public synchronized ObjectNode addCredential(String appId, String type, String credentialId) {
+		ObjectNode credential = mapper.createObjectNode();
+		credential.put("id", credentialId);
+		credential.put("applicationId", appId);
+		if(!type.equals(APIManagerAdapter.CREDENTIAL_TYPE_API_KEY)) {
+			credential.put("clientId", credentialId);
+		}
+		credential.put("enabled", true);
+		credential.put("createdOn", System.currentTimeMillis());
+		ArrayNode appCredentials = credentials.get(type + "/" + appId);
+		if(appCredentials==null) {
+			appCredentials = mapper.createArrayNode();
+			credentials.put(type + "/" + appId, appCredentials);
+		}
+		appCredentials.add(credential);
+		return credential.deepCopy();
+	}
+
+	public synchronized ArrayNode getCredentials(String appId, String type) {
+		if(!applications.containsKey(appId)) return null;
+		ArrayNode appCredentials = credentials.get(type + "/" + appId);
+		return (appCredentials==null) ? mapper.createArrayNode() : appCredentials.deepCopy();
+	}
+
+	public synchronized ArrayNode getSubscriptions(String appId) {
+		if(!applications.containsKey(appId)) return null;
+		return copyAll(getList(subscriptions, appId));
+	}
+
+	/**
+	 * @return the created subscription or null, if the application or API doesn't exist
+	 */
+	public synchronized ObjectNode subscribe(String appId, String apiId, String userId) {
+		if(!applications.containsKey(appId) || !proxies.containsKey(apiId)) return null;
+		List<ObjectNode> appSubscriptions = getList(subscriptions, appId);
+		ObjectNode subscription = findByApiId(appSubscriptions, apiId);
+		if(subscription==null) {
+			subscription = createAccess(apiId, userId);
+			appSubscriptions.add(subscription);
+		}
+		return subscription.deepCopy();
+	}
+
+	/**
+	 * @param id the ID of the subscription or the ID of the API
+	 */
+	public synchronized boolean unsubscribe(String appId, String id) {
+		List<ObjectNode> appSubscriptions = getList(subscriptions, appId);
+		ObjectNode subscription = findByApiId(appSubscriptions, id);
+		if(subscription!=null) return appSubscriptions.remove(subscription);
+		return removeById(appSubscriptions, id);
+	}
+
+	public synchronized ArrayNode getSubscribedApps(String apiId) {
+		if(!proxies.containsKey(apiId)) return null;
+		ArrayNode apps = mapper.createArrayNode();
+		for(Map.Entry<String, List<ObjectNode>> appSubscriptions : subscriptions.entrySet()) {
+			if(findByApiId(appSubscriptions.getValue(), apiId)!=null) {
+				apps.add(applications.get(appSubscriptions.getKey()).deepCopy());
+			}
+		}
+		return apps;
+	}
+
+	public synchronized ObjectNode getQuota(String quotaId) {
+		ObjectNode quota = quotas.get(quotaId);
+		return (quota==null) ? null : quota.deepCopy();
+	}
+
+	public synchronized boolean updateQuota(String quotaId, ObjectNode quota) {
+		if(!quotas.containsKey(quotaId)) return false;
+		quota.put("id", quotaId);
+		quotas.put(quotaId, quota.deepCopy());
+		return true;
+	}
+
+	/**
+	 * @return the quota of the application or the Application-Default quota, if none is configured
+	 */
+	public synchronized ObjectNode getAppQuota(String appId) {
+		if(!applications.containsKey(appId)) return null;
+		ObjectNode quota = appQuotas.get(appId);
+		return (quota==null) ? quotas.get(APIManagerAdapter.APPLICATION_DEFAULT_QUOTA).deepCopy() : quota.deepCopy();
+	}
+
+	public synchronized boolean updateAppQuota(String appId, ObjectNode quota) {
+		if(!applications.containsKey(appId)) return false;
+		ObjectNode existing = appQuotas.get(appId);
+		quota.put("id", (existing==null) ? newId("quota") : existing.get("id").asText());
+		quota.put("type", "APPLICATION");
+		quota.put("system", false);
+		appQuotas.put(appId, quota.deepCopy());
+		return true;
+	}
+
+	/**
+	 * Imports the API-Definition as a Backend-API. The operations of the API are taken from the Swagger-File,
+	 * hence other API-Definitions result in an API without operations.
+	 */
+	public synchronized ObjectNode importBackendAPI(String name, String orgId, byte[] definition, String userId) {
+		if(!organizations.containsKey(orgId)) return null;
+		JsonNode swagger = readDefinition(definition);
+		ObjectNode backendAPI = mapper.createObjectNode();
+		String id = newId("backend");
+		backendAPI.put("id", id);
+		backendAPI.put("name", name);
+		backendAPI.put("summary", swagger.at("/info/description").asText(null));
+		backendAPI.put("version", swagger.at("/info/version").asText("1.0.0"));
+		backendAPI.put("basePath", getBasePath(swagger));
+		backendAPI.put("resourcePath", swagger.path("basePath").asText("/"));
+		backendAPI.put("organizationId", orgId);
+		backendAPI.put("integral", false);
+		backendAPI.put("type", "rest");
+		backendAPI.put("serviceType", "rest");
+		backendAPI.put("createdOn", System.currentTimeMillis());
+		backendAPI.put("createdBy", userId);
+		ArrayNode methods = backendAPI.putArray("methods");
+		Iterator<Map.Entry<String, JsonNode>> paths = swagger.path("paths").fields();
+		while(paths.hasNext()) {
+			Map.Entry<String, JsonNode> path = paths.next();
+			Iterator<Map.Entry<String, JsonNode>> verbs = path.getValue().fields();
+			while(verbs.hasNext()) {
+				Map.Entry<String, JsonNode> verb = verbs.next();
+				if(verb.getKey().equals("parameters")) continue;
+				ObjectNode method = methods.addObject();
+				method.put("id", newId("backend-method"));
+				method.put("name", verb.getValue().path("operationId").asText(verb.getKey() + " " + path.getKey()));
+				method.put("summary", verb.getValue().path("summary").asText(null));
+				method.put("httpMethod", verb.getKey().toUpperCase());
+				method.put("resourcePath", path.getKey());
+			}
+		}
+		backendAPIs.put(id, backendAPI);
+		definitions.put(id, definition);
+		return withoutMethods(backendAPI);
+	}
+
+	public synchronized ArrayNode getBackendAPIs(List<String[]> filters) {
+		ArrayNode result = mapper.createArrayNode();
+		for(ObjectNode backendAPI : backendAPIs.values()) {
+			if(matches(backendAPI, filters)) result.add(withoutMethods(backendAPI));
+		}
+		return result;
+	}
+
+	public synchronized byte[] getDefinition(String backendAPIId) {
+		return definitions.get(backendAPIId);
+	}
+
+	public synchronized boolean deleteBackendAPI(String backendAPIId) {
+		definitions.remove(backendAPIId);
+		return backendAPIs.remove(backendAPIId)!=null;
+	}
+
+	/**
+	 * Creates an unpublished API-Proxy including the operations for the Backend-API
+	 * @return the API-Proxy or null, if the Backend-API doesn't exist
+	 */
+	public synchronized ObjectNode createProxy(String backendAPIId, String orgId, String userId) {
+		ObjectNode backendAPI = backendAPIs.get(backendAPIId);
+		if(backendAPI==null || !organizations.containsKey(orgId)) return null;
+		String id = newId("proxy");
+		ObjectNode proxy = mapper.createObjectNode();
+		proxy.put("id", id);
+		proxy.put("organizationId", orgId);
+		proxy.put("apiId", backendAPIId);
+		proxy.put("name", backendAPI.get("name").asText());
+		proxy.put("version", backendAPI.get("version").asText());
+		proxy.putNull("apiRoutingKey");
+		proxy.putNull("vhost");
+		proxy.put("path", backendAPI.get("resourcePath").asText());
+		proxy.put("descriptionType", "original");
+		proxy.putNull("descriptionManual");
+		proxy.putNull("descriptionMarkdown");
+		proxy.putNull("descriptionUrl");
+		proxy.put("summary", backendAPI.get("summary").asText(null));
+		proxy.put("retired", false);
+		proxy.put("expired", false);
+		proxy.putNull("image");
+		proxy.put("retirementDate", 0);
+		proxy.put("deprecated", false);
+		proxy.put("state", "unpublished");
+		proxy.put("createdOn", System.currentTimeMillis());
+		proxy.put("createdBy", userId);
+		ObjectNode cors = proxy.putArray("corsProfiles").addObject();
+		cors.put("name", "_default");
+		cors.put("isDefault", true);
+		cors.putArray("origins").add("*");
+		cors.putArray("allowedHeaders");
+		cors.putArray("exposedHeaders").add("X-CorrelationID");
+		cors.put("supportCredentials", false);
+		cors.put("maxAgeSeconds", 0);
+		ObjectNode securityProfile = proxy.putArray("securityProfiles").addObject();
+		securityProfile.put("name", "_default");
+		securityProfile.put("isDefault", true);
+		ObjectNode passThrough = securityProfile.putArray("devices").addObject();
+		passThrough.put("name", "Pass Through");
+		passThrough.put("type", "passThrough");
+		passThrough.put("order", 0);
+		passThrough.putObject("properties").put("subjectIdFieldName", "Pass Through").put("removeCredentialsOnSuccess", "true");
+		ObjectNode authenticationProfile = proxy.putArray("authenticationProfiles").addObject();
+		authenticationProfile.put("name", "_default");
+		authenticationProfile.put("isDefault", true);
+		authenticationProfile.putObject("parameters").put("_id_", 0);
+		authenticationProfile.put("type", "none");
+		proxy.putObject("inboundProfiles").putObject("_default")
+			.put("securityProfile", "_default").put("corsProfile", "_default")
+			.put("monitorAPI", true).put("monitorSubject", "authentication.subject.id");
+		ObjectNode outboundProfile = proxy.putObject("outboundProfiles").putObject("_default");
+		outboundProfile.put("authenticationProfile", "_default");
+		outboundProfile.put("routeType", "proxy");
+		outboundProfile.putNull("requestPolicy");
+		outboundProfile.putNull("responsePolicy");
+		outboundProfile.putNull("routePolicy");
+		outboundProfile.putNull("faultHandlerPolicy");
+		outboundProfile.put("apiId", backendAPIId);
+		outboundProfile.putNull("apiMethodId");
+		outboundProfile.putArray("parameters");
+		proxy.putObject("serviceProfiles").putObject("_default")
+			.put("apiId", backendAPIId).put("basePath", backendAPI.get("basePath").asText());
+		proxy.putArray("caCerts");
+		proxy.putObject("tags");
+		ArrayNode proxyOperations = mapper.createArrayNode();
+		for(JsonNode backendMethod : backendAPI.get("methods")) {
+			ObjectNode operation = proxyOperations.addObject();
+			operation.put("id", newId("operation"));
+			operation.put("virtualizedApiId", id);
+			operation.put("name", backendMethod.get("name").asText());
+			operation.put("apiId", backendAPIId);
+			operation.put("apiMethodId", backendMethod.get("id").asText());
+			operation.put("summary", backendMethod.get("summary").asText(null));
+			operation.put("descriptionType", "original");
+			operation.putNull("descriptionManual");
+			operation.putNull("descriptionMarkdown");
+			operation.putNull("descriptionUrl");
+		}
+		proxies.put(id, proxy);
+		operations.put(id, proxyOperations);
+		return proxy.deepCopy();
+	}
+
+	public synchronized ArrayNode getProxies(List<String[]> filters) {
+		ArrayNode result = mapper.createArrayNode();
+		for(ObjectNode proxy : proxies.values()) {
+			if(matches(proxy, filters)) result.add(proxy.deepCopy());
+		}
+		return result;
+	}
+
+	public synchronized ObjectNode getProxy(String id) {
+		ObjectNode proxy = proxies.get(id);
+		return (proxy==null) ? null : proxy.deepCopy();
+	}
+
+	/**
+	 * Replaces the API-Proxy with the given one. Properties managed by the API-Manager (ID, state, ...) are kept.
+	 * @return the updated API-Proxy or null, if it doesn't exist
+	 */
+	public synchronized ObjectNode updateProxy(String id, ObjectNode update) {
+		ObjectNode proxy = proxies.get(id);
+		if(proxy==null) return null;
+		ObjectNode updated = update.deepCopy();
+		for(String managed : new String[] {"id", "apiId", "organizationId", "state", "deprecated", "retired", "image", "createdOn", "createdBy"}) {
+			updated.set(managed, proxy.get(managed));
+		}
+		proxies.put(id, updated);
+		return updated.deepCopy();
+	}
+
+	public synchronized boolean deleteProxy(String id) {
+		if(proxies.remove(id)==null) return false;
+		operations.remove(id);
+		images.remove(id);
+		removeAccess(id);
+		return true;
+	}
+
+	/**
+	 * Changes the state of the API-Proxy like the API-Manager does, which handles deprecation as a flag
+	 * of a published API.
+	 * @param action one of: publish, unpublish, deprecate, undeprecate
+	 * @return the updated API-Proxy or null, if the action isn't possible in the current state
+	 */
+	public synchronized ObjectNode changeState(String id, String action, String vhost) {
+		ObjectNode proxy = proxies.get(id);
+		if(proxy==null) return null;
+		boolean published = proxy.get("state").asText().equals("published");
+		if(action.equals("publish") && !published) {
+			proxy.put("state", "published");
+			if(vhost!=null) proxy.put("vhost", vhost);
+		} else if(action.equals("unpublish") && published) {
+			proxy.put("state", "unpublished");
+			proxy.put("deprecated", false);
+			// Access & subscriptions are removed, when an API is unpublished
+			removeAccess(id);
+		} else if(action.equals("deprecate") && published) {
+			proxy.put("deprecated", true);
+		} else if(action.equals("undeprecate") && published) {
+			proxy.put("deprecated", false);
+		} else {
+			return null;
+		}
+		return proxy.deepCopy();
+	}
+
+	/**
+	 * Grants the organizations and applications having access to the old API access to the new API.
+	 */
+	public synchronized boolean upgradeAccess(String oldId, String newId, String userId) {
+		if(!proxies.containsKey(oldId) || !proxies.containsKey(newId)) return false;
+		for(List<ObjectNode> access : orgAccess.values()) {
+			if(findByApiId(access, oldId)!=null && findByApiId(access, newId)==null) access.add(createAccess(newId, userId));
+		}
+		for(List<ObjectNode> access : subscriptions.values()) {
+			if(findByApiId(access, oldId)!=null && findByApiId(access, newId)==null) access.add(createAccess(newId, userId));
+		}
+		return true;
+	}
+
+	public synchronized ArrayNode getOperations(String proxyId) {
+		ArrayNode proxyOperations = operations.get(proxyId);
+		return (proxyOperations==null) ? null : proxyOperations.deepCopy();
+	}
+
+	public synchronized ObjectNode getOperation(String proxyId, String operationId) {
+		ArrayNode proxyOperations = operations.get(proxyId);
+		if(proxyOperations==null) return null;
+		for(JsonNode operation : proxyOperations) {
+			if(operation.get("id").asText().equals(operationId)) return (ObjectNode)operation.deepCopy();
+		}
+		return null;
+	}
+
+	public synchronized byte[] getImage(String proxyId) {
+		return images.get(proxyId);
+	}
+
+	public synchronized ObjectNode setImage(String proxyId, byte[] image) {
+		ObjectNode proxy = proxies.get(proxyId);
+		if(proxy==null) return null;
+		images.put(proxyId, image);
+		proxy.put("image", "/api/portal/v1.3/proxies/" + proxyId + "/image");
+		return proxy.deepCopy();
+	}
+
+	public synchronized void addPolicy(String type, String name) {
+		ArrayNode typePolicies = policies.get(type);
+		if(typePolicies==null) {
+			typePolicies = mapper.createArrayNode();
+			policies.put(type, typePolicies);
+		}
+		typePolicies.addObject().put("id", "<key type='CircuitContainer'><id field='name' value='Policies'/><key type='FilterCircuit'><id field='name' value='" + name + "'/></key></key>").put("name", name).put("type", type);
+	}
+
+	/**
+	 * @param type the policy type or tokenstores
+	 */
+	public synchronized ArrayNode getPolicies(String type) {
+		ArrayNode typePolicies = policies.get(type);
+		return (typePolicies==null) ? null : typePolicies.deepCopy();
+	}
+
+	/**
+	 * @param type of the Custom-Property: custom, select or switch
+	 * @param options values for type select or switch
+	 */
+	public synchronized void addCustomProperty(String name, String type, String... options) {
+		ObjectNode property = customProperties.putObject(name);
+		property.put("label", name);
+		property.put("type", type);
+		if(options.length!=0) {
+			ArrayNode propertyOptions = property.putArray("options");
+			for(String option : options) {
+				propertyOptions.addObject().put("value", option).put("label", option);
+			}
+		}
+	}
+
+	/**
+	 * @return the app.config of the API-Portal, which isn't JSON, but contains the Custom-Properties
+	 */
+	public synchronized String getAppConfig() {
+		ObjectNode config = mapper.createObjectNode();
+		config.putObject("user");
+		config.putObject("organization");
+		config.putObject("application");
+		config.set("api", customProperties.deepCopy());
+		return "app.config = {\n    customPropertiesConfig: " + config.toString() + ",\n    wizardModels: {}\n};\n";
+	}
+
+	public synchronized int getProxyCount() {
+		return proxies.size();
+	}
+
+	private void removeAccess(String apiId) {
+		for(List<ObjectNode> access : orgAccess.values()) {
+			access.remove(findByApiId(access, apiId));
+		}
+		for(List<ObjectNode> access : subscriptions.values()) {
+			access.remove(findByApiId(access, apiId));
+		}
+	}
+
+	private ObjectNode createAccess(String apiId, String userId) {
+		ObjectNode access = mapper.createObjectNode();
+		access.put("id", newId("access"));
+		access.put("apiId", apiId);
+		access.put("createdBy", userId);
+		access.put("state", "approved");
+		access.put("createdOn", System.currentTimeMillis());
+		access.put("enabled", true);
+		return access;
+	}
+
+	private ObjectNode createQuota(String id, String type, String name, String description) {
+		ObjectNode quota = mapper.createObjectNode();
+		quota.put("id", id);
+		quota.put("type", type);
+		quota.put("name", name);
+		quota.put("description", description);
+		quota.put("system", true);
+		quota.putArray("restrictions");
+		return quota;
+	}
+
+	private JsonNode readDefinition(byte[] definition) {
+		try {
+			return mapper.readTree(definition);
+		} catch (IOException e) {
+			// For instance a WSDL or a YAML-File
+			return mapper.createObjectNode();
+		}
+	}
+
+	private static String getBasePath(JsonNode swagger) {
+		if(swagger.has("servers")) return swagger.at("/servers/0/url").asText("https://localhost");
+		String scheme = swagger.at("/schemes/0").asText("https");
+		return scheme + "://" + swagger.path("host").asText("localhost") + swagger.path("basePath").asText("");
+	}
+
+	private static ObjectNode withoutMethods(ObjectNode backendAPI) {
+		ObjectNode copy = backendAPI.deepCopy();
+		copy.remove("methods");
+		return copy;
+	}
+
+	/**
+	 * Supports the filters used by the tool: eq, like, gt and lt. Fields are compared case insensitive (e.g. apiid).
+	 */
+	private static boolean matches(ObjectNode entity, List<String[]> filters) {
+		for(String[] filter : filters) {
+			JsonNode value = null;
+			Iterator<String> fields = entity.fieldNames();
+			while(fields.hasNext()) {
+				String field = fields.next();
+				if(field.equalsIgnoreCase(filter[0])) value = entity.get(field);
+			}
+			if(value==null || value.isNull()) return false;
+			String op = filter[1];
+			if(op.equals("eq") && !value.asText().equals(filter[2])) return false;
+			if(op.equals("like") && !value.asText().contains(filter[2].replace("*", ""))) return false;
+			if(op.equals("gt") && !(value.asDouble() > Double.parseDouble(filter[2]))) return false;
+			if(op.equals("lt") && !(value.asDouble() < Double.parseDouble(filter[2]))) return false;
+		}
+		return true;
+	}
+
+	private static ObjectNode findByApiId(List<ObjectNode> access, String apiId) {
+		for(ObjectNode entry : access) {
+			if(entry.get("apiId").asText().equals(apiId)) return entry;
+		}
+		return null;
+	}
+
+	private static boolean removeById(List<ObjectNode> entries, String id) {
+		Iterator<ObjectNode> it = entries.iterator();
+		while(it.hasNext()) {
+			if(it.next().get("id").asText().equals(id)) {
+				it.remove();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<ObjectNode> getList(Map<String, List<ObjectNode>> map, String key) {
+		List<ObjectNode> list = map.get(key);
+		if(list==null) {
+			list = new ArrayList<ObjectNode>();
+			map.put(key, list);
+		}
+		return list;
+	}
+
+	private ArrayNode copyAll(Iterable<ObjectNode> entities) {
+		ArrayNode result = mapper.createArrayNode();
+		for(ObjectNode entity : entities) {
+			result.add(entity.deepCopy());
+		}
+		return result;
+	}
+}
@@ -12,12 +12,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.axway.apim.actions.rest.APIMHttpClient;
-import com.axway.apim.actions.rest.Transaction;
+import com.axway.apim.actions.rest.PromotionDeadline;
+import com.axway.apim.actions.rest.RequestStatistics;
+import com.axway.apim.actions.rest.ResponseCache;
 import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.BackendAPIIndex;
 import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.EnvironmentProperties;
 import com.axway.apim.lib.ErrorCode;
 import com.axway.apim.lib.ErrorState;
+import com.axway.apim.lib.MetadataCache;
+import com.axway.apim.lib.PromotionContext;
+import com.axway.apim.lib.PromotionStateStore;
 import com.axway.apim.lib.APIPropertiesExport;
 import com.axway.apim.lib.RelaxedParser;
 import com.axway.apim.lib.rollback.RollbackHandler;
@@ -25,6 +31,7 @@ import com.axway.apim.swagger.APIChangeState;
 import com.axway.apim.swagger.APIImportConfigAdapter;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.state.IAPI;
+import com.fasterxml.jackson.databind.JsonNode;
 
 /**
  * This is the Entry-Point of program and responsible to:  
@@ -64,7 +71,7 @@ public class App {
 			options.addOption(option);
 			
 			option = new Option("c", "contract", true, "This is the JSON-Formatted API-Config containing information how to expose the API");
-				option.setRequired(true);
+				option.setRequired(false);
 				option.setArgName("api_config.json");
 			options.addOption(option);
 			
@@ -113,6 +120,131 @@ public class App {
 			option.setArgName("APIDetails.properties");
 			options.addOption(option);
 			
+			option = new Option("loadParallelism", true, "Number of parallel requests used to load the actual API from the API-Manager. Defaults to 1.");
+			option.setRequired(false);
+			option.setArgName("4");
+			options.addOption(option);
+			
+			option = new Option("taskParallelism", true, "Number of independent update tasks (e.g. image, quota, organizations) executed in parallel. Defaults to 1, which executes all tasks in the fixed order.");
+			option.setRequired(false);
+			option.setArgName("3");
+			options.addOption(option);
+			
+			option = new Option("accessParallelism", true, "Number of parallel requests used to create or remove application subscriptions and organization access. Defaults to 1.");
+			option.setRequired(false);
+			option.setArgName("8");
+			options.addOption(option);
+			
+			option = new Option("maxConnections", true, "Maximum number of connections to the API-Manager. Defaults to 5 or maxConnectionsPerRoute if higher.");
+			option.setRequired(false);
+			option.setArgName("10");
+			options.addOption(option);
+			
+			option = new Option("maxConnectionsPerRoute", true, "Maximum number of connections per route to the API-Manager. Defaults to 2 or loadParallelism/taskParallelism/accessParallelism if higher.");
+			option.setRequired(false);
+			option.setArgName("4");
+			options.addOption(option);
+			
+			option = new Option("keepAliveTimeout", true, "Seconds a connection is kept alive, if not given by the API-Manager. Defaults to 30.");
+			option.setRequired(false);
+			option.setArgName("30");
+			options.addOption(option);
+			
+			option = new Option("idleConnectionTimeout", true, "Seconds after idle connections are closed. Defaults to 60.");
+			option.setRequired(false);
+			option.setArgName("60");
+			options.addOption(option);
+			
+			option = new Option("validateAfterInactivity", true, "Milliseconds of inactivity after a pooled connection is validated before re-used. Defaults to 2000.");
+			option.setRequired(false);
+			option.setArgName("2000");
+			options.addOption(option);
+			
+			option = new Option("connectTimeout", true, "Milliseconds to wait for a connection to the API-Manager. Defaults to 10000.");
+			option.setRequired(false);
+			option.setArgName("10000");
+			options.addOption(option);
+			
+			option = new Option("connectionRequestTimeout", true, "Milliseconds to wait for a connection from the connection pool. Defaults to 30000.");
+			option.setRequired(false);
+			option.setArgName("30000");
+			options.addOption(option);
+			
+			option = new Option("socketTimeout", true, "Milliseconds to wait for data from the API-Manager. Defaults to 120000.");
+			option.setRequired(false);
+			option.setArgName("120000");
+			options.addOption(option);
+			
+			option = new Option("promotionTimeout", true, "Seconds the entire promotion of the API may take. Disabled by default.");
+			option.setRequired(false);
+			option.setArgName("300");
+			options.addOption(option);
+			
+			option = new Option("retries", true, "Number of retries for idempotent requests failing with a transient error (e.g. 503). Defaults to 2.");
+			option.setRequired(false);
+			option.setArgName("2");
+			options.addOption(option);
+			
+			option = new Option("retryDelay", true, "Initial delay in milliseconds before a request is retried. Doubled with every retry. Defaults to 500.");
+			option.setRequired(false);
+			option.setArgName("500");
+			options.addOption(option);
+			
+			option = new Option("retryMaxDelay", true, "Maximum delay in milliseconds before a request is retried. Defaults to 10000.");
+			option.setRequired(false);
+			option.setArgName("10000");
+			options.addOption(option);
+			
+			option = new Option("retryPut", true, "Allows to retry PUT-Requests as well. Defaults to false.");
+			option.setRequired(false);
+			option.setArgName("true/[false]");
+			options.addOption(option);
+			
+			option = new Option("batch", true, "Promotes all APIs given in a JSON-Manifest or all API-Configs found in a directory, instead of a single API-Config.");
+			option.setRequired(false);
+			option.setArgName("apis-manifest.json|directory");
+			options.addOption(option);
+			
+			option = new Option("batchWorkers", true, "Number of APIs promoted in parallel in batch mode. Defaults to 1.");
+			option.setRequired(false);
+			option.setArgName("4");
+			options.addOption(option);
+			
+			option = new Option("cacheDir", true, "Directory used to cache API-Manager metadata (organizations, applications, ...) across runs. Disabled by default.");
+			option.setRequired(false);
+			option.setArgName("/tmp/apim-cache");
+			options.addOption(option);
+			
+			option = new Option("cacheTTL", true, "Seconds cached API-Manager metadata is valid. Defaults to 600.");
+			option.setRequired(false);
+			option.setArgName("600");
+			options.addOption(option);
+			
+			option = new Option("revalidationTTL", true, "Seconds downloaded content without ETag or Last-Modified is used without revalidating it. Requires a cacheDir. Defaults to 60.");
+			option.setRequired(false);
+			option.setArgName("60");
+			options.addOption(option);
+			
+			option = new Option("apiDefinitionCompareMode", true, "Controls how the API-Definition is compared with the API-Manager. normalized ignores formatting and the order of properties. Defaults to normalized!");
+			option.setRequired(false);
+			option.setArgName("normalized|bytes");
+			options.addOption(option);
+			
+			option = new Option("responseCache", true, "Reuse responses of the API-Manager for repeated requests of unchanged resources within a run. Defaults to true.");
+			option.setRequired(false);
+			option.setArgName("[true]/false");
+			options.addOption(option);
+			
+			option = new Option("reuseBackendAPI", true, "Reuse a Backend-API imported before with the same API-Definition instead of importing it again. Defaults to false.");
+			option.setRequired(false);
+			option.setArgName("true");
+			options.addOption(option);
+			
+			option = new Option("stateDir", true, "Directory used to remember the promoted state of APIs. Unchanged APIs are detected without loading them completely, not detecting changes made in the API-Manager to Org-Access, subscriptions or quotas only. Disabled by default.");
+			option.setRequired(false);
+			option.setArgName("/var/lib/apim-state");
+			options.addOption(option);
+			
 			Options internalOptions = new Options();
 			option = new Option("ignoreAdminAccount", true, "If set, the tool wont load the env.properties. This is used for testing only.");
 			option.setRequired(false);
@@ -160,27 +292,99 @@ public class App {
 				System.exit(0);
 			}
 			
+			if(!cmd.hasOption("contract") && !cmd.hasOption("batch")) {
+				printUsage(options, "Missing required option: c");
+				System.exit(99);
+			}
+			
 			// We need to clean some Singleton-Instances, as tests are running in the same JVM
 			APIManagerAdapter.deleteInstance();
-			ErrorState.deleteInstance();
+			PromotionContext.setCurrent(new PromotionContext());
 			APIMHttpClient.deleteInstance();
-			Transaction.deleteInstance();
-			RollbackHandler.deleteInstance();
+			RequestStatistics.deleteInstance();
+			ResponseCache.deleteInstance();
+			MetadataCache.deleteInstance();
+			PromotionStateStore.deleteInstance();
+			BackendAPIIndex.deleteInstance();
 			
 			CommandParameters params = new CommandParameters(cmd, internalCmd, new EnvironmentProperties(cmd.getOptionValue("stage")));
 			
+			if(params.getValue("batch")!=null) {
+				// Login only once, as all APIs are promoted using the same session and caches
+				APIManagerAdapter.getInstance();
+				BatchPromotion batch = new BatchPromotion(params.getValue("batch"));
+				return batch.execute(params.getBatchWorkers());
+			}
+			return promote(params.getValue("contract"), params.getValue("apidefinition"));
+		} catch (AppException ap) {
+			ErrorState errorState = ErrorState.getInstance();
+			if(errorState.hasError()) {
+				errorState.logErrorMessages(LOG);
+				if(errorState.isLogStackTrace()) LOG.error(ap.getMessage(), ap);
+				return errorState.getErrorCode().getCode();
+			} else {
+				LOG.error(ap.getMessage(), ap);
+				return ap.getErrorCode().getCode();
+			}
+		} catch (Exception e) {
+			LOG.error(e.getMessage(), e);
+			return ErrorCode.UNXPECTED_ERROR.getCode();
+		} finally {
+			APIMHttpClient.logPoolStatistics();
+			RequestStatistics.getInstance().logStatistics();
+		}
+	}
+	
+	/**
+	 * Replicates the desired state of a single API into the API-Manager. In batch mode this is called 
+	 * in parallel, hence each promotion runs within its own PromotionContext.
+	 * @param contract the API-Config of the API
+	 * @param apiDefinition the API-Definition or null, if configured in the API-Config
+	 * @return the exit code of the promotion
+	 */
+	public static int promote(String contract, String apiDefinition) {
+		PromotionContext.setCurrent(new PromotionContext(CommandParameters.getInstance()));
+		APIPropertiesExport.getInstance().setConfigFile(contract);
+		try {
+			CommandParameters params = CommandParameters.getInstance();
+			PromotionDeadline.start(params.getPromotionTimeout());
+			
 			APIManagerAdapter apimAdapter = APIManagerAdapter.getInstance();
 			
-			APIImportConfigAdapter configAdapter = new APIImportConfigAdapter(params.getValue("contract"), 
-					params.getValue("stage"), params.getValue("apidefinition"), apimAdapter.isUsingOrgAdmin());
+			APIImportConfigAdapter configAdapter = new APIImportConfigAdapter(contract, 
+					params.getValue("stage"), apiDefinition, apimAdapter.isUsingOrgAdmin());
 			// Creates an API-Representation of the desired API
 			IAPI desiredAPI = configAdapter.getDesiredAPI();
+			JsonNode existingAPI = apimAdapter.getExistingAPI(desiredAPI.getPath(), null, APIManagerAdapter.TYPE_FRONT_END);
+			// If the same desired state has been promoted before and the API hasn't changed since, there is nothing to do.
+			// Org-Access, subscriptions and quotas changed in the API-Manager are not detected (see PromotionStateStore)
+			PromotionStateStore stateStore = PromotionStateStore.getInstance();
+			String desiredState = null;
+			if(stateStore.isEnabled()) {
+				desiredState = configAdapter.getDesiredStateDigest(desiredAPI);
+				if(stateStore.isUnchanged(desiredAPI.getPath(), desiredState, existingAPI)) {
+					LOG.info("Desired state has already been promoted and API hasn't changed since.");
+					LOG.debug("Organizations granted access, subscribed applications and quotas haven't been checked, as the API is unchanged.");
+					ErrorState.getInstance().setWarning("No changes detected between Import- and API-Manager-API", ErrorCode.NO_CHANGE, false);
+					throw new AppException("No changes detected between Import- and API-Manager-API", ErrorCode.NO_CHANGE);
+				}
+				stateStore.invalidate(desiredAPI.getPath()); // Remembered state is outdated, even if the promotion fails
+			}
 			// Lookup an existing APIs - If found the actualAPI is valid - desiredAPI is used to control what needs to be loaded
-			IAPI actualAPI = apimAdapter.getAPIManagerAPI(apimAdapter.getExistingAPI(desiredAPI.getPath(), null, APIManagerAdapter.TYPE_FRONT_END), desiredAPI);
+			IAPI actualAPI = apimAdapter.getAPIManagerAPI(existingAPI, desiredAPI);
 			// Based on the actual API - fulfill/complete some elements in the desired API
 			configAdapter.completeDesiredAPI(desiredAPI, actualAPI);
 			APIChangeState changeActions = new APIChangeState(actualAPI, desiredAPI);
-			apimAdapter.applyChanges(changeActions);
+			try {
+				apimAdapter.applyChanges(changeActions);
+			} catch (AppException e) {
+				// Nothing to change, hence the API in the API-Manager already reflects the desired state
+				if(e.getErrorCode().equals(ErrorCode.NO_CHANGE)) stateStore.store(desiredAPI.getPath(), desiredState, existingAPI);
+				throw e;
+			}
+			if(desiredState!=null) {
+				stateStore.store(desiredAPI.getPath(), desiredState, apimAdapter.getExistingAPI(desiredAPI.getPath(), null, APIManagerAdapter.TYPE_FRONT_END));
+			}
 			APIPropertiesExport.getInstance().store();
 			LOG.info("Successfully replicated API-State into API-Manager");
 			return 0;
@@ -188,6 +392,8 @@ public class App {
 			APIPropertiesExport.getInstance().store(); // Try to create it, even 
 			ErrorState errorState = ErrorState.getInstance();
 			if(!ap.getErrorCode().equals(ErrorCode.NO_CHANGE)) {
+				// The rollback must be possible, even if the deadline is exceeded
+				PromotionDeadline.deleteInstance();
 				RollbackHandler rollback = RollbackHandler.getInstance();
 				rollback.executeRollback();
 			}
@@ -202,6 +408,8 @@ public class App {
 		} catch (Exception e) {
 			LOG.error(e.getMessage(), e);
 			return ErrorCode.UNXPECTED_ERROR.getCode();
+		} finally {
+			PromotionDeadline.deleteInstance();
 		}
 	}
 	
@@ -219,6 +427,7 @@ public class App {
 		System.out.println("scripts"+File.separator+"run-swagger-import."+scriptExt+" -a samples/petstore.json -c samples/basic/minimal-config.json -h localhost -u apiadmin -p changeme");
 		System.out.println("scripts"+File.separator+"run-swagger-import."+scriptExt+" -a samples/petstore.json -c samples/basic/minimal-config.json -h localhost -u apiadmin -p changeme -s prod");
 		System.out.println("scripts"+File.separator+"run-swagger-import."+scriptExt+" -a samples/petstore.json -c samples/complex/complete-config.json -h localhost -u apiadmin -p changeme");
+		System.out.println("scripts"+File.separator+"run-swagger-import."+scriptExt+" -batch samples/apis-manifest.json -batchWorkers 4 -h localhost -u apiadmin -p changeme");
 		System.out.println();
 		System.out.println();
 		System.out.println("Using parameters provided in properties file stored in conf-folder:");
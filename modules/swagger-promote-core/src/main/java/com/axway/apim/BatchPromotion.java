@@ -0,0 +1,172 @@
+package com.axway.apim;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.ErrorState;
+import com.axway.apim.lib.ParallelExecutor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Promotes a number of APIs with one invocation of the tool, sharing the API-Manager session,
+ * the connection pool and all loaded API-Manager metadata.<br>
+ * The APIs to promote are either given in a JSON-Manifest:
+ * <pre>{"apis": [ {"config": "petstore/api-config.json", "apiDefinition": "petstore/petstore.json"} ]}</pre>
+ * (relative paths are resolved based on the manifest) or a directory, in which case all API-Configs
+ * found in that directory are promoted. Stage specific configs (e.g. api-config.prod.json) are ignored
+ * in that case, as they are picked up based on the given stage anyway.<br>
+ * Each API is promoted independently: a failing API is rolled back, but doesn't stop the others.
+ */
+public class BatchPromotion {
+
+	private static Logger LOG = LoggerFactory.getLogger(BatchPromotion.class);
+
+	private List<BatchEntry> entries;
+
+	public BatchPromotion(String batch) throws AppException {
+		super();
+		File batchFile = new File(batch);
+		if(batchFile.isDirectory()) {
+			this.entries = readDirectory(batchFile);
+		} else {
+			this.entries = readManifest(batchFile);
+		}
+		if(this.entries.size()==0) {
+			ErrorState.getInstance().setError("No API-Configs found in: '"+batch+"'", ErrorCode.CANT_READ_CONFIG_FILE, false);
+			throw new AppException("No API-Configs found in: '"+batch+"'", ErrorCode.CANT_READ_CONFIG_FILE);
+		}
+	}
+
+	/**
+	 * Promotes all APIs of this batch.
+	 * @param workers number of APIs promoted in parallel
+	 * @return 0 if all APIs have been promoted successfully or haven't changed, otherwise
+	 * the return code of the first failed API (in order of the batch)
+	 * @throws AppException if waiting for a promotion fails
+	 */
+	public int execute(int workers) throws AppException {
+		LOG.info("Promoting " + entries.size() + " APIs using " + Math.max(1, workers) + " worker(s).");
+		ParallelExecutor executor = new ParallelExecutor(workers, "batch-worker");
+		try {
+			List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+			for(final BatchEntry entry : entries) {
+				results.add(executor.submit(new Callable<Integer>() {
+					@Override
+					public Integer call() throws Exception {
+						LOG.info("Promoting API-Config: '" + entry.config + "'");
+						return App.promote(entry.config, entry.apiDefinition);
+					}
+				}));
+			}
+			int rc = 0;
+			int failed = 0;
+			LOG.info("------------------------------------------------------------------------");
+			for(int i=0; i<entries.size(); i++) {
+				int apiRc = ParallelExecutor.get(results.get(i));
+				boolean success = (apiRc==0 || apiRc==ErrorCode.NO_CHANGE.getCode());
+				LOG.info((success ? "SUCCESS " : "FAILED  ") + "(" + apiRc + ") " + entries.get(i).config +
+						(apiRc!=0 ? " - " + getDescription(apiRc) : ""));
+				if(!success) {
+					failed++;
+					if(rc==0) rc = apiRc;
+				}
+			}
+			LOG.info("------------------------------------------------------------------------");
+			LOG.info("Promoted " + (entries.size()-failed) + " of " + entries.size() + " APIs successfully, " + failed + " failed.");
+			return rc;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static List<BatchEntry> readManifest(File manifest) throws AppException {
+		List<BatchEntry> entries = new ArrayList<BatchEntry>();
+		try {
+			JsonNode apis = new ObjectMapper().readTree(manifest).get("apis");
+			if(apis==null || !apis.isArray()) {
+				ErrorState.getInstance().setError("Batch manifest: '"+manifest+"' must contain an array: apis", ErrorCode.CANT_READ_CONFIG_FILE, false);
+				throw new AppException("Batch manifest: '"+manifest+"' must contain an array: apis", ErrorCode.CANT_READ_CONFIG_FILE);
+			}
+			for(JsonNode api : apis) {
+				if(api.get("config")==null) {
+					ErrorState.getInstance().setError("Each API of batch manifest: '"+manifest+"' requires a config.", ErrorCode.CANT_READ_CONFIG_FILE, false);
+					throw new AppException("Each API of batch manifest: '"+manifest+"' requires a config.", ErrorCode.CANT_READ_CONFIG_FILE);
+				}
+				String apiDefinition = (api.get("apiDefinition")==null) ? null : resolve(manifest, api.get("apiDefinition").asText());
+				entries.add(new BatchEntry(resolve(manifest, api.get("config").asText()), apiDefinition));
+			}
+			return entries;
+		} catch (IOException e) {
+			ErrorState.getInstance().setError("Can't read batch manifest: '"+manifest+"'", ErrorCode.CANT_READ_CONFIG_FILE, false);
+			throw new AppException("Can't read batch manifest: '"+manifest+"'", ErrorCode.CANT_READ_CONFIG_FILE, e);
+		}
+	}
+
+	private static List<BatchEntry> readDirectory(File directory) {
+		List<BatchEntry> entries = new ArrayList<BatchEntry>();
+		ObjectMapper mapper = new ObjectMapper();
+		Collection<File> files = FileUtils.listFiles(directory, new String[] {"json"}, true);
+		List<File> configs = new ArrayList<File>(files);
+		Collections.sort(configs);
+		for(File config : configs) {
+			if(isStageConfig(config)) continue;
+			try {
+				JsonNode node = mapper.readTree(config);
+				// Only API-Configs are promoted, API-Definitions or other JSON-Files are ignored
+				if(node==null || !node.isObject() || node.get("path")==null) continue;
+			} catch (IOException e) {
+				LOG.debug("Ignoring file: '" + config + "' as it's not valid JSON.");
+				continue;
+			}
+			entries.add(new BatchEntry(config.getPath(), null));
+		}
+		return entries;
+	}
+
+	/**
+	 * @return true, if the given file is a stage specific API-Config (e.g. api-config.prod.json)
+	 * for an API-Config found in the same directory (api-config.json)
+	 */
+	private static boolean isStageConfig(File config) {
+		String baseName = config.getName().substring(0, config.getName().length()-".json".length());
+		if(baseName.indexOf('.')==-1) return false;
+		File baseConfig = new File(config.getParentFile(), baseName.substring(0, baseName.lastIndexOf('.')) + ".json");
+		return baseConfig.exists();
+	}
+
+	private static String resolve(File manifest, String path) {
+		File file = new File(path);
+		if(file.isAbsolute() || manifest.getAbsoluteFile().getParentFile()==null) return path;
+		return new File(manifest.getAbsoluteFile().getParentFile(), path).getPath();
+	}
+
+	private static String getDescription(int code) {
+		for(ErrorCode errorCode : ErrorCode.values()) {
+			if(errorCode.getCode()==code) return errorCode.getDescription();
+		}
+		return "Unknown error";
+	}
+
+	static class BatchEntry {
+		String config;
+		String apiDefinition;
+
+		BatchEntry(String config, String apiDefinition) {
+			this.config = config;
+			this.apiDefinition = apiDefinition;
+		}
+	}
+}
@@ -1,7 +1,5 @@
 package com.axway.apim.actions;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Vector;
 
@@ -20,8 +18,8 @@ import com.axway.apim.actions.tasks.UpdateQuotaConfiguration;
 import com.axway.apim.actions.tasks.UpgradeAccessToNewerAPI;
 import com.axway.apim.actions.tasks.props.VhostPropertyHandler;
 import com.axway.apim.lib.APIPropertiesExport;
-import com.axway.apim.lib.APIPropertyAnnotation;
 import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.ErrorCode;
 import com.axway.apim.lib.rollback.RollbackAPIProxy;
 import com.axway.apim.lib.rollback.RollbackBackendAPI;
@@ -29,6 +27,7 @@ import com.axway.apim.lib.rollback.RollbackHandler;
 import com.axway.apim.swagger.APIChangeState;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.state.APIBaseDefinition;
+import com.axway.apim.swagger.api.state.APIPropertyDescriptor;
 import com.axway.apim.swagger.api.state.AbstractAPI;
 import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -43,21 +42,25 @@ public class CreateNewAPI {
 	
 	static Logger LOG = LoggerFactory.getLogger(CreateNewAPI.class);
 
-	public void execute(APIChangeState changes, boolean reCreation) throws AppException {
+	public void execute(final APIChangeState changes, final boolean reCreation) throws AppException {
 		
 		Transaction context = Transaction.getInstance();
 		RollbackHandler rollback = RollbackHandler.getInstance();
 		
 		// Force to initially update the API into the desired state!
-		List<String> changedProps = getAllProps(changes.getDesiredAPI());
+		final List<String> changedProps = getAllProps(changes.getDesiredAPI());
 		
-		VhostPropertyHandler vHostHandler = new VhostPropertyHandler(changedProps);
+		// The V-Host is updated with all other properties, if the API-Manager supports it for the new (unpublished) API
+		final VhostPropertyHandler vHostHandler = new VhostPropertyHandler(changedProps, changes.getDesiredAPI(), null);
 		new ImportBackendAPI(changes.getDesiredAPI(), changes.getActualAPI()).execute();
 		// Register the created BE-API to be rolled back in case of an error
-		IAPI rollbackAPI = new APIBaseDefinition();
+		final IAPI rollbackAPI = new APIBaseDefinition();
 		((AbstractAPI)rollbackAPI).setName(changes.getDesiredAPI().getName());
 		((AbstractAPI)rollbackAPI).setApiId((String)context.get("backendAPIId"));
-		rollback.addRollbackAction(new RollbackBackendAPI(rollbackAPI));
+		// A reused Backend-API has not been created by this promotion, hence it must be kept
+		if(!Boolean.TRUE.equals(context.get("backendAPIReused"))) {
+			rollback.addRollbackAction(new RollbackBackendAPI(rollbackAPI));
+		}
 		
 		try {
 			new CreateAPIProxy(changes.getDesiredAPI(), changes.getActualAPI()).execute();
@@ -68,39 +71,77 @@ public class CreateNewAPI {
 		rollback.addRollbackAction(new RollbackAPIProxy(rollbackAPI)); // In any case, register the API just created for a potential rollback
 	
 		// As we have just created an API-Manager API, we should reflect this for further processing
-		IAPI createdAPI = APIManagerAdapter.getInstance().getAPIManagerAPI((JsonNode)context.get("lastResponse"), changes.getDesiredAPI());
+		final IAPI createdAPI = APIManagerAdapter.getInstance().getAPIManagerAPI((JsonNode)context.get("lastResponse"), changes.getDesiredAPI());
 		// Register the created FE-API to be rolled back in case of an error
 		((AbstractAPI)rollbackAPI).setId(createdAPI.getId());
 		changes.setIntransitAPI(createdAPI);
 		
-		// ... here we basically need to add all props to initially bring the API in sync!
-		// But without updating the Swagger, as we have just imported it!
-		new UpdateAPIProxy(changes.getDesiredAPI(), createdAPI).execute(changedProps);
-		
-		// If an image is included, update it
-		if(changes.getDesiredAPI().getImage()!=null) {
-			new UpdateAPIImage(changes.getDesiredAPI(), createdAPI).execute();
-		}
-		// This is special, as the status is not a normal property and requires some additional actions!
-		new UpdateAPIStatus(changes.getDesiredAPI(), createdAPI).execute();
-		((AbstractAPI)rollbackAPI).setState(createdAPI.getState());
-		
-		if(reCreation && changes.getActualAPI().getState().equals(IAPI.STATE_PUBLISHED)) {
-			// In case, the existing API is already in use (Published), we have to grant access to our new imported API
-			new UpgradeAccessToNewerAPI(changes.getIntransitAPI(), changes.getActualAPI()).execute();
-		}
-		
-		// Is a Quota is defined we must manage it
-		new UpdateQuotaConfiguration(changes.getDesiredAPI(), createdAPI).execute();
-		
-		// Grant access to the API
-		new ManageClientOrgs(changes.getDesiredAPI(), createdAPI).execute(reCreation);
-		
-		// Handle subscription to applications
-		new ManageClientApps(changes.getDesiredAPI(), createdAPI, changes.getActualAPI()).execute(reCreation);
-		
-		// V-Host must be managed almost at the end, as the status must be set already to "published"
-		vHostHandler.handleVHost(changes.getDesiredAPI(), createdAPI);
+		// Tasks are added in the order they are executed, if not executed in parallel
+		TaskScheduler scheduler = new TaskScheduler("Create API", CommandParameters.getInstance().getTaskParallelism());
+		scheduler.addTask("proxy", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// ... here we basically need to add all props to initially bring the API in sync!
+				// But without updating the Swagger, as we have just imported it!
+				new UpdateAPIProxy(changes.getDesiredAPI(), createdAPI).execute(changedProps);
+			}
+		});
+		scheduler.addTask("image", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// If an image is included, update it
+				if(changes.getDesiredAPI().getImage()!=null) {
+					new UpdateAPIImage(changes.getDesiredAPI(), createdAPI).execute();
+				}
+			}
+		}, "proxy");
+		scheduler.addTask("status", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// This is special, as the status is not a normal property and requires some additional actions!
+				new UpdateAPIStatus(changes.getDesiredAPI(), createdAPI).execute();
+				((AbstractAPI)rollbackAPI).setState(createdAPI.getState());
+			}
+		}, "proxy");
+		scheduler.addTask("upgradeAccess", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				if(reCreation && changes.getActualAPI().getState().equals(IAPI.STATE_PUBLISHED)) {
+					// In case, the existing API is already in use (Published), we have to grant access to our new imported API
+					new UpgradeAccessToNewerAPI(changes.getIntransitAPI(), changes.getActualAPI()).execute();
+				}
+			}
+		}, "status");
+		scheduler.addTask("quota", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// Is a Quota is defined we must manage it
+				new UpdateQuotaConfiguration(changes.getDesiredAPI(), createdAPI).execute();
+			}
+		}, "proxy");
+		scheduler.addTask("organizations", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// Grant access to the API
+				new ManageClientOrgs(changes.getDesiredAPI(), createdAPI).execute(reCreation);
+			}
+		}, "status", "upgradeAccess");
+		scheduler.addTask("applications", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// Handle subscription to applications
+				new ManageClientApps(changes.getDesiredAPI(), createdAPI, changes.getActualAPI()).execute(reCreation);
+			}
+		}, "organizations", "upgradeAccess");
+		scheduler.addTask("vhost", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// V-Host must be managed almost at the end, as the status must be set already to "published"
+				// It's updating the complete API-Proxy, hence it must not run in parallel to the image upload
+				vHostHandler.handleVHost(changes.getDesiredAPI(), createdAPI);
+			}
+		}, "status", "image");
+		scheduler.execute();
 		
 		APIPropertiesExport.getInstance().setProperty("feApiId", createdAPI.getId());
 	}
@@ -113,17 +154,13 @@ public class CreateNewAPI {
 	private List<String> getAllProps(IAPI desiredAPI) throws AppException {
 		List<String> allProps = new Vector<String>();
 		try {
-			for (Field field : desiredAPI.getClass().getSuperclass().getDeclaredFields()) {
-				if (field.isAnnotationPresent(APIPropertyAnnotation.class)) {
-					String getterMethodName = "get" + field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
-					Method method = desiredAPI.getClass().getMethod(getterMethodName, null);
-					Object desiredValue = method.invoke(desiredAPI, null);
-					// For new APIs don't include empty properties (this includes MissingNodes)
-					if(desiredValue==null) continue;
-					// We have just inserted the Swagger-File
-					if(field.getName().equals("apiDefinition")) continue;
-					allProps.add(field.getName());
-				}
+			for (APIPropertyDescriptor property : APIPropertyDescriptor.getDescriptors()) {
+				Object desiredValue = property.getValue(desiredAPI);
+				// For new APIs don't include empty properties (this includes MissingNodes)
+				if(desiredValue==null) continue;
+				// We have just inserted the Swagger-File
+				if(property.getName().equals("apiDefinition")) continue;
+				allProps.add(property.getName());
 			}
 			return allProps;
 		} catch (Exception e) {
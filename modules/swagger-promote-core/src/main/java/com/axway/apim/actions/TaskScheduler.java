@@ -0,0 +1,209 @@
+package com.axway.apim.actions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.ParallelExecutor;
+import com.axway.apim.lib.PromotionContext;
+
+/**
+ * Executes the tasks required to bring an API into the desired state. Each task declares the tasks
+ * it depends on (which must be added before), hence independent tasks (e.g. image upload and quota update)
+ * can be executed in parallel using the shared connection pool.<br>
+ * With a parallelism of 1 all tasks are executed in the order they are added, which is the
+ * fallback mode. If a task fails, no further tasks are started, tasks already running are completed and
+ * the first failure is re-thrown.<br>
+ * After execution, the critical path (the longest chain of dependent tasks) is reported.
+ */
+public class TaskScheduler {
+
+	static Logger LOG = LoggerFactory.getLogger(TaskScheduler.class);
+
+	public interface Task {
+		public void execute() throws AppException;
+	}
+
+	private String name;
+
+	private int parallelism;
+
+	private Map<String, ScheduledTask> tasks = new LinkedHashMap<String, ScheduledTask>();
+
+	public TaskScheduler(String name, int parallelism) {
+		super();
+		this.name = name;
+		this.parallelism = (parallelism < 1) ? 1 : parallelism;
+	}
+
+	/**
+	 * @param taskName unique name of the task
+	 * @param task to execute
+	 * @param prerequisites names of the tasks, which must be completed before this task is started
+	 */
+	public void addTask(String taskName, Task task, String... prerequisites) {
+		if(tasks.containsKey(taskName)) throw new IllegalArgumentException("Task: '" + taskName + "' already added.");
+		for(String prerequisite : prerequisites) {
+			if(!tasks.containsKey(prerequisite)) throw new IllegalArgumentException("Prerequisite: '" + prerequisite + "' of task: '" + taskName + "' must be added before.");
+		}
+		tasks.put(taskName, new ScheduledTask(taskName, task, Arrays.asList(prerequisites)));
+	}
+
+	public void execute() throws AppException {
+		long start = System.currentTimeMillis();
+		try {
+			if(parallelism == 1) {
+				for(ScheduledTask task : tasks.values()) {
+					task.run();
+				}
+			} else {
+				executeParallel();
+			}
+		} finally {
+			logCriticalPath(System.currentTimeMillis() - start);
+		}
+	}
+
+	private void executeParallel() throws AppException {
+		final BlockingQueue<ScheduledTask> completed = new LinkedBlockingQueue<ScheduledTask>();
+		ParallelExecutor executor = new ParallelExecutor(parallelism, "task-scheduler");
+		PromotionContext promotionContext = PromotionContext.getCurrent();
+		List<ScheduledTask> pending = new ArrayList<ScheduledTask>(tasks.values());
+		AppException failure = null;
+		int running = 0;
+		try {
+			while(true) {
+				if(failure == null) {
+					for(ScheduledTask task : new ArrayList<ScheduledTask>(pending)) {
+						if(!isReady(task)) continue;
+						pending.remove(task);
+						running++;
+						final ScheduledTask readyTask = task;
+						// Each task gets its own Transaction, as it's used to pass information between requests of a task
+						executor.submit(promotionContext.fork().bind(new Callable<Void>() {
+							@Override
+							public Void call() {
+								try {
+									readyTask.run();
+								} catch (AppException e) {
+									readyTask.failure = e;
+								} catch (RuntimeException e) {
+									readyTask.failure = new AppException("Error executing task: " + readyTask.name, ErrorCode.UNXPECTED_ERROR, e);
+								} finally {
+									completed.add(readyTask);
+								}
+								return null;
+							}
+						}));
+					}
+				}
+				if(running == 0) break;
+				ScheduledTask task = completed.take();
+				running--;
+				if(task.failure != null && failure == null) {
+					LOG.debug("Task: '" + task.name + "' failed. Waiting for running tasks to complete.");
+					failure = task.failure;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AppException("Interrupted while waiting for tasks to complete.", ErrorCode.UNXPECTED_ERROR, e);
+		} finally {
+			executor.shutdown();
+		}
+		if(failure != null) throw failure;
+		if(pending.size() > 0) {
+			throw new AppException("Tasks: " + pending + " can't be scheduled.", ErrorCode.UNXPECTED_ERROR);
+		}
+	}
+
+	private boolean isReady(ScheduledTask task) {
+		for(String prerequisite : task.prerequisites) {
+			if(!tasks.get(prerequisite).completed) return false;
+		}
+		return true;
+	}
+
+	private void logCriticalPath(long totalDuration) {
+		List<String> criticalPath = new ArrayList<String>();
+		long criticalPathDuration = 0;
+		for(ScheduledTask task : tasks.values()) {
+			if(!task.completed) continue;
+			List<String> path = new ArrayList<String>();
+			long duration = getPathDuration(task, path);
+			if(duration > criticalPathDuration) {
+				criticalPathDuration = duration;
+				criticalPath = path;
+			}
+		}
+		for(ScheduledTask task : tasks.values()) {
+			if(task.completed) LOG.debug(name + " - task: '" + task.name + "' took " + task.getDuration() + " ms");
+		}
+		LOG.info(name + " took " + totalDuration + " ms using " + parallelism + " thread(s). Critical path: " + criticalPath + " (" + criticalPathDuration + " ms)");
+	}
+
+	/**
+	 * @return the duration of the longest chain of tasks ending with the given task
+	 */
+	private long getPathDuration(ScheduledTask task, List<String> path) {
+		long longest = 0;
+		List<String> longestPath = new ArrayList<String>();
+		for(String prerequisite : task.prerequisites) {
+			List<String> prerequisitePath = new ArrayList<String>();
+			long duration = getPathDuration(tasks.get(prerequisite), prerequisitePath);
+			if(duration > longest || longestPath.isEmpty()) {
+				longest = duration;
+				longestPath = prerequisitePath;
+			}
+		}
+		path.addAll(longestPath);
+		path.add(task.name);
+		return longest + task.getDuration();
+	}
+
+	private static class ScheduledTask {
+		String name;
+		Task task;
+		List<String> prerequisites;
+
+		volatile boolean completed = false;
+		volatile AppException failure;
+		long start;
+		long end;
+
+		ScheduledTask(String name, Task task, List<String> prerequisites) {
+			this.name = name;
+			this.task = task;
+			this.prerequisites = prerequisites;
+		}
+
+		void run() throws AppException {
+			start = System.currentTimeMillis();
+			try {
+				task.execute();
+			} finally {
+				end = System.currentTimeMillis();
+			}
+			completed = true;
+		}
+
+		long getDuration() {
+			return end - start;
+		}
+
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
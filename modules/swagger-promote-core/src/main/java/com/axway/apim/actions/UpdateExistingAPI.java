@@ -14,6 +14,7 @@ import com.axway.apim.actions.tasks.UpdateAPIStatus;
 import com.axway.apim.actions.tasks.UpdateQuotaConfiguration;
 import com.axway.apim.actions.tasks.props.VhostPropertyHandler;
 import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.APIPropertiesExport;
 import com.axway.apim.swagger.APIChangeState;
 import com.axway.apim.swagger.APIManagerAdapter;
@@ -28,33 +29,70 @@ public class UpdateExistingAPI {
 	
 	static Logger LOG = LoggerFactory.getLogger(UpdateExistingAPI.class);
 
-	public void execute(APIChangeState changes) throws AppException {
+	public void execute(final APIChangeState changes) throws AppException {
 		
-		List<String> allChanges = new Vector<String>();
+		final List<String> allChanges = new Vector<String>();
 		allChanges.addAll(changes.getBreakingChanges());
 		allChanges.addAll(changes.getNonBreakingChanges());
 		
-		VhostPropertyHandler vHostHandler = new VhostPropertyHandler(allChanges);
+		final VhostPropertyHandler vHostHandler = new VhostPropertyHandler(allChanges, changes.getDesiredAPI(), changes.getActualAPI());
+		final boolean[] updateVHostRequired = new boolean[] { false };
 
-		new UpdateAPIProxy(changes.getDesiredAPI(), changes.getActualAPI()).execute(allChanges);
-		
-		// If image is include, update it
-		if(changes.getNonBreakingChanges().contains("image")) {
-			new UpdateAPIImage(changes.getDesiredAPI(), changes.getActualAPI()).execute();
-		}
-		
-		// This is special, as the status is not a property and requires some additional actions!
-		UpdateAPIStatus statusUpdate = new UpdateAPIStatus(changes.getDesiredAPI(), changes.getActualAPI());
-		if(changes.getNonBreakingChanges().contains("state")) {
-			statusUpdate.execute();
-		}
-		
-		vHostHandler.handleVHost(changes.getDesiredAPI(), changes.getActualAPI(), statusUpdate.isUpdateVHostRequired());
-		
-		new UpdateQuotaConfiguration(changes.getDesiredAPI(), changes.getActualAPI()).execute();
-		new ManageClientOrgs(changes.getDesiredAPI(), changes.getActualAPI()).execute(false);
-		// Handle subscription to applications
-		new ManageClientApps(changes.getDesiredAPI(), changes.getActualAPI(), null).execute(false);
+		// Tasks are added in the order they are executed, if not executed in parallel
+		TaskScheduler scheduler = new TaskScheduler("Update API", CommandParameters.getInstance().getTaskParallelism());
+		scheduler.addTask("proxy", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				new UpdateAPIProxy(changes.getDesiredAPI(), changes.getActualAPI()).execute(allChanges);
+			}
+		});
+		scheduler.addTask("image", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// If image is include, update it
+				if(changes.getNonBreakingChanges().contains("image")) {
+					new UpdateAPIImage(changes.getDesiredAPI(), changes.getActualAPI()).execute();
+				}
+			}
+		}, "proxy");
+		scheduler.addTask("status", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// This is special, as the status is not a property and requires some additional actions!
+				UpdateAPIStatus statusUpdate = new UpdateAPIStatus(changes.getDesiredAPI(), changes.getActualAPI());
+				if(changes.getNonBreakingChanges().contains("state")) {
+					statusUpdate.execute();
+				}
+				updateVHostRequired[0] = statusUpdate.isUpdateVHostRequired();
+			}
+		}, "proxy");
+		scheduler.addTask("vhost", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// It's updating the complete API-Proxy, hence it must not run in parallel to the image upload
+				vHostHandler.handleVHost(changes.getDesiredAPI(), changes.getActualAPI(), updateVHostRequired[0]);
+			}
+		}, "status", "image");
+		scheduler.addTask("quota", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				new UpdateQuotaConfiguration(changes.getDesiredAPI(), changes.getActualAPI()).execute();
+			}
+		}, "proxy");
+		scheduler.addTask("organizations", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				new ManageClientOrgs(changes.getDesiredAPI(), changes.getActualAPI()).execute(false);
+			}
+		}, "status");
+		scheduler.addTask("applications", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				// Handle subscription to applications
+				new ManageClientApps(changes.getDesiredAPI(), changes.getActualAPI(), null).execute(false);
+			}
+		}, "organizations");
+		scheduler.execute();
 		
 		APIPropertiesExport.getInstance().setProperty("feApiId", changes.getActualAPI().getApiId());
 	}
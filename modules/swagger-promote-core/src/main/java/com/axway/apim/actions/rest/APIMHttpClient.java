@@ -1,10 +1,14 @@
 package com.axway.apim.actions.rest;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.CookieSpecs;
 import org.apache.http.client.config.RequestConfig;
@@ -18,13 +22,20 @@ import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.conn.ssl.TrustAllStrategy;
 import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContextBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.PromotionContext;
 
 /**
  * The interface to the API-Manager itself responsible to setup the underlying HTTPS-Communication. 
@@ -35,20 +46,35 @@ import com.axway.apim.lib.ErrorCode;
  */
 public class APIMHttpClient {
 	
+	private static Logger LOG = LoggerFactory.getLogger(APIMHttpClient.class);
+	
 	private static Map<Boolean, APIMHttpClient> instances = new HashMap<Boolean, APIMHttpClient>();
 	
-	private HttpClient httpClient;
-	private HttpClientContext clientContext;
+	private CloseableHttpClient httpClient;
+	
+	private PoolingHttpClientConnectionManager connectionManager;
+	
+	private RequestConfig defaultRequestConfig;
 	
 	private BasicCookieStore cookieStore = new BasicCookieStore();
 	
 	private String csrfToken;
 	
-	public static void deleteInstance() {
+	/**
+	 * Closes the clients of the previous run, which stops their connection pools and idle connection 
+	 * evictor threads. The same client might be registered as the admin and user client, hence it's closed only once.
+	 */
+	public static synchronized void deleteInstance() {
+		Map<APIMHttpClient, Boolean> closedClients = new IdentityHashMap<APIMHttpClient, Boolean>();
+		for(APIMHttpClient client : instances.values()) {
+			if(client == null || closedClients.containsKey(client)) continue;
+			closedClients.put(client, Boolean.TRUE);
+			client.close();
+		}
 		instances = new HashMap<Boolean, APIMHttpClient>();
 	}
 	
-	public static void addInstance(boolean adminInstance, APIMHttpClient client) {
+	public static synchronized void addInstance(boolean adminInstance, APIMHttpClient client) {
 		instances.put(adminInstance, client);
 	}
 	
@@ -56,7 +82,7 @@ public class APIMHttpClient {
 		return getInstance(false);
 	}
 	
-	public static APIMHttpClient getInstance(boolean adminInstance) throws AppException {
+	public static synchronized APIMHttpClient getInstance(boolean adminInstance) throws AppException {
 		if(!APIMHttpClient.instances.containsKey(new Boolean(adminInstance))) {
 			APIMHttpClient client = new APIMHttpClient(adminInstance);
 			instances.put(new Boolean(adminInstance), client);
@@ -75,6 +101,7 @@ public class APIMHttpClient {
 	}
 
 	private void createConnection(String apiManagerURL) throws AppException {
+		CommandParameters params = CommandParameters.getInstance();
 		PoolingHttpClientConnectionManager cm;
 		HttpHost targetHost;
 		
@@ -91,23 +118,36 @@ public class APIMHttpClient {
 					.build();
 	
 			cm = new PoolingHttpClientConnectionManager(r);
-			cm.setMaxTotal(5);
-			cm.setDefaultMaxPerRoute(2);
+			cm.setMaxTotal(params.getMaxConnections());
+			cm.setDefaultMaxPerRoute(params.getMaxConnectionsPerRoute());
+			// Connections not used for this time are validated before they are leased again
+			cm.setValidateAfterInactivity(params.getValidateAfterInactivity());
 			targetHost = new HttpHost(uri.getHost(), uri.getPort(), uri.getScheme());
 	
-			// Add AuthCache to the execution context
-			clientContext = HttpClientContext.create();
-			//clientContext.setAuthCache(authCache);
-			clientContext.setCookieStore(cookieStore);
-	
-			cm.setMaxPerRoute(new HttpRoute(targetHost), 2);
+			cm.setMaxPerRoute(new HttpRoute(targetHost), params.getMaxConnectionsPerRoute());
+			this.connectionManager = cm;
 			// We have make sure, that cookies are correclty parsed!
-			RequestConfig defaultRequestConfig = RequestConfig.custom()
-			        .setCookieSpec(CookieSpecs.STANDARD).build();
+			this.defaultRequestConfig = RequestConfig.custom()
+			        .setCookieSpec(CookieSpecs.STANDARD)
+			        .setConnectTimeout(params.getConnectTimeout())
+			        .setConnectionRequestTimeout(params.getConnectionRequestTimeout())
+			        .setSocketTimeout(params.getSocketTimeout())
+			        .build();
 			
+			final long keepAliveMillis = params.getKeepAliveTimeout() * 1000L;
 			this.httpClient = HttpClientBuilder.create()
 					.disableRedirectHandling()
 					.setConnectionManager(cm)
+					.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
+						@Override
+						public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+							// Use the Keep-Alive given by the API-Manager, otherwise the configured one
+							long keepAlive = super.getKeepAliveDuration(response, context);
+							return (keepAlive > 0) ? keepAlive : keepAliveMillis;
+						}
+					})
+					.evictExpiredConnections()
+					.evictIdleConnections(params.getIdleConnectionTimeout(), TimeUnit.SECONDS)
 					.useSystemProperties()
 					.setDefaultRequestConfig(defaultRequestConfig)
 					.build();
@@ -120,11 +160,75 @@ public class APIMHttpClient {
 	public HttpClient getHttpClient() {
 		return httpClient;
 	}
+
+	private void close() {
+		if(httpClient == null) return;
+		try {
+			httpClient.close();
+		} catch (IOException e) {
+			LOG.warn("Can't close connection to API-Manager.", e);
+		}
+	}
 	
+	/**
+	 * A HttpClientContext is not thread-safe, hence each request gets its own context 
+	 * sharing the cookie-store (session) of this client.
+	 * @return a new context using the cookie-store of this client
+	 */
 	public HttpClientContext getClientContext() {
+		HttpClientContext clientContext = HttpClientContext.create();
+		clientContext.setCookieStore(cookieStore);
 		return clientContext;
 	}
 
+	/**
+	 * Returns the RequestConfig for the next request of the current promotion.
+	 * @return the RequestConfig to use for the next request
+	 * @throws AppException if the promotion deadline is already exceeded
+	 */
+	public RequestConfig getRequestConfig() throws AppException {
+		return getRequestConfig(PromotionContext.getCurrent());
+	}
+
+	/**
+	 * Returns the RequestConfig for the next request. If a promotion deadline is configured, 
+	 * all timeouts are limited to the remaining time of the promotion.
+	 * @param promotionContext the request belongs to
+	 * @return the RequestConfig to use for the next request
+	 * @throws AppException if the promotion deadline is already exceeded
+	 */
+	public RequestConfig getRequestConfig(PromotionContext promotionContext) throws AppException {
+		PromotionDeadline deadline = promotionContext.getDeadline();
+		if(deadline == null) return defaultRequestConfig;
+		long remaining = deadline.getRemainingMillis();
+		if(remaining <= 0) {
+			promotionContext.getErrorState().setError("Promotion timeout of " + deadline.getTimeoutSeconds() + " seconds exceeded.", ErrorCode.PROMOTION_DEADLINE_EXCEEDED, false);
+			throw new AppException("Promotion timeout of " + deadline.getTimeoutSeconds() + " seconds exceeded.", ErrorCode.PROMOTION_DEADLINE_EXCEEDED);
+		}
+		int budget = (int)Math.min(Integer.MAX_VALUE, remaining);
+		return RequestConfig.copy(defaultRequestConfig)
+				.setConnectTimeout(Math.min(defaultRequestConfig.getConnectTimeout(), budget))
+				.setConnectionRequestTimeout(Math.min(defaultRequestConfig.getConnectionRequestTimeout(), budget))
+				.setSocketTimeout(Math.min(defaultRequestConfig.getSocketTimeout(), budget))
+				.build();
+	}
+	
+	/**
+	 * Logs the statistics of the connection pools used during this run. The same client 
+	 * might be registered as the admin and user client, hence it's logged only once.
+	 */
+	public static void logPoolStatistics() {
+		Map<APIMHttpClient, Boolean> clients = new IdentityHashMap<APIMHttpClient, Boolean>();
+		for(Boolean adminInstance : instances.keySet()) {
+			APIMHttpClient client = instances.get(adminInstance);
+			if(client == null || client.connectionManager == null || clients.containsKey(client)) continue;
+			clients.put(client, adminInstance);
+			PoolStats stats = client.connectionManager.getTotalStats();
+			LOG.info("Connection pool (admin: "+adminInstance+"): Max: " + stats.getMax() + ", Leased: " + stats.getLeased() + 
+					", Available: " + stats.getAvailable() + ", Pending: " + stats.getPending());
+		}
+	}
+
 	public String getCsrfToken() {
 		return csrfToken;
 	}
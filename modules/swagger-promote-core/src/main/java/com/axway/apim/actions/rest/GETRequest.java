@@ -3,12 +3,25 @@ package com.axway.apim.actions.rest;
 import java.net.URI;
 
 import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
 
 import com.axway.apim.actions.tasks.IResponseParser;
 import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.MetadataCache;
+import com.axway.apim.lib.Utils;
+import com.axway.apim.lib.ValidatedEntry;
 
 public class GETRequest extends RestAPICall {
+	
+	private boolean revalidate = false;
+	
+	private boolean streamed = false;
 
 	public GETRequest(URI uri, IResponseParser responseParser) {
 		super(null, uri,responseParser);
@@ -20,10 +33,95 @@ public class GETRequest extends RestAPICall {
 
 	@Override
 	public HttpResponse execute() throws AppException {
-		HttpGet httpGet = new HttpGet(uri);
-		httpGet.setHeader("Content-type", this.contentType);
-		HttpResponse response = sendRequest(httpGet);
+		boolean useCache = !streamed && (promotionContext.getParams()==null || promotionContext.getParams().isResponseCache());
+		HttpResponse response = (useCache) ? ResponseCache.getInstance().get(uri, useAdmin) : null;
+		if(response==null) {
+			long generation = ResponseCache.getInstance().getGeneration(uri);
+			HttpGet httpGet = new HttpGet(uri);
+			httpGet.setHeader("Content-type", this.contentType);
+			if(revalidate && MetadataCache.getInstance().isEnabled()) {
+				response = sendConditionalRequest(httpGet);
+			} else {
+				response = sendRequest(httpGet);
+			}
+			if(useCache) ResponseCache.getInstance().put(uri, useAdmin, generation, response);
+		}
 		parseResponse(response);
 		return response;
 	}
+	
+	/**
+	 * Revalidates the content downloaded by a previous run using the ETag or Last-Modified 
+	 * given by the API-Manager instead of downloading it again. 
+	 * Content without validators is used for the configured revalidationTTL without sending a request. 
+	 * If it's downloaded again with the same hash, the stored content is used for another revalidationTTL.
+	 */
+	private HttpResponse sendConditionalRequest(HttpGet httpGet) throws AppException {
+		MetadataCache cache = MetadataCache.getInstance();
+		String key = getValidatedKey(uri, useAdmin);
+		ValidatedEntry cached = cache.getValidated(key);
+		if(cached!=null && cache.isFresh(cached)) {
+			LOG.trace("Using downloaded content for: " + uri);
+			RequestStatistics.getInstance().addNotModified();
+			return toResponse(cached);
+		}
+		if(cached!=null) cached.addConditionalHeaders(httpGet);
+		HttpResponse response = sendRequest(httpGet);
+		if(cached!=null && cached.isNotModified(response)) {
+			EntityUtils.consumeQuietly(response.getEntity());
+			LOG.trace("Content not modified: " + uri);
+			RequestStatistics.getInstance().addNotModified();
+			return toResponse(cached);
+		}
+		if(response.getStatusLine().getStatusCode()!=200 || response.getEntity()==null) return response;
+		try {
+			ValidatedEntry downloaded = ValidatedEntry.fromResponse(response, Utils.toByteArray(response.getEntity()));
+			if(cached!=null && !downloaded.hasValidators() && cached.getHash().equals(downloaded.getHash())) {
+				LOG.trace("Content unchanged: " + uri);
+				RequestStatistics.getInstance().addNotModified();
+				cache.refreshValidated(key, cached);
+				return toResponse(cached);
+			}
+			response.setEntity(new ByteArrayEntity(downloaded.getData(), ContentType.get(response.getEntity())));
+			cache.putValidated(key, downloaded);
+		} catch (Exception e) {
+			throw new AppException("Can't read response of: " + uri, ErrorCode.API_MANAGER_COMMUNICATION, e);
+		}
+		return response;
+	}
+	
+	/**
+	 * Content downloaded using conditional requests is invalidated together with the resource (e.g. proxies) 
+	 * @param uri of the request
+	 * @param useAdmin true, if the request is sent using the admin account
+	 * @return the key of the validated entry in the MetadataCache
+	 */
+	static String getValidatedKey(URI uri, boolean useAdmin) {
+		String resource = ResponseCache.getResource(uri);
+		return "responses/" + ((resource==null) ? "other" : resource) + "/" + MetadataCache.fingerprint(useAdmin + " " + uri);
+	}
+	
+	private static HttpResponse toResponse(ValidatedEntry entry) {
+		HttpResponse response = new ResponseCache.CachedHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"));
+		ByteArrayEntity entity = new ByteArrayEntity(entry.getData());
+		entity.setContentType(entry.getContentType());
+		response.setEntity(entity);
+		return response;
+	}
+
+	/**
+	 * @param revalidate if true, the response is stored in the MetadataCache and revalidated by the next run 
+	 * using a conditional request. Should be used for large, rarely changing resources only.
+	 */
+	public void setRevalidate(boolean revalidate) {
+		this.revalidate = revalidate;
+	}
+
+	/**
+	 * @param streamed if true, the response is read as a stream by the caller (e.g. a listing of all APIs), 
+	 * hence it's not buffered or cached by the ResponseCache
+	 */
+	public void setStreamed(boolean streamed) {
+		this.streamed = streamed;
+	}
 }
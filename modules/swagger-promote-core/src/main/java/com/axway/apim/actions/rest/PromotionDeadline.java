@@ -0,0 +1,54 @@
+package com.axway.apim.actions.rest;
+
+import java.util.concurrent.TimeUnit;
+
+import com.axway.apim.lib.PromotionContext;
+
+/**
+ * Overall time budget of a single promotion. It's started once per run and each REST-API call 
+ * is limited to the remaining time, so that a stalled API-Manager can't hang the tool.<br>
+ * If no timeout is configured, no instance is available.<br>
+ * The deadline is owned by the current PromotionContext, as multiple APIs might be promoted in parallel.
+ */
+public class PromotionDeadline {
+	
+	private final int timeoutSeconds;
+	
+	private final long deadline;
+	
+	public PromotionDeadline(int timeoutSeconds) {
+		this.timeoutSeconds = timeoutSeconds;
+		this.deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+	}
+	
+	/**
+	 * Starts the deadline for the current promotion. 
+	 * @param timeoutSeconds the time budget for the promotion, 0 or lower disables the deadline
+	 */
+	public static void start(int timeoutSeconds) {
+		PromotionContext.getCurrent().setDeadline((timeoutSeconds > 0) ? new PromotionDeadline(timeoutSeconds) : null);
+	}
+	
+	/**
+	 * @return the deadline of the current promotion or null, if no deadline is configured
+	 */
+	public static PromotionDeadline getInstance() {
+		return PromotionContext.getCurrent().getDeadline();
+	}
+	
+	public static void deleteInstance() {
+		PromotionContext.getCurrent().setDeadline(null);
+	}
+	
+	public long getRemainingMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+	}
+	
+	public boolean isExpired() {
+		return getRemainingMillis() <= 0;
+	}
+
+	public int getTimeoutSeconds() {
+		return timeoutSeconds;
+	}
+}
@@ -0,0 +1,89 @@
+package com.axway.apim.actions.rest;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects statistics about the REST-API calls sent to the API-Manager during a run, 
+ * which are logged as part of the run summary.
+ */
+public class RequestStatistics {
+	
+	private static Logger LOG = LoggerFactory.getLogger(RequestStatistics.class);
+	
+	private static RequestStatistics instance;
+	
+	private AtomicInteger retriedRequests = new AtomicInteger();
+	
+	private AtomicInteger retries = new AtomicInteger();
+	
+	private AtomicInteger cacheHits = new AtomicInteger();
+	
+	private AtomicInteger cacheMisses = new AtomicInteger();
+	
+	private AtomicInteger notModified = new AtomicInteger();
+	
+	private RequestStatistics() {}
+	
+	public static synchronized RequestStatistics getInstance() {
+		if (RequestStatistics.instance == null) {
+			RequestStatistics.instance = new RequestStatistics();
+		}
+		return RequestStatistics.instance;
+	}
+	
+	public static synchronized void deleteInstance() {
+		RequestStatistics.instance = null;
+	}
+	
+	/**
+	 * @param firstRetry true, if this is the first retry of a request
+	 */
+	public void addRetry(boolean firstRetry) {
+		if(firstRetry) retriedRequests.incrementAndGet();
+		retries.incrementAndGet();
+	}
+	
+	public void addCacheHit() {
+		cacheHits.incrementAndGet();
+	}
+	
+	public void addCacheMiss() {
+		cacheMisses.incrementAndGet();
+	}
+	
+	/**
+	 * Content downloaded by a previous run has been used, as it's not modified
+	 */
+	public void addNotModified() {
+		notModified.incrementAndGet();
+	}
+	
+	public int getRetriedRequests() {
+		return retriedRequests.get();
+	}
+
+	public int getRetries() {
+		return retries.get();
+	}
+
+	public int getCacheHits() {
+		return cacheHits.get();
+	}
+
+	public int getCacheMisses() {
+		return cacheMisses.get();
+	}
+
+	public int getNotModified() {
+		return notModified.get();
+	}
+
+	public void logStatistics() {
+		LOG.info("Request statistics: Retried requests: " + retriedRequests.get() + " (Total retries: " + retries.get() + "), "
+				+ "Cached responses used: " + cacheHits.get() + " (Not cached: " + cacheMisses.get() + "), "
+				+ "Not modified downloads: " + notModified.get());
+	}
+}
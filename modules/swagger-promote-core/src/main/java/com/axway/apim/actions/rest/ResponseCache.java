@@ -0,0 +1,263 @@
+package com.axway.apim.actions.rest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicHttpResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.axway.apim.lib.MetadataCache;
+
+/**
+ * Remembers the responses of GET-Requests sent to the API-Manager during a run, as the same resources
+ * (e.g. /proxies/{id}, /proxies/{id}/operations or /quotas/{id}) are requested multiple times.<br>
+ * Responses are cached per URI and user (admin or org-admin) and only as long as nothing is changed:
+ * every POST, PUT or DELETE request invalidates all responses of the same resource
+ * (e.g. a PUT on /proxies/{id} invalidates all cached /proxies responses). As API-Access and subscriptions
+ * are visible for proxies, organizations and applications, these resources are invalidated together.<br>
+ * Only successful responses are cached. Responses larger than 1 MB (e.g. API-Definitions or images) are 
+ * passed through without being kept in memory. Listings read as a stream (e.g. all APIs or applications) 
+ * are not cached at all. The cache is disabled with parameter: responseCache=false
+ */
+public class ResponseCache {
+
+	private static Logger LOG = LoggerFactory.getLogger(ResponseCache.class);
+
+	private static ResponseCache instance;
+
+	/** Larger responses (e.g. API-Definitions or images) are not cached */
+	private final static int MAX_ENTRY_SIZE = 1024 * 1024;
+
+	/** Responses depending on the session are never cached */
+	private final static List<String> NOT_CACHED = Arrays.asList("currentuser", "login");
+
+	/** Resources whose responses reflect changes made to each other */
+	private final static List<String> ACCESS_RESOURCES = Arrays.asList("proxies", "organizations", "applications");
+
+	private Map<String, CachedResponse> responses = new ConcurrentHashMap<String, CachedResponse>();
+
+	/** Incremented with every change of a resource to detect responses received while the resource changed */
+	private Map<String, AtomicLong> generations = new ConcurrentHashMap<String, AtomicLong>();
+
+	private ResponseCache() {}
+
+	public static synchronized ResponseCache getInstance() {
+		if (ResponseCache.instance == null) {
+			ResponseCache.instance = new ResponseCache();
+		}
+		return ResponseCache.instance;
+	}
+
+	public static synchronized void deleteInstance() {
+		ResponseCache.instance = null;
+	}
+
+	/**
+	 * @param uri of the GET-Request
+	 * @param useAdmin true, if the request is sent using the admin account
+	 * @return a copy of the cached response or null, if not cached
+	 */
+	public HttpResponse get(URI uri, boolean useAdmin) {
+		String resource = getResource(uri);
+		if(resource==null || NOT_CACHED.contains(resource)) return null;
+		CachedResponse cached = responses.get(getKey(uri, useAdmin));
+		if(cached==null) {
+			RequestStatistics.getInstance().addCacheMiss();
+			return null;
+		}
+		RequestStatistics.getInstance().addCacheHit();
+		LOG.trace("Using cached response for: " + uri);
+		return cached.toResponse();
+	}
+
+	/**
+	 * @param uri of the resource
+	 * @return the current generation of the resource, which must be given when putting a response
+	 */
+	public long getGeneration(URI uri) {
+		String resource = getResource(uri);
+		if(resource==null) return 0;
+		return getGenerationCounter(resource).get();
+	}
+
+	/**
+	 * Caches the given response, if it's successful and not larger than MAX_ENTRY_SIZE. The entity of the 
+	 * response is buffered, hence the response can still be consumed by the caller.
+	 * @param uri of the GET-Request
+	 * @param useAdmin true, if the request is sent using the admin account
+	 * @param generation of the resource before the request has been sent
+	 * @param response received from the API-Manager
+	 */
+	public void put(URI uri, boolean useAdmin, long generation, HttpResponse response) {
+		String resource = getResource(uri);
+		if(resource==null || NOT_CACHED.contains(resource)) return;
+		if(response.getStatusLine().getStatusCode()!=200) return;
+		HttpEntity entity = response.getEntity();
+		if(entity!=null && entity.getContentLength() > MAX_ENTRY_SIZE) return;
+		try {
+			ContentType contentType = null;
+			byte[] content = null;
+			if(entity!=null) {
+				contentType = ContentType.get(entity);
+				content = readContent(response, contentType);
+				if(content==null) return; // Too large or no content
+			}
+			CachedResponse cached = new CachedResponse(resource, response, content, contentType);
+			// Don't cache a response, if the resource has been changed while the request was running
+			if(getGenerationCounter(resource).get()!=generation) return;
+			responses.put(getKey(uri, useAdmin), cached);
+		} catch (Exception e) {
+			LOG.debug("Can't cache response for: " + uri, e);
+		}
+	}
+
+	/**
+	 * Invalidates all cached responses of the resource changed by the given request.
+	 * @param uri of the POST-, PUT- or DELETE-Request
+	 */
+	public void invalidate(URI uri) {
+		String resource = getResource(uri);
+		if(resource==null) return;
+		if(ACCESS_RESOURCES.contains(resource)) {
+			for(String accessResource : ACCESS_RESOURCES) {
+				invalidateResource(accessResource);
+			}
+		} else {
+			invalidateResource(resource);
+		}
+	}
+
+	private void invalidateResource(String resource) {
+		getGenerationCounter(resource).incrementAndGet();
+		Iterator<CachedResponse> it = responses.values().iterator();
+		while(it.hasNext()) {
+			if(it.next().resource.equals(resource)) it.remove();
+		}
+		// Content downloaded with conditional requests by GETRequest
+		MetadataCache.getInstance().invalidateAll("responses/" + resource + "/");
+		LOG.trace("Invalidated cached responses of: /" + resource);
+	}
+
+	/**
+	 * Reads the content of the response up to MAX_ENTRY_SIZE and replaces the consumed entity. If the content 
+	 * is larger (e.g. a chunked response without Content-Length), the part already read is put in front of the 
+	 * remaining stream, hence the caller reads the complete content without it being kept in memory.
+	 * @return the content or null, if it's larger than MAX_ENTRY_SIZE or the entity has no content
+	 */
+	private static byte[] readContent(HttpResponse response, ContentType contentType) throws IOException {
+		HttpEntity entity = response.getEntity();
+		InputStream in = entity.getContent();
+		if(in==null) return null;
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		byte[] chunk = new byte[8192];
+		int read;
+		while((read = in.read(chunk)) != -1) {
+			buffer.write(chunk, 0, read);
+			if(buffer.size() > MAX_ENTRY_SIZE) {
+				BasicHttpEntity remaining = new BasicHttpEntity();
+				remaining.setContent(new SequenceInputStream(new ByteArrayInputStream(buffer.toByteArray()), in));
+				remaining.setContentLength(entity.getContentLength());
+				remaining.setContentType(entity.getContentType());
+				remaining.setContentEncoding(entity.getContentEncoding());
+				remaining.setChunked(entity.isChunked());
+				response.setEntity(remaining);
+				return null;
+			}
+		}
+		in.close();
+		byte[] content = buffer.toByteArray();
+		// The entity has been consumed, hence the caller gets a copy of it
+		response.setEntity(new ByteArrayEntity(content, contentType));
+		return content;
+	}
+
+	private AtomicLong getGenerationCounter(String resource) {
+		AtomicLong generation = generations.get(resource);
+		if(generation==null) {
+			generations.putIfAbsent(resource, new AtomicLong());
+			generation = generations.get(resource);
+		}
+		return generation;
+	}
+
+	private static String getKey(URI uri, boolean useAdmin) {
+		return (useAdmin ? "admin " : "user ") + uri.toString();
+	}
+
+	/**
+	 * @param uri of the request
+	 * @return the resource addressed by the request (e.g. proxies for /api/portal/v1.3/proxies/{id}/operations) or null
+	 */
+	static String getResource(URI uri) {
+		String path = uri.getPath();
+		if(path==null || !path.startsWith(RestAPICall.API_VERSION + "/")) return null;
+		path = path.substring(RestAPICall.API_VERSION.length() + 1);
+		int end = path.indexOf('/');
+		return (end==-1) ? path : path.substring(0, end);
+	}
+
+	private static class CachedResponse {
+
+		private String resource;
+
+		private StatusLine statusLine;
+
+		private Header[] headers;
+
+		private byte[] content;
+
+		private ContentType contentType;
+
+		CachedResponse(String resource, HttpResponse response, byte[] content, ContentType contentType) {
+			this.resource = resource;
+			this.statusLine = response.getStatusLine();
+			this.headers = response.getAllHeaders();
+			this.content = content;
+			this.contentType = contentType;
+		}
+
+		HttpEntity toEntity() {
+			if(content==null) return null;
+			return new ByteArrayEntity(content, contentType);
+		}
+
+		HttpResponse toResponse() {
+			CachedHttpResponse response = new CachedHttpResponse(statusLine);
+			response.setHeaders(headers);
+			response.setEntity(toEntity());
+			return response;
+		}
+	}
+
+	/**
+	 * Callers are closing the response, hence it must be a CloseableHttpResponse.
+	 */
+	static class CachedHttpResponse extends BasicHttpResponse implements CloseableHttpResponse {
+
+		CachedHttpResponse(StatusLine statusLine) {
+			super(statusLine);
+		}
+
+		@Override
+		public void close() throws IOException { }
+	}
+}
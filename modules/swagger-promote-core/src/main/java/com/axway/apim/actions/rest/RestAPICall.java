@@ -1,19 +1,27 @@
 package com.axway.apim.actions.rest;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.axway.apim.actions.tasks.IResponseParser;
 import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.PromotionContext;
 import com.fasterxml.jackson.databind.JsonNode;
 
 /**
@@ -30,6 +38,8 @@ public abstract class RestAPICall {
 	
 	public final static String API_VERSION = "/api/portal/v1.3";
 	
+	private final static List<Integer> RETRY_STATUS_CODES = Arrays.asList(429, 502, 503, 504);
+	
 	protected HttpEntity entity;
 	protected URI uri;
 	
@@ -41,8 +51,12 @@ public abstract class RestAPICall {
 	
 	protected boolean useAdmin = false;
 	
+	/** The promotion this call belongs to, captured when the call is created */
+	protected PromotionContext promotionContext;
+	
 	public RestAPICall(HttpEntity entity, URI uri, IResponseParser responseParser, boolean useAdmin) {
 		super();
+		this.promotionContext = PromotionContext.getCurrent();
 		this.entity = entity;
 		this.uri = uri;
 		this.reponseParser = responseParser;
@@ -51,6 +65,7 @@ public abstract class RestAPICall {
 	
 	public RestAPICall(HttpEntity entity, URI uri, IResponseParser responseParser) {
 		super();
+		this.promotionContext = PromotionContext.getCurrent();
 		this.entity = entity;
 		this.uri = uri;
 		this.reponseParser = responseParser;
@@ -60,7 +75,7 @@ public abstract class RestAPICall {
 	
 	public void parseResponse(HttpResponse response) throws AppException {
 		try {
-			Transaction context = Transaction.getInstance();
+			Transaction context = promotionContext.getTransaction();
 			if(this.reponseParser==null) return; 
 			JsonNode lastReponse = reponseParser.parseResponse(response);
 			context.put("lastResponse", lastReponse);
@@ -74,20 +89,93 @@ public abstract class RestAPICall {
 		}
 	}
 	
+	/**
+	 * Sends the request to the API-Manager. Idempotent requests failing with a transient error 
+	 * (connection error or status 429, 502, 503, 504) are retried with an exponential backoff plus jitter.
+	 * A retried DELETE-Request returning 404 is successful, as the previous attempt has deleted the 
+	 * resource but its response got lost.
+	 * @param request to send
+	 * @return the response of the API-Manager
+	 * @throws AppException if the request can't be sent
+	 */
 	protected HttpResponse sendRequest(HttpUriRequest request) throws AppException {
+		if(request.getMethod().equals("GET") || request.getMethod().equals("HEAD")) return send(request);
 		try {
-			Transaction context = Transaction.getInstance();
-			APIMHttpClient apimClient = APIMHttpClient.getInstance(this.useAdmin);
-			if(apimClient.getCsrfToken()!=null) request.addHeader("CSRF-Token", apimClient.getCsrfToken());
+			return send(request);
+		} finally {
+			// Even a failed request might have changed the resource
+			ResponseCache.getInstance().invalidate(request.getURI());
+		}
+	}
+	
+	private HttpResponse send(HttpUriRequest request) throws AppException {
+		Transaction context = promotionContext.getTransaction();
+		APIMHttpClient apimClient = APIMHttpClient.getInstance(this.useAdmin);
+		if(apimClient.getCsrfToken()!=null) request.addHeader("CSRF-Token", apimClient.getCsrfToken());
+		RetryPolicy retryPolicy = new RetryPolicy(promotionContext.getParams());
+		int maxRetries = isRetryable(request) ? retryPolicy.getRetries() : 0;
+		int retry = 0;
+		while(true) {
 			context.put("lastRequest", request);
-			HttpResponse response = apimClient.getHttpClient().execute(request, apimClient.getClientContext());
-			//LOG.info("Send request: "+this.getClass().getSimpleName()+" using admin-account: " + this.useAdmin + " to: " + request.getURI());
-			return response;
-		} catch (ClientProtocolException e) {
-			throw new AppException("Unable to send HTTP-Request.", ErrorCode.CANT_SEND_HTTP_REQUEST, e);
-		} catch (IOException e) {
-			throw new AppException("Unable to send HTTP-Request.", ErrorCode.CANT_SEND_HTTP_REQUEST, e);
+			if(request instanceof HttpRequestBase) {
+				((HttpRequestBase)request).setConfig(apimClient.getRequestConfig(promotionContext));
+			}
+			HttpResponse response = null;
+			try {
+				response = apimClient.getHttpClient().execute(request, apimClient.getClientContext());
+				//LOG.info("Send request: "+this.getClass().getSimpleName()+" using admin-account: " + this.useAdmin + " to: " + request.getURI());
+				int statusCode = response.getStatusLine().getStatusCode();
+				if(retry > 0 && statusCode == 404 && request.getMethod().equals("DELETE")) {
+					LOG.info("Resource: " + request.getURI() + " already deleted by previous attempt.");
+					EntityUtils.consumeQuietly(response.getEntity());
+					return new ResponseCache.CachedHttpResponse(new BasicStatusLine(response.getStatusLine().getProtocolVersion(), 204, "No Content"));
+				}
+				if(retry >= maxRetries || !RETRY_STATUS_CODES.contains(statusCode)) return response;
+				LOG.warn("Request: " + request.getMethod() + " " + request.getURI() + " failed with status: " + statusCode + ". Retrying.");
+				EntityUtils.consumeQuietly(response.getEntity());
+			} catch (ClientProtocolException e) {
+				throw new AppException("Unable to send HTTP-Request.", ErrorCode.CANT_SEND_HTTP_REQUEST, e);
+			} catch (IOException e) {
+				if(retry >= maxRetries) handleIOException(request, e);
+				LOG.warn("Request: " + request.getMethod() + " " + request.getURI() + " failed with: " + e.getMessage() + ". Retrying.");
+			}
+			long delay = retryPolicy.getDelay(++retry, response);
+			PromotionDeadline deadline = promotionContext.getDeadline();
+			if(deadline!=null && deadline.getRemainingMillis() <= delay) {
+				promotionContext.getErrorState().setError("Promotion timeout of " + deadline.getTimeoutSeconds() + " seconds exceeded while retrying request.", ErrorCode.PROMOTION_DEADLINE_EXCEEDED, false);
+				throw new AppException("Promotion timeout exceeded while retrying request: " + request.getMethod() + " " + request.getURI(), ErrorCode.PROMOTION_DEADLINE_EXCEEDED);
+			}
+			RequestStatistics.getInstance().addRetry(retry==1);
+			try {
+				Thread.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new AppException("Interrupted while waiting to retry request.", ErrorCode.CANT_SEND_HTTP_REQUEST, e);
+			}
+		}
+	}
+	
+	/**
+	 * Only idempotent requests are retried. PUT-Requests are retried only if enabled 
+	 * and the entity can be sent again.
+	 * @param request to check
+	 * @return true, if the request can be retried safely
+	 */
+	protected boolean isRetryable(HttpUriRequest request) {
+		String method = request.getMethod();
+		if(method.equals("GET") || method.equals("HEAD") || method.equals("DELETE")) return true;
+		if(method.equals("PUT") && promotionContext.getParams().isRetryPut()) {
+			return (entity == null || entity.isRepeatable());
+		}
+		return false;
+	}
+	
+	private void handleIOException(HttpUriRequest request, IOException e) throws AppException {
+		if(e instanceof ConnectTimeoutException || e instanceof SocketTimeoutException) {
+			promotionContext.getErrorState().setError("Timeout sending request: " + request.getMethod() + " " + request.getURI(), ErrorCode.API_MANAGER_TIMEOUT, false);
+			throw new AppException("Timeout sending request: " + request.getMethod() + " " + request.getURI(), ErrorCode.API_MANAGER_TIMEOUT, e);
 		}
+		throw new AppException("Unable to send HTTP-Request.", ErrorCode.CANT_SEND_HTTP_REQUEST, e);
 	}
 	
 	public void setContentType(String contentType) {
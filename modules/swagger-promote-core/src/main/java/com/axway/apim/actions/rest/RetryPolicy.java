@@ -0,0 +1,74 @@
+package com.axway.apim.actions.rest;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.utils.DateUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.axway.apim.lib.CommandParameters;
+
+/**
+ * Calculates how long to wait before a failed request is retried. The delay is an exponential backoff
+ * plus jitter, unless the API-Manager requests a delay using the Retry-After header (seconds or HTTP-Date).
+ * Each delay is limited to retryMaxDelay, hence a server can't stall the promotion.
+ */
+public class RetryPolicy {
+
+	private static Logger LOG = LoggerFactory.getLogger(RetryPolicy.class);
+
+	private int retries;
+
+	private long retryDelay;
+
+	private long retryMaxDelay;
+
+	public RetryPolicy(CommandParameters params) {
+		this(params.getRetries(), params.getRetryDelay(), params.getRetryMaxDelay());
+	}
+
+	/**
+	 * @param retries maximum number of retries of a request
+	 * @param retryDelay initial delay in milliseconds, doubled with each retry
+	 * @param retryMaxDelay maximum delay in milliseconds
+	 */
+	public RetryPolicy(int retries, long retryDelay, long retryMaxDelay) {
+		super();
+		this.retries = Math.max(0, retries);
+		this.retryDelay = Math.max(0, retryDelay);
+		this.retryMaxDelay = Math.max(0, retryMaxDelay);
+	}
+
+	public int getRetries() {
+		return retries;
+	}
+
+	/**
+	 * @param retry the number of the retry starting with 1
+	 * @param response the failed response or null, if the request failed with an I/O-Error
+	 * @return the delay in milliseconds between 0 and retryMaxDelay
+	 */
+	public long getDelay(int retry, HttpResponse response) {
+		if(response!=null && response.getFirstHeader("Retry-After")!=null) {
+			String retryAfter = response.getFirstHeader("Retry-After").getValue().trim();
+			try {
+				return limit(Long.parseLong(retryAfter), 1000);
+			} catch (NumberFormatException e) {
+				Date retryDate = DateUtils.parseDate(retryAfter);
+				if(retryDate!=null) return limit(retryDate.getTime() - System.currentTimeMillis(), 1);
+				LOG.debug("Ignoring invalid Retry-After header: '" + retryAfter + "'");
+			}
+		}
+		long delay = Math.min(retryMaxDelay, retryDelay << Math.min(Math.max(retry-1, 0), 20));
+		// Add jitter to avoid that parallel requests are retried at the same time
+		return delay/2 + ThreadLocalRandom.current().nextLong(delay/2 + 1);
+	}
+
+	private long limit(long value, long factor) {
+		if(value <= 0) return 0;
+		if(value >= retryMaxDelay / factor) return retryMaxDelay;
+		return value * factor;
+	}
+}
@@ -1,29 +1,41 @@
 package com.axway.apim.actions.rest;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
+
+import com.axway.apim.lib.PromotionContext;
 
 /**
  * Helper class which can be used for any purpose to store information and to be pulled out later. 
  * It's a Singleton and created when the tools logs-in for the first time into the API-Manager.
+ * The context is synchronized, as requests might be executed in parallel.<br>
+ * The instance is owned by the current PromotionContext, as multiple APIs might be promoted in parallel.
  * 
  * @author cwiechmann@axway.com
  */
 public class Transaction {
-	private static Transaction instance;
+	private Map<Object, Object> context = Collections.synchronizedMap(new HashMap<Object, Object>());
 	
-	private HashMap<Object, Object> context = new HashMap<Object, Object>();
+	public Transaction() {}
 	
-	private Transaction() {}
+	public static Transaction getInstance () {
+		return PromotionContext.getCurrent().getTransaction();
+	}
 	
-	public static synchronized Transaction getInstance () {
-		if (Transaction.instance == null) {
-			Transaction.instance = new Transaction ();
-		}
-		return Transaction.instance;
+	public static void deleteInstance () {
+		PromotionContext.getCurrent().setTransaction(null);
 	}
 	
-	public static synchronized void deleteInstance () {
-		Transaction.instance = null;
+	/**
+	 * @return a new Transaction initialized with the content of this Transaction
+	 */
+	public Transaction copy() {
+		Transaction copy = new Transaction();
+		synchronized (context) {
+			copy.context.putAll(this.context);
+		}
+		return copy;
 	}
 	
 	public void beginTransaction() {
@@ -15,6 +15,7 @@ import com.axway.apim.actions.rest.Transaction;
 import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.PromotionContext;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -28,18 +29,23 @@ public class AbstractAPIMTask {
 	protected IAPI actualState;
 	protected IAPI transitState;
 	
+	/** The promotion this task belongs to, captured when the task is created */
+	protected PromotionContext promotionContext;
+	
+	protected CommandParameters cmd;
+	
 	public AbstractAPIMTask(IAPI desiredState, IAPI actualState) {
 		super();
 		this.desiredState 	= desiredState;
 		this.actualState 	= actualState;
+		this.promotionContext = PromotionContext.getCurrent();
+		this.cmd 			= promotionContext.getParams();
 	}
-
-	protected static CommandParameters cmd = CommandParameters.getInstance();
 	
-	public static JsonNode initActualAPIContext(IAPI actual) throws AppException {
+	public JsonNode initActualAPIContext(IAPI actual) throws AppException {
 		URI uri;
 		ObjectMapper objectMapper = new ObjectMapper();
-		Transaction context = Transaction.getInstance();
+		Transaction context = promotionContext.getTransaction();
 		InputStream response =null;
 		try {
 			uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/proxies/"+actual.getId()).build();
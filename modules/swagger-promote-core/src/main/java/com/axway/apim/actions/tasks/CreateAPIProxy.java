@@ -15,7 +15,7 @@ import com.axway.apim.actions.rest.RestAPICall;
 import com.axway.apim.actions.rest.Transaction;
 import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.ErrorCode;
-import com.axway.apim.lib.ErrorState;
+import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -31,7 +31,7 @@ public class CreateAPIProxy extends AbstractAPIMTask implements IResponseParser
 		URI uri;
 		HttpEntity entity;
 		
-		Transaction context = Transaction.getInstance();
+		Transaction context = promotionContext.getTransaction();
 		
 		try {
 			uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/proxies/").build();
@@ -51,7 +51,7 @@ public class CreateAPIProxy extends AbstractAPIMTask implements IResponseParser
 		JsonNode jsonNode = null;
 		try {
 			if(httpResponse.getStatusLine().getStatusCode()!=201) {
-				ErrorState.getInstance().setError("Error creating API-Proxy. "
+				promotionContext.getErrorState().setError("Error creating API-Proxy. "
 						+ "Unexpected response from API-Manager: " + httpResponse.getStatusLine() + " " + EntityUtils.toString(httpResponse.getEntity()) + ". "
 								+ "Please check the API-Manager traces.", ErrorCode.CANT_CREATE_API_PROXY, false);
 				throw new AppException("Error creating API-Proxy", ErrorCode.CANT_CREATE_API_PROXY);
@@ -59,10 +59,12 @@ public class CreateAPIProxy extends AbstractAPIMTask implements IResponseParser
 			response = EntityUtils.toString(httpResponse.getEntity());
 			jsonNode = objectMapper.readTree(response);
 			String virtualAPIId = jsonNode.findPath("id").asText();
-			Transaction.getInstance().put("virtualAPIId", virtualAPIId);
+			promotionContext.getTransaction().put("virtualAPIId", virtualAPIId);
+			// Operations of the new API-Proxy must be loaded from the API-Manager
+			APIManagerAdapter.getInstance().invalidateMethodCatalog(virtualAPIId);
 			JsonNode auth = jsonNode.findPath("authenticationProfiles").get(0);
-			Transaction.getInstance().put("authenticationProfiles", auth);
-			Transaction.getInstance().put("lastResponse", jsonNode);
+			promotionContext.getTransaction().put("authenticationProfiles", auth);
+			promotionContext.getTransaction().put("lastResponse", jsonNode);
 		} catch (IOException e) {
 			throw new AppException("Cannot parse JSON-Payload for create API-Proxy.", ErrorCode.CANT_CREATE_API_PROXY, e);
 		} finally {
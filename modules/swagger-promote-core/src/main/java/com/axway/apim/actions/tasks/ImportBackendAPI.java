@@ -15,10 +15,9 @@ import org.apache.http.util.EntityUtils;
 
 import com.axway.apim.actions.rest.POSTRequest;
 import com.axway.apim.actions.rest.RestAPICall;
-import com.axway.apim.actions.rest.Transaction;
 import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.BackendAPIIndex;
 import com.axway.apim.lib.ErrorCode;
-import com.axway.apim.lib.ErrorState;
 import com.axway.apim.lib.Utils;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.state.DesiredAPI;
@@ -86,6 +85,25 @@ public class ImportBackendAPI extends AbstractAPIMTask implements IResponseParse
 	private void importFromSwagger() throws URISyntaxException, AppException, IOException {
 		URI uri;
 		HttpEntity entity;
+		byte[] apiDefinition = ((DesiredAPI)this.desiredState).getAPIDefinition().getAPIDefinitionContent();
+		String digest = null;
+		promotionContext.getTransaction().put("backendAPIReused", false);
+		if(cmd.isReuseBackendAPI()) {
+			digest = BackendAPIIndex.getDigest(apiDefinition, this.desiredState.getOrgId());
+			// Make sure, the Backend-API still exists with the same API-Definition
+			String backendAPIId = BackendAPIIndex.getInstance().getReusableBackendAPIId(digest, apiDefinition, new BackendAPIIndex.DefinitionLoader() {
+				@Override
+				public byte[] getAPIDefinition(String existingBackendAPIId) throws AppException {
+					return APIManagerAdapter.getOriginalAPIDefinitionFromAPIM(existingBackendAPIId);
+				}
+			});
+			if(backendAPIId!=null) {
+				LOG.info("Reusing existing Backend-API: '" + backendAPIId + "' having the same API-Definition.");
+				promotionContext.getTransaction().put("backendAPIId", backendAPIId);
+				promotionContext.getTransaction().put("backendAPIReused", true);
+				return;
+			}
+		}
 		if(APIManagerAdapter.hasAPIManagerVersion("7.6.2")) {
 			uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/apirepo/import/").build();
 		} else {
@@ -97,7 +115,7 @@ public class ImportBackendAPI extends AbstractAPIMTask implements IResponseParse
 		entity = MultipartEntityBuilder.create()
 				.addTextBody("name", this.desiredState.getName())
 				.addTextBody("type", "swagger")
-				.addBinaryBody("file", ((DesiredAPI)this.desiredState).getAPIDefinition().getAPIDefinitionContent(), ContentType.create("application/json"), "filename")
+				.addBinaryBody("file", apiDefinition, ContentType.create("application/json"), "filename")
 				.addTextBody("fileName", "XYZ").addTextBody("organizationId", this.desiredState.getOrgId())
 				.addTextBody("integral", "false").addTextBody("uploadType", "html5").build();
 		RestAPICall importSwagger = new POSTRequest(entity, uri, this);
@@ -108,6 +126,9 @@ public class ImportBackendAPI extends AbstractAPIMTask implements IResponseParse
 			LOG.error("Received Status-Code: " +statusCode+ ", Response: '" + EntityUtils.toString(httpResponse.getEntity()) + "'");
 			throw new AppException("Can't import Swagger-definition / Create BE-API.", ErrorCode.CANT_CREATE_BE_API);
 		}
+		if(digest!=null) {
+			BackendAPIIndex.getInstance().put(digest, (String)promotionContext.getTransaction().get("backendAPIId"));
+		}
 	}
 	
 	private String extractUsername(String url) {
@@ -145,7 +166,7 @@ public class ImportBackendAPI extends AbstractAPIMTask implements IResponseParse
 		String response = null;
 		try {
 			if(httpResponse.getStatusLine().getStatusCode()!=201) {
-				ErrorState.getInstance().setError("Error importing BE-API. "
+				promotionContext.getErrorState().setError("Error importing BE-API. "
 						+ "Unexpected response from API-Manager: " + httpResponse.getStatusLine() + " " + EntityUtils.toString(httpResponse.getEntity()) + ". "
 								+ "Please check the API-Manager traces.", ErrorCode.CANT_CREATE_API_PROXY, false);
 				throw new AppException("Error creating API-Proxy", ErrorCode.CANT_CREATE_API_PROXY);
@@ -153,7 +174,7 @@ public class ImportBackendAPI extends AbstractAPIMTask implements IResponseParse
 			response = EntityUtils.toString(httpResponse.getEntity());
 			JsonNode jsonNode = objectMapper.readTree(response);
 			String backendAPIId = jsonNode.findPath("id").asText();
-			Transaction.getInstance().put("backendAPIId", backendAPIId);
+			promotionContext.getTransaction().put("backendAPIId", backendAPIId);
 			return null;
 		} catch (IOException e) {
 			throw new AppException("Cannot parse JSON-Payload after create BE-API.", ErrorCode.CANT_CREATE_BE_API, e);
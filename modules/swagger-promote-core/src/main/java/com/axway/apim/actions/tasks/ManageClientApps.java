@@ -16,19 +16,21 @@ import org.apache.http.util.EntityUtils;
 import com.axway.apim.actions.rest.DELRequest;
 import com.axway.apim.actions.rest.POSTRequest;
 import com.axway.apim.actions.rest.RestAPICall;
-import com.axway.apim.actions.rest.Transaction;
 import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.BulkResult;
 import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.ParallelExecutor;
+import com.axway.apim.lib.rollback.RollbackClientAppAccess;
+import com.axway.apim.lib.rollback.RollbackHandler;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.properties.applications.ClientApplication;
 import com.axway.apim.swagger.api.state.ActualAPI;
 import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
 
-public class ManageClientApps extends AbstractAPIMTask implements IResponseParser {
+public class ManageClientApps extends AbstractAPIMTask {
 	
-	private static String MODE						= "MODE";
 	private static String MODE_CREATE_API_ACCESS	= "MODE_CREATE_API_ACCESS";
 	private static String MODE_REMOVE_API_ACCESS	= "MODE_REMOVE_API_ACCESS";
 	
@@ -37,6 +39,8 @@ public class ManageClientApps extends AbstractAPIMTask implements IResponseParse
 	 */
 	IAPI oldAPI;
 	
+	private RollbackClientAppAccess rollbackAction;
+	
 	public ManageClientApps(IAPI desiredState, IAPI actualState, IAPI oldAPI) {
 		super(desiredState, actualState);
 		this.oldAPI = oldAPI;
@@ -44,7 +48,7 @@ public class ManageClientApps extends AbstractAPIMTask implements IResponseParse
 	
 	public void execute(boolean reCreation) throws AppException {
 		if(desiredState.getApplications()==null && !reCreation) return;
-		if(CommandParameters.getInstance().isIgnoreClientApps()) {
+		if(cmd.isIgnoreClientApps()) {
 			LOG.info("Configured client applications are ignored, as flag ignoreClientApps has been set.");
 			return;
 		}
@@ -54,7 +58,7 @@ public class ManageClientApps extends AbstractAPIMTask implements IResponseParse
 		List<ClientApplication> recreateActualApps = null;
 		// If an UNPUBLISHED API has been re-creared, we have to create App-Subscriptions manually, as API-Manager Upgrade only works on PUBLISHED APIs
 		// But we only need to do this, if existing App-Subscriptions should be preserved (MODE_ADD).
-		if(reCreation && actualState.getState().equals(IAPI.STATE_UNPUBLISHED) && CommandParameters.getInstance().getClientAppsMode().equals(CommandParameters.MODE_ADD)) {
+		if(reCreation && actualState.getState().equals(IAPI.STATE_UNPUBLISHED) && cmd.getClientAppsMode().equals(CommandParameters.MODE_ADD)) {
 			removeNonGrantedClientApps(oldAPI.getApplications());
 			recreateActualApps = getMissingApps(oldAPI.getApplications(), actualState.getApplications());
 			// Create previously existing App-Subscriptions
@@ -71,7 +75,7 @@ public class ManageClientApps extends AbstractAPIMTask implements IResponseParse
 			createAppSubscription(missingDesiredApps, actualState.getId());
 		}
 		if(revomingActualApps.size()>0) {
-			if(CommandParameters.getInstance().getClientAppsMode().equals(CommandParameters.MODE_REPLACE)) {
+			if(cmd.getClientAppsMode().equals(CommandParameters.MODE_REPLACE)) {
 				LOG.info("Removing access for appplications: "+revomingActualApps+" from API: " + actualState.getName());
 				removeAppSubscrioption(revomingActualApps, actualState.getId());
 			} else {
@@ -107,74 +111,115 @@ public class ManageClientApps extends AbstractAPIMTask implements IResponseParse
 		return actualState.getClientOrganizations().contains(appsOrgName);
 	}
 	
-	private void createAppSubscription(List<ClientApplication> missingDesiredApps, String apiId) throws AppException {
-		URI uri;
-		HttpEntity entity;
-		
-		RestAPICall apiCall;
-		Transaction.getInstance().put(MODE, MODE_CREATE_API_ACCESS);
+	private void createAppSubscription(List<ClientApplication> missingDesiredApps, final String apiId) throws AppException {
 		LOG.info("Creating API-Access for the following apps: '"+missingDesiredApps.toString()+"'");
-		try {
-			for(ClientApplication app : missingDesiredApps) {
+		BulkResult<ClientApplication> result = executeEach(missingDesiredApps, new ParallelExecutor.ItemTask<ClientApplication>() {
+			@Override
+			public void execute(ClientApplication app) throws AppException {
 				LOG.debug("Creating API-Access for application '"+app.getName()+"'");
-				Transaction.getInstance().put("appName", app);
-				uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/applications/"+app.getId()+"/apis").build();
-				entity = new StringEntity("{\"apiId\":\""+apiId+"\",\"enabled\":true}");
-				
-				apiCall = new POSTRequest(entity, uri, this, true);
-				apiCall.execute();
+				try {
+					URI uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/applications/"+app.getId()+"/apis").build();
+					HttpEntity entity = new StringEntity("{\"apiId\":\""+apiId+"\",\"enabled\":true}");
+					RestAPICall apiCall = new POSTRequest(entity, uri, new SubscriptionResponseParser(app, MODE_CREATE_API_ACCESS), true);
+					apiCall.execute();
+				} catch (AppException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new AppException("Can't create API access request for application: '"+app.getName()+"'", ErrorCode.API_MANAGER_COMMUNICATION, e);
+				}
+			}
+		});
+		// Update the actual state to reflect, which applications really have a subscription
+		actualState.getApplications().addAll(result.getSucceeded());
+		if(getRollbackAction()!=null) getRollbackAction().addCreated(result.getSucceeded());
+		result.throwOnFailure("Create API-Access for application", ErrorCode.API_MANAGER_COMMUNICATION);
+	}
+	
+	private void removeAppSubscrioption(List<ClientApplication> revomingActualApps, final String apiId) throws AppException {
+		BulkResult<ClientApplication> result = executeEach(revomingActualApps, new ParallelExecutor.ItemTask<ClientApplication>() {
+			@Override
+			public void execute(ClientApplication app) throws AppException {
+				LOG.debug("Removing API-Access for application '"+app.getName()+"'");
+				try { 
+					URI uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/applications/"+app.getId()+"/apis/"+apiId).build();
+					RestAPICall apiCall = new DELRequest(uri, new SubscriptionResponseParser(app, MODE_REMOVE_API_ACCESS), true);
+					apiCall.execute();
+				} catch (AppException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new AppException("Can't delete API access request for application: '"+app.getName()+"'", ErrorCode.API_MANAGER_COMMUNICATION, e);
+				}
 			}
-		} catch (Exception e) {
-			throw new AppException("Can't create API access requests.", ErrorCode.API_MANAGER_COMMUNICATION, e);
-		}	
+		});
+		actualState.getApplications().removeAll(result.getSucceeded());
+		if(getRollbackAction()!=null) getRollbackAction().addRemoved(result.getSucceeded());
+		result.throwOnFailure("Delete API-Access for application", ErrorCode.API_MANAGER_COMMUNICATION);
+	}
+	
+	private BulkResult<ClientApplication> executeEach(List<ClientApplication> apps, ParallelExecutor.ItemTask<ClientApplication> task) {
+		ParallelExecutor executor = new ParallelExecutor(Math.min(apps.size(), cmd.getAccessParallelism()), "apim-subscriptions");
+		try {
+			return executor.executeEach(apps, task);
+		} finally {
+			executor.shutdown();
+		}
 	}
 	
-	private void removeAppSubscrioption(List<ClientApplication> revomingActualApps, String apiId) throws AppException {
-		URI uri;
-		RestAPICall apiCall;
-		Transaction.getInstance().put(MODE, MODE_REMOVE_API_ACCESS);
-		for(ClientApplication app : revomingActualApps) {
-			LOG.debug("Removing API-Access for application '"+app.getName()+"'");
-			try { 
-				Transaction.getInstance().put("appName", app);
-				uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/applications/"+app.getId()+"/apis/"+apiId).build();
-				apiCall = new DELRequest(uri, this, true);
-				apiCall.execute();
-			} catch (Exception e) {
-				LOG.error("Can't delete API access requests for application.");
-				throw new AppException("Can't delete API access requests for application.", ErrorCode.API_MANAGER_COMMUNICATION, e);
-			}	
+	/**
+	 * @return the action to roll back the subscriptions of an existing API or null, if the API has been created 
+	 * by this promotion (it's deleted on rollback anyway)
+	 */
+	private RollbackClientAppAccess getRollbackAction() throws AppException {
+		if(oldAPI!=null) return null;
+		if(rollbackAction==null) {
+			rollbackAction = new RollbackClientAppAccess(actualState.getId());
+			RollbackHandler.getInstance().addRollbackAction(rollbackAction);
 		}
+		return rollbackAction;
 	}
 
-	@Override
-	public JsonNode parseResponse(HttpResponse httpResponse) throws AppException {
-		Transaction context = Transaction.getInstance();
-		try {
-			if(httpResponse.getStatusLine().getStatusCode()==HttpStatus.SC_CREATED) {
-				if(context.get(MODE).equals(MODE_CREATE_API_ACCESS)) {
-					actualState.getApplications().add((ClientApplication)context.get("appName"));
-					LOG.debug("Successfully created API-Access for application: '"+context.get("appName")+"'");
+	/**
+	 * Parses the response of a single subscription request. A parser is created per request, 
+	 * as requests for multiple applications are sent in parallel.
+	 */
+	private class SubscriptionResponseParser implements IResponseParser {
+		
+		private ClientApplication app;
+		
+		private String mode;
+		
+		SubscriptionResponseParser(ClientApplication app, String mode) {
+			this.app = app;
+			this.mode = mode;
+		}
+		
+		@Override
+		public JsonNode parseResponse(HttpResponse httpResponse) throws AppException {
+			try {
+				int statusCode = httpResponse.getStatusLine().getStatusCode();
+				if(statusCode==HttpStatus.SC_CREATED || (mode.equals(MODE_REMOVE_API_ACCESS) && statusCode==HttpStatus.SC_NO_CONTENT)) {
+					if(mode.equals(MODE_CREATE_API_ACCESS)) {
+						LOG.debug("Successfully created API-Access for application: '"+app+"'");
+					} else {
+						LOG.debug("Successfully removed API-Access from application: '"+app+"'");
+					}
 				} else {
-					actualState.getApplications().remove((ClientApplication)context.get("appName"));
-					LOG.debug("Successfully removed API-Access from application: '"+context.get("appName")+"'");
+					LOG.error("Received status code: " + statusCode + " for application: '"+app+"'");
+					try {
+						LOG.error("Received response: " + EntityUtils.toString(httpResponse.getEntity()));
+					} catch (Exception e) {
+						LOG.error(e.getMessage(), e);
+					}
+					throw new AppException("Failure creating/deleting API-Access to/from application: '"+app+"'. Mode: '"+mode+"'", 
+							ErrorCode.API_MANAGER_COMMUNICATION);
 				}
-			} else {
-				LOG.error("Received status code: " + httpResponse.getStatusLine().getStatusCode());
+			} finally {
 				try {
-					LOG.error("Received response: " + EntityUtils.toString(httpResponse.getEntity()));
-				} catch (Exception e) {
-					LOG.error(e.getMessage(), e);
-				}
-				throw new AppException("Failure creating/deleting API-Access to/from application: '"+context.get("appName")+"'. Mode: '"+context.get(MODE)+"'", 
-						ErrorCode.API_MANAGER_COMMUNICATION);
+					((CloseableHttpResponse)httpResponse).close();
+				} catch (Exception ignore) { }
 			}
-		} finally {
-			try {
-				((CloseableHttpResponse)httpResponse).close();
-			} catch (Exception ignore) { }
+			return null;
 		}
-		return null;
 	}
 	
 	private static List<ClientApplication> getMissingApps(List<ClientApplication> apps, List<ClientApplication> otherApps) throws AppException {
@@ -3,6 +3,7 @@ package com.axway.apim.actions.tasks;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
@@ -17,11 +18,15 @@ import com.axway.apim.actions.rest.POSTRequest;
 import com.axway.apim.actions.rest.RestAPICall;
 import com.axway.apim.actions.rest.Transaction;
 import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.BulkResult;
 import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.ErrorCode;
-import com.axway.apim.lib.ErrorState;
+import com.axway.apim.lib.ParallelExecutor;
+import com.axway.apim.lib.rollback.RollbackClientOrgAccess;
+import com.axway.apim.lib.rollback.RollbackHandler;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.properties.organization.ApiAccess;
+import com.axway.apim.swagger.api.properties.organization.Organization;
 import com.axway.apim.swagger.api.state.AbstractAPI;
 import com.axway.apim.swagger.api.state.DesiredAPI;
 import com.axway.apim.swagger.api.state.IAPI;
@@ -38,7 +43,7 @@ public class ManageClientOrgs extends AbstractAPIMTask implements IResponseParse
 	}
 
 	public void execute(boolean reCreation) throws AppException {
-		if(CommandParameters.getInstance().isIgnoreClientOrgs()) {
+		if(cmd.isIgnoreClientOrgs()) {
 			LOG.info("Configured client organizations are ignored, as flag ignoreClientOrgs has been set.");
 			return;
 		}
@@ -59,9 +64,9 @@ public class ManageClientOrgs extends AbstractAPIMTask implements IResponseParse
 				grantClientOrganization(missingDesiredOrgs, actualState.getId(), false);
 			}
 			if(removingActualOrgs.size()>0) {
-				if(CommandParameters.getInstance().getClientOrgsMode().equals(CommandParameters.MODE_REPLACE)) {
+				if(cmd.getClientOrgsMode().equals(CommandParameters.MODE_REPLACE)) {
 					LOG.info("Removing access for orgs: "+removingActualOrgs+" from API: " + actualState.getName());
-					removeClientOrganization(removingActualOrgs, actualState.getId());
+					removeClientOrganization(removingActualOrgs, actualState.getId(), reCreation);
 				} else {
 					LOG.info("NOT removing access for existing orgs: "+removingActualOrgs+" from API: " + actualState.getName() + " as clientOrgsMode NOT set to replace.");
 				}
@@ -76,16 +81,23 @@ public class ManageClientOrgs extends AbstractAPIMTask implements IResponseParse
 		
 		RestAPICall apiCall;
 		String formBody;
-		Transaction.getInstance().put(MODE, MODE_GRANT_ACCESS);
+		List<String> grantedOrgIds = new ArrayList<String>();
+		promotionContext.getTransaction().put(MODE, MODE_GRANT_ACCESS);
 		if(allOrgs) {
 			formBody = "action=all_orgs&apiId="+apiId;
-			Transaction.getInstance().put("orgName", "ALL");
+			promotionContext.getTransaction().put("orgName", "ALL");
+			for(Organization org : APIManagerAdapter.getInstance().getAllOrgs()) {
+				grantedOrgIds.add(org.getId());
+			}
 		} else {
 			formBody = "action=orgs&apiId="+apiId;
+			Map<String, String> orgIds = APIManagerAdapter.getInstance().getOrgIds(grantAccessToOrgs);
 			for(String orgName : grantAccessToOrgs) {
-				formBody += "&grantOrgId="+APIManagerAdapter.getInstance().getOrgId(orgName);
+				String orgId = orgIds.get(orgName);
+				grantedOrgIds.add(orgId);
+				formBody += "&grantOrgId="+orgId;
 			}
-			Transaction.getInstance().put("orgName", grantAccessToOrgs);
+			promotionContext.getTransaction().put("orgName", grantAccessToOrgs);
 		}
 		try {
 			uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/proxies/grantaccess").build();
@@ -95,6 +107,7 @@ public class ManageClientOrgs extends AbstractAPIMTask implements IResponseParse
 			apiCall = new POSTRequest(entity, uri, this, true);
 			apiCall.setContentType("application/x-www-form-urlencoded");
 			apiCall.execute();
+			APIManagerAdapter.getInstance().addGrantedOrgs(apiId, grantedOrgIds);
 			// Update the actual state to reflect, which organizations now really have access to the API (this also includes prev. added orgs)
 			actualState.getClientOrganizations().addAll(grantAccessToOrgs);
 		} catch (Exception e) {
@@ -104,62 +117,105 @@ public class ManageClientOrgs extends AbstractAPIMTask implements IResponseParse
 		}	
 	}
 	
-	private void removeClientOrganization(List<String> removingActualOrgs, String apiId) throws AppException {
-		URI uri;
-		Transaction.getInstance().put(MODE, MODE_REMOVE_ACCESS);
-		RestAPICall apiCall;
-		for(String orgName : removingActualOrgs) {
-			String orgId = APIManagerAdapter.getInstance().getOrgId(orgName);
-			Transaction.getInstance().put("orgName", orgName);
-			List<ApiAccess> orgsApis = APIManagerAdapter.getOrgsApiAccess(orgId, false);
-			for(ApiAccess apiAccess : orgsApis) {
-				if(apiAccess.getApiId().equals(apiId)) {
+	private void removeClientOrganization(List<String> removingActualOrgs, final String apiId, boolean reCreation) throws AppException {
+		final APIManagerAdapter apimAdapter = APIManagerAdapter.getInstance();
+		final Map<String, ApiAccess> grantedOrgs = apimAdapter.getGrantedOrgs(apiId);
+		final Map<String, String> orgIds = apimAdapter.getOrgIds(removingActualOrgs);
+		ParallelExecutor executor = new ParallelExecutor(Math.min(removingActualOrgs.size(), cmd.getAccessParallelism()), "apim-org-access");
+		BulkResult<String> result;
+		try {
+			result = executor.executeEach(removingActualOrgs, new ParallelExecutor.ItemTask<String>() {
+				@Override
+				public void execute(String orgName) throws AppException {
+					String orgId = orgIds.get(orgName);
+					ApiAccess apiAccess = grantedOrgs.get(orgId);
+					if(apiAccess==null) return;
+					if(apiAccess.getId()==null) {
+						// Access has been granted during this run, hence the ID is not yet known
+						APIManagerAdapter.getOrgsApiAccess(orgId, true);
+						apiAccess = apimAdapter.getGrantedOrgs(apiId).get(orgId);
+						if(apiAccess==null) return;
+					}
 					try {
-						uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/organizations/"+orgId+"/apis/"+apiAccess.getId()).build();
-						
-						
-						apiCall = new DELRequest(uri, this, true);
+						URI uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/organizations/"+orgId+"/apis/"+apiAccess.getId()).build();
+						RestAPICall apiCall = new DELRequest(uri, new AccessResponseParser(orgName, MODE_REMOVE_ACCESS), true);
 						apiCall.execute();
-						// Update the actual state to reflect, which organizations now really have access to the API (this also includes prev. added orgs)
-						actualState.getClientOrganizations().removeAll(removingActualOrgs);
+					} catch (AppException e) {
+						throw e;
 					} catch (Exception e) {
-						LOG.error("Can't delete API-Access for organization. ");
-						throw new AppException("Can't delete API-Access for organization.", ErrorCode.ACCESS_ORGANIZATION_ERR, e);
-					}	
+						throw new AppException("Can't delete API-Access for organization: '"+orgName+"'", ErrorCode.ACCESS_ORGANIZATION_ERR, e);
+					}
 				}
-			}
+			});
+		} finally {
+			executor.shutdown();
 		}
+		List<String> removedOrgIds = new ArrayList<String>();
+		for(String orgName : result.getSucceeded()) {
+			removedOrgIds.add(orgIds.get(orgName));
+		}
+		apimAdapter.removeGrantedOrgs(apiId, removedOrgIds);
+		// Update the actual state to reflect, which organizations now really have access to the API
+		actualState.getClientOrganizations().removeAll(result.getSucceeded());
+		// A re-created API is deleted on rollback anyway, hence the access must only be restored for an existing API
+		if(!removedOrgIds.isEmpty() && !reCreation) {
+			RollbackClientOrgAccess rollbackAction = new RollbackClientOrgAccess(apiId);
+			rollbackAction.addRemoved(removedOrgIds);
+			RollbackHandler.getInstance().addRollbackAction(rollbackAction);
+		}
+		result.throwOnFailure("Delete API-Access for organization", ErrorCode.ACCESS_ORGANIZATION_ERR);
 	}
 	
 	@Override
 	public JsonNode parseResponse(HttpResponse httpResponse) throws AppException {
-		Transaction context = Transaction.getInstance();
-		try {
-			if(httpResponse.getStatusLine().getStatusCode()==HttpStatus.SC_NO_CONTENT) {
-				if(context.get(MODE).equals(MODE_GRANT_ACCESS)) {
-					LOG.info("Granted permission to organization: '"+context.get("orgName")+"'");
-				} else {			
-					LOG.info("Removed permission from organization: '"+context.get("orgName")+"'");
+		Transaction context = promotionContext.getTransaction();
+		return new AccessResponseParser(context.get("orgName"), (String)context.get(MODE)).parseResponse(httpResponse);
+	}
+	
+	/**
+	 * Parses the response of a single grant or remove request. A parser is created per request, 
+	 * as requests for multiple organizations are sent in parallel.
+	 */
+	private class AccessResponseParser implements IResponseParser {
+		
+		private Object orgName;
+		
+		private String mode;
+		
+		AccessResponseParser(Object orgName, String mode) {
+			this.orgName = orgName;
+			this.mode = mode;
+		}
+		
+		@Override
+		public JsonNode parseResponse(HttpResponse httpResponse) throws AppException {
+			try {
+				if(httpResponse.getStatusLine().getStatusCode()==HttpStatus.SC_NO_CONTENT) {
+					if(mode.equals(MODE_GRANT_ACCESS)) {
+						LOG.info("Granted permission to organization: '"+orgName+"'");
+					} else {			
+						LOG.info("Removed permission from organization: '"+orgName+"'");
+					}
+				} else {
+					LOG.error("Received status code: " + httpResponse.getStatusLine().getStatusCode());
+					try {
+						LOG.error("Received response: " + EntityUtils.toString(httpResponse.getEntity()));
+					} catch (Exception e) {
+						LOG.error(e.getMessage(), e);
+					}
+					throw new AppException("Failure granting/deleting permission to/from organization: '"+orgName+"'. Mode: '"+mode+"'", 
+							ErrorCode.ACCESS_ORGANIZATION_ERR);
 				}
-			} else {
-				LOG.error("Received status code: " + httpResponse.getStatusLine().getStatusCode());
+			} finally {
 				try {
-					LOG.error("Received response: " + EntityUtils.toString(httpResponse.getEntity()));
-				} catch (Exception e) {
-					LOG.error(e.getMessage(), e);
-				}
-				throw new AppException("Failure granting/deleting permission to/from organization: '"+context.get("orgName")+"'. Mode: '"+context.get(MODE)+"'", 
-						ErrorCode.ACCESS_ORGANIZATION_ERR);
+					((CloseableHttpResponse)httpResponse).close();
+				} catch (Exception ignore) { }
 			}
-		} finally {
-			try {
-				((CloseableHttpResponse)httpResponse).close();
-			} catch (Exception ignore) { }
+			return null;
 		}
-		return null;
 	}
 	
-	private static List<String> getMissingOrgs(List<String> orgs, List<String> referenceOrgs) throws AppException {
+	private List<String> getMissingOrgs(List<String> orgs, List<String> referenceOrgs) throws AppException {
 		List<String> missingOrgs = new ArrayList<String>();
 		if(orgs==null || referenceOrgs ==null) return missingOrgs;
 		for(String orgName : orgs) {
@@ -168,7 +224,7 @@ public class ManageClientOrgs extends AbstractAPIMTask implements IResponseParse
 			}
 			if(APIManagerAdapter.getInstance().getOrgId(orgName)==null) {
 				LOG.error("Configured organizations: " + APIManagerAdapter.getInstance().getAllOrgs());
-				ErrorState.getInstance().setError("Unknown Org-Name: '" + orgName + "'", ErrorCode.UNKNOWN_ORGANIZATION, false);
+				promotionContext.getErrorState().setError("Unknown Org-Name: '" + orgName + "'", ErrorCode.UNKNOWN_ORGANIZATION, false);
 				throw new AppException("Unknown Org-Name: '" + orgName + "'", ErrorCode.UNKNOWN_ORGANIZATION);
 			}
 			missingOrgs.add(orgName);
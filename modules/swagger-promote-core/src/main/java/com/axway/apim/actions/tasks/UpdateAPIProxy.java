@@ -1,7 +1,5 @@
 package com.axway.apim.actions.tasks;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.List;
 
@@ -17,9 +15,9 @@ import com.axway.apim.actions.rest.PUTRequest;
 import com.axway.apim.actions.rest.RestAPICall;
 import com.axway.apim.actions.rest.Transaction;
 import com.axway.apim.actions.tasks.props.PropertyHandler;
-import com.axway.apim.lib.APIPropertyAnnotation;
 import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.swagger.api.state.APIPropertyDescriptor;
 import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -31,19 +29,37 @@ public class UpdateAPIProxy extends AbstractAPIMTask implements IResponseParser
 	}
 
 	public void execute(List<String> changedProps) throws AppException {
+		execute(changedProps, false);
+	}
+	
+	/**
+	 * Applies all changed properties to the API-Proxy and updates it with a single request. 
+	 * If none of the properties is part of the API-Proxy, no request is sent.
+	 * @param changedProps the properties to update
+	 * @param reload true, if the API-Proxy must be loaded from the API-Manager before
+	 * @throws AppException if the API-Proxy can't be updated
+	 */
+	public void execute(List<String> changedProps, boolean reload) throws AppException {
+		if(changedProps==null || changedProps.size()==0) {
+			LOG.debug("No properties to update on the API-Proxy.");
+			return;
+		}
 		LOG.debug("Updating API-Proxy");
 		URI uri;
 		HttpEntity entity;
 		ObjectMapper objectMapper = new ObjectMapper();
 		
-		Transaction context = Transaction.getInstance();
+		Transaction context = promotionContext.getTransaction();
 		
 		try {
-			JsonNode lastJsonReponse = (JsonNode)context.get("lastResponse");
+			JsonNode lastJsonReponse = (reload) ? null : (JsonNode)context.get("lastResponse");
 			if(lastJsonReponse==null) { // This class is called as the first, so, first load the API
 				lastJsonReponse = initActualAPIContext(this.actualState);
 			}
-			handledChangedProps(lastJsonReponse, this.desiredState, this.actualState, changedProps);
+			if(!handledChangedProps(lastJsonReponse, this.desiredState, this.actualState, changedProps)) {
+				LOG.debug("None of the changed properties is part of the API-Proxy. No need to update it.");
+				return;
+			}
 		
 			uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION+"/proxies/"+context.get("virtualAPIId")).build();
 			entity = new StringEntity(objectMapper.writeValueAsString(lastJsonReponse));
@@ -67,10 +83,10 @@ public class UpdateAPIProxy extends AbstractAPIMTask implements IResponseParser
 			}
 			JsonNode jsonNode = objectMapper.readTree(response);
 			String backendAPIId = jsonNode.findPath("id").asText();
-			Transaction.getInstance().put("backendAPIId", backendAPIId);
+			promotionContext.getTransaction().put("backendAPIId", backendAPIId);
 		} catch (Exception e) {
 			try {
-				Transaction context = Transaction.getInstance();
+				Transaction context = promotionContext.getTransaction();
 				Object lastRequest = context.get("lastRequest");
 				LOG.error("Last request: " + EntityUtils.toString(((HttpEntityEnclosingRequestBase)lastRequest).getEntity()));
 				LOG.error("Unable to parse received response from API-Manager: '" + response + "'");
@@ -86,49 +102,49 @@ public class UpdateAPIProxy extends AbstractAPIMTask implements IResponseParser
 		return null;
 	}	
 	
-	private static JsonNode handledChangedProps(JsonNode lastJsonReponse, IAPI desired, IAPI actual, List<String> changedProps) throws AppException {
-		Field field = null;
+	/**
+	 * @return true, if at least one of the properties has been applied to the API-Proxy
+	 */
+	private static boolean handledChangedProps(JsonNode lastJsonReponse, IAPI desired, IAPI actual, List<String> changedProps) throws AppException {
+		APIPropertyDescriptor property = null;
+		boolean propsChangedInProxy = false;
 		if(changedProps!=null && changedProps.size()!=0) {
-			boolean propsChangedInProxy = false;
 			String logMessage = "Updating proxy for the following properties: ";
 			for(String fieldName : changedProps) {
 				try {
-					field = desired.getClass().getSuperclass().getDeclaredField(fieldName);
-					if (field.isAnnotationPresent(APIPropertyAnnotation.class)) {
-						LOG.debug("Going to update property: " + field.getName());
-						APIPropertyAnnotation property = field.getAnnotation(APIPropertyAnnotation.class);
-						if(void.class != property.propHandler()) { // Properties going this way, must be migrated
-							Class clazz = property.propHandler();
-							LOG.trace("Calling property handler: " + clazz.getCanonicalName());
-							PropertyHandler propHandler = (PropertyHandler) clazz.newInstance();
-							lastJsonReponse = propHandler.handleProperty(desired, actual, lastJsonReponse);
-							logMessage = logMessage + field.getName() + " ";
-							propsChangedInProxy = true;
-						} else {
-							try {
-								String getterMethodName = "get" + field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
-								Method method = desired.getClass().getSuperclass().getMethod(getterMethodName, null);
-								Object handler = method.invoke(desired, null);
-								if(handler instanceof PropertyHandler) { // This is NEW/Preferred way
-									LOG.trace("Calling property handler: " + handler.getClass());
-									((PropertyHandler)handler).handleProperty(desired, actual, lastJsonReponse);
-									logMessage = logMessage + field.getName() + " ";
-									propsChangedInProxy = true;
-								} else {
-									LOG.debug("Property: " + field.getName() + " has no handler configured and is not a propertyHandler");
-								}
-							} catch (Exception e) {
-								LOG.debug("Property: " + field.getName() + " has no handler configured and is not a propertyHandler");
+					property = APIPropertyDescriptor.getDescriptor(fieldName);
+					if(property==null) {
+						throw new AppException("Unknown property: " + fieldName, ErrorCode.CANT_UPDATE_API_PROXY);
+					}
+					LOG.debug("Going to update property: " + property.getName());
+					if(property.getPropHandler()!=null) { // Properties going this way, must be migrated
+						PropertyHandler propHandler = property.getPropHandler();
+						LOG.trace("Calling property handler: " + propHandler.getClass().getCanonicalName());
+						lastJsonReponse = propHandler.handleProperty(desired, actual, lastJsonReponse);
+						logMessage = logMessage + property.getName() + " ";
+						propsChangedInProxy = true;
+					} else {
+						try {
+							Object handler = property.getValue(desired);
+							if(handler instanceof PropertyHandler) { // This is NEW/Preferred way
+								LOG.trace("Calling property handler: " + handler.getClass());
+								((PropertyHandler)handler).handleProperty(desired, actual, lastJsonReponse);
+								logMessage = logMessage + property.getName() + " ";
+								propsChangedInProxy = true;
+							} else {
+								LOG.debug("Property: " + property.getName() + " has no handler configured and is not a propertyHandler");
 							}
+						} catch (Exception e) {
+							LOG.debug("Property: " + property.getName() + " has no handler configured and is not a propertyHandler");
 						}
 					}
 				} catch (Exception e) {
-					throw new AppException("Can't handle property: "+field+" to update API-Proxy.", ErrorCode.CANT_UPDATE_API_PROXY, e);
+					throw new AppException("Can't handle property: "+fieldName+" to update API-Proxy.", ErrorCode.CANT_UPDATE_API_PROXY, e);
 				}
 			}
 			if(propsChangedInProxy)
 				LOG.info(logMessage);
 		}
-		return lastJsonReponse;
+		return propsChangedInProxy;
 	}
 }
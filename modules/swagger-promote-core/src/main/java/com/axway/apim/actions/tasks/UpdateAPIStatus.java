@@ -1,15 +1,18 @@
 package com.axway.apim.actions.tasks;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
+import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 
 import com.axway.apim.actions.rest.DELRequest;
@@ -17,9 +20,9 @@ import com.axway.apim.actions.rest.POSTRequest;
 import com.axway.apim.actions.rest.RestAPICall;
 import com.axway.apim.actions.rest.Transaction;
 import com.axway.apim.lib.AppException;
-import com.axway.apim.lib.CommandParameters;
+import com.axway.apim.lib.BackendAPIIndex;
 import com.axway.apim.lib.ErrorCode;
-import com.axway.apim.lib.ErrorState;
+import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.state.APIBaseDefinition;
 import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -68,7 +71,7 @@ public class UpdateAPIStatus extends AbstractAPIMTask implements IResponseParser
 	}
 	
 	public void execute() throws AppException {
-		if(CommandParameters.getInstance().isEnforceBreakingChange()) {
+		if(cmd.isEnforceBreakingChange()) {
 			execute(true);
 		} else {
 			execute(false);
@@ -85,7 +88,7 @@ public class UpdateAPIStatus extends AbstractAPIMTask implements IResponseParser
 		if(!enforceBreakingChange) { 
 			if(statusChangeRequiresEnforce.get(this.actualState.getState())!=null && 
 					statusChangeRequiresEnforce.get(this.actualState.getState()).contains(this.desiredState.getState())) {
-				ErrorState.getInstance().setError("Status change from actual status: '"+actualState.getState()+"' to desired status: '"+desiredState.getState()+"' "
+				promotionContext.getErrorState().setError("Status change from actual status: '"+actualState.getState()+"' to desired status: '"+desiredState.getState()+"' "
 						+ "is breaking. Enforce change with option: -f true", ErrorCode.BREAKING_CHANGE_DETECTED, false);
 				throw new AppException("Status change from actual status: '"+actualState.getState()+"' to desired status: '"+desiredState.getState()+"' "
 						+ "is breaking. Enforce change with option: -f true", ErrorCode.BREAKING_CHANGE_DETECTED);
@@ -94,7 +97,7 @@ public class UpdateAPIStatus extends AbstractAPIMTask implements IResponseParser
 		
 		URI uri;
 
-		Transaction context = Transaction.getInstance();
+		Transaction context = promotionContext.getTransaction();
 		
 		RestAPICall apiCall;
 		
@@ -132,6 +135,10 @@ public class UpdateAPIStatus extends AbstractAPIMTask implements IResponseParser
 				LOG.error(this.intent + "The status change from: " + actualState.getState() + " to " + desiredState.getState() + " is not possible!");
 				throw new AppException("The status change from: '" + actualState.getState() + "' to '" + desiredState.getState() + "' is not possible!", ErrorCode.CANT_UPDATE_API_STATUS);
 			}
+			if(desiredState.getState().equals(IAPI.STATE_UNPUBLISHED) || desiredState.getState().equals(IAPI.STATE_DELETED)) {
+				// Access & subscriptions to this API are removed by the API-Manager
+				APIManagerAdapter.getInstance().removeGrantedOrgs(actualState.getId(), null);
+			}
 			if(desiredState.getState().equals(IAPI.STATE_DELETED)) {
 				// If an API in state unpublished, also an orgAdmin can delete it
 				boolean useAdmin = (actualState.getState().equals(IAPI.STATE_UNPUBLISHED)) ? false : true; 
@@ -141,13 +148,18 @@ public class UpdateAPIStatus extends AbstractAPIMTask implements IResponseParser
 				apiCall = new DELRequest(uri, this, useAdmin);
 				context.put("responseMessage", "'Old' FE-API deleted (API-Proxy)");
 				apiCall.execute();
-				// Additionally we need to delete the BE-API
-				uri = new URIBuilder(cmd.getAPIManagerURL())
-						.setPath(RestAPICall.API_VERSION+"/apirepo/"+actualState.getApiId())
-						.build();
-				apiCall = new DELRequest(uri, this, useAdmin);
-				context.put("responseMessage", "'Old' BE-API deleted.");
-				apiCall.execute();
+				// Additionally we need to delete the BE-API, if not reused by another API
+				if(cmd.isReuseBackendAPI() && isBackendAPIUsed(actualState.getApiId())) {
+					LOG.info("'Old' BE-API: '" + actualState.getApiId() + "' is used by another API, hence it is not deleted.");
+				} else {
+					uri = new URIBuilder(cmd.getAPIManagerURL())
+							.setPath(RestAPICall.API_VERSION+"/apirepo/"+actualState.getApiId())
+							.build();
+					apiCall = new DELRequest(uri, this, useAdmin);
+					context.put("responseMessage", "'Old' BE-API deleted.");
+					apiCall.execute();
+					BackendAPIIndex.getInstance().remove(actualState.getApiId());
+				}
 			} else {
 				uri = new URIBuilder(cmd.getAPIManagerURL())
 					.setPath(RestAPICall.API_VERSION+"/proxies/"+actualState.getId()+"/"+statusEndpoint.get(desiredState.getState()))
@@ -168,11 +180,19 @@ public class UpdateAPIStatus extends AbstractAPIMTask implements IResponseParser
 			throw new AppException("The status change from: '" + actualState.getState() + "' to '" + desiredState.getState() + "' is not possible!", ErrorCode.CANT_UPDATE_API_STATUS, e);
 		}
 	}
+	private static boolean isBackendAPIUsed(String backendAPIId) throws AppException {
+		List<NameValuePair> filters = new ArrayList<NameValuePair>();
+		filters.add(new BasicNameValuePair("field", "apiid"));
+		filters.add(new BasicNameValuePair("op", "eq"));
+		filters.add(new BasicNameValuePair("value", backendAPIId));
+		return APIManagerAdapter.getInstance().getExistingAPI(null, filters, APIManagerAdapter.TYPE_FRONT_END)!=null;
+	}
+	
 	@Override
 	public JsonNode parseResponse(HttpResponse httpResponse) throws AppException {
 		ObjectMapper objectMapper = new ObjectMapper();
 		String response = null;
-		Transaction context = Transaction.getInstance();
+		Transaction context = promotionContext.getTransaction();
 		try {
 			if(context.get("responseMessage")!=null) {
 				LOG.info(""+context.get("responseMessage"));
@@ -182,7 +202,7 @@ public class UpdateAPIStatus extends AbstractAPIMTask implements IResponseParser
 					response = EntityUtils.toString(httpResponse.getEntity());
 					JsonNode jsonNode = objectMapper.readTree(response);
 					String backendAPIId = jsonNode.findPath("id").asText();
-					Transaction.getInstance().put("backendAPIId", backendAPIId);
+					promotionContext.getTransaction().put("backendAPIId", backendAPIId);
 					// The action was successful, update the status!
 					this.actualState.setState(desiredState.getState());
 					LOG.debug(this.intent + "Actual API state set to: " + this.actualState.getState());
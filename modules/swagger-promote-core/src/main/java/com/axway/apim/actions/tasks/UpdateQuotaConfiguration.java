@@ -14,7 +14,6 @@ import com.axway.apim.actions.rest.PUTRequest;
 import com.axway.apim.actions.rest.RestAPICall;
 import com.axway.apim.actions.rest.Transaction;
 import com.axway.apim.lib.AppException;
-import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.ErrorCode;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.properties.quota.APIQuota;
@@ -33,9 +32,9 @@ public class UpdateQuotaConfiguration extends AbstractAPIMTask implements IRespo
 	}
 
 	public void execute() throws AppException {
-		Transaction context = Transaction.getInstance();
+		Transaction context = promotionContext.getTransaction();
 		if(desiredState.getApplicationQuota()==null && desiredState.getSystemQuota()==null) return;
-		if(CommandParameters.getInstance().isIgnoreQuotas()) {
+		if(cmd.isIgnoreQuotas()) {
 			LOG.info("Configured quotas will be ignored, as flag ignoreQuotas has been set.");
 			return;
 		}
@@ -46,14 +45,17 @@ public class UpdateQuotaConfiguration extends AbstractAPIMTask implements IRespo
 			} else {
 				LOG.info("Updating System-Default-Quota for API: " + desiredState.getName());
 				LOG.debug("System-Quota-Config: '" + desiredState.getSystemQuota()+"'");
-				APIQuota systemQuota = APIManagerAdapter.sytemQuotaConfig;
-				for(QuotaRestriction restriction : desiredState.getSystemQuota().getRestrictions()) {
-					restriction.setApi(actualState.getId());
+				// The quota is shared by all APIs, hence it must not be changed by parallel promotions at the same time
+				synchronized (APIManagerAdapter.class) {
+					APIQuota systemQuota = APIManagerAdapter.getDefaultQuota(APIManagerAdapter.SYSTEM_API_QUOTA);
+					for(QuotaRestriction restriction : desiredState.getSystemQuota().getRestrictions()) {
+						restriction.setApi(actualState.getId());
+					}
+					addOrMergeRestriction(systemQuota.getRestrictions(), desiredState.getSystemQuota().getRestrictions());
+					context.put(QUOTA_UPDATE_SUCCESS, "System-Default quota successfully updated for API: " + desiredState.getName());
+					context.put(QUOTA_UPDATE_FAIL, "System-Default quota successfully updated for API: " + desiredState.getName());
+					updateQuotaConfig(systemQuota, APIManagerAdapter.SYSTEM_API_QUOTA);
 				}
-				addOrMergeRestriction(systemQuota.getRestrictions(), desiredState.getSystemQuota().getRestrictions());
-				context.put(QUOTA_UPDATE_SUCCESS, "System-Default quota successfully updated for API: " + desiredState.getName());
-				context.put(QUOTA_UPDATE_FAIL, "System-Default quota successfully updated for API: " + desiredState.getName());
-				updateQuotaConfig(systemQuota, systemQuota.getId());
 			}
 		}
 		if(desiredState.getApplicationQuota()!=null) {
@@ -62,14 +64,16 @@ public class UpdateQuotaConfiguration extends AbstractAPIMTask implements IRespo
 			} else {
 				LOG.info("Updating Application-Default-Quota for API: " + desiredState.getName());
 				LOG.debug("Application-Quota-Config: '" + desiredState.getApplicationQuota()+"'");
-				APIQuota applicationQuota = APIManagerAdapter.applicationQuotaConfig;
-				for(QuotaRestriction restriction : desiredState.getApplicationQuota().getRestrictions()) {
-					restriction.setApi(actualState.getId());
+				synchronized (APIManagerAdapter.class) {
+					APIQuota applicationQuota = APIManagerAdapter.getDefaultQuota(APIManagerAdapter.APPLICATION_DEFAULT_QUOTA);
+					for(QuotaRestriction restriction : desiredState.getApplicationQuota().getRestrictions()) {
+						restriction.setApi(actualState.getId());
+					}
+					addOrMergeRestriction(applicationQuota.getRestrictions(), desiredState.getApplicationQuota().getRestrictions());
+					context.put(QUOTA_UPDATE_SUCCESS, "Application-Default quota successfully updated: " + desiredState.getName());
+					context.put(QUOTA_UPDATE_FAIL, "Application-Default quota successfully updated: " + desiredState.getName());
+					updateQuotaConfig(applicationQuota, APIManagerAdapter.APPLICATION_DEFAULT_QUOTA);
 				}
-				addOrMergeRestriction(applicationQuota.getRestrictions(), desiredState.getApplicationQuota().getRestrictions());
-				context.put(QUOTA_UPDATE_SUCCESS, "Application-Default quota successfully updated: " + desiredState.getName());
-				context.put(QUOTA_UPDATE_FAIL, "Application-Default quota successfully updated: " + desiredState.getName());
-				updateQuotaConfig(applicationQuota, applicationQuota.getId());
 			}
 		}
 	}
@@ -92,6 +96,16 @@ public class UpdateQuotaConfiguration extends AbstractAPIMTask implements IRespo
 	
 	
 	private void updateQuotaConfig(APIQuota quotaConfig, String quotaId) throws AppException {
+		try {
+			sendQuotaConfig(quotaConfig, quotaId);
+		} catch (AppException e) {
+			// The shared quota already contains the failed change, hence it's reloaded for the next API
+			APIManagerAdapter.invalidateDefaultQuota(quotaId);
+			throw e;
+		}
+	}
+	
+	private void sendQuotaConfig(APIQuota quotaConfig, String quotaId) throws AppException {
 		URI uri;
 		HttpEntity entity;
 		ObjectMapper objectMapper = new ObjectMapper();
@@ -113,7 +127,7 @@ public class UpdateQuotaConfiguration extends AbstractAPIMTask implements IRespo
 	public JsonNode parseResponse(HttpResponse httpResponse) throws AppException {
 		ObjectMapper objectMapper = new ObjectMapper();
 		String response = null;
-		Transaction context = Transaction.getInstance();
+		Transaction context = promotionContext.getTransaction();
 		try {
 			if(context.get("responseMessage")!=null) {
 				LOG.info(""+context.get("responseMessage"));
@@ -123,9 +137,8 @@ public class UpdateQuotaConfiguration extends AbstractAPIMTask implements IRespo
 					response = EntityUtils.toString(httpResponse.getEntity());
 					JsonNode jsonNode = objectMapper.readTree(response);
 					String backendAPIId = jsonNode.findPath("id").asText();
-					Transaction.getInstance().put("backendAPIId", backendAPIId);
-					// The action was successful, update the status!
-					this.actualState.setState(desiredState.getState());
+					promotionContext.getTransaction().put("backendAPIId", backendAPIId);
+					// The API-Status is left to UpdateAPIStatus, which may run in parallel to this task
 					LOG.info((String)context.get(QUOTA_UPDATE_SUCCESS));
 					return null;
 				} catch (Exception e1) {
@@ -19,7 +19,6 @@ import com.axway.apim.actions.rest.PUTRequest;
 import com.axway.apim.actions.rest.RestAPICall;
 import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.ErrorCode;
-import com.axway.apim.lib.ErrorState;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.properties.applications.ClientApplication;
 import com.axway.apim.swagger.api.properties.quota.QuotaRestriction;
@@ -59,6 +58,8 @@ public class UpgradeAccessToNewerAPI extends AbstractAPIMTask implements IRespon
 			apiCall.setContentType("application/x-www-form-urlencoded");
 			
 			apiCall.execute();
+			APIManagerAdapter apimAdapter = APIManagerAdapter.getInstance();
+			apimAdapter.addGrantedOrgs(desiredState.getId(), apimAdapter.getGrantedOrgs(actualState.getId()).keySet());
 			// API-Manager has now granted access to all existing orgs and give a subscription to existing app
 			// therefore we have to update the new Actual-State to reflect this
 			inTransitState.setClientOrganizations(actualState.getClientOrganizations());
@@ -96,7 +97,7 @@ public class UpgradeAccessToNewerAPI extends AbstractAPIMTask implements IRespon
 						apiCall.execute();
 						EntityUtils.consume(entity);
 					} catch (Exception e) {
-						ErrorState.getInstance().setError("Can't update application quota.", ErrorCode.CANT_UPDATE_QUOTA_CONFIG);
+						promotionContext.getErrorState().setError("Can't update application quota.", ErrorCode.CANT_UPDATE_QUOTA_CONFIG);
 						throw new AppException("Can't update application quota.", ErrorCode.CANT_UPDATE_QUOTA_CONFIG);
 					}
 				}
@@ -13,6 +13,7 @@ import com.axway.apim.swagger.api.properties.corsprofiles.CorsProfile;
 import com.axway.apim.swagger.api.properties.inboundprofiles.InboundProfile;
 import com.axway.apim.swagger.api.properties.securityprofiles.SecurityProfile;
 import com.axway.apim.swagger.api.state.APIMethod;
+import com.axway.apim.swagger.api.state.APIMethodCatalog;
 import com.axway.apim.swagger.api.state.AbstractAPI;
 import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -108,16 +109,16 @@ public class InboundProfileHandler implements PropertyHandler {
 	}
 	
 	private String lookupAPIMethodId(String operationId, IAPI actual) throws AppException {
+		APIMethodCatalog catalog = APIManagerAdapter.getInstance().getMethodCatalog(actual.getId());
 		if(((AbstractAPI)actual).getApiMethods()==null) {
-			((AbstractAPI)actual).setApiMethods(APIManagerAdapter.getInstance().getAllMethodsForAPI(actual.getId()));
+			((AbstractAPI)actual).setApiMethods(catalog.getMethods());
 		}
-		for(APIMethod method : ((AbstractAPI)actual).getApiMethods()) {
-			if(method.getName().equals(operationId)) {
-				return method.getId();
-			}
-			if(method.getId().equals(operationId)) { // MethodIds are already translated, if an existing APIs is updated
-				return operationId;
-			}
+		APIMethod method = catalog.getMethodByName(operationId);
+		if(method!=null) {
+			return method.getId();
+		}
+		if(catalog.getMethodById(operationId)!=null) { // MethodIds are already translated, if an existing APIs is updated
+			return operationId;
 		}
 		ErrorState.getInstance().setError("No operation found with operationId: '"+operationId+"'", ErrorCode.API_OPERATION_NOT_FOUND, false);
 		throw new AppException("No operation found with operationId: '"+operationId+"'", ErrorCode.API_OPERATION_NOT_FOUND);
@@ -15,29 +15,62 @@ import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+/**
+ * The V-Host is updated together with all other properties of the API-Proxy, if the state of the API allows it. 
+ * Otherwise the update is deferred until the API has been published (see {@link #handleVHost(IAPI, IAPI, boolean)}), 
+ * which requires an additional update of the API-Proxy.
+ */
 public class VhostPropertyHandler implements PropertyHandler {
 	
 	static Logger LOG = LoggerFactory.getLogger(VhostPropertyHandler.class);
 	
 	boolean updateVhost = false;
 	
+	boolean publishedBefore = false;
+	
 	public VhostPropertyHandler() {
 		super();
 	}
 
-	public VhostPropertyHandler(List<String> changedProps) {
+	public VhostPropertyHandler(List<String> changedProps) throws AppException {
+		this(changedProps, null, null);
+	}
+	
+	/**
+	 * @param changedProps properties updated on the API-Proxy. The V-Host is removed, if it can't be updated with them.
+	 * @param desiredAPI the desired API or null
+	 * @param actualAPI the API as it is before the update or null, if the API has just been created (unpublished)
+	 */
+	public VhostPropertyHandler(List<String> changedProps, IAPI desiredAPI, IAPI actualAPI) throws AppException {
+		this.publishedBefore = (actualAPI!=null && IAPI.STATE_PUBLISHED.equals(actualAPI.getState()));
 		if(changedProps.contains("vhost")) {
-			updateVhost = true;
-			// Make sure, Vhost isn't updated with all the other properties
-			changedProps.remove("vhost");
+			if(desiredAPI!=null && canUpdateWithProxy(desiredAPI)) {
+				LOG.debug("V-Host is updated together with the other properties of the API-Proxy.");
+			} else {
+				updateVhost = true;
+				// Make sure, Vhost isn't updated with all the other properties
+				changedProps.remove("vhost");
+			}
 		}
 	}
 	
+	private boolean canUpdateWithProxy(IAPI desiredAPI) throws AppException {
+		if(APIManagerAdapter.hasAPIManagerVersion("7.6.2 SP3")) return true;
+		// Older versions only support to update the V-Host of published APIs
+		return publishedBefore && IAPI.STATE_PUBLISHED.equals(desiredAPI.getState());
+	}
+	
 	public void handleVHost(IAPI desiredAPI, IAPI actualAPI) throws AppException {
 		handleVHost(desiredAPI, actualAPI, false);
 	}
 	
 	public void handleVHost(IAPI desiredAPI, IAPI actualAPI, boolean forceUpdate) throws AppException {
+		if(updateVhost && !forceUpdate && !publishedBefore && desiredAPI.getVhost()!=null 
+				&& IAPI.STATE_PUBLISHED.equals(desiredAPI.getState()) && IAPI.STATE_PUBLISHED.equals(actualAPI.getState())) {
+			// The V-Host has already been set while publishing the API (see UpdateAPIStatus)
+			LOG.debug("V-Host: " + desiredAPI.getVhost() + " has been set while publishing the API.");
+			return;
+		}
 		if(updateVhost || forceUpdate) {
 			if(!APIManagerAdapter.hasAPIManagerVersion("7.6.2 SP3") && actualAPI.getState().equals(IAPI.STATE_UNPUBLISHED)) {
 				ErrorState.getInstance().setError("Can't update V-Host to: "+desiredAPI.getVhost()+" on unpublished API!", ErrorCode.CANT_SETUP_VHOST, false);
@@ -46,7 +79,8 @@ public class VhostPropertyHandler implements PropertyHandler {
 			} else {
 				LOG.info("Updating V-Host for published API to: " + desiredAPI.getVhost());
 				List<String> vhostChange = new Vector<String>() {{ add ("vhost"); }};
-				new UpdateAPIProxy(desiredAPI, actualAPI).execute(vhostChange);
+				// The API-Proxy must be reloaded, as it has been changed by the status update
+				new UpdateAPIProxy(desiredAPI, actualAPI).execute(vhostChange, true);
 			}
 		}
 	}
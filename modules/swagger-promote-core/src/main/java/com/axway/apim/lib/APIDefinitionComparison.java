@@ -0,0 +1,256 @@
+package com.axway.apim.lib;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares two API-Definitions semantically instead of byte by byte.<br>
+ * JSON definitions (Swagger/OpenAPI) are compared as parsed trees, hence formatting and the order of
+ * properties are not relevant. XML definitions (WSDL) are compared ignoring whitespace between elements,
+ * comments and the order of attributes. If a definition can't be parsed, the raw bytes are compared.<br>
+ * Each difference is reported by its path (JSON-Pointer or element path) and for Swagger-Files
+ * the affected operations are reported additionally (e.g. GET /pets).
+ */
+public class APIDefinitionComparison {
+
+	private static Logger LOG = LoggerFactory.getLogger(APIDefinitionComparison.class);
+
+	/** Number of differences reported at most, the comparison stops afterwards */
+	public static final int MAX_DIFFERENCES = 20;
+
+	private static final Set<String> HTTP_METHODS = new TreeSet<String>(Arrays.asList("get", "put", "post", "delete", "options", "head", "patch", "trace"));
+
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	private String format;
+
+	private List<String> differences = new ArrayList<String>();
+
+	private Set<String> operations = new LinkedHashSet<String>();
+
+	private APIDefinitionComparison(String format) {
+		super();
+		this.format = format;
+	}
+
+	/**
+	 * @param actual the API-Definition as stored in the API-Manager
+	 * @param desired the API-Definition to import
+	 * @return the comparison result, having no differences if both definitions are semantically equal
+	 */
+	public static APIDefinitionComparison compare(byte[] actual, byte[] desired) {
+		if(actual==null || desired==null) {
+			APIDefinitionComparison result = new APIDefinitionComparison("bytes");
+			if(actual!=desired) result.differences.add("/: " + ((actual==null) ? "added" : "removed"));
+			return result;
+		}
+		char actualStart = firstCharacter(actual);
+		char desiredStart = firstCharacter(desired);
+		try {
+			if(isJson(actualStart) && isJson(desiredStart)) {
+				APIDefinitionComparison result = new APIDefinitionComparison("json");
+				result.compareJson(mapper.readTree(actual), mapper.readTree(desired), "");
+				return result;
+			} else if(actualStart=='<' && desiredStart=='<') {
+				APIDefinitionComparison result = new APIDefinitionComparison("xml");
+				Element actualRoot = parseXml(actual).getDocumentElement();
+				result.compareXml(actualRoot, parseXml(desired).getDocumentElement(), "/" + actualRoot.getNodeName());
+				return result;
+			}
+		} catch (Exception e) {
+			LOG.debug("Can't parse API-Definition for a normalized comparison. Comparing the content byte by byte. Error: " + e.getMessage());
+		}
+		return compareBytes(actual, desired);
+	}
+
+	/**
+	 * @param actual the API-Definition as stored in the API-Manager
+	 * @param desired the API-Definition to import
+	 * @return the comparison result of the raw content
+	 */
+	public static APIDefinitionComparison compareBytes(byte[] actual, byte[] desired) {
+		APIDefinitionComparison result = new APIDefinitionComparison("bytes");
+		if(!Arrays.equals(actual, desired)) {
+			result.differences.add("/: content differs");
+		}
+		return result;
+	}
+
+	public boolean isEqual() {
+		return differences.isEmpty();
+	}
+
+	/**
+	 * @return how the definitions have been compared: json, xml or bytes
+	 */
+	public String getFormat() {
+		return format;
+	}
+
+	/**
+	 * @return the paths that differ, limited to MAX_DIFFERENCES
+	 */
+	public List<String> getDifferences() {
+		return differences;
+	}
+
+	/**
+	 * @return the operations of a Swagger-File that differ, such as: GET /pets
+	 */
+	public Set<String> getOperations() {
+		return operations;
+	}
+
+	private void compareJson(JsonNode actual, JsonNode desired, String path) {
+		if(differences.size()>=MAX_DIFFERENCES) return;
+		if(actual.isNumber() && desired.isNumber()) {
+			// 1.0 and 1 are the same number
+			if(actual.decimalValue().compareTo(desired.decimalValue())!=0) addDifference(path, "changed");
+			return;
+		}
+		if(actual.getNodeType()!=desired.getNodeType()) {
+			addDifference(path, "changed");
+			return;
+		}
+		if(actual.isObject()) {
+			Iterator<String> it = actual.fieldNames();
+			while(it.hasNext()) {
+				String name = it.next();
+				String childPath = path + "/" + name.replace("~", "~0").replace("/", "~1");
+				if(desired.has(name)) {
+					compareJson(actual.get(name), desired.get(name), childPath);
+				} else {
+					addDifference(childPath, "removed");
+				}
+			}
+			it = desired.fieldNames();
+			while(it.hasNext()) {
+				String name = it.next();
+				if(!actual.has(name)) addDifference(path + "/" + name.replace("~", "~0").replace("/", "~1"), "added");
+			}
+		} else if(actual.isArray()) {
+			int common = Math.min(actual.size(), desired.size());
+			for(int i=0; i<common; i++) {
+				compareJson(actual.get(i), desired.get(i), path + "/" + i);
+			}
+			for(int i=common; i<actual.size(); i++) addDifference(path + "/" + i, "removed");
+			for(int i=common; i<desired.size(); i++) addDifference(path + "/" + i, "added");
+		} else if(!actual.equals(desired)) {
+			addDifference(path, "changed");
+		}
+	}
+
+	private void compareXml(Element actual, Element desired, String elementPath) {
+		if(differences.size()>=MAX_DIFFERENCES) return;
+		if(!equals(actual.getNamespaceURI(), desired.getNamespaceURI()) || !equals(actual.getLocalName(), desired.getLocalName())) {
+			addDifference(elementPath, "changed");
+			return;
+		}
+		if(!getAttributes(actual).equals(getAttributes(desired))) {
+			addDifference(elementPath + "/@", "changed");
+		}
+		if(!getText(actual).equals(getText(desired))) {
+			addDifference(elementPath + "/text()", "changed");
+		}
+		List<Element> actualChilds = getChildElements(actual);
+		List<Element> desiredChilds = getChildElements(desired);
+		int common = Math.min(actualChilds.size(), desiredChilds.size());
+		for(int i=0; i<common; i++) {
+			compareXml(actualChilds.get(i), desiredChilds.get(i), elementPath + "/" + actualChilds.get(i).getNodeName() + "[" + i + "]");
+		}
+		for(int i=common; i<actualChilds.size(); i++) addDifference(elementPath + "/" + actualChilds.get(i).getNodeName() + "[" + i + "]", "removed");
+		for(int i=common; i<desiredChilds.size(); i++) addDifference(elementPath + "/" + desiredChilds.get(i).getNodeName() + "[" + i + "]", "added");
+	}
+
+	private void addDifference(String path, String change) {
+		if(differences.size()>=MAX_DIFFERENCES) return;
+		differences.add(((path.isEmpty()) ? "/" : path) + ": " + change);
+		// Swagger operations are declared as: /paths/<path>/<method>
+		if("json".equals(format) && path.startsWith("/paths/")) {
+			String[] segments = path.split("/");
+			if(segments.length>3 && HTTP_METHODS.contains(segments[3])) {
+				operations.add(segments[3].toUpperCase() + " " + segments[2].replace("~1", "/").replace("~0", "~"));
+			} else if(segments.length>2) {
+				operations.add("* " + segments[2].replace("~1", "/").replace("~0", "~"));
+			}
+		}
+	}
+
+	private static Document parseXml(byte[] content) throws Exception {
+		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+		factory.setNamespaceAware(true);
+		factory.setIgnoringComments(true);
+		factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+		factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+		DocumentBuilder builder = factory.newDocumentBuilder();
+		builder.setErrorHandler(null);
+		return builder.parse(new ByteArrayInputStream(content));
+	}
+
+	private static Set<String> getAttributes(Element element) {
+		Set<String> attributes = new TreeSet<String>();
+		NamedNodeMap map = element.getAttributes();
+		for(int i=0; i<map.getLength(); i++) {
+			Attr attr = (Attr)map.item(i);
+			attributes.add(attr.getName() + "=" + attr.getValue());
+		}
+		return attributes;
+	}
+
+	private static String getText(Element element) {
+		StringBuilder text = new StringBuilder();
+		for(Node child = element.getFirstChild(); child!=null; child = child.getNextSibling()) {
+			if(child.getNodeType()==Node.TEXT_NODE || child.getNodeType()==Node.CDATA_SECTION_NODE) {
+				text.append(child.getNodeValue());
+			}
+		}
+		return text.toString().trim();
+	}
+
+	private static List<Element> getChildElements(Element element) {
+		List<Element> childs = new ArrayList<Element>();
+		for(Node child = element.getFirstChild(); child!=null; child = child.getNextSibling()) {
+			if(child.getNodeType()==Node.ELEMENT_NODE) childs.add((Element)child);
+		}
+		return childs;
+	}
+
+	private static boolean equals(String value1, String value2) {
+		return (value1==null) ? value2==null : value1.equals(value2);
+	}
+
+	private static boolean isJson(char start) {
+		return start=='{' || start=='[';
+	}
+
+	private static char firstCharacter(byte[] content) {
+		int i = 0;
+		// Skip an UTF-8 byte order mark
+		if(content.length>=3 && (content[0]&0xff)==0xEF && (content[1]&0xff)==0xBB && (content[2]&0xff)==0xBF) i = 3;
+		for(; i<content.length; i++) {
+			if(!Character.isWhitespace(content[i])) return (char)content[i];
+		}
+		return 0;
+	}
+}
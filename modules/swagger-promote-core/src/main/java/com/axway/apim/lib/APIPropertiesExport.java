@@ -9,6 +9,10 @@ import org.slf4j.LoggerFactory;
 
 import com.axway.apim.App;
 
+/**
+ * Creates the details export file of a promoted API. The instance is owned by the current PromotionContext, 
+ * as multiple APIs might be promoted in parallel.
+ */
 public class APIPropertiesExport {
 	
 	private static Logger LOG = LoggerFactory.getLogger(App.class);
@@ -17,17 +21,18 @@ public class APIPropertiesExport {
 	
 	String propertyComment;
 	
-	private static APIPropertiesExport instance = null;
-
-	private APIPropertiesExport() {
+	String configFile;
+	
+	APIPropertiesExport() {
 		super();
 	}
 	
 	public static APIPropertiesExport getInstance() {
-		if(instance==null) {
-			instance = new APIPropertiesExport();
-		}
-		return instance;
+		return PromotionContext.getCurrent().getPropertiesExport();
+	}
+	
+	public static void deleteInstance() {
+		PromotionContext.getCurrent().setPropertiesExport(null);
 	}
 	
 	public void setProperty(String key, String value) {
@@ -37,6 +42,13 @@ public class APIPropertiesExport {
 	public void setPropertyComment(String propertyComment) {
 		this.propertyComment = propertyComment;
 	}
+
+	/**
+	 * @param configFile the API-Config of the promoted API, a relative export file is created next to it
+	 */
+	public void setConfigFile(String configFile) {
+		this.configFile = configFile;
+	}
 	
 	public void store() {
 		if(properties.isEmpty()) return;
@@ -45,7 +57,7 @@ public class APIPropertiesExport {
 		File file = new File(exportFile);
 		try {
 			if(!file.isAbsolute()) {
-				String configFile = CommandParameters.getInstance().getValue("contract");
+				String configFile = (this.configFile!=null) ? this.configFile : CommandParameters.getInstance().getValue("contract");
 				String baseDir = new File(configFile).getCanonicalFile().getParent();
 				file = new File(baseDir + File.separator + exportFile);
 			}
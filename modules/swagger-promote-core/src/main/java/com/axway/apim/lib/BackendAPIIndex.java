@@ -0,0 +1,168 @@
+package com.axway.apim.lib;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Index of Backend-APIs imported into the API-Manager, addressed by the digest of the imported
+ * API-Definition and the owning organization. It's used to reuse an existing Backend-API instead of
+ * importing the same API-Definition again (parameter: reuseBackendAPI).<br>
+ * The index is kept for the lifetime of the process (e.g. a batch promoting multiple stages) and
+ * additionally stored in the state directory, if configured (parameter: stateDir).<br>
+ * An entry is just a hint, the Backend-API must be verified before it is reused, as it might have been
+ * deleted or changed in the meantime.
+ */
+public class BackendAPIIndex {
+
+	private static Logger LOG = LoggerFactory.getLogger(BackendAPIIndex.class);
+
+	/**
+	 * Loads the API-Definition of an existing Backend-API from the API-Manager.
+	 */
+	public interface DefinitionLoader {
+		public byte[] getAPIDefinition(String backendAPIId) throws AppException;
+	}
+
+	private static final String INDEX_FILE = "backend-apis.json";
+
+	private static BackendAPIIndex instance;
+
+	private File indexFile;
+
+	private Map<String, String> backendAPIs = new HashMap<String, String>();
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private BackendAPIIndex(File stateDir) {
+		if(stateDir!=null) {
+			this.indexFile = new File(stateDir, INDEX_FILE);
+		}
+	}
+
+	public static synchronized BackendAPIIndex getInstance() {
+		if (BackendAPIIndex.instance == null) {
+			BackendAPIIndex.instance = new BackendAPIIndex(PromotionStateStore.getInstance().getStateDir());
+		}
+		return BackendAPIIndex.instance;
+	}
+
+	public static synchronized void deleteInstance() {
+		BackendAPIIndex.instance = null;
+	}
+
+	/**
+	 * @param apiDefinition the API-Definition to import
+	 * @param organizationId the organization the Backend-API is imported for
+	 * @return the digest used to address the Backend-API
+	 */
+	public static String getDigest(byte[] apiDefinition, String organizationId) {
+		return new StateDigest().add("apiDefinition", apiDefinition).add("organizationId", organizationId).getDigest();
+	}
+
+	/**
+	 * @param digest of the API-Definition as returned by getDigest
+	 * @return the ID of the Backend-API imported with the same API-Definition or null
+	 */
+	public synchronized String getBackendAPIId(String digest) {
+		String backendAPIId = backendAPIs.get(digest);
+		if(backendAPIId==null && indexFile!=null) {
+			// The index might have been updated by another process
+			load();
+			backendAPIId = backendAPIs.get(digest);
+		}
+		return backendAPIId;
+	}
+
+	/**
+	 * Verifies the Backend-API found for the digest still exists with the same API-Definition. 
+	 * Otherwise it's removed from the index, hence it's not verified again.
+	 * @param digest of the API-Definition as returned by getDigest
+	 * @param apiDefinition the API-Definition to import
+	 * @param loader used to load the API-Definition of the found Backend-API
+	 * @return the ID of the Backend-API to reuse or null, if the API-Definition must be imported
+	 */
+	public String getReusableBackendAPIId(String digest, byte[] apiDefinition, DefinitionLoader loader) {
+		String backendAPIId = getBackendAPIId(digest);
+		if(backendAPIId==null) return null;
+		try {
+			byte[] existingDefinition = loader.getAPIDefinition(backendAPIId);
+			if(APIDefinitionComparison.compare(existingDefinition, apiDefinition).isEqual()) {
+				return backendAPIId;
+			}
+			LOG.debug("API-Definition of Backend-API: '" + backendAPIId + "' doesn't match anymore.");
+		} catch (Exception e) {
+			LOG.debug("Can't read API-Definition of Backend-API: '" + backendAPIId + "'. Error: " + e.getMessage());
+		}
+		remove(backendAPIId);
+		return null;
+	}
+
+	/**
+	 * @param digest of the imported API-Definition as returned by getDigest
+	 * @param backendAPIId the ID of the imported Backend-API
+	 */
+	public synchronized void put(String digest, String backendAPIId) {
+		if(indexFile!=null) load();
+		backendAPIs.put(digest, backendAPIId);
+		save();
+	}
+
+	/**
+	 * @param backendAPIId of the Backend-API which is deleted or can't be used anymore
+	 */
+	public synchronized void remove(String backendAPIId) {
+		if(indexFile!=null) load();
+		if(backendAPIs.values().remove(backendAPIId)) {
+			LOG.debug("Removed Backend-API: '" + backendAPIId + "' from index.");
+			save();
+		}
+	}
+
+	private void load() {
+		if(indexFile==null || !indexFile.exists()) return;
+		try {
+			JsonNode index = mapper.readTree(indexFile);
+			Iterator<Map.Entry<String, JsonNode>> it = index.fields();
+			while(it.hasNext()) {
+				Map.Entry<String, JsonNode> entry = it.next();
+				backendAPIs.put(entry.getKey(), entry.getValue().asText());
+			}
+		} catch (Exception e) {
+			LOG.warn("Can't read Backend-API index: '" + indexFile + "'. Ignoring it.", e);
+		}
+	}
+
+	private void save() {
+		if(indexFile==null) return;
+		try {
+			ObjectNode index = mapper.createObjectNode();
+			for(Map.Entry<String, String> entry : backendAPIs.entrySet()) {
+				index.put(entry.getKey(), entry.getValue());
+			}
+			// Write to a temp file first, as the same state directory might be used by multiple processes
+			File tempFile = File.createTempFile(INDEX_FILE, ".tmp", indexFile.getParentFile());
+			FileUtils.writeStringToFile(tempFile, mapper.writeValueAsString(index), StandardCharsets.UTF_8);
+			try {
+				Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (Exception e) {
+			LOG.warn("Can't store Backend-API index: '" + indexFile + "'.", e);
+		}
+	}
+}
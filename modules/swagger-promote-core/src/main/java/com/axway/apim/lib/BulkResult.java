@@ -0,0 +1,82 @@
+package com.axway.apim.lib;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Result of executing the same action for a number of items (e.g. subscribing applications to an API)
+ * using {@link ParallelExecutor#executeEach(List, ParallelExecutor.ItemTask)}.<br>
+ * When executed in parallel, all items are executed, even if some of them are failing. Otherwise the 
+ * execution stops at the first failing item. The result tells precisely which items succeeded, why the 
+ * others failed and which haven't been executed.
+ */
+public class BulkResult<T> {
+
+	private static Logger LOG = LoggerFactory.getLogger(BulkResult.class);
+
+	private List<T> succeeded = new ArrayList<T>();
+
+	private Map<T, Exception> failed = new LinkedHashMap<T, Exception>();
+
+	private List<T> notExecuted = new ArrayList<T>();
+
+	void addSucceeded(T item) {
+		succeeded.add(item);
+	}
+
+	void addFailed(T item, Exception e) {
+		failed.put(item, e);
+	}
+
+	void addNotExecuted(T item) {
+		notExecuted.add(item);
+	}
+
+	/**
+	 * @return the items executed successfully in the order they were given
+	 */
+	public List<T> getSucceeded() {
+		return Collections.unmodifiableList(succeeded);
+	}
+
+	/**
+	 * @return the failed items in the order they were given, with the error of each item
+	 */
+	public Map<T, Exception> getFailed() {
+		return Collections.unmodifiableMap(failed);
+	}
+
+	/**
+	 * @return the items not executed, as the execution stopped at the first failing item
+	 */
+	public List<T> getNotExecuted() {
+		return Collections.unmodifiableList(notExecuted);
+	}
+
+	public boolean hasFailures() {
+		return !failed.isEmpty();
+	}
+
+	/**
+	 * Logs the error of each failed item and throws an AppException naming all failed items.
+	 * @param action description of the executed action used for the messages (e.g. Create API-Access for application)
+	 * @param errorCode used for the AppException
+	 * @throws AppException if at least one item failed
+	 */
+	public void throwOnFailure(String action, ErrorCode errorCode) throws AppException {
+		if(!hasFailures()) return;
+		for(Map.Entry<T, Exception> failure : failed.entrySet()) {
+			LOG.error(action + " failed for: '" + failure.getKey() + "'", failure.getValue());
+		}
+		int total = succeeded.size() + failed.size() + notExecuted.size();
+		Exception firstError = failed.values().iterator().next();
+		throw new AppException(action + " failed for " + failed.size() + " of " + total + ": " + failed.keySet() + 
+				(notExecuted.isEmpty() ? "" : ", not executed for: " + notExecuted), errorCode, firstError);
+	}
+}
@@ -14,7 +14,10 @@ public class CommandParameters {
 	public static String MODE_IGNORE	= "ignore";
 	public static String MODE_ADD		= "add";
 	
-	private static CommandParameters instance;
+	public static String COMPARE_NORMALIZED	= "normalized";
+	public static String COMPARE_BYTES		= "bytes";
+	
+	private static volatile CommandParameters instance;
 	
 	int port = 8075;
 	
@@ -36,8 +39,14 @@ public class CommandParameters {
 		CommandParameters.instance = this;
 	}
 	
-	public static synchronized CommandParameters getInstance() {
+	/**
+	 * @return the parameters of the promotion bound to the current thread or, if it has been created 
+	 * without, the parameters the tool has been started with
+	 */
+	public static CommandParameters getInstance() {
 		if(TestIndicator.getInstance().isTestRunning()) return null; // Skip this, if executed as a test
+		CommandParameters params = PromotionContext.getBoundParams();
+		if(params!=null) return params;
 		if (CommandParameters.instance == null) {
 			LOG.error("CommandParameters has not been initialized.");
 			throw new RuntimeException("CommandParameters has not been initialized.");
@@ -129,6 +138,127 @@ public class CommandParameters {
 		return Boolean.parseBoolean(getValue("replaceHostInSwagger"));
 	}
 	
+	public int getLoadParallelism() {
+		if(getValue("loadParallelism")==null) return 1;
+		int parallelism = Integer.parseInt(getValue("loadParallelism"));
+		return (parallelism < 1) ? 1 : parallelism;
+	}
+	
+	public int getTaskParallelism() {
+		if(getValue("taskParallelism")==null) return 1;
+		int parallelism = Integer.parseInt(getValue("taskParallelism"));
+		return (parallelism < 1) ? 1 : parallelism;
+	}
+	
+	public int getAccessParallelism() {
+		if(getValue("accessParallelism")==null) return 1;
+		int parallelism = Integer.parseInt(getValue("accessParallelism"));
+		return (parallelism < 1) ? 1 : parallelism;
+	}
+	
+	public int getMaxConnections() {
+		if(getValue("maxConnections")==null) return Math.max(5, getMaxConnectionsPerRoute());
+		return Integer.parseInt(getValue("maxConnections"));
+	}
+	
+	public int getMaxConnectionsPerRoute() {
+		if(getValue("maxConnectionsPerRoute")==null) return Math.max(2, Math.max(getLoadParallelism(), Math.max(getTaskParallelism(), getAccessParallelism())));
+		return Integer.parseInt(getValue("maxConnectionsPerRoute"));
+	}
+	
+	public int getKeepAliveTimeout() {
+		if(getValue("keepAliveTimeout")==null) return 30;
+		return Integer.parseInt(getValue("keepAliveTimeout"));
+	}
+	
+	public int getIdleConnectionTimeout() {
+		if(getValue("idleConnectionTimeout")==null) return 60;
+		return Integer.parseInt(getValue("idleConnectionTimeout"));
+	}
+	
+	public int getValidateAfterInactivity() {
+		if(getValue("validateAfterInactivity")==null) return 2000;
+		return Integer.parseInt(getValue("validateAfterInactivity"));
+	}
+	
+	public int getConnectTimeout() {
+		if(getValue("connectTimeout")==null) return 10000;
+		return Integer.parseInt(getValue("connectTimeout"));
+	}
+	
+	public int getConnectionRequestTimeout() {
+		if(getValue("connectionRequestTimeout")==null) return 30000;
+		return Integer.parseInt(getValue("connectionRequestTimeout"));
+	}
+	
+	public int getSocketTimeout() {
+		if(getValue("socketTimeout")==null) return 120000;
+		return Integer.parseInt(getValue("socketTimeout"));
+	}
+	
+	public int getPromotionTimeout() {
+		if(getValue("promotionTimeout")==null) return 0;
+		return Integer.parseInt(getValue("promotionTimeout"));
+	}
+	
+	public int getRetries() {
+		if(getValue("retries")==null) return 2;
+		return Integer.parseInt(getValue("retries"));
+	}
+	
+	public int getRetryDelay() {
+		if(getValue("retryDelay")==null) return 500;
+		return Integer.parseInt(getValue("retryDelay"));
+	}
+	
+	public int getRetryMaxDelay() {
+		if(getValue("retryMaxDelay")==null) return 10000;
+		return Integer.parseInt(getValue("retryMaxDelay"));
+	}
+	
+	public boolean isRetryPut() {
+		if(getValue("retryPut")==null) return false;
+		return Boolean.parseBoolean(getValue("retryPut"));
+	}
+	
+	public int getBatchWorkers() {
+		if(getValue("batchWorkers")==null) return 1;
+		return Integer.parseInt(getValue("batchWorkers"));
+	}
+	
+	public String getCacheDir() {
+		return getValue("cacheDir");
+	}
+	
+	public int getCacheTTL() {
+		if(getValue("cacheTTL")==null) return 600;
+		return Integer.parseInt(getValue("cacheTTL"));
+	}
+	
+	public String getStateDir() {
+		return getValue("stateDir");
+	}
+	
+	public int getRevalidationTTL() {
+		if(getValue("revalidationTTL")==null) return 60;
+		return Integer.parseInt(getValue("revalidationTTL"));
+	}
+	
+	public boolean isResponseCache() {
+		if(getValue("responseCache")==null) return true;
+		return Boolean.parseBoolean(getValue("responseCache"));
+	}
+	
+	public boolean isReuseBackendAPI() {
+		if(getValue("reuseBackendAPI")==null) return false;
+		return Boolean.parseBoolean(getValue("reuseBackendAPI"));
+	}
+	
+	public String getAPIDefinitionCompareMode() {
+		if(getValue("apiDefinitionCompareMode")==null) return COMPARE_NORMALIZED;
+		return getValue("apiDefinitionCompareMode").toLowerCase();
+	}
+	
 	public boolean rollback() {
 		if(getValue("rollback")==null) return true;
 		return Boolean.parseBoolean(getValue("rollback"));
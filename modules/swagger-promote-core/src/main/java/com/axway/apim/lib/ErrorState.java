@@ -5,9 +5,11 @@ import java.util.List;
 
 import org.slf4j.Logger;
 
+/**
+ * Collects the errors of a promotion. The instance is owned by the current PromotionContext, as 
+ * multiple APIs might be promoted in parallel.
+ */
 public class ErrorState {
-	private static ErrorState instance = null;
-	
 	private List<ErrorCode> errorCodes = new ArrayList<ErrorCode>();
 	
 	private List<String[]> errorMessages = new ArrayList<String[]>();
@@ -16,18 +18,15 @@ public class ErrorState {
 	
 	boolean hasError = false;
 	
-	public static synchronized ErrorState getInstance () {
-		if (ErrorState.instance == null) {
-			ErrorState.instance = new ErrorState ();
-		}
-		return ErrorState.instance;
+	public static ErrorState getInstance () {
+		return PromotionContext.getCurrent().getErrorState();
 	}
 	
-	public static synchronized void deleteInstance () {
-		ErrorState.instance = null;
+	public static void deleteInstance () {
+		PromotionContext.getCurrent().setErrorState(null);
 	}
 
-	private ErrorState() {
+	ErrorState() {
 		super();
 	}
 
@@ -43,14 +42,14 @@ public class ErrorState {
 		setError(errorMessage, errorCode, true);
 	}
 
-	public void setError(String errorMessage, ErrorCode errorCode, boolean logStackTrace) {
+	public synchronized void setError(String errorMessage, ErrorCode errorCode, boolean logStackTrace) {
 		this.errorMessages.add(new String[] {errorMessage, "ERROR"});
 		this.errorCodes.add(errorCode);
 		this.logStackTraces.add(new Boolean(logStackTrace));
 		this.hasError = true;
 	}
 	
-	public void setWarning(String warnMessage, ErrorCode errorCode, boolean logStackTrace) {
+	public synchronized void setWarning(String warnMessage, ErrorCode errorCode, boolean logStackTrace) {
 		this.errorMessages.add(new String[] {warnMessage, "WARN"});
 		this.errorCodes.add(errorCode);
 		this.logStackTraces.add(new Boolean(logStackTrace));
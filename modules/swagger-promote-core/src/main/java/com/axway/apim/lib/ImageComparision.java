@@ -1,8 +1,17 @@
 package com.axway.apim.lib;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.imageio.ImageIO;
 
@@ -12,66 +21,229 @@ import org.slf4j.LoggerFactory;
 // Thanks to GeeksForGeeks sharing this library
 // https://www.geeksforgeeks.org/image-processing-java-set-14-comparison-two-images/
 
-public class ImageComparision 
-{ 
+/**
+ * Compares two images and considers them the same, if the average difference of all color components
+ * is not more than 3%. This is required, as the API-Manager processes (re-encodes) the image.<br>
+ * To avoid decoding and walking through all pixels with each comparison:
+ * <ul>
+ * <li>Pixels are read from the raster directly instead of using BufferedImage.getRGB per pixel</li>
+ * <li>The pixel walk stops, as soon as the difference exceeds 3%</li>
+ * <li>Per image digest a signature (dimension and color sums of 8x8 blocks) is cached. As the difference
+ * of the block sums is a lower bound for the difference of all pixels, clearly different images are
+ * detected without decoding them again.</li>
+ * <li>The result per pair of images is cached</li>
+ * </ul>
+ */
+public class ImageComparision
+{
 	private static Logger LOG = LoggerFactory.getLogger(ImageComparision.class);
-	
-	public static boolean compare(byte[] image1, byte[] image2) { 
-		BufferedImage firstImage = null; 
-		BufferedImage secondImage = null; 
+
+	private static final int MAX_DIFFERENCE_PERCENTAGE = 3;
+
+	private static final int BLOCKS = 8;
+
+	private static final int MAX_CACHED_ENTRIES = 64;
+
+	private static Map<String, ImageSignature> signatures = createCache();
+
+	private static Map<String, Boolean> results = createCache();
+
+	public static boolean compare(byte[] image1, byte[] image2) {
+		if(Arrays.equals(image1, image2)) return true;
+		String digest1 = new StateDigest().add("image", image1).getDigest();
+		String digest2 = new StateDigest().add("image", image2).getDigest();
+		String resultKey = (digest1.compareTo(digest2)<0) ? digest1 + ":" + digest2 : digest2 + ":" + digest1;
+		Boolean result = getCached(results, resultKey);
+		if(result!=null) {
+			LOG.debug("Using cached image comparison result: " + result);
+			return result;
+		}
+		result = isSameImage(image1, digest1, image2, digest2);
+		if(result!=null) {
+			putCached(results, resultKey, result);
+			return result;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes all cached image signatures and comparison results
+	 */
+	public static void clearCache() {
+		synchronized (signatures) {
+			signatures.clear();
+		}
+		synchronized (results) {
+			results.clear();
+		}
+	}
+
+	private static Boolean isSameImage(byte[] image1, String digest1, byte[] image2, String digest2) {
+		ImageSignature firstSignature = getCached(signatures, digest1);
+		ImageSignature secondSignature = getCached(signatures, digest2);
+		if(firstSignature!=null && secondSignature!=null && !firstSignature.mightBeSame(secondSignature)) {
+			LOG.debug("Images are different based on their cached signatures.");
+			return false;
+		}
+		BufferedImage firstImage = null;
+		BufferedImage secondImage = null;
 		try {
 			firstImage = ImageIO.read(new ByteArrayInputStream(image1));
 			secondImage = ImageIO.read(new ByteArrayInputStream(image2));
 		} catch (IOException e) {
 			LOG.error("Can't compare images. ", e);
-			return false;
+			return null;
 		}
-		int width1 = firstImage.getWidth(); 
-		int width2 = secondImage.getWidth(); 
-		int height1 = firstImage.getHeight(); 
-		int height2 = secondImage.getHeight(); 
-
-		if ((width1 != width2) || (height1 != height2)) {
+		if(firstImage==null || secondImage==null) {
+			LOG.error("Can't compare images. Image format is not supported.");
+			return null;
+		}
+		int width = firstImage.getWidth();
+		int height = firstImage.getHeight();
+		if ((width != secondImage.getWidth()) || (height != secondImage.getHeight())) {
 			LOG.debug("Images dimensations are different, not the same image. Return false");
 			return false;
-		} else { 
-			long difference = 0; 
-			for (int y = 0; y < height1; y++) 
-			{ 
-				for (int x = 0; x < width1; x++) 
-				{ 
-					int rgbA = firstImage.getRGB(x, y); 
-					int rgbB = secondImage.getRGB(x, y); 
-					int redA = (rgbA >> 16) & 0xff; 
-					int greenA = (rgbA >> 8) & 0xff; 
-					int blueA = (rgbA) & 0xff; 
-					int redB = (rgbB >> 16) & 0xff; 
-					int greenB = (rgbB >> 8) & 0xff; 
-					int blueB = (rgbB) & 0xff; 
-					difference += Math.abs(redA - redB); 
-					difference += Math.abs(greenA - greenB); 
-					difference += Math.abs(blueA - blueB); 
-				} 
-			} 
-
-			// Total number of red pixels = width * height 
-			// Total number of blue pixels = width * height 
-			// Total number of green pixels = width * height 
-			// So total number of pixels = width * height * 3 
-			double total_pixels = width1 * height1 * 3; 
-
-			// Normalizing the value of different pixels 
-			// for accuracy(average pixels per color 
-			// component) 
-			double avg_different_pixels = difference / total_pixels; 
-
-			// There are 255 values of pixels in total 
-			double percentage = (avg_different_pixels / 255) * 100;
-			
-			if(percentage>3) {
+		}
+		int[] firstPixels = getRGBPixels(firstImage);
+		int[] secondPixels = getRGBPixels(secondImage);
+		if(firstSignature==null) {
+			firstSignature = new ImageSignature(width, height, firstPixels);
+			putCached(signatures, digest1, firstSignature);
+		}
+		if(secondSignature==null) {
+			secondSignature = new ImageSignature(width, height, secondPixels);
+			putCached(signatures, digest2, secondSignature);
+		}
+		if(!firstSignature.mightBeSame(secondSignature)) {
+			LOG.debug("Images are different based on their signatures.");
+			return false;
+		}
+		long difference = 0;
+		for (int y = 0; y < height; y++)
+		{
+			int offset = y * width;
+			for (int x = 0; x < width; x++)
+			{
+				int rgbA = firstPixels[offset + x];
+				int rgbB = secondPixels[offset + x];
+				difference += Math.abs(((rgbA >> 16) & 0xff) - ((rgbB >> 16) & 0xff));
+				difference += Math.abs(((rgbA >> 8) & 0xff) - ((rgbB >> 8) & 0xff));
+				difference += Math.abs((rgbA & 0xff) - (rgbB & 0xff));
+			}
+			// The difference can only grow, hence stop once the threshold is exceeded
+			if(isAboveThreshold(difference, width, height)) {
+				LOG.debug("Images are different, stopped comparison at row: " + y + " of " + height);
 				return false;
-			} 
-			return true; 
-		} 
-	} 
-} 
+			}
+		}
+		return true;
+	}
+
+	private static boolean isAboveThreshold(long difference, int width, int height) {
+		// Total number of red pixels = width * height
+		// Total number of blue pixels = width * height
+		// Total number of green pixels = width * height
+		// So total number of pixels = width * height * 3
+		double total_pixels = width * height * 3;
+
+		// Normalizing the value of different pixels
+		// for accuracy(average pixels per color
+		// component)
+		double avg_different_pixels = difference / total_pixels;
+
+		// There are 255 values of pixels in total
+		double percentage = (avg_different_pixels / 255) * 100;
+		return percentage>MAX_DIFFERENCE_PERCENTAGE;
+	}
+
+	/**
+	 * @return the pixels of the image as packed RGB values (same as returned by BufferedImage.getRGB)
+	 */
+	private static int[] getRGBPixels(BufferedImage image) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		DataBuffer buffer = image.getRaster().getDataBuffer();
+		SampleModel model = image.getRaster().getSampleModel();
+		boolean standardLayout = image.getRaster().getParent()==null && buffer.getNumBanks()==1 && buffer.getOffset()==0;
+		if(standardLayout && (image.getType()==BufferedImage.TYPE_INT_RGB || image.getType()==BufferedImage.TYPE_INT_ARGB)
+				&& model instanceof SinglePixelPackedSampleModel && ((SinglePixelPackedSampleModel)model).getScanlineStride()==width) {
+			// Pixels are stored as they are returned by getRGB (alpha is ignored for the comparison)
+			return ((DataBufferInt)buffer).getData();
+		}
+		if(standardLayout && image.getType()==BufferedImage.TYPE_3BYTE_BGR
+				&& model instanceof PixelInterleavedSampleModel && ((PixelInterleavedSampleModel)model).getScanlineStride()==width*3) {
+			// Used for JPEG images
+			byte[] data = ((DataBufferByte)buffer).getData();
+			int[] pixels = new int[width * height];
+			for(int i=0, p=0; i<pixels.length; i++, p+=3) {
+				pixels[i] = ((data[p+2] & 0xff) << 16) | ((data[p+1] & 0xff) << 8) | (data[p] & 0xff);
+			}
+			return pixels;
+		}
+		// Other image types require a color conversion, read all pixels at once
+		return image.getRGB(0, 0, width, height, null, 0, width);
+	}
+
+	private static <V> Map<String, V> createCache() {
+		return new LinkedHashMap<String, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+				return size() > MAX_CACHED_ENTRIES;
+			}
+		};
+	}
+
+	private static <V> V getCached(Map<String, V> cache, String key) {
+		synchronized (cache) {
+			return cache.get(key);
+		}
+	}
+
+	private static <V> void putCached(Map<String, V> cache, String key, V value) {
+		synchronized (cache) {
+			cache.put(key, value);
+		}
+	}
+
+	/**
+	 * Perceptual signature of an image: its dimension and the sum of each color component per block
+	 * of an 8x8 grid.
+	 */
+	private static class ImageSignature {
+
+		private int width;
+
+		private int height;
+
+		private long[] blockSums = new long[BLOCKS * BLOCKS * 3];
+
+		ImageSignature(int width, int height, int[] pixels) {
+			this.width = width;
+			this.height = height;
+			for (int y = 0; y < height; y++) {
+				int blockRow = (int)((long)y * BLOCKS / height) * BLOCKS;
+				for (int x = 0; x < width; x++) {
+					int block = (blockRow + (int)((long)x * BLOCKS / width)) * 3;
+					int rgb = pixels[y * width + x];
+					blockSums[block] += (rgb >> 16) & 0xff;
+					blockSums[block+1] += (rgb >> 8) & 0xff;
+					blockSums[block+2] += rgb & 0xff;
+				}
+			}
+		}
+
+		/**
+		 * @return false, if the images are different for sure. The sum of the pixel differences within a
+		 * block is at least the difference of the block sums.
+		 */
+		boolean mightBeSame(ImageSignature other) {
+			if(width!=other.width || height!=other.height) return false;
+			long lowerBound = 0;
+			for(int i=0; i<blockSums.length; i++) {
+				lowerBound += Math.abs(blockSums[i] - other.blockSums[i]);
+			}
+			return !isAboveThreshold(lowerBound, width, height);
+		}
+	}
+}
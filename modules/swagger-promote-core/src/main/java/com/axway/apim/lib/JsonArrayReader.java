@@ -0,0 +1,129 @@
+package com.axway.apim.lib;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.http.conn.ConnectionReleaseTrigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Reads a JSON-Array returned by the API-Manager (e.g. /proxies, /applications or /organizations) element
+ * by element straight from the response stream, instead of loading the complete response into memory first.<br>
+ * Elements can be projected to the fields actually used, all other fields are skipped by the parser.
+ * A handler may stop reading early (e.g. when the API looked for is found), in which case the connection
+ * is aborted instead of reading the remaining response.
+ */
+public class JsonArrayReader {
+
+	private static Logger LOG = LoggerFactory.getLogger(JsonArrayReader.class);
+
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	public interface ElementHandler {
+		/**
+		 * @param element the next element of the array, projected to the requested fields
+		 * @return true to continue reading, false to stop
+		 * @throws IOException if the element can't be handled
+		 */
+		public boolean handle(JsonNode element) throws IOException;
+	}
+
+	/**
+	 * @param type the model class an element is mapped to
+	 * @return the names of all JSON-Properties the given model class declares, to be used as projection
+	 */
+	public static Set<String> getProperties(Class<?> type) {
+		Set<String> properties = new HashSet<String>();
+		for(BeanPropertyDefinition property : mapper.getDeserializationConfig().introspect(mapper.constructType(type)).findProperties()) {
+			properties.add(property.getName());
+		}
+		return properties;
+	}
+
+	/**
+	 * Reads the complete array, but keeps only the given fields of each element.
+	 * @param in stream containing the JSON-Array
+	 * @param fields to keep of each element, null to keep all fields
+	 * @return the projected array
+	 * @throws IOException if the stream can't be read or doesn't contain a JSON-Array
+	 */
+	public static ArrayNode read(InputStream in, Set<String> fields) throws IOException {
+		final ArrayNode result = mapper.createArrayNode();
+		read(in, fields, new ElementHandler() {
+			@Override
+			public boolean handle(JsonNode element) {
+				result.add(element);
+				return true;
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Passes each object of the array to the given handler, until the handler stops reading. The stream is closed afterwards.
+	 * @param in stream containing the JSON-Array
+	 * @param fields to keep of each element, null to keep all fields
+	 * @param handler called for each element
+	 * @return true, if the handler stopped reading before the end of the array
+	 * @throws IOException if the stream can't be read or doesn't contain a JSON-Array
+	 */
+	public static boolean read(InputStream in, Set<String> fields, ElementHandler handler) throws IOException {
+		boolean stopped = false;
+		JsonParser parser = mapper.getFactory().createParser(in);
+		try {
+			JsonToken token = parser.nextToken();
+			if(token==null) return false; // Empty response
+			if(token!=JsonToken.START_ARRAY) throw new IOException("Expected a JSON-Array, but got: " + token);
+			while((token = parser.nextToken())!=JsonToken.END_ARRAY) {
+				if(token==null) throw new IOException("Unexpected end of JSON-Array.");
+				if(token!=JsonToken.START_OBJECT) {
+					parser.skipChildren(); // Only objects are expected
+					continue;
+				}
+				JsonNode element = (fields==null) ? readValue(parser) : readObject(parser, fields);
+				if(!handler.handle(element)) {
+					stopped = true;
+					break;
+				}
+			}
+			return stopped;
+		} finally {
+			if(stopped && in instanceof ConnectionReleaseTrigger) {
+				LOG.trace("Aborting connection, as remaining response is not needed.");
+				((ConnectionReleaseTrigger)in).abortConnection();
+			}
+			parser.close();
+		}
+	}
+
+	private static ObjectNode readObject(JsonParser parser, Set<String> fields) throws IOException {
+		ObjectNode node = mapper.createObjectNode();
+		while(parser.nextToken()==JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			parser.nextToken();
+			if(fields.contains(name)) {
+				node.set(name, readValue(parser));
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return node;
+	}
+
+	private static JsonNode readValue(JsonParser parser) throws IOException {
+		JsonNode value = mapper.readTree(parser);
+		return (value==null) ? NullNode.getInstance() : value;
+	}
+}
@@ -0,0 +1,266 @@
+package com.axway.apim.lib;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Optional on-disk cache for slowly changing API-Manager metadata (organizations, applications, API-Methods, ...)
+ * used to avoid reloading the complete catalog with every run of the tool. The actual state of an API the changes 
+ * are based on (API-Access, subscriptions) must not be cached, as it might be changed in the API-Manager at any time.<br>
+ * Entries are stored per API-Manager host in the configured cacheDir and expire after the configured cacheTTL.
+ * An entry might be based on another entry, in that case it's only valid as long as the fingerprint of 
+ * the entry it's based on hasn't changed.<br>
+ * Entries must be invalidated, when the tool itself changes them in the API-Manager.<br>
+ * Large, rarely changing responses (e.g. the list of organizations or API-Definitions) are stored together with 
+ * their validators (ETag, Last-Modified) and revalidated using a conditional request instead of downloading them again. 
+ * If the server sends no validators, the entry is identified by the hash of its content and used for revalidationTTL seconds.<br>
+ * If no cacheDir is configured, the cache is disabled and never returns an entry.
+ */
+public class MetadataCache {
+
+	private static Logger LOG = LoggerFactory.getLogger(MetadataCache.class);
+
+	private static MetadataCache instance;
+
+	private File cacheDir;
+
+	private long ttlMillis;
+
+	private long revalidationTTLMillis;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private MetadataCache(File cacheDir, long ttlMillis, long revalidationTTLMillis) {
+		this.cacheDir = cacheDir;
+		this.ttlMillis = ttlMillis;
+		this.revalidationTTLMillis = revalidationTTLMillis;
+	}
+
+	public static synchronized MetadataCache getInstance() {
+		if (MetadataCache.instance == null) {
+			CommandParameters params = CommandParameters.getInstance();
+			File cacheDir = null;
+			if(params!=null && params.getCacheDir()!=null) {
+				cacheDir = new File(params.getCacheDir(), (params.getHostname()+"_"+params.getPort()).replaceAll("[^A-Za-z0-9._-]", "_"));
+				if(!cacheDir.exists() && !cacheDir.mkdirs()) {
+					LOG.warn("Can't create cache directory: '" + cacheDir + "'. Cache is disabled.");
+					cacheDir = null;
+				} else {
+					LOG.debug("Using metadata cache directory: '" + cacheDir + "'");
+				}
+			}
+			long ttlMillis = (params==null) ? 0 : params.getCacheTTL() * 1000L;
+			long revalidationTTLMillis = (params==null) ? 0 : params.getRevalidationTTL() * 1000L;
+			MetadataCache.instance = new MetadataCache(cacheDir, ttlMillis, revalidationTTLMillis);
+		}
+		return MetadataCache.instance;
+	}
+
+	public static synchronized void deleteInstance() {
+		MetadataCache.instance = null;
+	}
+
+	public boolean isEnabled() {
+		return cacheDir!=null;
+	}
+
+	public String get(String key) {
+		return get(key, null);
+	}
+
+	/**
+	 * @param key of the cache entry
+	 * @param basedOn fingerprint of the data the entry is based on or null
+	 * @return the cached data or null, if not found, expired or based on a different fingerprint
+	 */
+	public synchronized String get(String key, String basedOn) {
+		if(!isEnabled()) return null;
+		File entryFile = getEntryFile(key);
+		if(!entryFile.exists()) return null;
+		try {
+			JsonNode entry = mapper.readTree(entryFile);
+			if(System.currentTimeMillis() - entry.get("created").asLong() > ttlMillis) {
+				LOG.debug("Cache entry: '" + key + "' is expired.");
+				return null;
+			}
+			if(basedOn!=null && (entry.get("basedOn")==null || !basedOn.equals(entry.get("basedOn").asText()))) {
+				LOG.debug("Cache entry: '" + key + "' is outdated, as it's based on a different version.");
+				return null;
+			}
+			LOG.debug("Using cached entry: '" + key + "'");
+			return entry.get("data").asText();
+		} catch (Exception e) {
+			LOG.warn("Can't read cache entry: '" + key + "'. Ignoring it.", e);
+			return null;
+		}
+	}
+
+	public void put(String key, String data) {
+		put(key, data, null);
+	}
+
+	/**
+	 * @param key of the cache entry
+	 * @param data to cache
+	 * @param basedOn fingerprint of the data the entry is based on or null
+	 */
+	public synchronized void put(String key, String data, String basedOn) {
+		if(!isEnabled() || data==null) return;
+		File entryFile = getEntryFile(key);
+		try {
+			ObjectNode entry = mapper.createObjectNode();
+			entry.put("created", System.currentTimeMillis());
+			entry.put("basedOn", basedOn);
+			entry.put("data", data);
+			write(entryFile, mapper.writeValueAsString(entry));
+		} catch (Exception e) {
+			LOG.warn("Can't write cache entry: '" + key + "'.", e);
+		}
+	}
+
+	private void write(File entryFile, String entry) throws IOException {
+		// Write to a temp file first, as the same cache might be used by multiple processes
+		File tempFile = File.createTempFile(entryFile.getName(), ".tmp", cacheDir);
+		FileUtils.writeStringToFile(tempFile, entry, StandardCharsets.UTF_8);
+		try {
+			Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.move(tempFile.toPath(), entryFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * @param key of the validated entry
+	 * @return the entry including its validators or null, if not found. The entry must be revalidated before it's used.
+	 */
+	public synchronized ValidatedEntry getValidated(String key) {
+		if(!isEnabled()) return null;
+		File entryFile = getEntryFile(key);
+		if(!entryFile.exists()) return null;
+		try {
+			JsonNode entry = mapper.readTree(entryFile);
+			ValidatedEntry validated = new ValidatedEntry(entry.get("data").binaryValue(), 
+					entry.path("etag").asText(null), entry.path("lastModified").asText(null), entry.path("contentType").asText(null));
+			// A refreshed entry is only touched, see refreshValidated
+			validated.created = Math.max(entry.get("created").asLong(), entryFile.lastModified());
+			return validated;
+		} catch (Exception e) {
+			LOG.warn("Can't read cache entry: '" + key + "'. Ignoring it.", e);
+			return null;
+		}
+	}
+
+	/**
+	 * @param key of the validated entry
+	 * @param entry the content and validators as received from the server
+	 */
+	public synchronized void putValidated(String key, ValidatedEntry entry) {
+		if(!isEnabled() || entry==null) return;
+		ObjectNode node = mapper.createObjectNode();
+		node.put("created", entry.created);
+		node.put("etag", entry.etag);
+		node.put("lastModified", entry.lastModified);
+		node.put("contentType", entry.contentType);
+		node.put("hash", entry.getHash());
+		node.put("data", entry.data);
+		try {
+			write(getEntryFile(key), mapper.writeValueAsString(node));
+		} catch (Exception e) {
+			LOG.warn("Can't write cache entry: '" + key + "'.", e);
+		}
+	}
+
+	/**
+	 * Marks an entry without validators as fresh again for the revalidationTTL, as the downloaded content 
+	 * has the same hash. Only the modification time of the entry is updated instead of writing the content again.
+	 * @param key of the validated entry
+	 * @param entry the stored entry
+	 */
+	public synchronized void refreshValidated(String key, ValidatedEntry entry) {
+		if(!isEnabled() || entry==null) return;
+		entry.created = System.currentTimeMillis();
+		File entryFile = getEntryFile(key);
+		if(!entryFile.exists() || !entryFile.setLastModified(entry.created)) putValidated(key, entry);
+	}
+
+	/**
+	 * @param entry to check
+	 * @return true, if the entry has no validators and can be used without revalidation (revalidationTTL)
+	 */
+	public boolean isFresh(ValidatedEntry entry) {
+		return !entry.hasValidators() && System.currentTimeMillis() - entry.created <= revalidationTTLMillis;
+	}
+
+	public synchronized void invalidate(String key) {
+		if(!isEnabled()) return;
+		File entryFile = getEntryFile(key);
+		if(entryFile.exists()) {
+			LOG.debug("Invalidating cache entry: '" + key + "'");
+			if(!entryFile.delete()) LOG.warn("Can't delete cache entry: '" + entryFile + "'");
+		}
+	}
+
+	/**
+	 * Invalidates all entries having a key starting with the given prefix
+	 * @param keyPrefix of the entries to invalidate
+	 */
+	public synchronized void invalidateAll(String keyPrefix) {
+		if(!isEnabled()) return;
+		String filePrefix = toFileName(keyPrefix);
+		File[] entryFiles = cacheDir.listFiles();
+		if(entryFiles==null) return;
+		for(File entryFile : entryFiles) {
+			if(entryFile.getName().startsWith(filePrefix) && entryFile.getName().endsWith(".json")) {
+				LOG.debug("Invalidating cache entry: '" + entryFile.getName() + "'");
+				if(!entryFile.delete()) LOG.warn("Can't delete cache entry: '" + entryFile + "'");
+			}
+		}
+	}
+
+	/**
+	 * @param data to create a fingerprint for
+	 * @return a SHA-256 based fingerprint of the given data
+	 */
+	public static String fingerprint(String data) {
+		return fingerprint(data.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @param data to create a fingerprint for
+	 * @return a SHA-256 based fingerprint of the given data
+	 */
+	public static String fingerprint(byte[] data) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hash = digest.digest(data);
+			StringBuilder hex = new StringBuilder();
+			for(byte b : hash) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (Exception e) {
+			return String.valueOf(Arrays.hashCode(data));
+		}
+	}
+
+	private File getEntryFile(String key) {
+		return new File(cacheDir, toFileName(key) + ".json");
+	}
+
+	private static String toFileName(String key) {
+		return key.replaceAll("[^A-Za-z0-9._-]", "_");
+	}
+}
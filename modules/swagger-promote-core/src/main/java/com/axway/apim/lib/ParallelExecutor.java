@@ -0,0 +1,158 @@
+package com.axway.apim.lib;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Helper to execute independent requests against the API-Manager using a bounded number of threads.
+ * With a parallelism of 1 all tasks are executed directly in the calling thread at the time they are
+ * submitted, which is exactly the same behavior as calling them one after another.
+ * Exceptions thrown by a task are returned to the caller when calling get(), AppExceptions are
+ * passed through as they are.
+ */
+public class ParallelExecutor {
+
+	private static Logger LOG = LoggerFactory.getLogger(ParallelExecutor.class);
+
+	private ExecutorService executor;
+
+	private int parallelism;
+
+	public ParallelExecutor(int parallelism, final String name) {
+		super();
+		this.parallelism = (parallelism < 1) ? 1 : parallelism;
+		if(this.parallelism > 1) {
+			LOG.debug("Using up to " + this.parallelism + " parallel threads for: " + name);
+			this.executor = Executors.newFixedThreadPool(this.parallelism, new ThreadFactory() {
+				private AtomicInteger threadNumber = new AtomicInteger(1);
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, name + "-" + threadNumber.getAndIncrement());
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Submits the given task, which is executed within the PromotionContext of the caller.
+	 * @param task to be executed
+	 * @return the future of the task
+	 */
+	public <T> Future<T> submit(Callable<T> task) {
+		task = PromotionContext.getCurrent().bind(task);
+		if(executor == null) {
+			FutureTask<T> future = new FutureTask<T>(task);
+			future.run();
+			return future;
+		}
+		return executor.submit(task);
+	}
+
+	/**
+	 * Submits all given tasks and waits until all of them are completed.
+	 * @param tasks to be executed
+	 * @return the result of each task in the same order as the given tasks
+	 * @throws AppException the first exception of a failed task (in order of the given tasks)
+	 */
+	public <T> List<T> invokeAll(List<Callable<T>> tasks) throws AppException {
+		List<Future<T>> futures = new ArrayList<Future<T>>();
+		for(Callable<T> task : tasks) {
+			futures.add(submit(task));
+		}
+		List<T> results = new ArrayList<T>();
+		for(Future<T> future : futures) {
+			results.add(get(future));
+		}
+		return results;
+	}
+
+	/**
+	 * An action executed for each item by executeEach.
+	 */
+	public interface ItemTask<T> {
+		public void execute(T item) throws AppException;
+	}
+
+	/**
+	 * Executes the given task for all items and waits until all of them are completed. Other than invokeAll, 
+	 * failing items don't stop the execution of the remaining items.<br>
+	 * With a parallelism of 1 the items are executed one after the other and the execution stops at the first 
+	 * failing item, as without parallel execution. The remaining items are returned as not executed.
+	 * @param items to execute the task for
+	 * @param task to be executed for each item
+	 * @return the result per item
+	 */
+	public <T> BulkResult<T> executeEach(List<T> items, final ItemTask<T> task) {
+		BulkResult<T> result = new BulkResult<T>();
+		List<Future<Void>> futures = new ArrayList<Future<Void>>();
+		for(final T item : items) {
+			futures.add(submit(new Callable<Void>() {
+				@Override
+				public Void call() throws AppException {
+					task.execute(item);
+					return null;
+				}
+			}));
+			if(executor == null) {
+				// Executed already, hence stop at the first failure
+				try {
+					get(futures.get(futures.size()-1));
+				} catch (AppException e) {
+					break;
+				}
+			}
+		}
+		for(int i=0; i<items.size(); i++) {
+			if(i >= futures.size()) {
+				result.addNotExecuted(items.get(i));
+				continue;
+			}
+			try {
+				get(futures.get(i));
+				result.addSucceeded(items.get(i));
+			} catch (AppException e) {
+				result.addFailed(items.get(i), e);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Waits for the given future to complete and returns its result.
+	 * @param future returned by submit
+	 * @return the result of the task
+	 * @throws AppException if the task failed. An AppException thrown by the task is re-thrown unchanged.
+	 */
+	public static <T> T get(Future<T> future) throws AppException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof AppException) throw (AppException)e.getCause();
+			throw new AppException("Error executing parallel task.", ErrorCode.UNXPECTED_ERROR, e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new AppException("Interrupted while waiting for parallel task.", ErrorCode.UNXPECTED_ERROR, e);
+		}
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	public void shutdown() {
+		if(executor != null) executor.shutdownNow();
+	}
+}
@@ -0,0 +1,167 @@
+package com.axway.apim.lib;
+
+import java.util.concurrent.Callable;
+
+import com.axway.apim.actions.rest.PromotionDeadline;
+import com.axway.apim.actions.rest.Transaction;
+import com.axway.apim.lib.rollback.RollbackHandler;
+
+/**
+ * Owns the state of a single promotion: the Transaction, ErrorState, RollbackHandler, APIPropertiesExport
+ * and the PromotionDeadline, plus the CommandParameters the promotion is running with.<br>
+ * Tasks, REST-API calls and rollback actions capture the context they are created in, hence multiple
+ * promotions can run concurrently in one JVM (e.g. in batch mode).<br>
+ * The current context is bound to the thread and passed to tasks executed by the ParallelExecutor.
+ * Transaction.getInstance(), ErrorState.getInstance(), CommandParameters.getInstance(), etc. return the 
+ * objects of the current context.<br>
+ * Intentionally shared by all promotions against the same API-Manager and therefore synchronized: the 
+ * APIManagerAdapter with its session, catalogs and default quotas, the APIMHttpClient and the caches.
+ */
+public class PromotionContext {
+
+	private static InheritableThreadLocal<PromotionContext> current = new InheritableThreadLocal<PromotionContext>();
+
+	private CommandParameters params;
+
+	private Transaction transaction;
+
+	private ErrorState errorState;
+
+	private RollbackHandler rollbackHandler;
+
+	private APIPropertiesExport propertiesExport;
+
+	private PromotionDeadline deadline;
+
+	public PromotionContext() {
+		this(null);
+	}
+
+	/**
+	 * @param params the promotion is running with
+	 */
+	public PromotionContext(CommandParameters params) {
+		super();
+		this.params = params;
+	}
+
+	/**
+	 * @return the context bound to the current thread. If none is bound yet, a new context is created.
+	 */
+	public static PromotionContext getCurrent() {
+		PromotionContext context = current.get();
+		if(context==null) {
+			context = new PromotionContext();
+			current.set(context);
+		}
+		return context;
+	}
+
+	public static void setCurrent(PromotionContext context) {
+		current.set(context);
+	}
+
+	public static void clearCurrent() {
+		current.remove();
+	}
+
+	/**
+	 * Creates a context for a task running concurrently to other tasks of the same promotion. It shares 
+	 * the ErrorState, RollbackHandler, APIPropertiesExport and deadline with this context, but works on a copy 
+	 * of the Transaction, as tasks are using it to pass information between their requests.
+	 * @return the context for the concurrent task
+	 */
+	public synchronized PromotionContext fork() {
+		PromotionContext fork = new PromotionContext(params);
+		fork.transaction = getTransaction().copy();
+		fork.errorState = getErrorState();
+		fork.rollbackHandler = getRollbackHandler();
+		fork.propertiesExport = getPropertiesExport();
+		fork.deadline = deadline;
+		return fork;
+	}
+
+	/**
+	 * Wraps the given task, so that it's executed with this context bound, no matter which thread executes it.
+	 * @param task to be executed within this context
+	 * @return the wrapped task
+	 */
+	public <T> Callable<T> bind(final Callable<T> task) {
+		final PromotionContext context = this;
+		return new Callable<T>() {
+			@Override
+			public T call() throws Exception {
+				PromotionContext previous = current.get();
+				current.set(context);
+				try {
+					return task.call();
+				} finally {
+					current.set(previous);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @return the parameters of the context bound to the current thread or null, if it was created without
+	 */
+	static CommandParameters getBoundParams() {
+		PromotionContext context = current.get();
+		return (context==null) ? null : context.params;
+	}
+
+	/**
+	 * @return the parameters of this promotion or the current CommandParameters, if the context was created without
+	 */
+	public CommandParameters getParams() {
+		if(params==null) return CommandParameters.getInstance();
+		return params;
+	}
+
+	public synchronized Transaction getTransaction() {
+		if(transaction==null) transaction = new Transaction();
+		return transaction;
+	}
+
+	public synchronized void setTransaction(Transaction transaction) {
+		this.transaction = transaction;
+	}
+
+	public synchronized ErrorState getErrorState() {
+		if(errorState==null) errorState = new ErrorState();
+		return errorState;
+	}
+
+	public synchronized void setErrorState(ErrorState errorState) {
+		this.errorState = errorState;
+	}
+
+	public synchronized RollbackHandler getRollbackHandler() {
+		if(rollbackHandler==null) rollbackHandler = new RollbackHandler(this);
+		return rollbackHandler;
+	}
+
+	public synchronized void setRollbackHandler(RollbackHandler rollbackHandler) {
+		this.rollbackHandler = rollbackHandler;
+	}
+
+	public synchronized APIPropertiesExport getPropertiesExport() {
+		if(propertiesExport==null) propertiesExport = new APIPropertiesExport();
+		return propertiesExport;
+	}
+
+	public synchronized void setPropertiesExport(APIPropertiesExport propertiesExport) {
+		this.propertiesExport = propertiesExport;
+	}
+
+	/**
+	 * @return the deadline of this promotion or null, if no deadline is configured
+	 */
+	public synchronized PromotionDeadline getDeadline() {
+		return deadline;
+	}
+
+	public synchronized void setDeadline(PromotionDeadline deadline) {
+		this.deadline = deadline;
+	}
+}
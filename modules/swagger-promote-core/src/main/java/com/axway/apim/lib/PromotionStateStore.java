@@ -0,0 +1,147 @@
+package com.axway.apim.lib;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Remembers per API-Path the digest of the desired state that has been promoted successfully, together with
+ * the digest of the API as returned by the API-Manager right after the promotion.<br>
+ * If both digests are unchanged with the next run, the API-Manager still reflects the desired state and the
+ * expensive load of the actual API (API-Definition, image, quotas, ...) can be skipped. Changes made directly
+ * in the API-Manager to the API-Proxy are detected, as the API is returned differently.<br>
+ * Limitation: Changes made in the API-Manager only to the organizations granted access to the API, to the 
+ * applications subscribed to it or to its quotas are not detected, as they are not part of the API-Proxy. 
+ * They are not reverted, until the desired state or the API-Proxy changes. Hence the store must be enabled 
+ * explicitly using the parameter: stateDir
+ */
+public class PromotionStateStore {
+
+	private static Logger LOG = LoggerFactory.getLogger(PromotionStateStore.class);
+
+	private static PromotionStateStore instance;
+
+	private File stateDir;
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	private PromotionStateStore(File stateDir) {
+		this.stateDir = stateDir;
+	}
+
+	public static synchronized PromotionStateStore getInstance() {
+		if (PromotionStateStore.instance == null) {
+			CommandParameters params = CommandParameters.getInstance();
+			File stateDir = null;
+			if(params!=null && params.getStateDir()!=null) {
+				stateDir = new File(params.getStateDir(), (params.getHostname()+"_"+params.getPort()).replaceAll("[^A-Za-z0-9._-]", "_"));
+				if(!stateDir.exists() && !stateDir.mkdirs()) {
+					LOG.warn("Can't create state directory: '" + stateDir + "'. Skipping unchanged APIs is disabled.");
+					stateDir = null;
+				} else {
+					LOG.debug("Using state directory: '" + stateDir + "'");
+				}
+			}
+			PromotionStateStore.instance = new PromotionStateStore(stateDir);
+		}
+		return PromotionStateStore.instance;
+	}
+
+	public static synchronized void deleteInstance() {
+		PromotionStateStore.instance = null;
+	}
+
+	public boolean isEnabled() {
+		return stateDir!=null;
+	}
+	
+	/**
+	 * @return the state directory of the API-Manager or null, if not configured
+	 */
+	public File getStateDir() {
+		return stateDir;
+	}
+
+	/**
+	 * @param apiPath the path the API is exposed on
+	 * @param desiredState digest of the desired state
+	 * @param existingAPI the API as currently returned by the API-Manager or null, if not existing
+	 * @return true, if the given desired state has been promoted before and the API hasn't changed since
+	 */
+	public synchronized boolean isUnchanged(String apiPath, String desiredState, JsonNode existingAPI) {
+		if(!isEnabled() || desiredState==null || existingAPI==null) return false;
+		File stateFile = getStateFile(apiPath);
+		if(!stateFile.exists()) return false;
+		try {
+			JsonNode state = mapper.readTree(stateFile);
+			if(!desiredState.equals(state.path("desiredState").asText())) {
+				LOG.debug("Desired state of API: '" + apiPath + "' has changed since last promotion.");
+				return false;
+			}
+			if(!getAPIDigest(existingAPI).equals(state.path("actualState").asText())) {
+				LOG.debug("API: '" + apiPath + "' has been changed in the API-Manager since last promotion.");
+				return false;
+			}
+			return true;
+		} catch (Exception e) {
+			LOG.warn("Can't read state of API: '" + apiPath + "'. Ignoring it.", e);
+			return false;
+		}
+	}
+
+	/**
+	 * @param apiPath the path the API is exposed on
+	 * @param desiredState digest of the desired state, which has been promoted
+	 * @param existingAPI the API as returned by the API-Manager after the promotion
+	 */
+	public synchronized void store(String apiPath, String desiredState, JsonNode existingAPI) {
+		if(!isEnabled() || desiredState==null) return;
+		if(existingAPI==null) {
+			invalidate(apiPath);
+			return;
+		}
+		File stateFile = getStateFile(apiPath);
+		try {
+			ObjectNode state = mapper.createObjectNode();
+			state.put("path", apiPath);
+			state.put("apiId", existingAPI.path("id").asText());
+			state.put("promoted", System.currentTimeMillis());
+			state.put("desiredState", desiredState);
+			state.put("actualState", getAPIDigest(existingAPI));
+			// Write to a temp file first, as the same state directory might be used by multiple processes
+			File tempFile = File.createTempFile(stateFile.getName(), ".tmp", stateDir);
+			FileUtils.writeStringToFile(tempFile, mapper.writeValueAsString(state), StandardCharsets.UTF_8);
+			try {
+				Files.move(tempFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.move(tempFile.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (Exception e) {
+			LOG.warn("Can't store state of API: '" + apiPath + "'.", e);
+		}
+	}
+
+	public synchronized void invalidate(String apiPath) {
+		if(!isEnabled()) return;
+		File stateFile = getStateFile(apiPath);
+		if(stateFile.exists() && !stateFile.delete()) LOG.warn("Can't delete state file: '" + stateFile + "'");
+	}
+
+	private static String getAPIDigest(JsonNode existingAPI) {
+		return new StateDigest().add("api", existingAPI).getDigest();
+	}
+
+	private File getStateFile(String apiPath) {
+		return new File(stateDir, "api" + apiPath.replaceAll("[^A-Za-z0-9._-]", "_") + "_" + MetadataCache.fingerprint(apiPath).substring(0, 8) + ".json");
+	}
+}
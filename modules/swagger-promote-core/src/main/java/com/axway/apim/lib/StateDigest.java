@@ -0,0 +1,109 @@
+package com.axway.apim.lib;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Creates a SHA-256 digest over a number of named values (e.g. the API-Config, the API-Definition and the image).
+ * JSON values are added in a canonical form (object properties sorted by name), hence formatting and
+ * the order of properties don't change the digest.<br>
+ * The digest only covers the added values, e.g. the digest of a desired state doesn't change when access to 
+ * the API is granted or revoked in the API-Manager.
+ */
+public class StateDigest {
+
+	private static ObjectMapper mapper = new ObjectMapper();
+
+	private MessageDigest digest;
+
+	public StateDigest() {
+		super();
+		try {
+			this.digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not supported.", e);
+		}
+	}
+
+	public StateDigest add(String name, String value) {
+		return add(name, (value==null) ? null : value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public StateDigest add(String name, JsonNode value) {
+		return add(name, (value==null) ? null : toCanonicalString(value));
+	}
+
+	public StateDigest add(String name, byte[] value) {
+		// Values are prefixed with their name and length, so that adjacent values can't be confused
+		update(name.getBytes(StandardCharsets.UTF_8));
+		if(value==null) {
+			update(new byte[0]);
+			digest.update((byte)0);
+		} else {
+			update(value);
+			digest.update((byte)1);
+		}
+		return this;
+	}
+
+	/**
+	 * @return the hex encoded digest of all values added
+	 */
+	public String getDigest() {
+		StringBuilder hex = new StringBuilder();
+		for(byte b : digest.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * @param node the JSON to serialize
+	 * @return the JSON serialized with object properties sorted by name
+	 */
+	public static String toCanonicalString(JsonNode node) {
+		try {
+			return mapper.writeValueAsString(canonicalize(node));
+		} catch (Exception e) {
+			// Can't happen for a JsonNode, fall back to the default serialization
+			return node.toString();
+		}
+	}
+
+	private static JsonNode canonicalize(JsonNode node) {
+		if(node.isObject()) {
+			List<String> names = new ArrayList<String>();
+			Iterator<String> it = node.fieldNames();
+			while(it.hasNext()) names.add(it.next());
+			Collections.sort(names);
+			ObjectNode sorted = mapper.createObjectNode();
+			for(String name : names) {
+				sorted.set(name, canonicalize(node.get(name)));
+			}
+			return sorted;
+		} else if(node.isArray()) {
+			ArrayNode array = mapper.createArrayNode();
+			for(JsonNode element : node) {
+				array.add(canonicalize(element));
+			}
+			return array;
+		}
+		return node;
+	}
+
+	private void update(byte[] value) {
+		int length = value.length;
+		digest.update(new byte[] {(byte)(length >>> 24), (byte)(length >>> 16), (byte)(length >>> 8), (byte)length});
+		digest.update(value);
+	}
+}
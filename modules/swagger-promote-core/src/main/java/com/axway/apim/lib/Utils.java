@@ -2,6 +2,11 @@ package com.axway.apim.lib;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpEntity;
 
 public class Utils {
 	public static String getAPIDefinitionUriFromFile(String pathToAPIDefinition) throws AppException {
@@ -19,4 +24,26 @@ public class Utils {
 			} catch (Exception ignore) {}
 		}
 	}
+	
+	/**
+	 * Reads the entity as it is (without decoding it) into an array allocated once with the 
+	 * Content-Length, if known.
+	 * @param entity the entity to read
+	 * @return the content of the entity or null, if the entity is null
+	 * @throws IOException if the entity can't be read
+	 */
+	public static byte[] toByteArray(HttpEntity entity) throws IOException {
+		if(entity==null) return null;
+		InputStream is = entity.getContent();
+		if(is==null) return null;
+		try {
+			long length = entity.getContentLength();
+			if(length>=0 && length<Integer.MAX_VALUE) {
+				return IOUtils.toByteArray(is, length);
+			}
+			return IOUtils.toByteArray(is);
+		} finally {
+			is.close();
+		}
+	}
 }
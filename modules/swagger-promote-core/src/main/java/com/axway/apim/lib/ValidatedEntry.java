@@ -0,0 +1,94 @@
+package com.axway.apim.lib;
+
+import org.apache.http.Header;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+
+/**
+ * Content downloaded from a server together with its validators (ETag, Last-Modified),
+ * stored in the {@link MetadataCache} to revalidate it using a conditional request.
+ */
+public class ValidatedEntry {
+
+	byte[] data;
+
+	String etag;
+
+	String lastModified;
+
+	String contentType;
+
+	long created = System.currentTimeMillis();
+
+	private String hash;
+
+	public ValidatedEntry(byte[] data, String etag, String lastModified) {
+		this(data, etag, lastModified, null);
+	}
+
+	/**
+	 * @param data the content
+	 * @param etag the ETag or null
+	 * @param lastModified the Last-Modified date or null
+	 * @param contentType the Content-Type of the content or null, if unknown
+	 */
+	public ValidatedEntry(byte[] data, String etag, String lastModified, String contentType) {
+		super();
+		this.data = data;
+		this.etag = etag;
+		this.lastModified = lastModified;
+		this.contentType = contentType;
+	}
+
+	/**
+	 * @param response successful response received from the server
+	 * @param data the content of the response
+	 * @return the entry with the validators of the response
+	 */
+	public static ValidatedEntry fromResponse(HttpResponse response, byte[] data) {
+		Header etag = response.getFirstHeader("ETag");
+		Header lastModified = response.getFirstHeader("Last-Modified");
+		Header contentType = (response.getEntity()==null) ? null : response.getEntity().getContentType();
+		return new ValidatedEntry(data, (etag==null) ? null : etag.getValue(), (lastModified==null) ? null : lastModified.getValue(), 
+				(contentType==null) ? null : contentType.getValue());
+	}
+
+	/**
+	 * Adds the validators of this entry to the given request. If the content hasn't changed,
+	 * the server answers with status 304 and the content of this entry can be used.
+	 * @param request the GET-Request to make conditional
+	 */
+	public void addConditionalHeaders(HttpRequest request) {
+		if(etag!=null) request.setHeader("If-None-Match", etag);
+		if(lastModified!=null) request.setHeader("If-Modified-Since", lastModified);
+	}
+
+	/**
+	 * @param response received for the conditional request
+	 * @return true, if the server confirmed this entry is still valid
+	 */
+	public boolean isNotModified(HttpResponse response) {
+		return hasValidators() && response.getStatusLine().getStatusCode()==HttpStatus.SC_NOT_MODIFIED;
+	}
+
+	public boolean hasValidators() {
+		return etag!=null || lastModified!=null;
+	}
+
+	public byte[] getData() {
+		return data;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	/**
+	 * @return the fingerprint of the content, used to detect unchanged content if the server sends no validators
+	 */
+	public String getHash() {
+		if(hash==null) hash = MetadataCache.fingerprint(data);
+		return hash;
+	}
+}
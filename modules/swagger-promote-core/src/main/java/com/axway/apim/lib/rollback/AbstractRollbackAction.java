@@ -1,10 +1,15 @@
 package com.axway.apim.lib.rollback;
 
+import com.axway.apim.lib.PromotionContext;
+
 public abstract class AbstractRollbackAction implements RollbackAction {
 	
 	int executeOrder = -1;
 	String name;
 	
+	/** The promotion to roll back, captured when the action is created */
+	protected PromotionContext promotionContext = PromotionContext.getCurrent();
+	
 	boolean rolledBack = false;
 
 	public int getExecuteOrder() {
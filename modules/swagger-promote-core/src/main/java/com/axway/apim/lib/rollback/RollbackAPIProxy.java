@@ -17,7 +17,6 @@ import com.axway.apim.actions.rest.RestAPICall;
 import com.axway.apim.actions.tasks.IResponseParser;
 import com.axway.apim.actions.tasks.UpdateAPIStatus;
 import com.axway.apim.lib.AppException;
-import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.state.APIBaseDefinition;
 import com.axway.apim.swagger.api.state.IAPI;
@@ -45,7 +44,7 @@ public class RollbackAPIProxy extends AbstractRollbackAction implements IRespons
 		URI uri;
 		try {
 			if(rollbackAPI.getId()!=null) { // We already have an ID to the FE-API can delete it directly
-				uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL())
+				uri = new URIBuilder(promotionContext.getParams().getAPIManagerURL())
 						.setPath(RestAPICall.API_VERSION+"/proxies/"+this.rollbackAPI.getId())
 						.build();
 			} else { // But during initial creation of the FE-API, in case of an error we don't even get the ID
@@ -57,7 +56,7 @@ public class RollbackAPIProxy extends AbstractRollbackAction implements IRespons
 				filters.add(new BasicNameValuePair("op", "gt"));
 				filters.add(new BasicNameValuePair("value", Long.toString(new Date().getTime()-120000))); // Ignore all API created more than 1 minute ago!
 				JsonNode existingAPI = APIManagerAdapter.getInstance().getExistingAPI(null, filters, APIManagerAdapter.TYPE_FRONT_END); // The path is not set at this point, hence we provide null
-				uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL())
+				uri = new URIBuilder(promotionContext.getParams().getAPIManagerURL())
 						.setPath(RestAPICall.API_VERSION+"/proxies/"+existingAPI.get("id").asText())
 						.build();
 			}
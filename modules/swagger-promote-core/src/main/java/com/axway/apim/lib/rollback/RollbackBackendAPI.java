@@ -16,7 +16,7 @@ import com.axway.apim.actions.rest.DELRequest;
 import com.axway.apim.actions.rest.RestAPICall;
 import com.axway.apim.actions.tasks.IResponseParser;
 import com.axway.apim.lib.AppException;
-import com.axway.apim.lib.CommandParameters;
+import com.axway.apim.lib.BackendAPIIndex;
 import com.axway.apim.swagger.APIManagerAdapter;
 import com.axway.apim.swagger.api.state.IAPI;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -36,11 +36,12 @@ public class RollbackBackendAPI extends AbstractRollbackAction implements IRespo
 	@Override
 	public void rollback() throws AppException {
 		try {
-			URI uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL())
+			URI uri = new URIBuilder(promotionContext.getParams().getAPIManagerURL())
 					.setPath(RestAPICall.API_VERSION+"/apirepo/"+rollbackAPI.getApiId())
 					.build();
 			RestAPICall apiCall = new DELRequest(uri, this, false);
 			apiCall.execute();
+			BackendAPIIndex.getInstance().remove(rollbackAPI.getApiId());
 			if(APIManagerAdapter.hasAPIManagerVersion("7.7")) {
 				rolledBack = true;
 				// There is very likely another BE-API, as API-Manager 7.7 is creating two Backend-API. One for HTTPS and one for HTTP
@@ -53,7 +54,7 @@ public class RollbackBackendAPI extends AbstractRollbackAction implements IRespo
 				filters.add(new BasicNameValuePair("value", Long.toString(new Date().getTime()-120000))); // Ignore all API created more than 1 minute ago!
 				JsonNode existingBEAPI = APIManagerAdapter.getInstance().getExistingAPI(null, filters, APIManagerAdapter.TYPE_BACK_END);
 				if(existingBEAPI.get("id")!=null) {
-					uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL())
+					uri = new URIBuilder(promotionContext.getParams().getAPIManagerURL())
 							.setPath(RestAPICall.API_VERSION+"/apirepo/"+existingBEAPI.get("id").asText())
 							.build();
 					apiCall = new DELRequest(uri, this, false);
@@ -0,0 +1,94 @@
+package com.axway.apim.lib.rollback;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+
+import com.axway.apim.actions.rest.DELRequest;
+import com.axway.apim.actions.rest.POSTRequest;
+import com.axway.apim.actions.rest.RestAPICall;
+import com.axway.apim.actions.tasks.IResponseParser;
+import com.axway.apim.lib.AppException;
+import com.axway.apim.swagger.api.properties.applications.ClientApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Restores the application subscriptions of an existing API: subscriptions created during the
+ * promotion are removed and removed subscriptions are created again.
+ */
+public class RollbackClientAppAccess extends AbstractRollbackAction implements IResponseParser, RollbackAction {
+
+	/** The API the subscriptions have been changed for */
+	String apiId;
+
+	List<ClientApplication> createdApps = new ArrayList<ClientApplication>();
+
+	List<ClientApplication> removedApps = new ArrayList<ClientApplication>();
+
+	public RollbackClientAppAccess(String apiId) {
+		super();
+		this.apiId = apiId;
+		this.executeOrder = 5;
+		this.name = "Application-Subscriptions";
+	}
+
+	public synchronized void addCreated(List<ClientApplication> apps) {
+		createdApps.addAll(apps);
+	}
+
+	public synchronized void addRemoved(List<ClientApplication> apps) {
+		removedApps.addAll(apps);
+	}
+
+	@Override
+	public synchronized void rollback() throws AppException {
+		rolledBack = true;
+		for(ClientApplication app : createdApps) {
+			try {
+				URI uri = new URIBuilder(promotionContext.getParams().getAPIManagerURL())
+						.setPath(RestAPICall.API_VERSION+"/applications/"+app.getId()+"/apis/"+apiId)
+						.build();
+				new DELRequest(uri, this, true).execute();
+			} catch (Exception e) {
+				rolledBack = false;
+				LOG.error("Error while removing subscription of application: '"+app.getName()+"' to roll it back", e);
+			}
+		}
+		for(ClientApplication app : removedApps) {
+			try {
+				URI uri = new URIBuilder(promotionContext.getParams().getAPIManagerURL())
+						.setPath(RestAPICall.API_VERSION+"/applications/"+app.getId()+"/apis")
+						.build();
+				new POSTRequest(new StringEntity("{\"apiId\":\""+apiId+"\",\"enabled\":true}"), uri, this, true).execute();
+			} catch (Exception e) {
+				rolledBack = false;
+				LOG.error("Error while restoring subscription of application: '"+app.getName()+"' to roll it back", e);
+			}
+		}
+	}
+
+	@Override
+	public JsonNode parseResponse(HttpResponse httpResponse) throws AppException {
+		try {
+			if(httpResponse.getStatusLine().getStatusCode()>=300) {
+				rolledBack = false;
+				try {
+					LOG.error("Error while rolling back application subscription of API: '"+apiId+"': '"+EntityUtils.toString(httpResponse.getEntity())+"'");
+				} catch (Exception e) {
+					LOG.error("Error while rolling back application subscription of API: '"+apiId+"'", e);
+				}
+			}
+		} finally {
+			try {
+				((CloseableHttpResponse)httpResponse).close();
+			} catch (Exception ignore) { }
+		}
+		return null;
+	}
+}
@@ -0,0 +1,81 @@
+package com.axway.apim.lib.rollback;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.util.EntityUtils;
+
+import com.axway.apim.actions.rest.POSTRequest;
+import com.axway.apim.actions.rest.RestAPICall;
+import com.axway.apim.actions.tasks.IResponseParser;
+import com.axway.apim.lib.AppException;
+import com.axway.apim.swagger.APIManagerAdapter;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Grants access again to the organizations, whose access to an existing API has been removed during the promotion.
+ */
+public class RollbackClientOrgAccess extends AbstractRollbackAction implements IResponseParser, RollbackAction {
+
+	/** The API the access has been removed from */
+	String apiId;
+
+	List<String> removedOrgIds = new ArrayList<String>();
+
+	public RollbackClientOrgAccess(String apiId) {
+		super();
+		this.apiId = apiId;
+		this.executeOrder = 5;
+		this.name = "Organization-Access";
+	}
+
+	public synchronized void addRemoved(List<String> orgIds) {
+		removedOrgIds.addAll(orgIds);
+	}
+
+	@Override
+	public synchronized void rollback() throws AppException {
+		if(removedOrgIds.isEmpty()) return;
+		try {
+			String formBody = "action=orgs&apiId="+apiId;
+			for(String orgId : removedOrgIds) {
+				formBody += "&grantOrgId="+orgId;
+			}
+			URI uri = new URIBuilder(promotionContext.getParams().getAPIManagerURL())
+					.setPath(RestAPICall.API_VERSION+"/proxies/grantaccess")
+					.build();
+			RestAPICall apiCall = new POSTRequest(new StringEntity(formBody), uri, this, true);
+			apiCall.setContentType("application/x-www-form-urlencoded");
+			apiCall.execute();
+			if(rolledBack) APIManagerAdapter.getInstance().addGrantedOrgs(apiId, removedOrgIds);
+		} catch (Exception e) {
+			LOG.error("Error while granting access to organizations: "+removedOrgIds+" to roll it back", e);
+		}
+	}
+
+	@Override
+	public JsonNode parseResponse(HttpResponse httpResponse) throws AppException {
+		try {
+			if(httpResponse.getStatusLine().getStatusCode()!=204) {
+				try {
+					LOG.error("Error while granting access to organizations: "+removedOrgIds+" to roll it back: '"+EntityUtils.toString(httpResponse.getEntity())+"'");
+				} catch (Exception e) {
+					LOG.error("Error while granting access to organizations: "+removedOrgIds+" to roll it back", e);
+				}
+			} else {
+				rolledBack = true;
+				LOG.debug("Successfully granted access to organizations: "+removedOrgIds+" to roll it back");
+			}
+		} finally {
+			try {
+				((CloseableHttpResponse)httpResponse).close();
+			} catch (Exception ignore) { }
+		}
+		return null;
+	}
+}
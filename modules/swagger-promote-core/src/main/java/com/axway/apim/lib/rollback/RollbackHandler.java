@@ -9,38 +9,40 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.axway.apim.lib.AppException;
-import com.axway.apim.lib.CommandParameters;
+import com.axway.apim.lib.PromotionContext;
 
+/**
+ * Holds the actions to roll back a failed promotion. The instance is owned by the current PromotionContext, 
+ * as multiple APIs might be promoted in parallel.
+ */
 public class RollbackHandler {
 	
 	static Logger LOG = LoggerFactory.getLogger(RollbackHandler.class);
 	
-	private static RollbackHandler instance;
-	
 	private List<RollbackAction> rollbackActions;
+	
+	private PromotionContext promotionContext;
 
-	private RollbackHandler() {
+	public RollbackHandler(PromotionContext promotionContext) {
 		super();
+		this.promotionContext = promotionContext;
 		rollbackActions = new ArrayList<RollbackAction>();
 	}
 	
 	public static RollbackHandler getInstance() {
-		if(instance==null) {
-			instance = new RollbackHandler();
-		}
-		return instance;
+		return PromotionContext.getCurrent().getRollbackHandler();
 	}	
 	
-	public static synchronized void deleteInstance () {
-		RollbackHandler.instance = null;
+	public static void deleteInstance () {
+		PromotionContext.getCurrent().setRollbackHandler(null);
 	}
 	
-	public void addRollbackAction(RollbackAction action) {
+	public synchronized void addRollbackAction(RollbackAction action) {
 		rollbackActions.add(action);
 	}
 	
 	public void executeRollback() {
-		if(!CommandParameters.getInstance().rollback()) {
+		if(!promotionContext.getParams().rollback()) {
 			LOG.info("Rollback is disabled.");
 			return;
 		}
@@ -55,12 +57,19 @@ public class RollbackHandler {
 				}
 		    }
 		});
-		for(RollbackAction action : rollbackActions) {
-			try {
-				action.rollback();
-			} catch (AppException e) {
-				LOG.error("Can't rollback ", e);
+		// Rollback actions are executed within the promotion they belong to, no matter which thread is rolling back
+		PromotionContext previous = PromotionContext.getCurrent();
+		PromotionContext.setCurrent(promotionContext);
+		try {
+			for(RollbackAction action : rollbackActions) {
+				try {
+					action.rollback();
+				} catch (AppException e) {
+					LOG.error("Can't rollback ", e);
+				}
 			}
+		} finally {
+			PromotionContext.setCurrent(previous);
 		}
 		LOG.info("Rolled back: '"+rollbackActions+"'");
 	}
@@ -1,7 +1,5 @@
 package com.axway.apim.swagger;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Vector;
 
@@ -9,9 +7,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.axway.apim.actions.CreateNewAPI;
-import com.axway.apim.lib.APIPropertyAnnotation;
 import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.swagger.api.state.APIPropertyDescriptor;
 import com.axway.apim.swagger.api.state.IAPI;
 
 /**
@@ -71,39 +69,33 @@ public class APIChangeState {
 		if(!actualAPI.isValid()) {
 			return; //Nothing to do, as we don't have an existing API
 		}
-		for (Field field : desiredAPI.getClass().getSuperclass().getDeclaredFields()) {
+		for (APIPropertyDescriptor property : APIPropertyDescriptor.getDescriptors()) {
 			try {
-				if (field.isAnnotationPresent(APIPropertyAnnotation.class)) {
-					String getterMethodName = "get" + field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
-					Method method = desiredAPI.getClass().getMethod(getterMethodName, null);
-					Method method2 = actualAPI.getClass().getMethod(getterMethodName, null);
-					Object desiredValue = method.invoke(desiredAPI, null);
-					Object actualValue = method2.invoke(actualAPI, null);
-					if(desiredValue == null && actualValue == null) continue;
-					if(desiredValue == null) {
-						LOG.debug("Ignoring Null-Property: " + field.getName() + "[Desired: '"+desiredValue+"' vs Actual: '"+actualValue+"']");
-						continue; // No change, if nothing is provided!
-					}
-					// desiredValue == null - This can be used to reset/clean a property! (Need to think about this!)
-					if((desiredValue!=null && actualValue==null) || !(compareValues(actualValue, desiredValue))) {
-						APIPropertyAnnotation property = field.getAnnotation(APIPropertyAnnotation.class);
-						if (property.isBreaking()) {
-							this.isBreaking = true;
-							this.breakingChanges.add(field.getName());
-						} else {
-							this.nonBreakingChanges.add(field.getName());
-						}
-						if (!isWritable(property, this.actualAPI.getState())) {
-							this.updateExistingAPI = false; // Found a NON-Changeable property, can't update the existing API
-						}
-						LOG.info("Changed property: " + field.getName() + "[Desired: '"+desiredValue+"' vs Actual: '"+actualValue+"']");
+				Object desiredValue = property.getValue(desiredAPI);
+				Object actualValue = property.getValue(actualAPI);
+				if(desiredValue == null && actualValue == null) continue;
+				if(desiredValue == null) {
+					if(LOG.isDebugEnabled()) LOG.debug("Ignoring Null-Property: " + property.getName() + "[Desired: '"+desiredValue+"' vs Actual: '"+actualValue+"']");
+					continue; // No change, if nothing is provided!
+				}
+				// desiredValue == null - This can be used to reset/clean a property! (Need to think about this!)
+				if((desiredValue!=null && actualValue==null) || !(compareValues(actualValue, desiredValue))) {
+					if (property.isBreaking()) {
+						this.isBreaking = true;
+						this.breakingChanges.add(property.getName());
 					} else {
-						LOG.debug("No change for property: " + field.getName() + "[Desired: '"+desiredValue+"' vs Actual: '"+actualValue+"']");
+						this.nonBreakingChanges.add(property.getName());
 					}
-
+					if (!property.isWritable(this.actualAPI.getState())) {
+						this.updateExistingAPI = false; // Found a NON-Changeable property, can't update the existing API
+					}
+					LOG.info("Changed property: " + property.getName() + "[Desired: '"+desiredValue+"' vs Actual: '"+actualValue+"']");
+				} else {
+					// Avoid creating the message (e.g. toString of 200 Inbound-Profiles), if not logged
+					if(LOG.isDebugEnabled()) LOG.debug("No change for property: " + property.getName() + "[Desired: '"+desiredValue+"' vs Actual: '"+actualValue+"']");
 				}
 			} catch (Exception e) {
-				throw new AppException("Can't verify API-Change-State for: " + field.getName(), ErrorCode.CANT_CREATE_STATE_CHANGE, e);
+				throw new AppException("Can't verify API-Change-State for: " + property.getName(), ErrorCode.CANT_CREATE_STATE_CHANGE, e);
 			}
 		}
 	}
@@ -206,22 +198,6 @@ public class APIChangeState {
 		return nonBreakingChanges;
 	}
 	
-	/**
-	 * Helper method to check if a certain property can be updated in the current/actual API-State.
-	 * @param property to be updated
-	 * @param actualStatus the actual state of the API
-	 * @return true if the property can be updated otherwise false
-	 */
-	private static boolean isWritable(APIPropertyAnnotation property, String actualStatus) {
-		String[] writableStates = property.writableStates();
-		for(String status : writableStates) {
-			if (actualStatus.equals(status)) {
-				return true;
-			}
-		}
-		return false;
-	}
-	
 	private static boolean compareValues(Object actualValue, Object desiredValue) {
 		if(actualValue instanceof List) {
 			return ((List<?>)actualValue).size() == ((List<?>)desiredValue).size() && 
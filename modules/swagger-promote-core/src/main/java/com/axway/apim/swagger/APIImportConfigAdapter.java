@@ -21,6 +21,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.text.StringSubstitutor;
@@ -43,8 +44,11 @@ import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.ErrorCode;
 import com.axway.apim.lib.ErrorState;
+import com.axway.apim.lib.MetadataCache;
+import com.axway.apim.lib.StateDigest;
 import com.axway.apim.lib.URLParser;
 import com.axway.apim.lib.Utils;
+import com.axway.apim.lib.ValidatedEntry;
 import com.axway.apim.swagger.api.properties.APIDefintion;
 import com.axway.apim.swagger.api.properties.applications.ClientApplication;
 import com.axway.apim.swagger.api.properties.authenticationProfiles.AuthType;
@@ -93,6 +97,9 @@ public class APIImportConfigAdapter {
 	private boolean usingOrgAdmin;
 	
 	private ErrorState error = ErrorState.getInstance();
+	
+	/** The API-Config and the stage API-Config with variables replaced, used for the digest of the desired state */
+	private List<String> configContents = new ArrayList<String>();
 
 
 	/**
@@ -110,11 +117,15 @@ public class APIImportConfigAdapter {
 		this.usingOrgAdmin = usingOrgAdmin;
 		IAPI baseConfig;
 		try {
-			baseConfig = mapper.readValue(substitueVariables(new File(apiConfigFile)), DesiredAPI.class);
+			String baseConfigContent = substitueVariables(new File(apiConfigFile));
+			baseConfig = mapper.readValue(baseConfigContent, DesiredAPI.class);
+			configContents.add(baseConfigContent);
 			if(getStageConfig(stage, apiConfigFile)!=null) {
 				try {
 					ObjectReader updater = mapper.readerForUpdating(baseConfig);
-					apiConfig = updater.readValue(substitueVariables(new File(getStageConfig(stage, apiConfigFile))));
+					String stageConfigContent = substitueVariables(new File(getStageConfig(stage, apiConfigFile)));
+					apiConfig = updater.readValue(stageConfigContent);
+					configContents.add(stageConfigContent);
 					LOG.info("Loaded stage API-Config from file: " + getStageConfig(stage, apiConfigFile));
 				} catch (FileNotFoundException e) {
 					LOG.debug("No config file found for stage: '"+stage+"'");
@@ -191,6 +202,41 @@ public class APIImportConfigAdapter {
 		}
 	}
 	
+	/**
+	 * Creates a digest of the desired state, which changes whenever the desired API changes: It's based on 
+	 * the API-Config(s), the API-Definition, the image, the resolved organizations and applications 
+	 * and the parameters controlling how the API is promoted. Organizations and applications are included as 
+	 * configured, not the access or subscriptions actually granted in the API-Manager.
+	 * @param desiredAPI as returned by getDesiredAPI()
+	 * @return the digest of the desired state
+	 * @throws AppException if the API-Config can't be parsed
+	 */
+	public String getDesiredStateDigest(IAPI desiredAPI) throws AppException {
+		CommandParameters params = CommandParameters.getInstance();
+		StateDigest digest = new StateDigest();
+		try {
+			for(String configContent : configContents) {
+				digest.add("config", mapper.readTree(configContent));
+			}
+		} catch (IOException e) {
+			throw new AppException("Cant parse JSON-Config file(s)", ErrorCode.CANT_READ_CONFIG_FILE, e);
+		}
+		digest.add("apiDefinition", (desiredAPI.getAPIDefinition()==null) ? null : desiredAPI.getAPIDefinition().getAPIDefinitionContent());
+		digest.add("image", (desiredAPI.getImage()==null) ? null : desiredAPI.getImage().getImageContent());
+		digest.add("orgId", desiredAPI.getOrgId());
+		digest.add("clientOrganizations", (desiredAPI.getClientOrganizations()==null) ? null : desiredAPI.getClientOrganizations().toString());
+		if(desiredAPI.getApplications()!=null) {
+			for(ClientApplication app : desiredAPI.getApplications()) {
+				digest.add("application", app.getId());
+			}
+		}
+		for(String param : new String[] {"username", "admin_username", "stage", "ignoreQuotas", "ignoreClientApps", "clientAppsMode", 
+				"ignoreClientOrgs", "clientOrgsMode", "replaceHostInSwagger"}) {
+			digest.add(param, params.getValue(param));
+		}
+		return digest.getDigest();
+	}
+	
 	public IAPI completeDesiredAPI(IAPI desiredAPI, IAPI actualAPI) throws AppException {
 		if(!actualAPI.isValid()) return desiredAPI;
 		APIManagerAdapter mgrAdpater = APIManagerAdapter.getInstance();
@@ -490,13 +536,33 @@ public class APIImportConfigAdapter {
 		}
 	}
 	
+	/**
+	 * Reads the API-Definition as it is (without decoding and encoding it) into a single array.
+	 * @throws AppException when the import Swagger-File can't be read.
+	 * @return The import Swagger-File
+	 */
 	private byte[] getAPIDefinitionContent() throws AppException {
+		if(pathToAPIDefinition.endsWith(".url")) {
+			return getAPIDefinitionFromURL(Utils.getAPIDefinitionUriFromFile(pathToAPIDefinition));
+		} else if(isHttpUri(pathToAPIDefinition)) {
+			return getAPIDefinitionFromURL(pathToAPIDefinition);
+		}
 		try {
-			InputStream stream = getAPIDefinitionAsStream();
-			Reader reader = new InputStreamReader(stream,StandardCharsets.UTF_8);
-			return IOUtils.toByteArray(reader,StandardCharsets.UTF_8);
-		} catch (IOException e) {
-			throw new AppException("Can't read API-Definition from file", ErrorCode.CANT_READ_API_DEFINITION_FILE, e);
+			File inputFile = getAPIDefinitionFile();
+			if(inputFile!=null) {
+				// Allocated once with the size of the file
+				return FileUtils.readFileToByteArray(inputFile);
+			}
+			try (InputStream is = this.getClass().getResourceAsStream(pathToAPIDefinition)) {
+				if(is == null) {
+					throw new AppException("Unable to read Swagger/WSDL file from: " + pathToAPIDefinition, ErrorCode.CANT_READ_API_DEFINITION_FILE);
+				}
+				return IOUtils.toByteArray(is);
+			}
+		} catch (AppException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new AppException("Unable to read Swagger/WSDL file from: " + pathToAPIDefinition, ErrorCode.CANT_READ_API_DEFINITION_FILE, e);
 		}
 	}
 	
@@ -508,24 +574,16 @@ public class APIImportConfigAdapter {
 	public InputStream getAPIDefinitionAsStream() throws AppException {
 		InputStream is = null;
 		if(pathToAPIDefinition.endsWith(".url")) {
-			return getAPIDefinitionFromURL(Utils.getAPIDefinitionUriFromFile(pathToAPIDefinition));
+			return new ByteArrayInputStream(getAPIDefinitionFromURL(Utils.getAPIDefinitionUriFromFile(pathToAPIDefinition)));
 		} else if(isHttpUri(pathToAPIDefinition)) {
-			return getAPIDefinitionFromURL(pathToAPIDefinition);
+			return new ByteArrayInputStream(getAPIDefinitionFromURL(pathToAPIDefinition));
 		} else {
 			try {
-				File inputFile = new File(pathToAPIDefinition);
-				if(inputFile.exists()) { 
-					LOG.info("Reading API-Definition (Swagger/WSDL) from file: '" + pathToAPIDefinition + "' (relative path)");
-					is = new FileInputStream(pathToAPIDefinition);
+				File inputFile = getAPIDefinitionFile();
+				if(inputFile!=null) { 
+					is = new FileInputStream(inputFile);
 				} else {
-					String baseDir = new File(this.apiConfigFile).getCanonicalFile().getParent();
-					inputFile= new File(baseDir + File.separator + this.pathToAPIDefinition);
-					LOG.info("Reading API-Definition (Swagger/WSDL) from file: '" + inputFile.getCanonicalFile() + "' (absolute path)"); 
-					if(inputFile.exists()) { 
-						is = new FileInputStream(inputFile);
-					} else {
-						is = this.getClass().getResourceAsStream(pathToAPIDefinition);
-					}
+					is = this.getClass().getResourceAsStream(pathToAPIDefinition);
 				}
 				if(is == null) {
 					throw new AppException("Unable to read Swagger/WSDL file from: " + pathToAPIDefinition, ErrorCode.CANT_READ_API_DEFINITION_FILE);
@@ -538,7 +596,23 @@ public class APIImportConfigAdapter {
 		return is;
 	}
 	
-	private InputStream getAPIDefinitionFromURL(String urlToAPIDefinition) throws AppException {
+	/**
+	 * @return the API-Definition file either relative to the current directory or to the API-Config or null, 
+	 * if the file doesn't exist (it might be read from the classpath)
+	 */
+	private File getAPIDefinitionFile() throws IOException {
+		File inputFile = new File(pathToAPIDefinition);
+		if(inputFile.exists()) { 
+			LOG.info("Reading API-Definition (Swagger/WSDL) from file: '" + pathToAPIDefinition + "' (relative path)");
+			return inputFile;
+		}
+		String baseDir = new File(this.apiConfigFile).getCanonicalFile().getParent();
+		inputFile= new File(baseDir + File.separator + this.pathToAPIDefinition);
+		LOG.info("Reading API-Definition (Swagger/WSDL) from file: '" + inputFile.getCanonicalFile() + "' (absolute path)"); 
+		return (inputFile.exists()) ? inputFile : null;
+	}
+	
+	private byte[] getAPIDefinitionFromURL(String urlToAPIDefinition) throws AppException {
 		URLParser url = new URLParser(urlToAPIDefinition);
 		String uri = url.getUri();
 		String username = url.getUsername();
@@ -557,24 +631,36 @@ public class APIImportConfigAdapter {
 				httpclient = HttpClients.createDefault();
 			}
 			HttpGet httpGet = new HttpGet(uri);
+			// Revalidate the API-Definition downloaded by a previous run (requires a cacheDir)
+			final String cacheKey = "definitions/" + MetadataCache.fingerprint(username + " " + uri);
+			final ValidatedEntry cached = MetadataCache.getInstance().getValidated(cacheKey);
+			if(cached!=null && MetadataCache.getInstance().isFresh(cached)) {
+				LOG.debug("Using API-Definition downloaded before from: " + uri);
+				return cached.getData();
+			}
+			if(cached!=null) cached.addConditionalHeaders(httpGet);
 			
-            ResponseHandler<String> responseHandler = new ResponseHandler<String>() {
+            ResponseHandler<byte[]> responseHandler = new ResponseHandler<byte[]>() {
 
                 @Override
-                public String handleResponse(
+                public byte[] handleResponse(
                         final HttpResponse response) throws ClientProtocolException, IOException {
                     int status = response.getStatusLine().getStatusCode();
-                    if (status >= 200 && status < 300) {
-                        HttpEntity entity = response.getEntity();
-                        return entity != null ? EntityUtils.toString(entity,StandardCharsets.UTF_8) : null;
+                    if (cached!=null && cached.isNotModified(response)) {
+                    	LOG.debug("API-Definition not modified since downloaded before from: " + uri);
+                    	return cached.getData();
+                    } else if (status >= 200 && status < 300) {
+                        // Kept as it is returned, without decoding and encoding it again
+                        byte[] apiDefinition = Utils.toByteArray(response.getEntity());
+                        MetadataCache.getInstance().putValidated(cacheKey, ValidatedEntry.fromResponse(response, apiDefinition));
+                        return apiDefinition;
                     } else {
                         throw new ClientProtocolException("Unexpected response status: " + status);
                     }
                 }
 
             };
-            String responseBody = httpclient.execute(httpGet, responseHandler);
-            return new ByteArrayInputStream(responseBody.getBytes(StandardCharsets.UTF_8));
+            return httpclient.execute(httpGet, responseHandler);
 		} catch (Exception e) {
 			throw new AppException("Cannot load API-Definition from URI: "+uri, ErrorCode.CANT_READ_API_DEFINITION_FILE, e);
 		} finally {
@@ -4,7 +4,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -12,6 +11,10 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.http.Header;
@@ -39,17 +42,25 @@ import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.ErrorCode;
 import com.axway.apim.lib.ErrorState;
+import com.axway.apim.lib.JsonArrayReader;
+import com.axway.apim.lib.MetadataCache;
+import com.axway.apim.lib.ParallelExecutor;
+import com.axway.apim.lib.Utils;
 import com.axway.apim.swagger.api.properties.APIDefintion;
 import com.axway.apim.swagger.api.properties.apiAccess.APIAccess;
 import com.axway.apim.swagger.api.properties.applications.ClientApplication;
+import com.axway.apim.swagger.api.properties.applications.ClientApplicationCatalog;
+import com.axway.apim.swagger.api.properties.applications.ClientCredentialIndex;
 import com.axway.apim.swagger.api.properties.cacerts.CaCert;
 import com.axway.apim.swagger.api.properties.organization.ApiAccess;
 import com.axway.apim.swagger.api.properties.organization.Organization;
+import com.axway.apim.swagger.api.properties.organization.OrganizationCatalog;
 import com.axway.apim.swagger.api.properties.outboundprofiles.OutboundProfile;
 import com.axway.apim.swagger.api.properties.quota.APIQuota;
 import com.axway.apim.swagger.api.properties.quota.QuotaRestriction;
 import com.axway.apim.swagger.api.properties.user.User;
 import com.axway.apim.swagger.api.state.APIMethod;
+import com.axway.apim.swagger.api.state.APIMethodCatalog;
 import com.axway.apim.swagger.api.state.AbstractAPI;
 import com.axway.apim.swagger.api.state.ActualAPI;
 import com.axway.apim.swagger.api.state.IAPI;
@@ -72,23 +83,33 @@ public class APIManagerAdapter {
 	private static String apiManagerVersion = null;
 	private static String apiManagerConfig = null;
 	
-	private static List<Organization> allOrgs = null;
-	private static List<ClientApplication> allApps = null;
+	/** Fields kept when streaming the listings of organizations, applications and APIs */
+	private final static Set<String> ORG_FIELDS = JsonArrayReader.getProperties(Organization.class);
+	private final static Set<String> APP_FIELDS = JsonArrayReader.getProperties(ClientApplication.class);
+	private final static Set<String> API_FIELDS = JsonArrayReader.getProperties(ActualAPI.class);
+	
+	private static OrganizationCatalog orgCatalog = null;
+	private static ClientApplicationCatalog appCatalog = null;
 	private static List<IAPI> allAPIs = null;
 	
-	private static Map<String, ClientApplication> clientCredentialToAppMap = new HashMap<String, ClientApplication>();
+	/** Index per credential type based on all apps */
+	private static Map<String, ClientCredentialIndex> credentialIndexes = new HashMap<String, ClientCredentialIndex>();
+	
+	private static Map<String, List<ApiAccess>> orgsApiAccess = new ConcurrentHashMap<String, List<ApiAccess>>();
+	/** Inverted index of orgsApiAccess: API-ID -> Org-ID -> API-Access of the organization */
+	private static Map<String, Map<String, ApiAccess>> apiGrantedOrgs = null;
 	
-	private static Map<String, List<ApiAccess>> orgsApiAccess = new HashMap<String, List<ApiAccess>>();
+	/** Operations per API-ID, loaded once per run */
+	private static Map<String, APIMethodCatalog> methodCatalogs = new ConcurrentHashMap<String, APIMethodCatalog>();
 	
 	private boolean enforceBreakingChange = false;
 	
-	public static APIQuota sytemQuotaConfig = null;
-	public static APIQuota applicationQuotaConfig = null;
+	/** Default quotas shared by all APIs, loaded once per run and updated by UpdateQuotaConfiguration */
+	private static APIQuota sytemQuotaConfig = null;
+	private static APIQuota applicationQuotaConfig = null;
 	private boolean usingOrgAdmin = false;
 	private boolean hasAdminAccount = false;
 	
-	private ErrorState error = ErrorState.getInstance();
-	
 	public static String CREDENTIAL_TYPE_API_KEY 		= "apikeys";
 	public static String CREDENTIAL_TYPE_EXT_CLIENTID	= "extclients";
 	public static String CREDENTIAL_TYPE_OAUTH			= "oauth";
@@ -109,14 +130,22 @@ public class APIManagerAdapter {
 	public static synchronized void deleteInstance() throws AppException {
 			APIManagerAdapter.instance = null;
 			APIManagerAdapter.apiManagerConfig = null;
-			APIManagerAdapter.allOrgs = null;
+			APIManagerAdapter.orgCatalog = null;
 	}
 	
 	private APIManagerAdapter() throws AppException {
 		super();
 		Transaction transaction = Transaction.getInstance();
 		transaction.beginTransaction();
-		APIManagerAdapter.allApps = null; // Reset allApps with every run (relevant for testing, as executed in the same JVM)
+		APIManagerAdapter.appCatalog = null; // Reset all apps with every run (relevant for testing, as executed in the same JVM)
+		APIManagerAdapter.credentialIndexes = new HashMap<String, ClientCredentialIndex>(); // The index is based on all apps
+		APIManagerAdapter.orgsApiAccess = new ConcurrentHashMap<String, List<ApiAccess>>();
+		APIManagerAdapter.apiGrantedOrgs = null; // The index is based on orgsApiAccess
+		APIManagerAdapter.methodCatalogs = new ConcurrentHashMap<String, APIMethodCatalog>();
+		synchronized (APIManagerAdapter.class) {
+			APIManagerAdapter.sytemQuotaConfig = null;
+			APIManagerAdapter.applicationQuotaConfig = null;
+		}
 		loginToAPIManager(false); // Login with the provided user (might be an Org-Admin)
 		loginToAPIManager(true); // Second, login if needed with an admin account
 		this.enforceBreakingChange = CommandParameters.getInstance().isEnforceBreakingChange();
@@ -130,7 +159,7 @@ public class APIManagerAdapter {
 	 */
 	public void applyChanges(APIChangeState changeState) throws AppException {
 		if(!this.hasAdminAccount && isAdminAccountNeeded(changeState) ) {
-			error.setError("OrgAdmin user only allowed to change/register unpublished APIs.", ErrorCode.NO_ADMIN_ROLE_USER, false);
+			ErrorState.getInstance().setError("OrgAdmin user only allowed to change/register unpublished APIs.", ErrorCode.NO_ADMIN_ROLE_USER, false);
 			throw new AppException("OrgAdmin user only allowed to change/register unpublished APIs.", ErrorCode.NO_ADMIN_ROLE_USER);
 		}
 		// No existing API found (means: No match for APIPath), creating a complete new
@@ -144,14 +173,14 @@ public class APIManagerAdapter {
 			LOG.info("Strategy: Going to update existing API: " + changeState.getActualAPI().getName() +" (Version: "+ changeState.getActualAPI().getVersion() + ")");
 			if(!changeState.hasAnyChanges()) {
 				LOG.debug("BUT, no changes detected between Import- and API-Manager-API. Exiting now...");
-				error.setWarning("No changes detected between Import- and API-Manager-API", ErrorCode.NO_CHANGE, false);
+				ErrorState.getInstance().setWarning("No changes detected between Import- and API-Manager-API", ErrorCode.NO_CHANGE, false);
 				throw new AppException("No changes detected between Import- and API-Manager-API", ErrorCode.NO_CHANGE);
 			}
 			LOG.info("Recognized the following changes. Potentially Breaking: " + changeState.getBreakingChanges() + 
 					" plus Non-Breaking: " + changeState.getNonBreakingChanges());
 			if (changeState.isBreaking()) { // Make sure, breaking changes aren't applied without enforcing it.
 				if(!enforceBreakingChange) {
-					error.setError("A potentially breaking change can't be applied without enforcing it! Try option: -f true", ErrorCode.BREAKING_CHANGE_DETECTED, false);
+					ErrorState.getInstance().setError("A potentially breaking change can't be applied without enforcing it! Try option: -f true", ErrorCode.BREAKING_CHANGE_DETECTED, false);
 					throw new AppException("A potentially breaking change can't be applied without enforcing it! Try option: -f true", ErrorCode.BREAKING_CHANGE_DETECTED);
 				}
 			}
@@ -221,7 +250,7 @@ public class APIManagerAdapter {
 			} else if (user.getRole().equals("oadmin")) {
 				this.usingOrgAdmin = true;
 			} else {
-				error.setError("Not supported user-role: '"+user.getRole()+"'", ErrorCode.API_MANAGER_COMMUNICATION, false);
+				ErrorState.getInstance().setError("Not supported user-role: '"+user.getRole()+"'", ErrorCode.API_MANAGER_COMMUNICATION, false);
 				throw new AppException("Not supported user-role: "+user.getRole()+"", ErrorCode.API_MANAGER_COMMUNICATION);
 			}
 		} catch (Exception e) {
@@ -266,7 +295,7 @@ public class APIManagerAdapter {
 	
 	private static void getCsrfToken(HttpResponse response, boolean useAdminClient) throws AppException {
 		for (Header header : response.getAllHeaders()) {
-			if(header.getName().equals("CSRF-Token")) {
+			if(header.getName().equalsIgnoreCase("CSRF-Token")) {
 				APIMHttpClient.getInstance(useAdminClient).setCsrfToken(header.getValue());
 				break;
 			}
@@ -331,14 +360,16 @@ public class APIManagerAdapter {
 	}
 	
 	/**
-	 * Creates the API-Manager API-Representation. Basically the "Actual" state of the API.
+	 * Creates the API-Manager API-Representation. Basically the "Actual" state of the API.<br>
+	 * The different parts of the API (API-Definition, Image, Quotas, Organizations, Applications) are 
+	 * independent of each other and are loaded in parallel, if configured with parameter: loadParallelism.
 	 *  
 	 * @param jsonConfiguration the JSON-Configuration which is returned from the API-Manager REST-API (Proxy-Endpoint)
 	 * @param desiredAPI for some tasks the desiredAPI is needed (e.g. Custom-Properties)
 	 * @return an APIManagerAPI instance, which is flagged either as valid, if the API was found or invalid, if not found!
 	 * @throws AppException when the API-Manager API-State can't be created
 	 */
-	public IAPI getAPIManagerAPI(JsonNode jsonConfiguration, IAPI desiredAPI) throws AppException {
+	public IAPI getAPIManagerAPI(JsonNode jsonConfiguration, final IAPI desiredAPI) throws AppException {
 		if(jsonConfiguration == null) {
 			IAPI apiManagerAPI = new ActualAPI();
 			apiManagerAPI.setValid(false);
@@ -346,12 +377,52 @@ public class APIManagerAdapter {
 		}
 		
 		ObjectMapper mapper = new ObjectMapper();
-		IAPI apiManagerApi;
+		final IAPI apiManagerApi;
+		ParallelExecutor executor = null;
 		try {
 			apiManagerApi = mapper.readValue(jsonConfiguration.toString(), ActualAPI.class);
-			apiManagerApi.setAPIDefinition(new APIDefintion(getOriginalAPIDefinitionFromAPIM(apiManagerApi.getApiId())));
+			// Make sure the version is known before loading in parallel, as it's required by some loaders
+			getApiManagerVersion();
+			executor = new ParallelExecutor(CommandParameters.getInstance().getLoadParallelism(), "apim-loader");
+			Future<byte[]> apiDefinition = executor.submit(new Callable<byte[]>() {
+				@Override
+				public byte[] call() throws AppException {
+					return getOriginalAPIDefinitionFromAPIM(apiManagerApi.getApiId());
+				}
+			});
+			Future<byte[]> image = null;
 			if(apiManagerApi.getImage()!=null) {
-				apiManagerApi.getImage().setImageContent(getAPIImageFromAPIM(apiManagerApi.getId()));
+				image = executor.submit(new Callable<byte[]>() {
+					@Override
+					public byte[] call() throws AppException {
+						return getAPIImageFromAPIM(apiManagerApi.getId());
+					}
+				});
+			}
+			Future<Void> quotas = executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws AppException {
+					addQuotaConfiguration(apiManagerApi, desiredAPI);
+					return null;
+				}
+			});
+			Future<Void> clientOrgs = executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws AppException {
+					addClientOrganizations(apiManagerApi, desiredAPI);
+					return null;
+				}
+			});
+			Future<Void> clientApps = executor.submit(new Callable<Void>() {
+				@Override
+				public Void call() throws AppException {
+					addClientApplications(apiManagerApi, desiredAPI);
+					return null;
+				}
+			});
+			apiManagerApi.setAPIDefinition(new APIDefintion(ParallelExecutor.get(apiDefinition)));
+			if(image!=null) {
+				apiManagerApi.getImage().setImageContent(ParallelExecutor.get(image));
 			}
 			apiManagerApi.setValid(true);
 			// As the API-Manager REST doesn't provide information about Custom-Properties, we have to setup 
@@ -367,13 +438,15 @@ public class APIManagerAdapter {
 				}
 				((AbstractAPI)apiManagerApi).setCustomProperties(customProperties);
 			}
-			addQuotaConfiguration(apiManagerApi, desiredAPI);
-			addClientOrganizations(apiManagerApi, desiredAPI);
-			addClientApplications(apiManagerApi, desiredAPI);
-			addExistingClientAppQuotas(apiManagerApi.getApplications());
+			ParallelExecutor.get(quotas);
+			ParallelExecutor.get(clientOrgs);
+			ParallelExecutor.get(clientApps);
+			addExistingClientAppQuotas(apiManagerApi.getApplications(), executor);
 			return apiManagerApi;
 		} catch (Exception e) {
 			throw new AppException("Can't initialize API-Manager API-State.", ErrorCode.API_MANAGER_COMMUNICATION, e);
+		} finally {
+			if(executor!=null) executor.shutdown();
 		}
 	}
 	
@@ -386,13 +459,10 @@ public class APIManagerAdapter {
 		if(desiredAPI.getClientOrganizations()==null && desiredAPI.getApplications()==null 
 				&& CommandParameters.getInstance().getClientOrgsMode().equals(CommandParameters.MODE_REPLACE)) return;
 		List<String> grantedOrgs = new ArrayList<String>();
-		List<Organization> allOrgs = getAllOrgs();
-		for(Organization org : allOrgs) {
-			List<APIAccess> orgAPIAccess = getAPIAccess(org.getId(), "organizations");
-			for(APIAccess access : orgAPIAccess) {
-				if(access.getApiId().equals(apiManagerApi.getId())) {
-					grantedOrgs.add(org.getName());
-				}
+		Map<String, ApiAccess> orgsWithAccess = getGrantedOrgs(apiManagerApi.getId());
+		for(Organization org : getAllOrgs()) {
+			if(orgsWithAccess.containsKey(org.getId())) {
+				grantedOrgs.add(org.getName());
 			}
 		}
 		apiManagerApi.setClientOrganizations(grantedOrgs);
@@ -416,15 +486,26 @@ public class APIManagerAdapter {
 		}
 		apiManagerApi.setApplications(existingClientApps);
 	}
-	private void addExistingClientAppQuotas(List<ClientApplication> existingClientApps) throws AppException {
+	private void addExistingClientAppQuotas(List<ClientApplication> existingClientApps, ParallelExecutor executor) throws AppException {
 		if(existingClientApps==null || existingClientApps.size()==0) return; // No apps subscribed to this APIs
-		for(ClientApplication app : existingClientApps) {
-			APIQuota appQuota = getQuotaFromAPIManager(app.getId());
-			app.setAppQuota(appQuota);
+		List<Callable<APIQuota>> quotaLoaders = new ArrayList<Callable<APIQuota>>();
+		for(final ClientApplication app : existingClientApps) {
+			quotaLoaders.add(new Callable<APIQuota>() {
+				@Override
+				public APIQuota call() throws AppException {
+					return getQuotaFromAPIManager(app.getId());
+				}
+			});
+		}
+		List<APIQuota> appQuotas = executor.invokeAll(quotaLoaders);
+		for(int i=0; i<existingClientApps.size(); i++) {
+			existingClientApps.get(i).setAppQuota(appQuotas.get(i));
 		}
 	}
 	
 	public String getMethodNameForId(String apiId, String methodId) throws AppException {
+		APIMethod method = getMethodCatalog(apiId).getMethodById(methodId);
+		if(method!=null) return method.getName();
 		ObjectMapper mapper = new ObjectMapper();
 		String response = null;
 		URI uri;
@@ -448,21 +529,53 @@ public class APIManagerAdapter {
 	}
 	
 	public List<APIMethod> getAllMethodsForAPI(String apiId) throws AppException {
+		return getMethodCatalog(apiId).getMethods();
+	}
+	
+	/**
+	 * @param apiId ID of the API (front-end)
+	 * @return the operations of the given API indexed by name and ID. Operations are loaded only once per API.
+	 * @throws AppException if the operations can't be loaded
+	 */
+	public APIMethodCatalog getMethodCatalog(String apiId) throws AppException {
+		APIMethodCatalog catalog = methodCatalogs.get(apiId);
+		if(catalog==null) {
+			catalog = new APIMethodCatalog(apiId, loadMethodsForAPI(apiId));
+			methodCatalogs.put(apiId, catalog);
+		}
+		return catalog;
+	}
+	
+	/**
+	 * Must be called, when the operations of an API have changed (e.g. a new API-Proxy has been created).
+	 * @param apiId ID of the API (front-end)
+	 */
+	public void invalidateMethodCatalog(String apiId) {
+		methodCatalogs.remove(apiId);
+		MetadataCache.getInstance().invalidate("proxies/"+apiId+"/operations");
+	}
+	
+	private List<APIMethod> loadMethodsForAPI(String apiId) throws AppException {
 		ObjectMapper mapper = new ObjectMapper();
 		String response = null;
 		URI uri;
 		List<APIMethod> apiMethods = new ArrayList<APIMethod>();
 		try {
-			uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/proxies/"+apiId+"/operations").build();
-			RestAPICall getRequest = new GETRequest(uri, null);
-			HttpResponse httpResponse = getRequest.execute();
-			/*response = EntityUtils.toString(httpResponse.getEntity());
-			EntityUtils.consume(httpResponse.getEntity());
-			LOG.trace("Response: " + response);
-			JsonNode operations = mapper.readTree(response);
-			HttpResponse httpResponse = getRequest.execute();*/
-			response = EntityUtils.toString(httpResponse.getEntity());
+			response = MetadataCache.getInstance().get("proxies/"+apiId+"/operations");
+			boolean cached = (response!=null);
+			if(!cached) {
+				uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/proxies/"+apiId+"/operations").build();
+				RestAPICall getRequest = new GETRequest(uri, null);
+				HttpResponse httpResponse = getRequest.execute();
+				/*response = EntityUtils.toString(httpResponse.getEntity());
+				EntityUtils.consume(httpResponse.getEntity());
+				LOG.trace("Response: " + response);
+				JsonNode operations = mapper.readTree(response);
+				HttpResponse httpResponse = getRequest.execute();*/
+				response = EntityUtils.toString(httpResponse.getEntity());
+			}
 			apiMethods = mapper.readValue(response, new TypeReference<List<APIMethod>>(){});
+			if(!cached) MetadataCache.getInstance().put("proxies/"+apiId+"/operations", response);
 			return apiMethods;
 		} catch (Exception e) {
 			LOG.error("Error cant load API-Methods for API: '"+apiId+"' from API-Manager. Can't parse response: " + response);
@@ -471,17 +584,13 @@ public class APIManagerAdapter {
 	}
 	
 	public String getMethodIdPerName(String apiId, String methodName) throws AppException {
-		List<APIMethod> apiMethods = getAllMethodsForAPI(apiId);
-		if(apiMethods.size()==0) {
+		APIMethodCatalog catalog = getMethodCatalog(apiId);
+		if(catalog.isEmpty()) {
 			LOG.warn("No operations found for API with id: " + apiId);
 			return null;
 		}
-		for(APIMethod method : apiMethods) {
-			String operationName = method.getName();
-			if(operationName.equals(methodName)) {
-				return method.getId();
-			}
-		}
+		APIMethod method = catalog.getMethodByName(methodName);
+		if(method!=null) return method.getId();
 		LOG.warn("No operation found with name: '"+methodName+"' for API: '"+apiId+"'");
 		return null;
 	}
@@ -498,15 +607,31 @@ public class APIManagerAdapter {
 	 */
 	public String getOrgId(String orgName, boolean devOrgsOnly) throws AppException {
 		if(!this.hasAdminAccount) return null;
-		if(allOrgs == null) getAllOrgs();
-		for(Organization org : allOrgs) {
-			if(devOrgsOnly && org.getDevelopment().equals("false")) continue; // Ignore non-dev orgs
-			if(orgName.equals(org.getName())) return org.getId();
-		}
+		Organization org = getOrgCatalog().getOrgByName(orgName, devOrgsOnly);
+		if(org!=null) return org.getId();
 		LOG.error("Requested OrgId for unknown orgName: " + orgName);
 		return null;
 	}
 	
+	/**
+	 * Resolves the Org-IDs for a number of organizations at once.
+	 * @param orgNames the names of the organizations
+	 * @return the id per organization name in the given order. The id is null for unknown organizations.
+	 * @throws AppException if allOrgs can't be read from the API-Manager
+	 */
+	public Map<String, String> getOrgIds(Collection<String> orgNames) throws AppException {
+		Map<String, String> orgIds = new LinkedHashMap<String, String>();
+		if(!this.hasAdminAccount) {
+			for(String orgName : orgNames) orgIds.put(orgName, null);
+			return orgIds;
+		}
+		orgIds = getOrgCatalog().getOrgIds(orgNames, false);
+		for(String orgName : orgIds.keySet()) {
+			if(orgIds.get(orgName)==null) LOG.error("Requested OrgId for unknown orgName: " + orgName);
+		}
+		return orgIds;
+	}
+	
 	/**
 	 * The actual Org-ID based on the OrgName. Lazy implementation.
 	 * @param orgId the id of the organizations you want the name for
@@ -514,10 +639,8 @@ public class APIManagerAdapter {
 	 * @throws AppException if allOrgs can't be read from the API-Manager
 	 */
 	public String getOrgName(String orgId) throws AppException {
-		if(allOrgs == null) getAllOrgs();
-		for(Organization org : allOrgs) {
-			if(orgId.equals(org.getId())) return org.getName();
-		}
+		Organization org = getOrgCatalog().getOrgById(orgId);
+		if(org!=null) return org.getName();
 		LOG.error("Requested OrgName for unknown orgId: " + orgId);
 		return null;
 	}
@@ -529,88 +652,152 @@ public class APIManagerAdapter {
 	 * @throws AppException if allApps can't be read from API-Manager 
 	 */
 	public ClientApplication getApplication(String appName) throws AppException {
-		if(allApps==null) getAllApps();
-		for(ClientApplication app : allApps) {
+		ClientApplication app = getAppCatalog().getAppByName(appName);
+		if(app!=null) {
 			LOG.debug("Configured app with name: '"+appName+"' found. ID: '"+app.getId()+"'");
-			if(appName.equals(app.getName())) return app;
+			return app;
 		}
 		LOG.error("Requested AppId for unknown appName: " + appName);
 		return null;
 	}
 	
+	/**
+	 * Resolves a number of applications at once.
+	 * @param appNames the names of the applications
+	 * @return the application per name in the given order. The application is null, if unknown.
+	 * @throws AppException if allApps can't be read from API-Manager 
+	 */
+	public Map<String, ClientApplication> getApplications(Collection<String> appNames) throws AppException {
+		Map<String, ClientApplication> apps = getAppCatalog().getApplications(appNames);
+		for(String appName : apps.keySet()) {
+			if(apps.get(appName)==null) LOG.error("Requested AppId for unknown appName: " + appName);
+		}
+		return apps;
+	}
+	
 	/**
 	 * The actual App-ID based on the AppName. Lazy implementation.
 	 * @param appId unique ID for the application
 	 * @return the id of the organization
 	 */
 	public static ClientApplication getAppForId(String appId) {
-		for(ClientApplication app : allApps) {
-			if(appId.equals(app.getId())) return app;
-		}
+		ClientApplicationCatalog catalog = appCatalog;
+		ClientApplication app = (catalog==null) ? null : catalog.getAppById(appId);
+		if(app!=null) return app;
 		LOG.error("Requested Application for unknown appId: "+appId+" not found.");
 		return null;
 	}
 	
 	/**
-	 * The actual App-ID based on the AppName. Lazy implementation.
+	 * The application registered for the given credential. The credentials of the applications are 
+	 * loaded (in parallel, if configured with loadParallelism) only until the credential is found and 
+	 * are kept in an index per credential type answering all further lookups.
 	 * @param credential The credentials (API-Key, Client-ID) which is registered for an application
 	 * @param type of the credential. See APIManagerAdapter for potential credential types 
-	 * @return the id of the organization
+	 * @return the application or null, if no application is found for the credential
 	 * @throws AppException if JSON response from API-Manager can't be parsed
 	 */
 	public ClientApplication getAppIdForCredential(String credential, String type) throws AppException {
-		if(clientCredentialToAppMap.containsKey(type+"_"+credential)) {
-			ClientApplication app = clientCredentialToAppMap.get(type+"_"+credential);
-			LOG.info("Found existing application (in cache): '"+app.getName()+"' based on credential (Type: '"+type+"'): '"+credential+"'");
-			return app;
+		if(!type.equals(CREDENTIAL_TYPE_API_KEY) && !type.equals(CREDENTIAL_TYPE_EXT_CLIENTID) && !type.equals(CREDENTIAL_TYPE_OAUTH)) {
+			throw new AppException("Unknown credential type: " + type, ErrorCode.UNXPECTED_ERROR);
 		}
-		getAllApps(); // Make sure, we loaded all apps before!
-		LOG.debug("Searching credential (Type: "+type+"): '"+credential+"' in: " + allApps.size() + " apps.");
-		Collection<ClientApplication> appIds = clientCredentialToAppMap.values();
-		for(ClientApplication app : allApps) {
-			if(appIds.contains(app.getId())) continue; // Not sure, if this really makes sense. Need to check!
-			ObjectMapper mapper = new ObjectMapper();
-			String response = null;
-			URI uri;
+		ClientCredentialIndex index = getCredentialIndex(type);
+		int loadedApps = index.getLoadedApps();
+		ClientApplication app = index.getApp(credential);
+		if(index.getLoadedApps()!=loadedApps) {
 			try {
-				uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/applications/"+app.getId()+"/"+type+"").build();
-				LOG.debug("Loading credentials of type: '" + type + "' for application: '" + app.getName() + "' from API-Manager.");
-				RestAPICall getRequest = new GETRequest(uri, null, true);
-				HttpResponse httpResponse = getRequest.execute();
-				response = EntityUtils.toString(httpResponse.getEntity());
-				LOG.trace("Response: " + response);
-				JsonNode clientIds = mapper.readTree(response);
-				if(clientIds.size()==0) {
-					LOG.debug("No credentials (Type: '"+type+"') found for application: '"+app.getName()+"'");
-					continue;
-				}
-				for(JsonNode clientId : clientIds) {
-					String key;
-					if(type.equals(CREDENTIAL_TYPE_API_KEY)) {
-						key = clientId.get("id").asText();
-					} else if(type.equals(CREDENTIAL_TYPE_EXT_CLIENTID) || type.equals(CREDENTIAL_TYPE_OAUTH)) {
-						if(clientId.get("clientId")==null) {
-							key = "NOT_FOUND";
-						} else {
-							key = clientId.get("clientId").asText();
-						}
+				MetadataCache.getInstance().put("credentials/"+type, new ObjectMapper().writeValueAsString(index.getAppIds()));
+			} catch (IOException e) {
+				throw new AppException("Can't create credential index.", ErrorCode.UNXPECTED_ERROR, e);
+			}
+		}
+		if(app==null) {
+			LOG.error("No application found for credential ("+type+"): " + credential);
+			return null;
+		}
+		LOG.info("Found existing application: '"+app.getName()+"' based on credential (Type: '"+type+"'): '"+credential+"'");
+		return app;
+	}
+	
+	private synchronized ClientCredentialIndex getCredentialIndex(final String type) throws AppException {
+		ClientCredentialIndex index = credentialIndexes.get(type);
+		if(index!=null) return index;
+		List<ClientApplication> allApps = getAllApps(); // Make sure, we loaded all apps before!
+		if(allApps==null) allApps = new ArrayList<ClientApplication>();
+		index = new ClientCredentialIndex(allApps, CommandParameters.getInstance().getLoadParallelism(), new ClientCredentialIndex.CredentialLoader() {
+			@Override
+			public List<String> getCredentials(ClientApplication app) throws AppException {
+				return APIManagerAdapter.getCredentials(app, type);
+			}
+		});
+		index.setHints(loadCredentialHintsFromCache(type));
+		credentialIndexes.put(type, index);
+		return index;
+	}
+	
+	private ClientApplicationCatalog getAppCatalog() throws AppException {
+		getAllApps();
+		ClientApplicationCatalog catalog = appCatalog;
+		// Without an Admin-Account applications can't be loaded
+		return (catalog==null) ? new ClientApplicationCatalog(new ArrayList<ClientApplication>()) : catalog;
+	}
+	
+	/**
+	 * The credentials found by previous runs are cached as a map credential to application-id. 
+	 * They are used as hints only, as credentials might have been changed since.
+	 */
+	private Map<String, ClientApplication> loadCredentialHintsFromCache(String type) {
+		Map<String, ClientApplication> hints = new HashMap<String, ClientApplication>();
+		String cachedIndex = MetadataCache.getInstance().get("credentials/"+type);
+		if(cachedIndex==null || appCatalog==null) return hints;
+		try {
+			Map<String, String> credentialIndex = new ObjectMapper().readValue(cachedIndex, new TypeReference<Map<String, String>>(){});
+			for(String key : credentialIndex.keySet()) {
+				ClientApplication app = appCatalog.getAppById(credentialIndex.get(key));
+				if(app!=null) hints.put(key, app);
+			}
+		} catch (Exception e) {
+			LOG.warn("Can't use cached credentials for type: " + type, e);
+		}
+		return hints;
+	}
+	
+	private static List<String> getCredentials(ClientApplication app, String type) throws AppException {
+		ObjectMapper mapper = new ObjectMapper();
+		String response = null;
+		URI uri;
+		List<String> credentials = new ArrayList<String>();
+		try {
+			uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/applications/"+app.getId()+"/"+type+"").build();
+			LOG.debug("Loading credentials of type: '" + type + "' for application: '" + app.getName() + "' from API-Manager.");
+			RestAPICall getRequest = new GETRequest(uri, null, true);
+			HttpResponse httpResponse = getRequest.execute();
+			response = EntityUtils.toString(httpResponse.getEntity());
+			LOG.trace("Response: " + response);
+			JsonNode clientIds = mapper.readTree(response);
+			if(clientIds.size()==0) {
+				LOG.debug("No credentials (Type: '"+type+"') found for application: '"+app.getName()+"'");
+				return credentials;
+			}
+			for(JsonNode clientId : clientIds) {
+				String key;
+				if(type.equals(CREDENTIAL_TYPE_API_KEY)) {
+					key = clientId.get("id").asText();
+				} else {
+					if(clientId.get("clientId")==null) {
+						key = "NOT_FOUND";
 					} else {
-						throw new AppException("Unknown credential type: " + type, ErrorCode.UNXPECTED_ERROR);
-					}
-					LOG.debug("Found credential (Type: '"+type+"'): '"+key+"' for application: '"+app.getName()+"'");
-					clientCredentialToAppMap.put(type+"_"+key, app);
-					if(key.equals(credential)) {
-						LOG.info("Found existing application: '"+app.getName()+"' based on credential (Type: '"+type+"'): '"+credential+"'");
-						return app;
+						key = clientId.get("clientId").asText();
 					}
 				}
-			} catch (Exception e) {
-				LOG.error("Can't load applications credentials. Can't parse response: " + response);
-				throw new AppException("Can't load applications credentials.", ErrorCode.API_MANAGER_COMMUNICATION, e);
+				LOG.debug("Found credential (Type: '"+type+"'): '"+key+"' for application: '"+app.getName()+"'");
+				credentials.add(key);
 			}
+			return credentials;
+		} catch (Exception e) {
+			LOG.error("Can't load applications credentials. Can't parse response: " + response);
+			throw new AppException("Can't load applications credentials.", ErrorCode.API_MANAGER_COMMUNICATION, e);
 		}
-		LOG.error("No application found for credential ("+type+"): " + credential);
-		return null;
 	}
 	
 	
@@ -620,10 +807,10 @@ public class APIManagerAdapter {
 		if(desiredAPI!=null && (desiredAPI.getApplicationQuota() == null && desiredAPI.getSystemQuota() == null)) return;
 		ActualAPI managerAPI = (ActualAPI)api;
 		try {
-			applicationQuotaConfig = getQuotaFromAPIManager(APPLICATION_DEFAULT_QUOTA); // Get the Application-Default-Quota
-			sytemQuotaConfig = getQuotaFromAPIManager(SYSTEM_API_QUOTA); // Get the System-Default-Quota
-			managerAPI.setApplicationQuota(getAPIQuota(applicationQuotaConfig, managerAPI.getId()));
-			managerAPI.setSystemQuota(getAPIQuota(sytemQuotaConfig, managerAPI.getId()));
+			synchronized (APIManagerAdapter.class) {
+				managerAPI.setApplicationQuota(getAPIQuota(getDefaultQuota(APPLICATION_DEFAULT_QUOTA), managerAPI.getId()));
+				managerAPI.setSystemQuota(getAPIQuota(getDefaultQuota(SYSTEM_API_QUOTA), managerAPI.getId()));
+			}
 		} catch (AppException e) {
 			LOG.error("Application-Default quota response: '"+applicationQuotaConfig+"'");
 			LOG.error("System-Default quota response: '"+sytemQuotaConfig+"'");
@@ -631,6 +818,40 @@ public class APIManagerAdapter {
 		}
 	}
 	
+	/**
+	 * Returns the given default quota (System- or Application-Default), which is loaded from the API-Manager 
+	 * only once per run. The returned quota is shared by all APIs promoted in this run, hence it must only be 
+	 * read or changed while holding the lock of this class.
+	 * @param quotaId either SYSTEM_API_QUOTA or APPLICATION_DEFAULT_QUOTA
+	 * @return the actual quota configuration
+	 * @throws AppException if the quota can't be loaded
+	 */
+	public static synchronized APIQuota getDefaultQuota(String quotaId) throws AppException {
+		APIQuota quotaConfig = (quotaId.equals(SYSTEM_API_QUOTA)) ? sytemQuotaConfig : applicationQuotaConfig;
+		if(quotaConfig==null) {
+			quotaConfig = getQuotaFromAPIManager(quotaId);
+			if(quotaId.equals(SYSTEM_API_QUOTA)) {
+				sytemQuotaConfig = quotaConfig;
+			} else {
+				applicationQuotaConfig = quotaConfig;
+			}
+		}
+		return quotaConfig;
+	}
+	
+	/**
+	 * Forces the given default quota to be reloaded when used next, e.g. because an update failed 
+	 * and the shared quota contains changes not stored in the API-Manager.
+	 * @param quotaId either SYSTEM_API_QUOTA or APPLICATION_DEFAULT_QUOTA
+	 */
+	public static synchronized void invalidateDefaultQuota(String quotaId) {
+		if(quotaId.equals(SYSTEM_API_QUOTA)) {
+			sytemQuotaConfig = null;
+		} else {
+			applicationQuotaConfig = null;
+		}
+	}
+	
 	private static APIQuota getQuotaFromAPIManager(String identifier) throws AppException {
 		ObjectMapper mapper = new ObjectMapper();
 		URI uri;
@@ -688,7 +909,6 @@ public class APIManagerAdapter {
 	 */
 	public JsonNode getExistingAPI(String apiPath, List<NameValuePair> filter, String type) throws AppException {
 		CommandParameters cmd = CommandParameters.getInstance();
-		ObjectMapper mapper = new ObjectMapper();
 		URI uri;
 		try {
 			List<NameValuePair> usedFilters = new ArrayList<>();
@@ -701,26 +921,30 @@ public class APIManagerAdapter {
 			uri = new URIBuilder(cmd.getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/"+type)
 				.addParameters(usedFilters)
 				.build();
-			RestAPICall getRequest = new GETRequest(uri, null);
+			GETRequest getRequest = new GETRequest(uri, null);
+			// Without filters all APIs are returned, hence the listing isn't cached
+			getRequest.setStreamed(usedFilters.isEmpty());
 			InputStream response = getRequest.execute().getEntity().getContent();
 			
-			JsonNode jsonResponse;
 			String path;
-			JsonNode foundApi = null;
+			final JsonNode[] found = new JsonNode[1];
 			try {
-				jsonResponse = mapper.readTree(response);
 				// We can directly access what we are looking for, as for 7.7 we filtered directly for the apiPath or 
 				// we have used some filters!
-				if(jsonResponse.size()!=0 && (filter!=null || hasAPIManagerVersion("7.7"))) {
-					foundApi =  jsonResponse.get(0);
-				} else {
-					for(JsonNode api : jsonResponse) {
-						path = api.get("path").asText();
-						if(path.equals(apiPath)) {
-							foundApi = api;
+				final boolean takeFirst = (filter!=null || hasAPIManagerVersion("7.7"));
+				final String searchedPath = apiPath;
+				// The listing is read API by API and reading stops with the first match, as it might be huge (without filters)
+				JsonArrayReader.read(response, null, new JsonArrayReader.ElementHandler() {
+					@Override
+					public boolean handle(JsonNode api) {
+						if(takeFirst || (api.get("path")!=null && api.get("path").asText().equals(searchedPath))) {
+							found[0] = api;
+							return false;
 						}
+						return true;
 					}
-				}
+				});
+				JsonNode foundApi = found[0];
 				if(foundApi!=null) {
 					if(type.equals(TYPE_FRONT_END)) {
 						path = foundApi.get("path").asText();
@@ -748,15 +972,21 @@ public class APIManagerAdapter {
 		}
 	}
 	
-	private static byte[] getOriginalAPIDefinitionFromAPIM(String backendApiID) throws AppException {
+	/**
+	 * @param backendApiID the ID of the Backend-API
+	 * @return the API-Definition as it has been imported
+	 * @throws AppException if the API-Definition can't be read
+	 */
+	public static byte[] getOriginalAPIDefinitionFromAPIM(String backendApiID) throws AppException {
 		URI uri;
 		try {
 			uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/apirepo/"+backendApiID+"/download")
 					.setParameter("original", "true").build();
-			RestAPICall getRequest = new GETRequest(uri, null);
+			GETRequest getRequest = new GETRequest(uri, null);
+			getRequest.setRevalidate(true);
 			HttpResponse response=getRequest.execute();
-			String res = EntityUtils.toString(response.getEntity(),StandardCharsets.UTF_8);
-			return res.getBytes(StandardCharsets.UTF_8);
+			// Kept as returned, as the API-Definition is compared with the imported one
+			return Utils.toByteArray(response.getEntity());
 		} catch (Exception e) {
 			throw new AppException("Can't read Swagger-File.", ErrorCode.CANT_READ_API_DEFINITION_FILE, e);
 		}
@@ -766,7 +996,8 @@ public class APIManagerAdapter {
 		URI uri;
 		try {
 			uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/proxies/"+backendApiID+"/image").build();
-			RestAPICall getRequest = new GETRequest(uri, null);
+			GETRequest getRequest = new GETRequest(uri, null);
+			getRequest.setRevalidate(true);
 			HttpEntity response = getRequest.execute().getEntity();
 			if(response == null) return null; // no Image found in API-Manager
 			InputStream is = response.getContent();
@@ -854,31 +1085,44 @@ public class APIManagerAdapter {
 		}
 	}
 	
-	public List<Organization> getAllOrgs() throws AppException {
+	public synchronized List<Organization> getAllOrgs() throws AppException {
 		if(!hasAdminAccount) {
 			LOG.error("Cant load all organizations without an Admin-Account.");
 			return null;
 		}
-		if(APIManagerAdapter.allOrgs!=null) {
-			return APIManagerAdapter.allOrgs;
+		if(APIManagerAdapter.orgCatalog!=null) {
+			return APIManagerAdapter.orgCatalog.getOrgs();
 		}
-		allOrgs = new ArrayList<Organization>();
 		ObjectMapper mapper = new ObjectMapper();
 		String response = null;
 		URI uri;
 		try {
-			uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/organizations").build();
-			RestAPICall getRequest = new GETRequest(uri, null, true);
-			HttpResponse httpResponse = getRequest.execute();
-			response = EntityUtils.toString(httpResponse.getEntity());
-			allOrgs = mapper.readValue(response, new TypeReference<List<Organization>>(){});
-			return allOrgs;
+			response = MetadataCache.getInstance().get("organizations");
+			boolean cached = (response!=null);
+			if(!cached) {
+				uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/organizations").build();
+				GETRequest getRequest = new GETRequest(uri, null, true);
+				getRequest.setRevalidate(true);
+				HttpResponse httpResponse = getRequest.execute();
+				response = mapper.writeValueAsString(JsonArrayReader.read(httpResponse.getEntity().getContent(), ORG_FIELDS));
+			}
+			List<Organization> allOrgs = mapper.readValue(response, new TypeReference<List<Organization>>(){});
+			if(!cached) MetadataCache.getInstance().put("organizations", response);
+			orgCatalog = new OrganizationCatalog(allOrgs);
+			return orgCatalog.getOrgs();
 		} catch (Exception e) {
 			LOG.error("Error cant read all orgs from API-Manager. Can't parse response: " + response);
 			throw new AppException("Can't read all orgs from API-Manager", ErrorCode.API_MANAGER_COMMUNICATION, e);
 		}
 	}
 	
+	private OrganizationCatalog getOrgCatalog() throws AppException {
+		getAllOrgs();
+		OrganizationCatalog catalog = orgCatalog;
+		// Without an Admin-Account organizations can't be loaded
+		return (catalog==null) ? new OrganizationCatalog(new ArrayList<Organization>()) : catalog;
+	}
+	
 	public List<IAPI> getAllAPIs() throws AppException {
 		if(!hasAdminAccount) {
 			LOG.error("Cant load all APIs without an Admin-Account.");
@@ -887,45 +1131,58 @@ public class APIManagerAdapter {
 		if(APIManagerAdapter.allAPIs!=null) {
 			return APIManagerAdapter.allAPIs;
 		}
-		allAPIs = new ArrayList<IAPI>();
-		ObjectMapper mapper = new ObjectMapper();
-		String response = null;
+		final List<IAPI> apis = new ArrayList<IAPI>();
+		final ObjectMapper mapper = new ObjectMapper();
 		URI uri;
 		try {
 			uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/proxies").build();
-			RestAPICall getRequest = new GETRequest(uri, null, true);
+			GETRequest getRequest = new GETRequest(uri, null, true);
+			getRequest.setStreamed(true);
 			HttpResponse httpResponse = getRequest.execute();
-			response = EntityUtils.toString(httpResponse.getEntity());
-			allAPIs = mapper.readValue(response, new TypeReference<List<ActualAPI>>(){});
+			JsonArrayReader.read(httpResponse.getEntity().getContent(), API_FIELDS, new JsonArrayReader.ElementHandler() {
+				@Override
+				public boolean handle(JsonNode api) throws IOException {
+					apis.add(mapper.treeToValue(api, ActualAPI.class));
+					return true;
+				}
+			});
+			allAPIs = apis;
 			return allAPIs;
 		} catch (Exception e) {
-			LOG.error("Error cant read all APIs from API-Manager. Can't parse response: " + response);
+			LOG.error("Error cant read all APIs from API-Manager.", e);
 			throw new AppException("Can't read all APIs from API-Manager", ErrorCode.API_MANAGER_COMMUNICATION, e);
 		}
 	}
 	
-	public List<ClientApplication> getAllApps() throws AppException {
+	public synchronized List<ClientApplication> getAllApps() throws AppException {
 		if(!hasAdminAccount) {
 			LOG.error("Cant load all applications without an Admin-Account.");
 			return null;
 		}
-		if(APIManagerAdapter.allApps!=null) {
-			LOG.trace("Not reloading existing apps from API-Manager. Number of apps: " + APIManagerAdapter.allApps.size());
-			return APIManagerAdapter.allApps;
+		if(APIManagerAdapter.appCatalog!=null) {
+			LOG.trace("Not reloading existing apps from API-Manager. Number of apps: " + APIManagerAdapter.appCatalog.getApplications().size());
+			return APIManagerAdapter.appCatalog.getApplications();
 		}
 		LOG.debug("Loading existing apps from API-Manager.");
-		allApps = new ArrayList<ClientApplication>();
 		ObjectMapper mapper = new ObjectMapper();
 		String response = null;
 		URI uri;
 		try {
-			uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/applications").build();
-			RestAPICall getRequest = new GETRequest(uri, null, true);
-			HttpResponse httpResponse = getRequest.execute();
-			response = EntityUtils.toString(httpResponse.getEntity());
-			allApps = mapper.readValue(response, new TypeReference<List<ClientApplication>>(){});
+			response = MetadataCache.getInstance().get("applications");
+			boolean cached = (response!=null);
+			if(!cached) {
+				uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath(RestAPICall.API_VERSION + "/applications").build();
+				GETRequest getRequest = new GETRequest(uri, null, true);
+				getRequest.setRevalidate(true);
+				getRequest.setStreamed(true);
+				HttpResponse httpResponse = getRequest.execute();
+				response = mapper.writeValueAsString(JsonArrayReader.read(httpResponse.getEntity().getContent(), APP_FIELDS));
+			}
+			List<ClientApplication> allApps = mapper.readValue(response, new TypeReference<List<ClientApplication>>(){});
+			if(!cached) MetadataCache.getInstance().put("applications", response);
+			appCatalog = new ClientApplicationCatalog(allApps);
 			LOG.debug("Loaded: " + allApps.size() + " apps from API-Manager.");
-			return allApps;
+			return appCatalog.getApplications();
 		} catch (Exception e) {
 			LOG.error("Error cant read all applications from API-Manager. Can't parse response: " + response);
 			throw new AppException("Can't read all applications from API-Manager", ErrorCode.API_MANAGER_COMMUNICATION, e);
@@ -934,6 +1191,135 @@ public class APIManagerAdapter {
 	
 	
 	
+	/**
+	 * The organizations having access to the given API. On first use the API-Access of all organizations is loaded 
+	 * (in parallel, if configured with loadParallelism) into an index API to organizations, which is kept 
+	 * up to date by the tool when granting or removing access, instead of reloading it.
+	 * @param apiId the ID of the API (Frontend-API)
+	 * @return the API-Access per organization-id. The API-Access ID is null, if the access has been granted during this run.
+	 * @throws AppException if the API-Access of the organizations can't be loaded
+	 */
+	public Map<String, ApiAccess> getGrantedOrgs(String apiId) throws AppException {
+		Map<String, Map<String, ApiAccess>> index = loadOrgAccessIndex();
+		synchronized (index) {
+			Map<String, ApiAccess> grantedOrgs = index.get(apiId);
+			return (grantedOrgs==null) ? new HashMap<String, ApiAccess>() : new HashMap<String, ApiAccess>(grantedOrgs);
+		}
+	}
+	
+	private synchronized Map<String, Map<String, ApiAccess>> loadOrgAccessIndex() throws AppException {
+		if(apiGrantedOrgs!=null) return apiGrantedOrgs;
+		List<Organization> orgs = getAllOrgs();
+		LOG.debug("Loading API-Access of: " + orgs.size() + " organizations.");
+		List<Callable<List<ApiAccess>>> accessLoaders = new ArrayList<Callable<List<ApiAccess>>>();
+		for(final Organization org : orgs) {
+			accessLoaders.add(new Callable<List<ApiAccess>>() {
+				@Override
+				public List<ApiAccess> call() throws AppException {
+					return getOrgsApiAccess(org.getId(), false);
+				}
+			});
+		}
+		ParallelExecutor executor = new ParallelExecutor(CommandParameters.getInstance().getLoadParallelism(), "apim-org-access");
+		try {
+			List<List<ApiAccess>> orgsAccess = executor.invokeAll(accessLoaders);
+			Map<String, Map<String, ApiAccess>> index = new HashMap<String, Map<String, ApiAccess>>();
+			for(int i=0; i<orgs.size(); i++) {
+				for(ApiAccess access : orgsAccess.get(i)) {
+					Map<String, ApiAccess> grantedOrgs = index.get(access.getApiId());
+					if(grantedOrgs==null) {
+						grantedOrgs = new HashMap<String, ApiAccess>();
+						index.put(access.getApiId(), grantedOrgs);
+					}
+					grantedOrgs.put(orgs.get(i).getId(), access);
+				}
+			}
+			apiGrantedOrgs = index;
+			return apiGrantedOrgs;
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/**
+	 * Registers the access granted to the given organizations in the API-Access index.
+	 * @param apiId the ID of the API (Frontend-API)
+	 * @param orgIds the organizations which have been granted access
+	 */
+	public void addGrantedOrgs(String apiId, Collection<String> orgIds) {
+		for(String orgId : orgIds) {
+			// The ID of the API-Access isn't returned by the API-Manager, it's loaded on demand
+			ApiAccess access = new ApiAccess();
+			access.setApiId(apiId);
+			List<ApiAccess> orgAccess = orgsApiAccess.get(orgId);
+			if(orgAccess!=null) {
+				synchronized (orgAccess) {
+					orgAccess.add(access);
+				}
+			}
+			Map<String, Map<String, ApiAccess>> index = apiGrantedOrgs;
+			if(index==null) continue;
+			synchronized (index) {
+				Map<String, ApiAccess> grantedOrgs = index.get(apiId);
+				if(grantedOrgs==null) {
+					grantedOrgs = new HashMap<String, ApiAccess>();
+					index.put(apiId, grantedOrgs);
+				}
+				if(!grantedOrgs.containsKey(orgId)) grantedOrgs.put(orgId, access);
+			}
+		}
+	}
+	
+	/**
+	 * Removes the access of the given organizations from the API-Access index.
+	 * @param apiId the ID of the API (Frontend-API)
+	 * @param orgIds the organizations which access has been removed or null, if removed for all organizations
+	 */
+	public void removeGrantedOrgs(String apiId, Collection<String> orgIds) {
+		for(String orgId : (orgIds==null) ? orgsApiAccess.keySet() : orgIds) {
+			List<ApiAccess> orgAccess = orgsApiAccess.get(orgId);
+			if(orgAccess==null) continue;
+			synchronized (orgAccess) {
+				Iterator<ApiAccess> it = orgAccess.iterator();
+				while(it.hasNext()) {
+					if(apiId.equals(it.next().getApiId())) it.remove();
+				}
+			}
+		}
+		Map<String, Map<String, ApiAccess>> index = apiGrantedOrgs;
+		if(index==null) return;
+		synchronized (index) {
+			Map<String, ApiAccess> grantedOrgs = index.get(apiId);
+			if(grantedOrgs==null) return;
+			if(orgIds==null) {
+				index.remove(apiId);
+			} else {
+				grantedOrgs.keySet().removeAll(orgIds);
+			}
+		}
+	}
+	
+	/**
+	 * Replaces the API-Access of the given organization in the index with the reloaded API-Access
+	 */
+	private static void updateGrantedOrgs(String orgId, List<ApiAccess> reloadedAccess) {
+		Map<String, Map<String, ApiAccess>> index = apiGrantedOrgs;
+		if(index==null) return;
+		synchronized (index) {
+			for(Map<String, ApiAccess> grantedOrgs : index.values()) {
+				grantedOrgs.remove(orgId);
+			}
+			for(ApiAccess access : reloadedAccess) {
+				Map<String, ApiAccess> grantedOrgs = index.get(access.getApiId());
+				if(grantedOrgs==null) {
+					grantedOrgs = new HashMap<String, ApiAccess>();
+					index.put(access.getApiId(), grantedOrgs);
+				}
+				grantedOrgs.put(orgId, access);
+			}
+		}
+	}
+	
 	public static List<ApiAccess> getOrgsApiAccess(String orgId, boolean forceReload) throws AppException {
 		if(!forceReload && orgsApiAccess.containsKey(orgId)) {
 			return orgsApiAccess.get(orgId);
@@ -949,6 +1335,7 @@ public class APIManagerAdapter {
 			response = EntityUtils.toString(httpResponse.getEntity());
 			apiAccess = mapper.readValue(response, new TypeReference<List<ApiAccess>>(){});
 			orgsApiAccess.put(orgId, apiAccess);
+			if(forceReload) updateGrantedOrgs(orgId, apiAccess);
 			return apiAccess;
 		} catch (Exception e) {
 			LOG.error("Error cant read API-Access for org: "+orgId+" from API-Manager. Can't parse response: " + response);
@@ -962,7 +1349,8 @@ public class APIManagerAdapter {
 		URI uri;
 		try {
 			uri = new URIBuilder(CommandParameters.getInstance().getAPIManagerURL()).setPath("/vordel/apiportal/app/app.config").build();
-			RestAPICall getRequest = new GETRequest(uri, null);
+			GETRequest getRequest = new GETRequest(uri, null);
+			getRequest.setRevalidate(true);
 			HttpEntity response = getRequest.execute().getEntity();
 			appConfig = IOUtils.toString(response.getContent(), "UTF-8");
 			return parseAppConfig(appConfig);
@@ -1052,22 +1440,21 @@ public class APIManagerAdapter {
 	public <profile> void translateMethodIds(Map<String, profile> profiles, IAPI actualAPI) throws AppException {
 		Map<String, profile> updatedEntries = new LinkedHashMap<String, profile>();
 		if(profiles!=null) {
+			APIMethodCatalog catalog = null;
 			Iterator<String> keys = profiles.keySet().iterator();
 			while(keys.hasNext()) {
 				String key = keys.next();
 				if(key.equals("_default")) continue;
-				List<APIMethod> methods = getAllMethodsForAPI(actualAPI.getId());
-				for(APIMethod method : methods) {
-					if(method.getName().equals(key)) {
-						profile value = profiles.get(key);
-						if(value instanceof OutboundProfile) {
-							((OutboundProfile)value).setApiMethodId(method.getApiMethodId());
-							((OutboundProfile)value).setApiId(method.getApiId());
-						}
-						updatedEntries.put(method.getId(), profiles.get(key));
-						keys.remove();
-						break;
+				if(catalog==null) catalog = getMethodCatalog(actualAPI.getId());
+				APIMethod method = catalog.getMethodByName(key);
+				if(method!=null) {
+					profile value = profiles.get(key);
+					if(value instanceof OutboundProfile) {
+						((OutboundProfile)value).setApiMethodId(method.getApiMethodId());
+						((OutboundProfile)value).setApiId(method.getApiId());
 					}
+					updatedEntries.put(method.getId(), profiles.get(key));
+					keys.remove();
 				}
 			}
 			profiles.putAll(updatedEntries);
@@ -1,19 +1,22 @@
 package com.axway.apim.swagger.api.properties;
 
+import java.io.IOException;
 import java.net.URL;
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.axway.apim.lib.APIDefinitionComparison;
 import com.axway.apim.lib.AppException;
 import com.axway.apim.lib.CommandParameters;
 import com.axway.apim.lib.Utils;
 import com.axway.apim.swagger.api.state.DesiredAPI;
 import com.axway.apim.swagger.api.state.IAPI;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class APIDefintion {
 	
@@ -42,24 +45,25 @@ public class APIDefintion {
 	public void setAPIDefinitionContent(byte[] apiDefinitionContent, DesiredAPI importAPI) {
 		this.apiDefinitionContent = apiDefinitionContent;
 		try {
-			if(CommandParameters.getInstance().replaceHostInSwagger() && getAPIDefinitionType()==IAPI.SWAGGGER_API) {
+			CommandParameters params = CommandParameters.getInstance();
+			// Parameters are not initialized, when running tests (host is replaced by default)
+			boolean replaceHost = (params==null) ? true : params.replaceHostInSwagger();
+			if(replaceHost && getAPIDefinitionType()==IAPI.SWAGGGER_API) {
 				if(importAPI.getBackendBasepath()!=null) {
 					URL url = new URL(importAPI.getBackendBasepath());
 					String port = url.getPort()==-1 ? ":"+String.valueOf(url.getDefaultPort()) : ":"+String.valueOf(url.getPort());
 					if(port.equals(":443") || port.equals(":80")) port = "";
-					ObjectMapper objectMapper = new ObjectMapper();
-					JsonNode swagger = objectMapper.readTree(apiDefinitionContent);
-					if(swagger.get("host")==null) {
+					// Only the host is located and replaced, the rest of the Swagger-File is kept as it is
+					SwaggerHost swaggerHost = SwaggerHost.find(apiDefinitionContent);
+					if(swaggerHost.value==null) {
 						LOG.info("Adding new host '"+url.getHost()+port+"' to Swagger-File based on configured backendBasepath: '"+importAPI.getBackendBasepath()+"'");
-						((ObjectNode)swagger).put("host", url.getHost()+port);
-						this.apiDefinitionContent = objectMapper.writeValueAsBytes(swagger);
+						this.apiDefinitionContent = swaggerHost.replace(apiDefinitionContent, url.getHost()+port);
 					} else {
-						if(swagger.get("host").asText().equals(url.getHost()+port)) {
-							LOG.info("Swagger Host: '"+swagger.get("host").asText()+"' already matches configured backendBasepath: '"+importAPI.getBackendBasepath()+"'. Nothing to do.");
+						if(swaggerHost.value.equals(url.getHost()+port)) {
+							LOG.info("Swagger Host: '"+swaggerHost.value+"' already matches configured backendBasepath: '"+importAPI.getBackendBasepath()+"'. Nothing to do.");
 						} else {
-							LOG.info("Replacing existing host: '"+swagger.get("host").asText()+"' in Swagger-File to '"+url.getHost()+port+"' based on configured backendBasepath: '"+importAPI.getBackendBasepath()+"'");
-							((ObjectNode)swagger).put("host", url.getHost()+port);
-							this.apiDefinitionContent = objectMapper.writeValueAsBytes(swagger);
+							LOG.info("Replacing existing host: '"+swaggerHost.value+"' in Swagger-File to '"+url.getHost()+port+"' based on configured backendBasepath: '"+importAPI.getBackendBasepath()+"'");
+							this.apiDefinitionContent = swaggerHost.replace(apiDefinitionContent, url.getHost()+port);
 						}
 					}
 				}
@@ -93,14 +97,87 @@ public class APIDefintion {
 		if(other == null) return false;
 		if(other instanceof APIDefintion) {
 			APIDefintion otherSwagger = (APIDefintion)other;
-			boolean rc = (Arrays.hashCode(this.apiDefinitionContent)) == Arrays.hashCode(otherSwagger.getAPIDefinitionContent()); 
-			if(!rc) {
-				LOG.info("Detected API-Definition-Filesizes: API-Manager: " + this.apiDefinitionContent.length + " vs. Import: " + otherSwagger.getAPIDefinitionContent().length);
+			APIDefinitionComparison comparison;
+			CommandParameters params = CommandParameters.getInstance();
+			if(params!=null && CommandParameters.COMPARE_BYTES.equals(params.getAPIDefinitionCompareMode())) {
+				comparison = APIDefinitionComparison.compareBytes(this.apiDefinitionContent, otherSwagger.getAPIDefinitionContent());
+			} else {
+				comparison = APIDefinitionComparison.compare(this.apiDefinitionContent, otherSwagger.getAPIDefinitionContent());
 			}
-			return rc;
+			if(!comparison.isEqual()) {
+				LOG.info("Detected API-Definition-Filesizes: API-Manager: " + length(this.apiDefinitionContent) + " vs. Import: " + length(otherSwagger.getAPIDefinitionContent()));
+				if(!comparison.getOperations().isEmpty()) {
+					LOG.info("Changed API-Definition operations: " + comparison.getOperations());
+				}
+				LOG.info("Changed API-Definition paths (compared as " + comparison.getFormat() + "): " + comparison.getDifferences());
+			}
+			return comparison.isEqual();
 		} else {
 			return false;
 		}
 	}
 
+	private static int length(byte[] content) {
+		return (content==null) ? 0 : content.length;
+	}
+	
+	/**
+	 * Location of the host in a Swagger-File, found by streaming through the top-level properties 
+	 * without parsing the complete file.
+	 */
+	static class SwaggerHost {
+		
+		private static ObjectMapper mapper = new ObjectMapper();
+		
+		private static JsonFactory factory = mapper.getFactory();
+		
+		/** The current host or null, if the Swagger-File has no host */
+		String value;
+		
+		/** Byte range of the current host value or the position to insert the host */
+		int start;
+		int end;
+		
+		boolean hasProperties;
+		
+		static SwaggerHost find(byte[] swagger) throws IOException {
+			SwaggerHost host = new SwaggerHost();
+			JsonParser parser = factory.createParser(swagger);
+			try {
+				if(parser.nextToken()!=JsonToken.START_OBJECT) {
+					throw new IOException("Swagger-File is not a JSON-Object.");
+				}
+				host.start = host.end = (int)parser.getTokenLocation().getByteOffset() + 1;
+				while(parser.nextToken()==JsonToken.FIELD_NAME) {
+					host.hasProperties = true;
+					String name = parser.getCurrentName();
+					JsonToken token = parser.nextToken();
+					if("host".equals(name)) {
+						host.start = (int)parser.getTokenLocation().getByteOffset();
+						host.value = (token==JsonToken.VALUE_STRING) ? parser.getText() : "";
+						parser.skipChildren();
+						host.end = (int)parser.getCurrentLocation().getByteOffset();
+						break;
+					}
+					parser.skipChildren();
+				}
+			} finally {
+				parser.close();
+			}
+			return host;
+		}
+		
+		byte[] replace(byte[] swagger, String newHost) throws IOException {
+			String replacement = mapper.writeValueAsString(newHost);
+			if(value==null) {
+				replacement = "\"host\":" + replacement + ((hasProperties) ? "," : "");
+			}
+			byte[] replacementBytes = replacement.getBytes(StandardCharsets.UTF_8);
+			byte[] result = new byte[swagger.length - (end - start) + replacementBytes.length];
+			System.arraycopy(swagger, 0, result, 0, start);
+			System.arraycopy(replacementBytes, 0, result, start, replacementBytes.length);
+			System.arraycopy(swagger, end, result, start + replacementBytes.length, swagger.length - end);
+			return result;
+		}
+	}
 }
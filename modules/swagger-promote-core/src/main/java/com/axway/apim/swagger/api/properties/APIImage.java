@@ -32,11 +32,11 @@ public class APIImage {
 		if(other == null) return false;
 		if(other instanceof APIImage) {
 			APIImage otherImage = (APIImage)other;
-			// If the hashCode of both images are the same, it's completely the same image.
-			if((Arrays.hashCode(this.imageContent)) == Arrays.hashCode(otherImage.getImageContent())) {
+			// If the content of both images is the same, it's completely the same image.
+			if(Arrays.equals(this.imageContent, otherImage.getImageContent())) {
 				return true;
 			} else {
-				// 
+				// Otherwise the image might have been re-encoded by the API-Manager
 				return ImageComparision.compare(this.imageContent, otherImage.getImageContent());
 			}
 		} else {
@@ -0,0 +1,67 @@
+package com.axway.apim.swagger.api.properties.applications;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All applications loaded from the API-Manager, indexed by name and ID.
+ */
+public class ClientApplicationCatalog {
+
+	private List<ClientApplication> apps;
+
+	private Map<String, ClientApplication> appsPerName = new HashMap<String, ClientApplication>();
+
+	private Map<String, ClientApplication> appsPerId = new HashMap<String, ClientApplication>();
+
+	public ClientApplicationCatalog(List<ClientApplication> apps) {
+		super();
+		this.apps = Collections.unmodifiableList(apps);
+		for(ClientApplication app : apps) {
+			// Names are not unique in the API-Manager, hence keep the first application with a given name
+			if(app.getName()!=null && !appsPerName.containsKey(app.getName())) {
+				appsPerName.put(app.getName(), app);
+			}
+			if(app.getId()!=null) appsPerId.put(app.getId(), app);
+		}
+	}
+
+	/**
+	 * @return all applications in the order returned by the API-Manager
+	 */
+	public List<ClientApplication> getApplications() {
+		return apps;
+	}
+
+	/**
+	 * @param appName name of the application
+	 * @return the application or null, if not found
+	 */
+	public ClientApplication getAppByName(String appName) {
+		return appsPerName.get(appName);
+	}
+
+	/**
+	 * @param appId the id of the application
+	 * @return the application or null, if not found
+	 */
+	public ClientApplication getAppById(String appId) {
+		return appsPerId.get(appId);
+	}
+
+	/**
+	 * @param appNames names of the applications to resolve
+	 * @return the application per name in the given order. The application is null, if not found.
+	 */
+	public Map<String, ClientApplication> getApplications(Collection<String> appNames) {
+		Map<String, ClientApplication> result = new LinkedHashMap<String, ClientApplication>();
+		for(String appName : appNames) {
+			result.put(appName, getAppByName(appName));
+		}
+		return result;
+	}
+}
@@ -0,0 +1,156 @@
+package com.axway.apim.swagger.api.properties.applications;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.ParallelExecutor;
+
+/**
+ * Resolves the application a credential (API-Key, Client-ID) of one type is registered for.
+ * The credentials are loaded lazily in the order of the applications and only until the requested
+ * credential is found, using up to parallelism requests at the same time. Loaded credentials answer
+ * later lookups, unknown credentials are answered without requests once all applications are loaded.<br>
+ * Credentials found by a previous run can be given as hints. A hint is never trusted as it is, instead 
+ * the credentials of the hinted application are loaded first, hence changed credentials are detected.
+ */
+public class ClientCredentialIndex {
+
+	/**
+	 * Loads the credentials of the index type for an application from the API-Manager.
+	 */
+	public interface CredentialLoader {
+		public List<String> getCredentials(ClientApplication app) throws AppException;
+	}
+
+	private List<ClientApplication> apps;
+
+	private int parallelism;
+
+	private CredentialLoader loader;
+
+	/** Position of the next application (in order) to load, if not loaded already */
+	private int next = 0;
+
+	private Set<String> loadedApps = new HashSet<String>();
+
+	/** Position of each application (by ID) in the order of the applications */
+	private Map<String, Integer> positions = new HashMap<String, Integer>();
+
+	private Map<String, ClientApplication> appPerCredential = new HashMap<String, ClientApplication>();
+
+	private Map<String, ClientApplication> hints = new HashMap<String, ClientApplication>();
+
+	public ClientCredentialIndex(List<ClientApplication> apps, int parallelism, CredentialLoader loader) {
+		super();
+		this.apps = apps;
+		this.parallelism = Math.max(1, parallelism);
+		this.loader = loader;
+		for(int i=0; i<apps.size(); i++) {
+			positions.put(apps.get(i).getId(), i);
+		}
+	}
+
+	/**
+	 * @param hints the application per credential as found by a previous run. Applications not longer existing are ignored.
+	 */
+	public synchronized void setHints(Map<String, ClientApplication> hints) {
+		this.hints = new HashMap<String, ClientApplication>();
+		for(String credential : hints.keySet()) {
+			ClientApplication app = hints.get(credential);
+			if(app!=null && positions.containsKey(app.getId())) this.hints.put(credential, app);
+		}
+	}
+
+	/**
+	 * @param credential the API-Key or Client-ID
+	 * @return the application the credential is registered for or null, if no application has the credential
+	 * @throws AppException if the credentials can't be loaded
+	 */
+	public synchronized ClientApplication getApp(String credential) throws AppException {
+		ClientApplication app = appPerCredential.get(credential);
+		if(app!=null || isComplete()) return app;
+		ClientApplication hint = hints.remove(credential);
+		if(hint!=null && !loadedApps.contains(hint.getId())) {
+			load(Collections.singletonList(hint), null);
+			app = appPerCredential.get(credential);
+			if(app!=null) return app;
+		}
+		ParallelExecutor executor = new ParallelExecutor(parallelism, "apim-credentials");
+		try {
+			while(!isComplete()) {
+				List<ClientApplication> batch = new ArrayList<ClientApplication>();
+				while(batch.size() < parallelism && next < apps.size()) {
+					ClientApplication nextApp = apps.get(next++);
+					if(!loadedApps.contains(nextApp.getId())) batch.add(nextApp);
+				}
+				load(batch, executor);
+				app = appPerCredential.get(credential);
+				if(app!=null) return app;
+			}
+			return null;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void load(List<ClientApplication> batch, ParallelExecutor executor) throws AppException {
+		List<List<String>> credentials = new ArrayList<List<String>>();
+		if(executor==null) {
+			for(ClientApplication batchApp : batch) credentials.add(loader.getCredentials(batchApp));
+		} else {
+			List<Callable<List<String>>> credentialLoaders = new ArrayList<Callable<List<String>>>();
+			for(final ClientApplication batchApp : batch) {
+				credentialLoaders.add(new Callable<List<String>>() {
+					@Override
+					public List<String> call() throws AppException {
+						return loader.getCredentials(batchApp);
+					}
+				});
+			}
+			credentials = executor.invokeAll(credentialLoaders);
+		}
+		for(int i=0; i<batch.size(); i++) {
+			for(String key : credentials.get(i)) {
+				// The first application having the credential wins, as with the former sequential lookup
+				ClientApplication existing = appPerCredential.get(key);
+				if(existing==null || positions.get(batch.get(i).getId()) < positions.get(existing.getId())) appPerCredential.put(key, batch.get(i));
+			}
+			loadedApps.add(batch.get(i).getId());
+		}
+	}
+
+	/**
+	 * @return true, if the credentials of all applications are loaded
+	 */
+	public synchronized boolean isComplete() {
+		return next >= apps.size() && loadedApps.size() >= apps.size();
+	}
+
+	/**
+	 * @return number of applications whose credentials are loaded
+	 */
+	public synchronized int getLoadedApps() {
+		return loadedApps.size();
+	}
+
+	/**
+	 * @return the application-id per loaded credential, including the hints not checked yet
+	 */
+	public synchronized Map<String, String> getAppIds() {
+		Map<String, String> appIds = new HashMap<String, String>();
+		for(String credential : hints.keySet()) {
+			appIds.put(credential, hints.get(credential).getId());
+		}
+		for(String credential : appPerCredential.keySet()) {
+			appIds.put(credential, appPerCredential.get(credential).getId());
+		}
+		return appIds;
+	}
+}
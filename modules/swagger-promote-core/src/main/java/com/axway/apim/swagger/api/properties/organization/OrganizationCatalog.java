@@ -0,0 +1,76 @@
+package com.axway.apim.swagger.api.properties.organization;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All organizations loaded from the API-Manager, indexed by name and ID. A separate name index
+ * is maintained for organizations having the development flag enabled, as only these can own APIs.
+ */
+public class OrganizationCatalog {
+
+	private List<Organization> orgs;
+
+	private Map<String, Organization> orgsPerName = new HashMap<String, Organization>();
+
+	private Map<String, Organization> devOrgsPerName = new HashMap<String, Organization>();
+
+	private Map<String, Organization> orgsPerId = new HashMap<String, Organization>();
+
+	public OrganizationCatalog(List<Organization> orgs) {
+		super();
+		this.orgs = Collections.unmodifiableList(orgs);
+		for(Organization org : orgs) {
+			// Names are not unique in the API-Manager, hence keep the first organization with a given name
+			if(org.getName()!=null && !orgsPerName.containsKey(org.getName())) {
+				orgsPerName.put(org.getName(), org);
+			}
+			if(org.getName()!=null && !"false".equals(org.getDevelopment()) && !devOrgsPerName.containsKey(org.getName())) {
+				devOrgsPerName.put(org.getName(), org);
+			}
+			if(org.getId()!=null) orgsPerId.put(org.getId(), org);
+		}
+	}
+
+	/**
+	 * @return all organizations in the order returned by the API-Manager
+	 */
+	public List<Organization> getOrgs() {
+		return orgs;
+	}
+
+	/**
+	 * @param orgName name of the organization
+	 * @param devOrgsOnly limit the lookup to organizations having the development flag enabled
+	 * @return the organization or null, if not found
+	 */
+	public Organization getOrgByName(String orgName, boolean devOrgsOnly) {
+		return (devOrgsOnly) ? devOrgsPerName.get(orgName) : orgsPerName.get(orgName);
+	}
+
+	/**
+	 * @param orgId the id of the organization
+	 * @return the organization or null, if not found
+	 */
+	public Organization getOrgById(String orgId) {
+		return orgsPerId.get(orgId);
+	}
+
+	/**
+	 * @param orgNames names of the organizations to resolve
+	 * @param devOrgsOnly limit the lookup to organizations having the development flag enabled
+	 * @return the org-id per name in the given order. The id is null for unknown organizations.
+	 */
+	public Map<String, String> getOrgIds(Collection<String> orgNames, boolean devOrgsOnly) {
+		Map<String, String> orgIds = new LinkedHashMap<String, String>();
+		for(String orgName : orgNames) {
+			Organization org = getOrgByName(orgName, devOrgsOnly);
+			orgIds.put(orgName, (org==null) ? null : org.getId());
+		}
+		return orgIds;
+	}
+}
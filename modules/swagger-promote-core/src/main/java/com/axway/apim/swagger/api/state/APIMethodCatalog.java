@@ -0,0 +1,66 @@
+package com.axway.apim.swagger.api.state;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The operations of an API (front-end) as loaded from the API-Manager, indexed by name and by ID.
+ * It is used to translate operation names given in the API-Config (e.g. for Inbound- or Outbound-Profiles)
+ * into the internal method IDs and vice versa, without scanning the list of operations each time.
+ */
+public class APIMethodCatalog {
+
+	private String apiId;
+
+	private List<APIMethod> methods;
+
+	private Map<String, APIMethod> methodsPerName = new HashMap<String, APIMethod>();
+
+	private Map<String, APIMethod> methodsPerId = new HashMap<String, APIMethod>();
+
+	public APIMethodCatalog(String apiId, List<APIMethod> methods) {
+		super();
+		this.apiId = apiId;
+		this.methods = Collections.unmodifiableList(methods);
+		for(APIMethod method : methods) {
+			// Keep the first operation with a given name, as a linear scan did before
+			if(method.getName()!=null && !methodsPerName.containsKey(method.getName())) {
+				methodsPerName.put(method.getName(), method);
+			}
+			if(method.getId()!=null) methodsPerId.put(method.getId(), method);
+		}
+	}
+
+	public String getApiId() {
+		return apiId;
+	}
+
+	/**
+	 * @return all operations of the API in the order returned by the API-Manager
+	 */
+	public List<APIMethod> getMethods() {
+		return methods;
+	}
+
+	/**
+	 * @param name of the operation (operationId)
+	 * @return the operation with the given name or null
+	 */
+	public APIMethod getMethodByName(String name) {
+		return methodsPerName.get(name);
+	}
+
+	/**
+	 * @param methodId internal ID of the operation
+	 * @return the operation with the given ID or null
+	 */
+	public APIMethod getMethodById(String methodId) {
+		return methodsPerId.get(methodId);
+	}
+
+	public boolean isEmpty() {
+		return methods.isEmpty();
+	}
+}
@@ -0,0 +1,153 @@
+package com.axway.apim.swagger.api.state;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.axway.apim.actions.tasks.props.PropertyHandler;
+import com.axway.apim.lib.APIPropertyAnnotation;
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.ErrorCode;
+
+/**
+ * Describes an API-Property declared with the {@link APIPropertyAnnotation} in {@link AbstractAPI}.<br>
+ * The descriptors are created once, including a MethodHandle for the getter and a single instance of
+ * the configured PropertyHandler (handlers must be stateless), instead of looking up the annotated
+ * fields, getters and handlers with each comparison or update of an API.
+ */
+public class APIPropertyDescriptor {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final List<APIPropertyDescriptor> descriptors;
+
+	private static final Map<String, APIPropertyDescriptor> descriptorsPerName;
+
+	static {
+		List<APIPropertyDescriptor> all = new ArrayList<APIPropertyDescriptor>();
+		Map<String, APIPropertyDescriptor> perName = new LinkedHashMap<String, APIPropertyDescriptor>();
+		for (Field field : AbstractAPI.class.getDeclaredFields()) {
+			if (!field.isAnnotationPresent(APIPropertyAnnotation.class)) continue;
+			APIPropertyDescriptor descriptor = new APIPropertyDescriptor(field);
+			all.add(descriptor);
+			perName.put(descriptor.getName(), descriptor);
+		}
+		descriptors = Collections.unmodifiableList(all);
+		descriptorsPerName = Collections.unmodifiableMap(perName);
+	}
+
+	private String name;
+
+	private APIPropertyAnnotation annotation;
+
+	private boolean breaking;
+
+	private String[] writableStates;
+
+	private MethodHandle getter;
+
+	private PropertyHandler propHandler;
+
+	private APIPropertyDescriptor(Field field) {
+		super();
+		this.name = field.getName();
+		this.annotation = field.getAnnotation(APIPropertyAnnotation.class);
+		// Read once, as the annotation returns a copy of the array with each call
+		this.breaking = annotation.isBreaking();
+		this.writableStates = annotation.writableStates();
+		String getterMethodName = "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
+		try {
+			Method method = AbstractAPI.class.getMethod(getterMethodName);
+			// Invoked virtually, hence getters overwritten by the Actual- or DesiredAPI are used
+			this.getter = MethodHandles.publicLookup().unreflect(method).asType(GETTER_TYPE);
+		} catch (Exception e) {
+			this.getter = null; // Reported, when the value is requested
+		}
+		if(void.class != annotation.propHandler()) {
+			try {
+				this.propHandler = (PropertyHandler)annotation.propHandler().newInstance();
+			} catch (Exception e) {
+				throw new IllegalStateException("Can't create property handler: " + annotation.propHandler() + " for property: " + name, e);
+			}
+		}
+	}
+
+	/**
+	 * @return all API-Properties in the order they are declared
+	 */
+	public static List<APIPropertyDescriptor> getDescriptors() {
+		return descriptors;
+	}
+
+	/**
+	 * @param name of the API-Property
+	 * @return the descriptor or null, if no API-Property with the given name exists
+	 */
+	public static APIPropertyDescriptor getDescriptor(String name) {
+		return descriptorsPerName.get(name);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public APIPropertyAnnotation getAnnotation() {
+		return annotation;
+	}
+
+	public boolean isBreaking() {
+		return breaking;
+	}
+
+	/**
+	 * @param actualStatus the actual state of the API
+	 * @return true if the property can be updated in the given state
+	 */
+	public boolean isWritable(String actualStatus) {
+		for(String status : writableStates) {
+			if (actualStatus.equals(status)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the shared instance of the configured PropertyHandler or null, if none is configured
+	 */
+	public PropertyHandler getPropHandler() {
+		return propHandler;
+	}
+
+	/**
+	 * @param api to read the property from
+	 * @return the value of this property of the given API
+	 * @throws AppException if the value can't be read
+	 */
+	public Object getValue(IAPI api) throws AppException {
+		if(getter==null) {
+			throw new AppException("No getter found for property: " + name, ErrorCode.UNXPECTED_ERROR);
+		}
+		try {
+			return (Object)getter.invokeExact((Object)api);
+		} catch (AppException e) {
+			throw e;
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new AppException("Can't read property: " + name, ErrorCode.UNXPECTED_ERROR, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
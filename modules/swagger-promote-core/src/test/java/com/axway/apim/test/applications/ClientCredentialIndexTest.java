@@ -0,0 +1,127 @@
+package com.axway.apim.test.applications;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.swagger.api.properties.applications.ClientApplication;
+import com.axway.apim.swagger.api.properties.applications.ClientCredentialIndex;
+
+public class ClientCredentialIndexTest {
+
+	@Test
+	public void testStopsLoadingWhenFound() throws AppException {
+		List<ClientApplication> apps = getTestApps(10);
+		CountingLoader loader = new CountingLoader();
+		ClientCredentialIndex index = new ClientCredentialIndex(apps, 1, loader);
+		Assert.assertEquals(index.getApp("key-0").getId(), "app-0");
+		Assert.assertEquals(loader.loadedApps, Arrays.asList("app-0"), "Only the first app must be loaded");
+		Assert.assertEquals(index.getApp("key-3").getId(), "app-3");
+		Assert.assertEquals(loader.loadedApps.size(), 4);
+		// Already loaded credentials are answered without requests
+		Assert.assertEquals(index.getApp("key-1").getId(), "app-1");
+		Assert.assertEquals(loader.loadedApps.size(), 4);
+		Assert.assertFalse(index.isComplete());
+	}
+
+	@Test
+	public void testUnknownCredential() throws AppException {
+		CountingLoader loader = new CountingLoader();
+		ClientCredentialIndex index = new ClientCredentialIndex(getTestApps(5), 1, loader);
+		Assert.assertNull(index.getApp("unknown"));
+		Assert.assertEquals(loader.loadedApps.size(), 5);
+		Assert.assertTrue(index.isComplete());
+		Assert.assertNull(index.getApp("other-unknown"));
+		Assert.assertEquals(index.getApp("key-4").getId(), "app-4");
+		Assert.assertEquals(loader.loadedApps.size(), 5, "Complete index must not send further requests");
+		Assert.assertEquals(index.getAppIds().size(), 5);
+	}
+
+	@Test
+	public void testParallelBatches() throws AppException {
+		CountingLoader loader = new CountingLoader();
+		ClientCredentialIndex index = new ClientCredentialIndex(getTestApps(10), 4, loader);
+		Assert.assertEquals(index.getApp("key-5").getId(), "app-5");
+		Assert.assertEquals(loader.loadedApps.size(), 8, "Credentials are loaded in batches of the parallelism");
+	}
+
+	@Test
+	public void testFirstAppWins() throws AppException {
+		List<ClientApplication> apps = getTestApps(3);
+		ClientCredentialIndex index = new ClientCredentialIndex(apps, 3, new ClientCredentialIndex.CredentialLoader() {
+			@Override
+			public List<String> getCredentials(ClientApplication app) {
+				return Arrays.asList("shared", "key-" + app.getId());
+			}
+		});
+		Assert.assertEquals(index.getApp("shared").getId(), "app-0");
+	}
+
+	@Test
+	public void testHintIsChecked() throws AppException {
+		List<ClientApplication> apps = getTestApps(10);
+		CountingLoader loader = new CountingLoader();
+		ClientCredentialIndex index = new ClientCredentialIndex(apps, 1, loader);
+		Map<String, ClientApplication> hints = new HashMap<String, ClientApplication>();
+		hints.put("key-7", apps.get(7));
+		index.setHints(hints);
+		Assert.assertEquals(index.getApp("key-7").getId(), "app-7");
+		Assert.assertEquals(loader.loadedApps, Arrays.asList("app-7"), "Only the hinted app must be loaded");
+		Assert.assertEquals(index.getApp("key-8").getId(), "app-8");
+		Assert.assertEquals(loader.loadedApps.size(), 9, "Hinted app must not be loaded again");
+	}
+
+	@Test
+	public void testChangedCredentials() throws AppException {
+		List<ClientApplication> apps = getTestApps(5);
+		CountingLoader loader = new CountingLoader();
+		ClientCredentialIndex index = new ClientCredentialIndex(apps, 1, loader);
+		Map<String, ClientApplication> hints = new HashMap<String, ClientApplication>();
+		// The credential has been moved to another app and the hinted app has been deleted since the last run
+		hints.put("key-3", apps.get(1));
+		hints.put("key-4", new ClientApplication());
+		index.setHints(hints);
+		Assert.assertEquals(index.getApp("key-3").getId(), "app-3");
+		Assert.assertEquals(loader.loadedApps, Arrays.asList("app-1", "app-0", "app-2", "app-3"));
+		Assert.assertEquals(index.getAppIds().get("key-3"), "app-3");
+		Assert.assertFalse(index.getAppIds().containsKey("key-4"));
+		// A new app is found, as unknown credentials are always loaded
+		apps.add(createApp(5));
+		index = new ClientCredentialIndex(apps, 1, loader);
+		index.setHints(hints);
+		Assert.assertEquals(index.getApp("key-5").getId(), "app-5");
+	}
+
+	private static List<ClientApplication> getTestApps(int count) {
+		List<ClientApplication> apps = new ArrayList<ClientApplication>();
+		for(int i=0; i<count; i++) {
+			apps.add(createApp(i));
+		}
+		return apps;
+	}
+
+	private static ClientApplication createApp(int number) {
+		ClientApplication app = new ClientApplication();
+		app.setId("app-" + number);
+		app.setName("Application " + number);
+		return app;
+	}
+
+	private static class CountingLoader implements ClientCredentialIndex.CredentialLoader {
+
+		private List<String> loadedApps = Collections.synchronizedList(new ArrayList<String>());
+
+		@Override
+		public List<String> getCredentials(ClientApplication app) {
+			loadedApps.add(app.getId());
+			return Arrays.asList(app.getId().replace("app-", "key-"));
+		}
+	}
+}
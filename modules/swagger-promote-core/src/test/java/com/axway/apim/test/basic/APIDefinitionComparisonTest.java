@@ -0,0 +1,62 @@
+package com.axway.apim.test.basic;
+
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.APIDefinitionComparison;
+
+public class APIDefinitionComparisonTest {
+
+	private static final String SWAGGER = "{\"swagger\":\"2.0\",\"host\":\"petstore.swagger.io\",\"basePath\":\"/v2\","
+			+ "\"paths\":{\"/pet/{petId}\":{\"get\":{\"summary\":\"Find pet by ID\",\"parameters\":[{\"name\":\"petId\",\"in\":\"path\",\"required\":true}]}},"
+			+ "\"/store/order\":{\"post\":{\"summary\":\"Place an order\"}}}}";
+
+	@Test
+	public void testFormattingAndOrderIgnored() {
+		String reformatted = "{\n  \"basePath\" : \"/v2\",\n  \"paths\" : {\n    \"/store/order\" : { \"post\" : { \"summary\" : \"Place an order\" } },\n"
+				+ "    \"/pet/{petId}\" : { \"get\" : { \"parameters\" : [ { \"required\" : true, \"in\" : \"path\", \"name\" : \"petId\" } ], \"summary\" : \"Find pet by ID\" } }\n  },\n"
+				+ "  \"host\" : \"petstore.swagger.io\",\n  \"swagger\" : \"2.0\"\n}";
+		APIDefinitionComparison comparison = APIDefinitionComparison.compare(bytes(SWAGGER), bytes(reformatted));
+		Assert.assertTrue(comparison.isEqual(), "Differences: " + comparison.getDifferences());
+		Assert.assertEquals(comparison.getFormat(), "json");
+		Assert.assertFalse(APIDefinitionComparison.compareBytes(bytes(SWAGGER), bytes(reformatted)).isEqual());
+	}
+
+	@Test
+	public void testChangedOperationsReported() {
+		String changed = SWAGGER.replace("\"required\":true", "\"required\":false").replace("\"host\":\"petstore.swagger.io\",", "");
+		APIDefinitionComparison comparison = APIDefinitionComparison.compare(bytes(SWAGGER), bytes(changed));
+		Assert.assertFalse(comparison.isEqual());
+		Assert.assertEquals(comparison.getDifferences().size(), 2);
+		Assert.assertTrue(comparison.getDifferences().contains("/host: removed"));
+		Assert.assertTrue(comparison.getDifferences().contains("/paths/~1pet~1{petId}/get/parameters/0/required: changed"));
+		Assert.assertEquals(comparison.getOperations().size(), 1);
+		Assert.assertTrue(comparison.getOperations().contains("GET /pet/{petId}"));
+	}
+
+	@Test
+	public void testWsdlWhitespaceAndAttributeOrderIgnored() {
+		String wsdl1 = "<?xml version=\"1.0\"?><definitions xmlns=\"http://schemas.xmlsoap.org/wsdl/\" name=\"Test\" targetNamespace=\"urn:test\"><!-- Comment --><portType name=\"Port\"/></definitions>";
+		String wsdl2 = "<?xml version=\"1.0\"?>\n<definitions targetNamespace=\"urn:test\" name=\"Test\" xmlns=\"http://schemas.xmlsoap.org/wsdl/\">\n  <portType name=\"Port\"/>\n</definitions>\n";
+		String wsdl3 = wsdl2.replace("\"Port\"", "\"OtherPort\"");
+		Assert.assertTrue(APIDefinitionComparison.compare(bytes(wsdl1), bytes(wsdl2)).isEqual());
+		APIDefinitionComparison comparison = APIDefinitionComparison.compare(bytes(wsdl1), bytes(wsdl3));
+		Assert.assertFalse(comparison.isEqual());
+		Assert.assertEquals(comparison.getFormat(), "xml");
+		Assert.assertEquals(comparison.getDifferences().get(0), "/definitions/portType[0]/@: changed");
+	}
+
+	@Test
+	public void testUnparseableComparedByBytes() {
+		APIDefinitionComparison comparison = APIDefinitionComparison.compare(bytes("{ invalid"), bytes("{ invalid"));
+		Assert.assertTrue(comparison.isEqual());
+		Assert.assertEquals(comparison.getFormat(), "bytes");
+		Assert.assertFalse(APIDefinitionComparison.compare(bytes("{ invalid"), bytes("{ invalid }")).isEqual());
+	}
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,107 @@
+package com.axway.apim.test.basic;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.BackendAPIIndex;
+import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.PromotionStateStore;
+import com.axway.apim.lib.TestIndicator;
+
+public class BackendAPIIndexTest {
+
+	private static final byte[] DEFINITION = "{\"swagger\":\"2.0\",\"paths\":{}}".getBytes(StandardCharsets.UTF_8);
+
+	@BeforeClass
+	public void prepareTest() {
+		TestIndicator.getInstance().setTestRunning(true);
+	}
+
+	@AfterClass
+	public void afterTest() {
+		BackendAPIIndex.deleteInstance();
+		TestIndicator.getInstance().setTestRunning(false);
+	}
+
+	@BeforeMethod
+	public void cleanSingletons() {
+		PromotionStateStore.deleteInstance();
+		BackendAPIIndex.deleteInstance();
+	}
+
+	@Test
+	public void testBackendAPIAddressedByDefinitionAndOrganization() {
+		byte[] definition = "{\"swagger\":\"2.0\"}".getBytes(StandardCharsets.UTF_8);
+		String digest = BackendAPIIndex.getDigest(definition, "org-1");
+		Assert.assertEquals(BackendAPIIndex.getDigest(definition, "org-1"), digest);
+		Assert.assertNotEquals(BackendAPIIndex.getDigest(definition, "org-2"), digest);
+		Assert.assertNotEquals(BackendAPIIndex.getDigest("{\"swagger\":\"3.0\"}".getBytes(StandardCharsets.UTF_8), "org-1"), digest);
+
+		BackendAPIIndex index = BackendAPIIndex.getInstance();
+		Assert.assertNull(index.getBackendAPIId(digest));
+		index.put(digest, "be-api-1");
+		Assert.assertEquals(index.getBackendAPIId(digest), "be-api-1");
+		index.remove("be-api-1");
+		Assert.assertNull(index.getBackendAPIId(digest));
+	}
+
+	@Test
+	public void testBackendAPIWithSameDefinitionIsReused() {
+		String digest = BackendAPIIndex.getDigest(DEFINITION, "org-1");
+		BackendAPIIndex index = BackendAPIIndex.getInstance();
+		TestLoader loader = new TestLoader("{\"paths\":{}, \"swagger\":\"2.0\"}");
+		Assert.assertNull(index.getReusableBackendAPIId(digest, DEFINITION, loader));
+		Assert.assertTrue(loader.loaded.isEmpty(), "Unknown Backend-API must not be verified");
+
+		index.put(digest, "be-api-1");
+		Assert.assertEquals(index.getReusableBackendAPIId(digest, DEFINITION, loader), "be-api-1");
+		Assert.assertEquals(loader.loaded.toString(), "[be-api-1]", "Backend-API must be verified before it's reused");
+		Assert.assertEquals(index.getBackendAPIId(digest), "be-api-1");
+	}
+
+	@Test
+	public void testChangedBackendAPIIsRemoved() {
+		String digest = BackendAPIIndex.getDigest(DEFINITION, "org-1");
+		BackendAPIIndex index = BackendAPIIndex.getInstance();
+		index.put(digest, "be-api-1");
+		TestLoader loader = new TestLoader("{\"swagger\":\"2.0\",\"paths\":{\"/pets\":{}}}");
+		Assert.assertNull(index.getReusableBackendAPIId(digest, DEFINITION, loader), "Changed Backend-API must not be reused");
+		Assert.assertNull(index.getBackendAPIId(digest), "Changed Backend-API must be removed from the index");
+		Assert.assertNull(index.getReusableBackendAPIId(digest, DEFINITION, loader));
+		Assert.assertEquals(loader.loaded.size(), 1);
+	}
+
+	@Test
+	public void testDeletedBackendAPIIsRemoved() {
+		String digest = BackendAPIIndex.getDigest(DEFINITION, "org-1");
+		BackendAPIIndex index = BackendAPIIndex.getInstance();
+		index.put(digest, "be-api-1");
+		Assert.assertNull(index.getReusableBackendAPIId(digest, DEFINITION, new TestLoader(null)), "Deleted Backend-API must not be reused");
+		Assert.assertNull(index.getBackendAPIId(digest), "Deleted Backend-API must be removed from the index");
+	}
+
+	private static class TestLoader implements BackendAPIIndex.DefinitionLoader {
+		String definition;
+
+		List<String> loaded = new ArrayList<String>();
+
+		TestLoader(String definition) {
+			this.definition = definition;
+		}
+
+		@Override
+		public byte[] getAPIDefinition(String backendAPIId) throws AppException {
+			loaded.add(backendAPIId);
+			if(definition==null) throw new AppException("Backend-API: '" + backendAPIId + "' not found.", ErrorCode.API_MANAGER_COMMUNICATION);
+			return definition.getBytes(StandardCharsets.UTF_8);
+		}
+	}
+}
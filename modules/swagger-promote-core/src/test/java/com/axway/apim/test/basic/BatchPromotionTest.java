@@ -0,0 +1,79 @@
+package com.axway.apim.test.basic;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.axway.apim.BatchPromotion;
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.PromotionContext;
+
+public class BatchPromotionTest {
+
+	private File batchDir;
+
+	@BeforeMethod
+	public void createBatchDir() throws Exception {
+		PromotionContext.setCurrent(new PromotionContext());
+		batchDir = Files.createTempDirectory("batch").toFile();
+	}
+
+	@AfterMethod
+	public void deleteBatchDir() throws Exception {
+		PromotionContext.clearCurrent();
+		FileUtils.deleteDirectory(batchDir);
+	}
+
+	@Test
+	public void testValidManifest() throws Exception {
+		File manifest = write("apis.json", "{\"apis\": [ {\"config\": \"petstore/api-config.json\", \"apiDefinition\": \"petstore/petstore.json\"}, {\"config\": \"other.json\"} ]}");
+		new BatchPromotion(manifest.getPath());
+	}
+
+	@Test
+	public void testManifestWithoutApis() throws Exception {
+		assertInvalidBatch(write("apis.json", "{\"config\": \"api-config.json\"}").getPath());
+	}
+
+	@Test
+	public void testManifestEntryWithoutConfig() throws Exception {
+		assertInvalidBatch(write("apis.json", "{\"apis\": [ {\"apiDefinition\": \"petstore.json\"} ]}").getPath());
+	}
+
+	@Test
+	public void testInvalidManifest() throws Exception {
+		assertInvalidBatch(write("apis.json", "{\"apis\": [").getPath());
+	}
+
+	@Test
+	public void testDirectoryWithoutAPIConfigs() throws Exception {
+		// API-Definitions and other JSON-Files are not promoted
+		write("petstore.json", "{\"swagger\": \"2.0\"}");
+		write("readme.json", "not json");
+		assertInvalidBatch(batchDir.getPath());
+		write("api-config.json", "{\"path\": \"/api/v1/petstore\"}");
+		new BatchPromotion(batchDir.getPath());
+	}
+
+	private File write(String name, String content) throws Exception {
+		File file = new File(batchDir, name);
+		FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	private static void assertInvalidBatch(String batch) {
+		try {
+			new BatchPromotion(batch);
+			Assert.fail("Batch: '" + batch + "' must be rejected");
+		} catch (AppException e) {
+			Assert.assertEquals(e.getErrorCode(), ErrorCode.CANT_READ_CONFIG_FILE);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.axway.apim.test.basic;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.JsonArrayReader;
+import com.axway.apim.swagger.api.properties.organization.Organization;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+public class JsonArrayReaderTest {
+
+	private static final String LISTING = "["
+			+ "{\"id\":\"1\",\"name\":\"API 1\",\"path\":\"/api1\",\"serviceProfiles\":{\"_default\":{\"apiId\":\"x\"}},\"tags\":[\"a\",\"b\"]},"
+			+ "{\"id\":\"2\",\"name\":\"API 2\",\"path\":\"/api2\",\"description\":null},"
+			+ "{\"id\":\"3\",\"name\":\"API 3\",\"path\":\"/api3\"}"
+			+ "]";
+
+	@Test
+	public void testProjection() throws IOException {
+		ArrayNode apis = JsonArrayReader.read(getStream(LISTING), new HashSet<String>(Arrays.asList("id", "path", "description")));
+		Assert.assertEquals(apis.size(), 3);
+		Assert.assertEquals(apis.get(0).size(), 2, "Only id and path should be kept.");
+		Assert.assertEquals(apis.get(0).get("path").asText(), "/api1");
+		Assert.assertNull(apis.get(0).get("serviceProfiles"));
+		Assert.assertTrue(apis.get(1).get("description").isNull());
+	}
+
+	@Test
+	public void testWithoutProjection() throws IOException {
+		ArrayNode apis = JsonArrayReader.read(getStream(LISTING), null);
+		Assert.assertEquals(apis.get(0).get("tags").size(), 2);
+		Assert.assertEquals(apis.get(0).get("serviceProfiles").get("_default").get("apiId").asText(), "x");
+	}
+
+	@Test
+	public void testStopEarly() throws IOException {
+		final List<String> read = new ArrayList<String>();
+		boolean stopped = JsonArrayReader.read(getStream(LISTING), null, new JsonArrayReader.ElementHandler() {
+			@Override
+			public boolean handle(JsonNode element) {
+				read.add(element.get("path").asText());
+				return !element.get("path").asText().equals("/api2");
+			}
+		});
+		Assert.assertTrue(stopped);
+		Assert.assertEquals(read, Arrays.asList("/api1", "/api2"));
+	}
+
+	@Test
+	public void testEmptyListing() throws IOException {
+		Assert.assertEquals(JsonArrayReader.read(getStream("[]"), null).size(), 0);
+		Assert.assertEquals(JsonArrayReader.read(getStream(""), null).size(), 0);
+	}
+
+	@Test
+	public void testNoArray() {
+		try {
+			JsonArrayReader.read(getStream("{\"id\":\"1\"}"), null);
+			Assert.fail("Expected an IOException");
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage().contains("JSON-Array"));
+		}
+	}
+
+	@Test
+	public void testModelProperties() {
+		Set<String> properties = JsonArrayReader.getProperties(Organization.class);
+		Assert.assertTrue(properties.contains("id"));
+		Assert.assertTrue(properties.contains("name"));
+		Assert.assertTrue(properties.contains("development"));
+	}
+
+	private static InputStream getStream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+}
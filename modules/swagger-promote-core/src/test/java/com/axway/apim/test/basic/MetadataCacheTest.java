@@ -0,0 +1,118 @@
+package com.axway.apim.test.basic;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.axway.apim.actions.rest.ResponseCache;
+import com.axway.apim.lib.CommandParameters;
+import com.axway.apim.lib.MetadataCache;
+import com.axway.apim.lib.TestIndicator;
+import com.axway.apim.lib.ValidatedEntry;
+
+public class MetadataCacheTest {
+
+	private File cacheDir;
+
+	@BeforeClass
+	public void setupCache() throws Exception {
+		TestIndicator.getInstance().setTestRunning(false);
+		cacheDir = Files.createTempDirectory("metadata-cache").toFile();
+		Options options = new Options();
+		for(String name : new String[] {"host", "port", "username", "password", "cacheDir", "cacheTTL"}) {
+			options.addOption(new Option(name, true, name));
+		}
+		new CommandParameters(new DefaultParser().parse(options, new String[] {
+				"-host", "apim.local", "-port", "8075", "-username", "test", "-password", "test",
+				"-cacheDir", cacheDir.getAbsolutePath(), "-cacheTTL", "1"}));
+		MetadataCache.deleteInstance();
+		ResponseCache.deleteInstance();
+	}
+
+	@AfterClass
+	public void deleteCache() throws Exception {
+		MetadataCache.deleteInstance();
+		FileUtils.deleteDirectory(cacheDir);
+	}
+
+	@Test
+	public void testEntryExpires() throws Exception {
+		MetadataCache cache = MetadataCache.getInstance();
+		Assert.assertTrue(cache.isEnabled());
+		cache.put("organizations", "[{\"id\":\"org-1\"}]");
+		Assert.assertEquals(cache.get("organizations"), "[{\"id\":\"org-1\"}]");
+		Thread.sleep(1100);
+		Assert.assertNull(cache.get("organizations"), "Entry must be expired after cacheTTL");
+	}
+
+	@Test
+	public void testEntryBasedOnOtherEntry() {
+		MetadataCache cache = MetadataCache.getInstance();
+		cache.put("based", "data", "fingerprint-1");
+		Assert.assertEquals(cache.get("based", "fingerprint-1"), "data");
+		Assert.assertNull(cache.get("based", "fingerprint-2"), "Entry based on a changed entry must not be used");
+	}
+
+	@Test
+	public void testInvalidatedAfterWrite() throws Exception {
+		MetadataCache cache = MetadataCache.getInstance();
+		cache.put("proxies/1234/operations", "[]");
+		cache.invalidate("proxies/1234/operations");
+		Assert.assertNull(cache.get("proxies/1234/operations"));
+
+		cache.putValidated("responses/organizations/1", new ValidatedEntry("[]".getBytes(StandardCharsets.UTF_8), "\"etag-1\"", null));
+		cache.putValidated("responses/proxies/1", new ValidatedEntry("{}".getBytes(StandardCharsets.UTF_8), "\"etag-2\"", null));
+		cache.putValidated("responses/alerts/1", new ValidatedEntry("{}".getBytes(StandardCharsets.UTF_8), "\"etag-3\"", null));
+		Assert.assertNotNull(cache.getValidated("responses/organizations/1"));
+		// Writing an organization invalidates the content downloaded for all access related resources
+		ResponseCache.getInstance().invalidate(new URI("https://apim.local:8075/api/portal/v1.3/organizations/org-1"));
+		Assert.assertNull(cache.getValidated("responses/organizations/1"));
+		Assert.assertNull(cache.getValidated("responses/proxies/1"));
+		Assert.assertNotNull(cache.getValidated("responses/alerts/1"), "Unrelated content must be kept");
+	}
+
+	@Test
+	public void testUnchangedContentIsRefreshed() throws Exception {
+		MetadataCache cache = MetadataCache.getInstance();
+		cache.putValidated("responses/other/1", new ValidatedEntry("{}".getBytes(StandardCharsets.UTF_8), null, null, "application/json"));
+		File entryFile = new File(new File(cacheDir, "apim.local_8075"), "responses_other_1.json");
+		String stored = FileUtils.readFileToString(entryFile, StandardCharsets.UTF_8);
+		FileUtils.writeStringToFile(entryFile, stored.replaceFirst("\"created\":\\d+", "\"created\":0"), StandardCharsets.UTF_8);
+		Assert.assertTrue(entryFile.setLastModified(0));
+		ValidatedEntry expired = cache.getValidated("responses/other/1");
+		Assert.assertFalse(cache.isFresh(expired), "Entry must be revalidated after revalidationTTL");
+		Assert.assertEquals(expired.getContentType(), "application/json");
+
+		cache.refreshValidated("responses/other/1", expired);
+		Assert.assertTrue(cache.isFresh(expired));
+		ValidatedEntry refreshed = cache.getValidated("responses/other/1");
+		Assert.assertTrue(cache.isFresh(refreshed), "Refreshed entry must be used for another revalidationTTL");
+		Assert.assertEquals(new String(refreshed.getData(), StandardCharsets.UTF_8), "{}");
+		Assert.assertEquals(refreshed.getContentType(), "application/json");
+	}
+
+	@Test
+	public void testCorruptEntryIsIgnored() throws Exception {
+		MetadataCache cache = MetadataCache.getInstance();
+		cache.put("applications", "[]");
+		cache.putValidated("responses/applications/1", new ValidatedEntry("[]".getBytes(StandardCharsets.UTF_8), "\"etag-1\"", null));
+		File hostDir = new File(cacheDir, "apim.local_8075");
+		FileUtils.writeStringToFile(new File(hostDir, "applications.json"), "{\"created\": 12", StandardCharsets.UTF_8);
+		FileUtils.writeStringToFile(new File(hostDir, "responses_applications_1.json"), "not json", StandardCharsets.UTF_8);
+		Assert.assertNull(cache.get("applications"), "Corrupt entry must be ignored");
+		Assert.assertNull(cache.getValidated("responses/applications/1"), "Corrupt entry must be ignored");
+		// A corrupt entry is replaced by the next write
+		cache.put("applications", "[{\"id\":\"app-1\"}]");
+		Assert.assertEquals(cache.get("applications"), "[{\"id\":\"app-1\"}]");
+	}
+}
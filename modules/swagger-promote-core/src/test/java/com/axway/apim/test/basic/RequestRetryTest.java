@@ -0,0 +1,192 @@
+package com.axway.apim.test.basic;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.utils.DateUtils;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.axway.apim.actions.rest.APIMHttpClient;
+import com.axway.apim.actions.rest.DELRequest;
+import com.axway.apim.actions.rest.GETRequest;
+import com.axway.apim.actions.rest.ResponseCache;
+import com.axway.apim.actions.rest.RestAPICall;
+import com.axway.apim.actions.rest.RetryPolicy;
+import com.axway.apim.lib.CommandParameters;
+import com.axway.apim.lib.PromotionContext;
+import com.axway.apim.lib.TestIndicator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class RequestRetryTest {
+
+	private HttpServer server;
+
+	/** Status codes returned by the server for the next requests, afterwards 200 is returned */
+	private LinkedList<Integer> statusCodes = new LinkedList<Integer>();
+
+	private AtomicInteger requests = new AtomicInteger();
+
+	@BeforeClass
+	public void startServer() throws Exception {
+		TestIndicator.getInstance().setTestRunning(false);
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				requests.incrementAndGet();
+				Integer status;
+				synchronized (statusCodes) {
+					status = statusCodes.poll();
+				}
+				byte[] body = "{}".getBytes();
+				exchange.sendResponseHeaders((status==null) ? 200 : status, body.length);
+				exchange.getResponseBody().write(body);
+				exchange.close();
+			}
+		});
+		server.start();
+		Options options = new Options();
+		for(String name : new String[] {"host", "port", "username", "password", "retries", "retryDelay", "retryMaxDelay"}) {
+			options.addOption(new Option(name, true, name));
+		}
+		CommandParameters params = new CommandParameters(new DefaultParser().parse(options, new String[] {
+				"-host", "localhost", "-port", Integer.toString(server.getAddress().getPort()), "-username", "test", "-password", "test",
+				"-retries", "2", "-retryDelay", "10", "-retryMaxDelay", "50"}));
+		APIMHttpClient.deleteInstance();
+		ResponseCache.deleteInstance();
+		PromotionContext.setCurrent(new PromotionContext(params));
+	}
+
+	@AfterClass
+	public void stopServer() {
+		server.stop(0);
+		APIMHttpClient.deleteInstance();
+		PromotionContext.clearCurrent();
+	}
+
+	@BeforeMethod
+	public void reset() {
+		statusCodes.clear();
+		requests.set(0);
+	}
+
+	@Test
+	public void testBackoffWithJitter() {
+		RetryPolicy policy = new RetryPolicy(5, 100, 1000);
+		for(int i=0; i<20; i++) {
+			long first = policy.getDelay(1, null);
+			Assert.assertTrue(first >= 50 && first <= 100, "Unexpected delay: " + first);
+			long third = policy.getDelay(3, null);
+			Assert.assertTrue(third >= 200 && third <= 400, "Unexpected delay: " + third);
+			long limited = policy.getDelay(30, null);
+			Assert.assertTrue(limited >= 500 && limited <= 1000, "Delay must be limited to retryMaxDelay: " + limited);
+		}
+	}
+
+	@Test
+	public void testRetryAfterIsLimited() {
+		RetryPolicy policy = new RetryPolicy(2, 100, 5000);
+		Assert.assertEquals(policy.getDelay(1, createResponse("2")), 2000);
+		Assert.assertEquals(policy.getDelay(1, createResponse("3600")), 5000);
+		Assert.assertEquals(policy.getDelay(1, createResponse(Long.toString(Long.MAX_VALUE))), 5000);
+		Assert.assertEquals(policy.getDelay(1, createResponse("-10")), 0);
+		Assert.assertEquals(policy.getDelay(1, createResponse(DateUtils.formatDate(new Date(System.currentTimeMillis() - 60000)))), 0);
+		Assert.assertEquals(policy.getDelay(1, createResponse(DateUtils.formatDate(new Date(System.currentTimeMillis() + 3600000)))), 5000);
+		long fromDate = policy.getDelay(1, createResponse(DateUtils.formatDate(new Date(System.currentTimeMillis() + 4000))));
+		Assert.assertTrue(fromDate > 2000 && fromDate <= 4000, "Unexpected delay: " + fromDate);
+		long invalid = policy.getDelay(1, createResponse("soon"));
+		Assert.assertTrue(invalid >= 50 && invalid <= 100, "Invalid Retry-After must use the backoff: " + invalid);
+	}
+
+	@Test
+	public void testRetriedUntilSuccessful() throws Exception {
+		statusCodes.add(503);
+		statusCodes.add(429);
+		HttpResponse response = execute(new GETRequest(createURI("/retried"), null));
+		Assert.assertEquals(response.getStatusLine().getStatusCode(), 200);
+		Assert.assertEquals(requests.get(), 3);
+	}
+
+	@Test
+	public void testRetriesExhausted() throws Exception {
+		for(int i=0; i<5; i++) statusCodes.add(503);
+		HttpResponse response = execute(new GETRequest(createURI("/exhausted"), null));
+		Assert.assertEquals(response.getStatusLine().getStatusCode(), 503, "Last response must be returned, when all retries failed");
+		Assert.assertEquals(requests.get(), 3);
+	}
+
+	@Test
+	public void testNotRetriedStatus() throws Exception {
+		statusCodes.add(500);
+		HttpResponse response = execute(new GETRequest(createURI("/failed"), null));
+		Assert.assertEquals(response.getStatusLine().getStatusCode(), 500);
+		Assert.assertEquals(requests.get(), 1);
+	}
+
+	@Test
+	public void testRetriedDeleteAlreadyDeleted() throws Exception {
+		statusCodes.add(503);
+		statusCodes.add(404);
+		HttpResponse response = execute(new DELRequest(createURI("/proxies/1234"), null));
+		Assert.assertEquals(response.getStatusLine().getStatusCode(), 204, "Resource has been deleted by the first attempt");
+		Assert.assertEquals(requests.get(), 2);
+
+		reset();
+		statusCodes.add(404);
+		response = execute(new DELRequest(createURI("/proxies/5678"), null));
+		Assert.assertEquals(response.getStatusLine().getStatusCode(), 404, "Not retried requests must keep the 404");
+	}
+
+	@Test
+	public void testDeletedClientIsClosed() throws Exception {
+		execute(new GETRequest(createURI("/closed"), null));
+		Assert.assertTrue(getEvictorThreads() > 0, "Client must evict idle connections");
+		APIMHttpClient.deleteInstance();
+		long timeout = System.currentTimeMillis() + 5000;
+		while(getEvictorThreads() > 0 && System.currentTimeMillis() < timeout) {
+			Thread.sleep(20);
+		}
+		Assert.assertEquals(getEvictorThreads(), 0, "Evictor threads of the deleted clients must be stopped");
+	}
+
+	private static int getEvictorThreads() {
+		int evictors = 0;
+		for(Thread thread : Thread.getAllStackTraces().keySet()) {
+			if(thread.isAlive() && thread.getName().startsWith("Connection evictor")) evictors++;
+		}
+		return evictors;
+	}
+
+	private static HttpResponse execute(RestAPICall request) throws Exception {
+		HttpResponse response = request.execute();
+		EntityUtils.consume(response.getEntity());
+		return response;
+	}
+
+	private URI createURI(String path) throws Exception {
+		return new URI("http://localhost:" + server.getAddress().getPort() + path);
+	}
+
+	private static HttpResponse createResponse(String retryAfter) {
+		BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 503, null);
+		response.addHeader("Retry-After", retryAfter);
+		return response;
+	}
+}
@@ -0,0 +1,176 @@
+package com.axway.apim.test.basic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.axway.apim.actions.rest.RequestStatistics;
+import com.axway.apim.actions.rest.ResponseCache;
+import com.axway.apim.lib.TestIndicator;
+
+public class ResponseCacheTest {
+
+	private static final String API_MANAGER = "https://apim.local:8075/api/portal/v1.3";
+
+	@BeforeClass
+	public void prepareTest() {
+		TestIndicator.getInstance().setTestRunning(true);
+	}
+
+	@AfterClass
+	public void afterTest() {
+		TestIndicator.getInstance().setTestRunning(false);
+	}
+
+	@Test
+	public void testResponseIsCachedPerUser() throws Exception {
+		ResponseCache.deleteInstance();
+		RequestStatistics.deleteInstance();
+		ResponseCache cache = ResponseCache.getInstance();
+		URI uri = new URI(API_MANAGER + "/proxies/1234/operations");
+		Assert.assertNull(cache.get(uri, false));
+		HttpResponse response = createResponse(200, "[{\"id\":\"op-1\"}]");
+		cache.put(uri, false, cache.getGeneration(uri), response);
+		// The response received from the API-Manager can still be consumed
+		Assert.assertEquals(EntityUtils.toString(response.getEntity()), "[{\"id\":\"op-1\"}]");
+
+		HttpResponse cached = cache.get(uri, false);
+		Assert.assertTrue(cached instanceof CloseableHttpResponse);
+		Assert.assertEquals(cached.getStatusLine().getStatusCode(), 200);
+		Assert.assertEquals(EntityUtils.toString(cached.getEntity()), "[{\"id\":\"op-1\"}]");
+		// Each hit gets its own entity
+		Assert.assertEquals(EntityUtils.toString(cache.get(uri, false).getEntity()), "[{\"id\":\"op-1\"}]");
+		Assert.assertNull(cache.get(uri, true), "Responses are cached per user");
+		Assert.assertEquals(RequestStatistics.getInstance().getCacheHits(), 2);
+		Assert.assertEquals(RequestStatistics.getInstance().getCacheMisses(), 2);
+	}
+
+	@Test
+	public void testWriteInvalidatesSameResource() throws Exception {
+		ResponseCache.deleteInstance();
+		ResponseCache cache = ResponseCache.getInstance();
+		URI proxy = new URI(API_MANAGER + "/proxies/1234");
+		URI orgAccess = new URI(API_MANAGER + "/organizations/org-1/apis");
+		URI quota = new URI(API_MANAGER + "/quotas/quota-1");
+		cache.put(proxy, true, cache.getGeneration(proxy), createResponse(200, "{}"));
+		cache.put(orgAccess, true, cache.getGeneration(orgAccess), createResponse(200, "[]"));
+		cache.put(quota, true, cache.getGeneration(quota), createResponse(200, "{}"));
+
+		cache.invalidate(new URI(API_MANAGER + "/quotas/quota-1"));
+		Assert.assertNull(cache.get(quota, true));
+		Assert.assertNotNull(cache.get(proxy, true));
+
+		// Granting access is visible for the organizations as well
+		cache.invalidate(new URI(API_MANAGER + "/proxies/grantaccess"));
+		Assert.assertNull(cache.get(proxy, true));
+		Assert.assertNull(cache.get(orgAccess, true));
+	}
+
+	@Test
+	public void testResponsesNotCached() throws Exception {
+		ResponseCache.deleteInstance();
+		ResponseCache cache = ResponseCache.getInstance();
+		URI proxy = new URI(API_MANAGER + "/proxies/1234");
+		cache.put(proxy, true, cache.getGeneration(proxy), createResponse(404, "Not found"));
+		Assert.assertNull(cache.get(proxy, true), "Failed responses must not be cached");
+
+		// Resource has been changed while the request was running
+		long generation = cache.getGeneration(proxy);
+		cache.invalidate(new URI(API_MANAGER + "/proxies/1234"));
+		cache.put(proxy, true, generation, createResponse(200, "{}"));
+		Assert.assertNull(cache.get(proxy, true), "Outdated responses must not be cached");
+
+		URI currentUser = new URI(API_MANAGER + "/currentuser");
+		cache.put(currentUser, true, cache.getGeneration(currentUser), createResponse(200, "{}"));
+		Assert.assertNull(cache.get(currentUser, true), "Session dependent responses must not be cached");
+	}
+
+	@Test
+	public void testLargeChunkedResponseIsNotBuffered() throws Exception {
+		ResponseCache.deleteInstance();
+		ResponseCache cache = ResponseCache.getInstance();
+		URI definition = new URI(API_MANAGER + "/apirepo/1234/download");
+		CountingInputStream content = new CountingInputStream(5 * 1024 * 1024);
+		HttpResponse response = createChunkedResponse(content);
+		cache.put(definition, true, cache.getGeneration(definition), response);
+		Assert.assertTrue(content.read <= 1024 * 1024 + 8192, "Content must not be read completely: " + content.read);
+		Assert.assertNull(cache.get(definition, true), "Responses larger than 1 MB must not be cached");
+		// The caller still gets the complete content
+		Assert.assertEquals(EntityUtils.toByteArray(response.getEntity()).length, 5 * 1024 * 1024);
+		Assert.assertTrue(content.closed);
+
+		// Small chunked responses are cached
+		URI proxy = new URI(API_MANAGER + "/proxies/1234");
+		response = createChunkedResponse(new CountingInputStream(1000));
+		cache.put(proxy, true, cache.getGeneration(proxy), response);
+		Assert.assertEquals(EntityUtils.toByteArray(response.getEntity()).length, 1000);
+		Assert.assertEquals(EntityUtils.toByteArray(cache.get(proxy, true).getEntity()).length, 1000);
+	}
+
+	private static HttpResponse createChunkedResponse(InputStream content) {
+		BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, null);
+		BasicHttpEntity entity = new BasicHttpEntity();
+		entity.setContent(content);
+		entity.setContentLength(-1);
+		entity.setChunked(true);
+		entity.setContentType(ContentType.APPLICATION_JSON.toString());
+		response.setEntity(entity);
+		return response;
+	}
+
+	/**
+	 * Returns the given number of bytes, as received from the API-Manager
+	 */
+	private static class CountingInputStream extends InputStream {
+
+		private long size;
+
+		private long read = 0;
+
+		private boolean closed = false;
+
+		CountingInputStream(long size) {
+			this.size = size;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if(read >= size) return -1;
+			read++;
+			return 'a';
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if(read >= size) return -1;
+			int count = (int)Math.min(len, size - read);
+			for(int i=0; i<count; i++) b[off+i] = 'a';
+			read += count;
+			return count;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+
+	private static HttpResponse createResponse(int statusCode, String body) {
+		BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, statusCode, null);
+		response.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+		return response;
+	}
+}
@@ -0,0 +1,39 @@
+package com.axway.apim.test.basic;
+
+import java.io.IOException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.StateDigest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class StateDigestTest {
+
+	private ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public void testPropertyOrderAndFormattingIgnored() throws IOException {
+		String digest1 = new StateDigest().add("config", mapper.readTree("{\"name\":\"API\",\"path\":\"/api\",\"tags\":{\"b\":[\"1\"],\"a\":[\"2\"]}}")).getDigest();
+		String digest2 = new StateDigest().add("config", mapper.readTree("{\n  \"path\" : \"/api\",\n  \"tags\" : {\"a\":[\"2\"], \"b\":[\"1\"]},\n  \"name\" : \"API\"\n}")).getDigest();
+		Assert.assertEquals(digest1, digest2);
+	}
+
+	@Test
+	public void testArrayOrderIsRelevant() throws IOException {
+		String digest1 = new StateDigest().add("config", mapper.readTree("{\"clientOrganizations\":[\"A\",\"B\"]}")).getDigest();
+		String digest2 = new StateDigest().add("config", mapper.readTree("{\"clientOrganizations\":[\"B\",\"A\"]}")).getDigest();
+		Assert.assertNotEquals(digest1, digest2);
+	}
+
+	@Test
+	public void testValuesAreNotConfused() {
+		String digest1 = new StateDigest().add("a", "xy").add("b", "z").getDigest();
+		String digest2 = new StateDigest().add("a", "x").add("b", "yz").getDigest();
+		String digest3 = new StateDigest().add("a", (String)null).add("b", "z").getDigest();
+		String digest4 = new StateDigest().add("a", "").add("b", "z").getDigest();
+		Assert.assertNotEquals(digest1, digest2);
+		Assert.assertNotEquals(digest3, digest4);
+		Assert.assertEquals(digest1, new StateDigest().add("a", "xy").add("b", "z").getDigest());
+	}
+}
@@ -0,0 +1,63 @@
+package com.axway.apim.test.basic;
+
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.TestIndicator;
+import com.axway.apim.swagger.api.properties.APIDefintion;
+import com.axway.apim.swagger.api.state.DesiredAPI;
+
+public class SwaggerHostReplaceTest {
+
+	@BeforeClass
+	public void prepareTest() {
+		TestIndicator.getInstance().setTestRunning(true);
+	}
+
+	@AfterClass
+	public void afterTest() {
+		TestIndicator.getInstance().setTestRunning(false);
+	}
+
+	@Test
+	public void testHostReplacedKeepingFormatting() throws AppException {
+		String swagger = "{\n  \"swagger\" : \"2.0\",\n  \"host\" : \"petstore.swagger.io\",\n  \"info\" : { \"title\" : \"Pet\u00e9store\" }\n}\n";
+		Assert.assertEquals(replaceHost(swagger, "https://backend.example.com:8443/api"), 
+				"{\n  \"swagger\" : \"2.0\",\n  \"host\" : \"backend.example.com:8443\",\n  \"info\" : { \"title\" : \"Pet\u00e9store\" }\n}\n");
+	}
+
+	@Test
+	public void testHostAdded() throws AppException {
+		Assert.assertEquals(replaceHost("{ \"swagger\":\"2.0\", \"paths\":{} }", "https://backend.example.com/api"), 
+				"{\"host\":\"backend.example.com\", \"swagger\":\"2.0\", \"paths\":{} }");
+		Assert.assertEquals(replaceHost("{}", "http://backend.example.com:8080"), "{\"host\":\"backend.example.com:8080\"}");
+	}
+
+	@Test
+	public void testMatchingHostNotChanged() throws AppException {
+		String swagger = "{\"info\":{\"host\":\"nested\"},   \"host\":\"backend.example.com\"}";
+		APIDefintion apiDefinition = new APIDefintion();
+		apiDefinition.setAPIDefinitionFile("petstore.json");
+		byte[] content = swagger.getBytes(StandardCharsets.UTF_8);
+		apiDefinition.setAPIDefinitionContent(content, getDesiredAPI("https://backend.example.com"));
+		Assert.assertSame(apiDefinition.getAPIDefinitionContent(), content);
+	}
+
+	private static String replaceHost(String swagger, String backendBasepath) throws AppException {
+		APIDefintion apiDefinition = new APIDefintion();
+		apiDefinition.setAPIDefinitionFile("petstore.json");
+		apiDefinition.setAPIDefinitionContent(swagger.getBytes(StandardCharsets.UTF_8), getDesiredAPI(backendBasepath));
+		return new String(apiDefinition.getAPIDefinitionContent(), StandardCharsets.UTF_8);
+	}
+
+	private static DesiredAPI getDesiredAPI(String backendBasepath) throws AppException {
+		DesiredAPI desiredAPI = new DesiredAPI();
+		desiredAPI.setBackendBasepath(backendBasepath);
+		return desiredAPI;
+	}
+}
@@ -0,0 +1,57 @@
+package com.axway.apim.test.basic;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.ValidatedEntry;
+
+public class ValidatedEntryTest {
+
+	@Test
+	public void testConditionalRequestWithValidators() {
+		BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+		response.setHeader("ETag", "\"abc\"");
+		response.setHeader("Last-Modified", "Wed, 21 Oct 2015 07:28:00 GMT");
+		response.setEntity(new StringEntity("[]", ContentType.APPLICATION_JSON));
+		ValidatedEntry entry = ValidatedEntry.fromResponse(response, "[]".getBytes(StandardCharsets.UTF_8));
+		Assert.assertTrue(entry.hasValidators());
+		Assert.assertEquals(entry.getContentType(), ContentType.APPLICATION_JSON.toString());
+
+		HttpGet request = new HttpGet("https://apim.local:8075/api/portal/v1.3/organizations");
+		entry.addConditionalHeaders(request);
+		Assert.assertEquals(request.getFirstHeader("If-None-Match").getValue(), "\"abc\"");
+		Assert.assertEquals(request.getFirstHeader("If-Modified-Since").getValue(), "Wed, 21 Oct 2015 07:28:00 GMT");
+
+		HttpResponse notModified = new BasicHttpResponse(HttpVersion.HTTP_1_1, 304, "Not Modified");
+		Assert.assertTrue(entry.isNotModified(notModified));
+		Assert.assertFalse(entry.isNotModified(response));
+	}
+
+	@Test
+	public void testContentWithoutValidatorsIdentifiedByHash() {
+		BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+		ValidatedEntry entry = ValidatedEntry.fromResponse(response, "[]".getBytes(StandardCharsets.UTF_8));
+		Assert.assertFalse(entry.hasValidators());
+		Assert.assertNull(entry.getContentType());
+
+		HttpGet request = new HttpGet("https://apim.local:8075/api/portal/v1.3/organizations");
+		entry.addConditionalHeaders(request);
+		Assert.assertNull(request.getFirstHeader("If-None-Match"));
+		Assert.assertNull(request.getFirstHeader("If-Modified-Since"));
+		// Without validators a 304 can't refer to this entry
+		Assert.assertFalse(entry.isNotModified(new BasicHttpResponse(HttpVersion.HTTP_1_1, 304, "Not Modified")));
+
+		ValidatedEntry same = new ValidatedEntry("[]".getBytes(StandardCharsets.UTF_8), null, null);
+		ValidatedEntry changed = new ValidatedEntry("[{}]".getBytes(StandardCharsets.UTF_8), null, null);
+		Assert.assertEquals(entry.getHash(), same.getHash());
+		Assert.assertNotEquals(entry.getHash(), changed.getHash());
+	}
+}
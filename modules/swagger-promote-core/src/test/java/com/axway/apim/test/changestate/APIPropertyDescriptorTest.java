@@ -0,0 +1,153 @@
+package com.axway.apim.test.changestate;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.APIPropertyAnnotation;
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.TestIndicator;
+import com.axway.apim.swagger.APIChangeState;
+import com.axway.apim.swagger.api.properties.inboundprofiles.InboundProfile;
+import com.axway.apim.swagger.api.state.APIPropertyDescriptor;
+import com.axway.apim.swagger.api.state.AbstractAPI;
+import com.axway.apim.swagger.api.state.ActualAPI;
+import com.axway.apim.swagger.api.state.IAPI;
+
+/**
+ * Verifies that the APIChangeState based on the APIPropertyDescriptors returns the same changes 
+ * as the former lookup of the annotated fields and getters using reflection.
+ */
+public class APIPropertyDescriptorTest {
+
+	@BeforeClass
+	public void prepareTest() {
+		TestIndicator.getInstance().setTestRunning(true);
+	}
+
+	@AfterClass
+	public void afterTest() {
+		TestIndicator.getInstance().setTestRunning(false);
+	}
+
+	@Test
+	public void testDescriptorsMatchAnnotatedFields() throws Exception {
+		List<String> annotatedFields = new ArrayList<String>();
+		for (Field field : AbstractAPI.class.getDeclaredFields()) {
+			if (!field.isAnnotationPresent(APIPropertyAnnotation.class)) continue;
+			annotatedFields.add(field.getName());
+			APIPropertyAnnotation annotation = field.getAnnotation(APIPropertyAnnotation.class);
+			APIPropertyDescriptor descriptor = APIPropertyDescriptor.getDescriptor(field.getName());
+			Assert.assertNotNull(descriptor, "No descriptor for: " + field.getName());
+			Assert.assertEquals(descriptor.isBreaking(), annotation.isBreaking());
+			for(String state : new String[] {IAPI.STATE_UNPUBLISHED, IAPI.STATE_PUBLISHED, IAPI.STATE_DEPRECATED}) {
+				Assert.assertEquals(descriptor.isWritable(state), Arrays.asList(annotation.writableStates()).contains(state));
+			}
+			Assert.assertEquals(descriptor.getPropHandler()==null, annotation.propHandler()==void.class);
+		}
+		List<String> descriptors = new ArrayList<String>();
+		for(APIPropertyDescriptor descriptor : APIPropertyDescriptor.getDescriptors()) {
+			descriptors.add(descriptor.getName());
+		}
+		Assert.assertEquals(descriptors, annotatedFields, "Properties must be compared in the order they are declared");
+	}
+
+	@Test
+	public void testSameChangesAsReflection() throws Exception {
+		for(String state : new String[] {IAPI.STATE_UNPUBLISHED, IAPI.STATE_PUBLISHED, IAPI.STATE_DEPRECATED}) {
+			ActualAPI actualAPI = getTestAPI(state);
+			actualAPI.setVersion("1.0.0");
+			actualAPI.setSummary("Summary");
+			actualAPI.setVhost("api.xyz.com");
+			actualAPI.setClientOrganizations(new ArrayList<String>(Arrays.asList("orgA", "orgB")));
+			actualAPI.setInboundProfiles(getInboundProfiles("_default"));
+
+			ActualAPI desiredAPI = getTestAPI(state);
+			desiredAPI.setVersion("2.0.0");
+			desiredAPI.setSummary("Summary");
+			desiredAPI.setVhost("other.xyz.com");
+			desiredAPI.setPath("/api/v1/changed");
+			desiredAPI.setClientOrganizations(new ArrayList<String>(Arrays.asList("orgB", "orgA")));
+			desiredAPI.setInboundProfiles(getInboundProfiles("Changed Security"));
+			assertSameChanges(actualAPI, desiredAPI);
+
+			// No changes at all
+			assertSameChanges(actualAPI, actualAPI);
+			// Changes to properties writable in all states only
+			ActualAPI nonBreakingAPI = getTestAPI(state);
+			nonBreakingAPI.setSummary("Changed summary");
+			nonBreakingAPI.setClientOrganizations(new ArrayList<String>(Arrays.asList("orgC")));
+			assertSameChanges(actualAPI, nonBreakingAPI);
+		}
+	}
+
+	private static void assertSameChanges(IAPI actualAPI, IAPI desiredAPI) throws Exception {
+		List<String> breakingChanges = new ArrayList<String>();
+		List<String> nonBreakingChanges = new ArrayList<String>();
+		boolean updateExistingAPI = true;
+		for (Field field : AbstractAPI.class.getDeclaredFields()) {
+			if (!field.isAnnotationPresent(APIPropertyAnnotation.class)) continue;
+			String getterMethodName = "get" + field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
+			Method method = desiredAPI.getClass().getMethod(getterMethodName);
+			Method method2 = actualAPI.getClass().getMethod(getterMethodName);
+			Object desiredValue = method.invoke(desiredAPI);
+			Object actualValue = method2.invoke(actualAPI);
+			if(desiredValue == null) continue;
+			if(actualValue==null || !compareValues(actualValue, desiredValue)) {
+				APIPropertyAnnotation property = field.getAnnotation(APIPropertyAnnotation.class);
+				if (property.isBreaking()) {
+					breakingChanges.add(field.getName());
+				} else {
+					nonBreakingChanges.add(field.getName());
+				}
+				if (!Arrays.asList(property.writableStates()).contains(actualAPI.getState())) {
+					updateExistingAPI = false;
+				}
+			}
+		}
+		APIChangeState changeState = new APIChangeState(actualAPI, desiredAPI);
+		Assert.assertEquals(changeState.getBreakingChanges(), breakingChanges);
+		Assert.assertEquals(changeState.getNonBreakingChanges(), nonBreakingChanges);
+		Assert.assertEquals(changeState.isBreaking(), breakingChanges.size()>0 && !actualAPI.getState().equals(IAPI.STATE_UNPUBLISHED));
+		Assert.assertEquals(changeState.isUpdateExistingAPI(), updateExistingAPI);
+	}
+
+	private static boolean compareValues(Object actualValue, Object desiredValue) {
+		if(actualValue instanceof List) {
+			return ((List<?>)actualValue).size() == ((List<?>)desiredValue).size() && 
+					((List<?>)actualValue).containsAll((List<?>)desiredValue) && 
+					((List<?>)desiredValue).containsAll((List<?>)actualValue);
+		} else {
+			return actualValue.equals(desiredValue);
+		}
+	}
+
+	private static Map<String, InboundProfile> getInboundProfiles(String securityProfile) {
+		Map<String, InboundProfile> inboundProfiles = new LinkedHashMap<String, InboundProfile>();
+		for(int i=0; i<20; i++) {
+			InboundProfile profile = new InboundProfile();
+			profile.setSecurityProfile(securityProfile);
+			profile.setCorsProfile("_default");
+			profile.setMonitorAPI("true");
+			inboundProfiles.put("operation-" + i, profile);
+		}
+		return inboundProfiles;
+	}
+
+	private static ActualAPI getTestAPI(String state) throws AppException {
+		ActualAPI testAPI = new ActualAPI();
+		testAPI.setValid(true);
+		testAPI.setState(state);
+		testAPI.setName("Test API");
+		return testAPI;
+	}
+}
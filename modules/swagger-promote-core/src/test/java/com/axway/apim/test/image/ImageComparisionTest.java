@@ -66,4 +66,20 @@ public class ImageComparisionTest {
 
 		Assert.assertEquals(rc, true, "Must be realized as to be the same image.");
 	}
+	
+	@Test
+	public void testCachedResultsAndSignatures() throws AppException, IOException {
+		ImageComparision.clearCache();
+		byte[] original = IOUtils.toByteArray(this.getClass().getResourceAsStream("/com/axway/apim/test/files/basic/API-Logo.jpg"));
+		byte[] processed = IOUtils.toByteArray(this.getClass().getResourceAsStream("/com/axway/apim/test/files/basic/API-Logo-Processed.jpg"));
+		byte[] changed = IOUtils.toByteArray(this.getClass().getResourceAsStream("/com/axway/apim/test/files/basic/API-Logo-Changed.jpg"));
+
+		Assert.assertEquals(ImageComparision.compare(original, processed), true, "Processed image must match.");
+		Assert.assertEquals(ImageComparision.compare(original, changed), false, "Changed image must not match.");
+		// Results are taken from the cache, in both directions
+		Assert.assertEquals(ImageComparision.compare(processed, original), true, "Processed image must match.");
+		Assert.assertEquals(ImageComparision.compare(changed, original), false, "Changed image must not match.");
+		// Signatures of both images are known
+		Assert.assertEquals(ImageComparision.compare(processed, changed), false, "Changed image must not match.");
+	}
 }
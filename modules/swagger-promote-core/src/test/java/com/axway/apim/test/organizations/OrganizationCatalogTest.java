@@ -0,0 +1,63 @@
+package com.axway.apim.test.organizations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.axway.apim.swagger.api.properties.organization.Organization;
+import com.axway.apim.swagger.api.properties.organization.OrganizationCatalog;
+
+public class OrganizationCatalogTest {
+
+	@Test
+	public void testLookupByNameAndId() {
+		OrganizationCatalog catalog = new OrganizationCatalog(getTestOrgs());
+		Assert.assertEquals(catalog.getOrgByName("API Development", false).getId(), "1");
+		Assert.assertEquals(catalog.getOrgByName("Partners", false).getId(), "2");
+		Assert.assertEquals(catalog.getOrgById("2").getName(), "Partners");
+		Assert.assertNull(catalog.getOrgByName("Unknown", false));
+		Assert.assertNull(catalog.getOrgById("99"));
+		Assert.assertEquals(catalog.getOrgs().size(), 4);
+	}
+
+	@Test
+	public void testDevelopmentOrgsOnly() {
+		OrganizationCatalog catalog = new OrganizationCatalog(getTestOrgs());
+		Assert.assertEquals(catalog.getOrgByName("API Development", true).getId(), "1");
+		Assert.assertNull(catalog.getOrgByName("Partners", true), "Partners has no development flag");
+		// Name exists twice, but only the second one is a development org
+		Assert.assertEquals(catalog.getOrgByName("Duplicate", false).getId(), "3");
+		Assert.assertEquals(catalog.getOrgByName("Duplicate", true).getId(), "4");
+	}
+
+	@Test
+	public void testBulkResolve() {
+		OrganizationCatalog catalog = new OrganizationCatalog(getTestOrgs());
+		Map<String, String> orgIds = catalog.getOrgIds(Arrays.asList("Partners", "Unknown", "API Development"), false);
+		Assert.assertEquals(new ArrayList<String>(orgIds.keySet()), Arrays.asList("Partners", "Unknown", "API Development"));
+		Assert.assertEquals(orgIds.get("Partners"), "2");
+		Assert.assertNull(orgIds.get("Unknown"));
+		Assert.assertEquals(orgIds.get("API Development"), "1");
+	}
+
+	private static List<Organization> getTestOrgs() {
+		List<Organization> orgs = new ArrayList<Organization>();
+		orgs.add(getOrg("1", "API Development", "true"));
+		orgs.add(getOrg("2", "Partners", "false"));
+		orgs.add(getOrg("3", "Duplicate", "false"));
+		orgs.add(getOrg("4", "Duplicate", "true"));
+		return orgs;
+	}
+
+	private static Organization getOrg(String id, String name, String development) {
+		Organization org = new Organization();
+		org.setId(id);
+		org.setName(name);
+		org.setDevelopment(development);
+		return org;
+	}
+}
@@ -0,0 +1,146 @@
+package com.axway.apim.test.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.BulkResult;
+import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.ErrorState;
+import com.axway.apim.lib.ParallelExecutor;
+import com.axway.apim.lib.PromotionContext;
+
+public class ParallelExecutorTest {
+
+	@Test
+	public void testResultsInOrder() throws AppException {
+		for(int parallelism : new int[] {1, 4}) {
+			ParallelExecutor executor = new ParallelExecutor(parallelism, "test");
+			try {
+				List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+				for(int i=0; i<10; i++) {
+					final int number = i;
+					tasks.add(new Callable<Integer>() {
+						@Override
+						public Integer call() throws Exception {
+							Thread.sleep(10 - number);
+							return number;
+						}
+					});
+				}
+				List<Integer> results = executor.invokeAll(tasks);
+				Assert.assertEquals(results.size(), 10);
+				for(int i=0; i<10; i++) {
+					Assert.assertEquals(results.get(i).intValue(), i, "Results must be returned in order of the tasks");
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void testAppExceptionIsPassedThrough() {
+		ParallelExecutor executor = new ParallelExecutor(2, "test");
+		try {
+			ParallelExecutor.get(executor.submit(new Callable<String>() {
+				@Override
+				public String call() throws AppException {
+					throw new AppException("Failed", ErrorCode.API_MANAGER_COMMUNICATION);
+				}
+			}));
+			Assert.fail("Expected an AppException");
+		} catch (AppException e) {
+			Assert.assertEquals(e.getErrorCode(), ErrorCode.API_MANAGER_COMMUNICATION);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testExecuteEachContinuesOnFailures() {
+		for(int parallelism : new int[] {2, 4}) {
+			ParallelExecutor executor = new ParallelExecutor(parallelism, "test");
+			try {
+				List<String> items = new ArrayList<String>();
+				for(int i=0; i<6; i++) items.add("item-"+i);
+				BulkResult<String> result = executor.executeEach(items, new ParallelExecutor.ItemTask<String>() {
+					@Override
+					public void execute(String item) throws AppException {
+						if(item.equals("item-1") || item.equals("item-4")) {
+							throw new AppException("Failed: " + item, ErrorCode.ACCESS_ORGANIZATION_ERR);
+						}
+					}
+				});
+				Assert.assertTrue(result.hasFailures());
+				Assert.assertEquals(result.getSucceeded().toString(), "[item-0, item-2, item-3, item-5]");
+				Assert.assertEquals(result.getFailed().keySet().toString(), "[item-1, item-4]");
+				try {
+					result.throwOnFailure("Test action", ErrorCode.ACCESS_ORGANIZATION_ERR);
+					Assert.fail("Expected an AppException");
+				} catch (AppException e) {
+					Assert.assertEquals(e.getErrorCode(), ErrorCode.ACCESS_ORGANIZATION_ERR);
+					Assert.assertTrue(e.getMessage().contains("2 of 6"), e.getMessage());
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+
+	@Test
+	public void testExecuteEachStopsAtFirstFailureWithoutParallelism() {
+		ParallelExecutor executor = new ParallelExecutor(1, "test");
+		final List<String> executed = new ArrayList<String>();
+		List<String> items = new ArrayList<String>();
+		for(int i=0; i<6; i++) items.add("item-"+i);
+		BulkResult<String> result = executor.executeEach(items, new ParallelExecutor.ItemTask<String>() {
+			@Override
+			public void execute(String item) throws AppException {
+				executed.add(item);
+				if(item.equals("item-1") || item.equals("item-4")) {
+					throw new AppException("Failed: " + item, ErrorCode.ACCESS_ORGANIZATION_ERR);
+				}
+			}
+		});
+		Assert.assertEquals(executed.toString(), "[item-0, item-1]", "No items must be executed after the first failure");
+		Assert.assertEquals(result.getSucceeded().toString(), "[item-0]");
+		Assert.assertEquals(result.getFailed().keySet().toString(), "[item-1]");
+		Assert.assertEquals(result.getNotExecuted().toString(), "[item-2, item-3, item-4, item-5]");
+		try {
+			result.throwOnFailure("Test action", ErrorCode.ACCESS_ORGANIZATION_ERR);
+			Assert.fail("Expected an AppException");
+		} catch (AppException e) {
+			Assert.assertTrue(e.getMessage().contains("1 of 6"), e.getMessage());
+		}
+	}
+
+	@Test
+	public void testTasksRunWithinPromotionContextOfCaller() throws AppException {
+		// The same worker thread executes tasks of two different promotions
+		ParallelExecutor executor = new ParallelExecutor(2, "test");
+		PromotionContext previous = PromotionContext.getCurrent();
+		try {
+			for(int i=0; i<2; i++) {
+				final PromotionContext promotion = new PromotionContext();
+				PromotionContext.setCurrent(promotion);
+				ErrorState errorState = ParallelExecutor.get(executor.submit(new Callable<ErrorState>() {
+					@Override
+					public ErrorState call() {
+						ErrorState.getInstance().setError("Failed", ErrorCode.API_MANAGER_COMMUNICATION, false);
+						return ErrorState.getInstance();
+					}
+				}));
+				Assert.assertSame(errorState, promotion.getErrorState(), "Task must use the ErrorState of the submitting promotion");
+			}
+			Assert.assertFalse(previous.getErrorState().hasError(), "Other promotions must not be affected");
+		} finally {
+			PromotionContext.setCurrent(previous);
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.axway.apim.test.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.axway.apim.actions.rest.Transaction;
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.CommandParameters;
+import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.ErrorState;
+import com.axway.apim.lib.ParallelExecutor;
+import com.axway.apim.lib.PromotionContext;
+import com.axway.apim.lib.TestIndicator;
+
+public class PromotionContextTest {
+
+	@BeforeClass
+	public void setupParams() {
+		TestIndicator.getInstance().setTestRunning(false);
+	}
+
+	@AfterClass
+	public void clearContext() {
+		PromotionContext.clearCurrent();
+	}
+
+	@Test
+	public void testConcurrentPromotionsAreIsolated() throws Exception {
+		final PromotionContext[] contexts = new PromotionContext[] { 
+				new PromotionContext(createParams("apim-0")), new PromotionContext(createParams("apim-1")) };
+		// Parameters created last are the ones the tool has been started with
+		final CommandParameters startParams = createParams("apim-start");
+		final CyclicBarrier barrier = new CyclicBarrier(contexts.length);
+		ParallelExecutor executor = new ParallelExecutor(contexts.length, "test-promotion");
+		try {
+			List<Future<String>> results = new ArrayList<Future<String>>();
+			for(int i=0; i<contexts.length; i++) {
+				final int number = i;
+				results.add(executor.submit(contexts[i].bind(new Callable<String>() {
+					@Override
+					public String call() throws Exception {
+						barrier.await();
+						for(int run=0; run<200; run++) {
+							Transaction.getInstance().put("backendAPIId", "backend-" + number);
+							if(!CommandParameters.getInstance().getHostname().equals("apim-" + number)) return "Wrong parameters: " + CommandParameters.getInstance().getHostname();
+							Thread.yield();
+							if(!Transaction.getInstance().get("backendAPIId").equals("backend-" + number)) return "Wrong transaction: " + Transaction.getInstance().get("backendAPIId");
+						}
+						if(number==1) ErrorState.getInstance().setError("Promotion failed", ErrorCode.API_MANAGER_COMMUNICATION, false);
+						// Tasks of the promotion are running with the same parameters
+						return executeTask(new Callable<String>() {
+							@Override
+							public String call() throws Exception {
+								return CommandParameters.getInstance().getHostname();
+							}
+						});
+					}
+				})));
+			}
+			for(int i=0; i<contexts.length; i++) {
+				Assert.assertEquals(ParallelExecutor.get(results.get(i)), "apim-" + i);
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assert.assertFalse(contexts[0].getErrorState().hasError());
+		Assert.assertTrue(contexts[1].getErrorState().hasError());
+		// Without parameters of its own, a promotion uses the parameters the tool has been started with
+		PromotionContext.setCurrent(new PromotionContext());
+		Assert.assertSame(CommandParameters.getInstance(), startParams);
+	}
+
+	private static String executeTask(Callable<String> task) throws AppException {
+		ParallelExecutor executor = new ParallelExecutor(2, "test-task");
+		try {
+			return ParallelExecutor.get(executor.submit(task));
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static CommandParameters createParams(String host) throws Exception {
+		Options options = new Options();
+		for(String name : new String[] {"host", "username", "password"}) {
+			options.addOption(new Option(name, true, name));
+		}
+		return new CommandParameters(new DefaultParser().parse(options, new String[] {"-host", host, "-username", "test", "-password", "test"}));
+	}
+}
@@ -0,0 +1,143 @@
+package com.axway.apim.test.parallel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.axway.apim.actions.TaskScheduler;
+import com.axway.apim.actions.tasks.UpdateQuotaConfiguration;
+import com.axway.apim.lib.AppException;
+import com.axway.apim.lib.ErrorCode;
+import com.axway.apim.lib.TestIndicator;
+import com.axway.apim.swagger.api.state.ActualAPI;
+import com.axway.apim.swagger.api.state.DesiredAPI;
+import com.axway.apim.swagger.api.state.IAPI;
+
+public class TaskSchedulerTest {
+
+	@BeforeClass
+	public void prepareTest() {
+		TestIndicator.getInstance().setTestRunning(true);
+	}
+
+	@AfterClass
+	public void afterTest() {
+		TestIndicator.getInstance().setTestRunning(false);
+	}
+
+	@Test
+	public void testSerialModeKeepsOrder() throws AppException {
+		List<String> executed = new ArrayList<String>();
+		TaskScheduler scheduler = new TaskScheduler("test", 1);
+		scheduler.addTask("a", new RecordingTask("a", executed, 0));
+		scheduler.addTask("b", new RecordingTask("b", executed, 0), "a");
+		scheduler.addTask("c", new RecordingTask("c", executed, 0), "a");
+		scheduler.addTask("d", new RecordingTask("d", executed, 0), "b");
+		scheduler.execute();
+		Assert.assertEquals(executed.toString(), "[a, b, c, d]");
+	}
+
+	@Test
+	public void testPrerequisitesAreCompletedFirst() throws AppException {
+		List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+		TaskScheduler scheduler = new TaskScheduler("test", 4);
+		scheduler.addTask("a", new RecordingTask("a", executed, 20));
+		scheduler.addTask("b", new RecordingTask("b", executed, 30), "a");
+		scheduler.addTask("c", new RecordingTask("c", executed, 0), "a");
+		scheduler.addTask("d", new RecordingTask("d", executed, 0), "b", "c");
+		scheduler.execute();
+		Assert.assertEquals(executed.size(), 4);
+		Assert.assertEquals(executed.get(0), "a");
+		Assert.assertEquals(executed.get(3), "d");
+	}
+
+	@Test
+	public void testFailedTaskStopsDependentTasks() {
+		List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+		TaskScheduler scheduler = new TaskScheduler("test", 2);
+		scheduler.addTask("a", new RecordingTask("a", executed, 0));
+		scheduler.addTask("b", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				throw new AppException("Failed", ErrorCode.CANT_UPDATE_QUOTA_CONFIG);
+			}
+		}, "a");
+		scheduler.addTask("c", new RecordingTask("c", executed, 0), "b");
+		try {
+			scheduler.execute();
+			Assert.fail("Expected an AppException");
+		} catch (AppException e) {
+			Assert.assertEquals(e.getErrorCode(), ErrorCode.CANT_UPDATE_QUOTA_CONFIG);
+		}
+		Assert.assertEquals(executed.toString(), "[a]");
+	}
+
+	@Test
+	public void testQuotaUpdateKeepsStatusChange() throws AppException {
+		final IAPI desiredAPI = new DesiredAPI();
+		desiredAPI.setState(IAPI.STATE_PUBLISHED);
+		final IAPI actualAPI = new ActualAPI();
+		actualAPI.setState(IAPI.STATE_UNPUBLISHED);
+		final CountDownLatch quotaUpdated = new CountDownLatch(1);
+		final List<String> statusChanges = Collections.synchronizedList(new ArrayList<String>());
+		TaskScheduler scheduler = new TaskScheduler("test", 2);
+		scheduler.addTask("proxy", new RecordingTask("proxy", new ArrayList<String>(), 0));
+		scheduler.addTask("status", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				try {
+					quotaUpdated.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				// Same check as UpdateAPIStatus
+				if(!desiredAPI.getState().equals(actualAPI.getState())) statusChanges.add(actualAPI.getState() + " -> " + desiredAPI.getState());
+			}
+		}, "proxy");
+		scheduler.addTask("quota", new TaskScheduler.Task() {
+			@Override
+			public void execute() throws AppException {
+				BasicHttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+				response.setEntity(new StringEntity("{\"id\":\"00000000-0000-0000-0000-000000000000\"}", ContentType.APPLICATION_JSON));
+				new UpdateQuotaConfiguration(desiredAPI, actualAPI).parseResponse(response);
+				quotaUpdated.countDown();
+			}
+		}, "proxy");
+		scheduler.execute();
+		Assert.assertEquals(statusChanges.toString(), "[unpublished -> published]", "Status change must be applied after the quota update");
+	}
+
+	private static class RecordingTask implements TaskScheduler.Task {
+		String name;
+		List<String> executed;
+		long sleep;
+
+		RecordingTask(String name, List<String> executed, long sleep) {
+			this.name = name;
+			this.executed = executed;
+			this.sleep = sleep;
+		}
+
+		@Override
+		public void execute() throws AppException {
+			try {
+				Thread.sleep(sleep);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			executed.add(name);
+		}
+	}
+}